@@ -0,0 +1,405 @@
+package contractdeployment.web3j;
+
+import contractdeployment.web3j.ERC20MulticallReader.Call;
+import contractdeployment.web3j.ERC20MulticallReader.CallResult;
+import contractdeployment.web3j.ERC20MulticallReader.Method;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthGetBalance;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.utils.Convert;
+import org.web3j.utils.Convert.Unit;
+
+/**
+ * 블록 번호 기준 ERC20 잔액 / 허용량 / 네이티브 잔액 캐시
+ *
+ * ERC20ContractFunctionCall의 balanceOf().send()는 값이 바뀌지 않았어도 매번 노드에 조회한다.
+ *
+ * 캐시 방식:
+ * - 키: (토큰, 보유자) / (토큰, owner, spender) / (네이티브, 보유자)
+ * - 값은 "마지막으로 처리한 블록" 시점으로 고정하여 조회 (eth_call의 block 파라미터 = 해당 블록 번호)
+ *   → 캐시의 모든 값이 같은 블록 기준이므로 일관됨
+ *
+ * 무효화 (onNewBlock):
+ * - 새 블록 구간의 Transfer / Approval 로그를 eth_getLogs 1회로 조회 (캐시 중인 토큰 주소만 필터)
+ * - Transfer(from, to)  → (토큰, from), (토큰, to) 잔액 제거 (from/to가 0 주소면 총 발행량도)
+ * - Approval(owner, spender) → (토큰, owner, spender) 허용량 제거
+ * - 로그가 닿지 않은 항목은 그대로 새 블록 기준 값으로 간주 (RPC 없이 재사용)
+ * - 네이티브 잔액은 컨트랙트 내부 전송까지 로그로 알 수 없으므로 읽은 블록 안에서만 유효
+ * - 한 번에 처리할 구간이 maxCatchUpBlocks보다 길면 전체 비움
+ *
+ * 주의: 로그 없이 잔액이 바뀌는 토큰(리베이스 토큰 등)은 이 방식으로 캐시하면 안 됨
+ *
+ * 크기: maxEntries를 넘으면 가장 오래 사용하지 않은 항목부터 제거 (LRU)
+ * - 로그 필터의 토큰 목록도 캐시 항목이 하나라도 남은 토큰으로 유지 (항목이 모두 제거된 토큰은 새 블록 처리 시 제외)
+ */
+public class ERC20BalanceCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+    public static final long DEFAULT_MAX_CATCH_UP_BLOCKS = 1_000;
+
+    // Transfer(address indexed from, address indexed to, uint256 value)
+    private static final String TRANSFER_TOPIC =
+        "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef";
+    // Approval(address indexed owner, address indexed spender, uint256 value)
+    private static final String APPROVAL_TOPIC =
+        "0x8c5be1e5ebec7d5bd14f71427d1e84f3dd0314c0f7b2291e5b200ac8c7c3b925";
+    private static final String NATIVE = "native";
+    private static final String ZERO_ADDRESS = "0x0000000000000000000000000000000000000000";
+
+    private static final class Entry {
+        final BigInteger value;
+        final BigInteger blockNumber;
+
+        Entry(BigInteger value, BigInteger blockNumber) {
+            this.value = value;
+            this.blockNumber = blockNumber;
+        }
+    }
+
+    private final Web3j web3;
+    private final ERC20MulticallReader reader;
+    private final int maxEntries;
+    private long maxCatchUpBlocks = DEFAULT_MAX_CATCH_UP_BLOCKS;
+
+    private final LinkedHashMap<String, Entry> entries;
+    // 로그 조회 시 address 필터로 쓸 캐시 중인 토큰 (this로 보호, 조회 전에 등록)
+    private final Set<String> tokens = new HashSet<>();
+    // 토큰(키의 첫 부분) → 캐시 항목 수 (this로 보호)
+    private final Map<String, Integer> entriesPerToken = new HashMap<>();
+    private BigInteger currentBlock;
+    // onNewBlock 동시 호출 직렬화 (조회는 막지 않음)
+    private final Object blockLock = new Object();
+
+    // 통계
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ERC20BalanceCache(Web3j web3, BigInteger startBlock) {
+        this(web3, startBlock, DEFAULT_MAX_ENTRIES);
+    }
+
+    public ERC20BalanceCache(Web3j web3, BigInteger startBlock, int maxEntries) {
+        this.web3 = web3;
+        this.reader = new ERC20MulticallReader(web3);
+        this.currentBlock = startBlock;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ERC20BalanceCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    removed(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public ERC20BalanceCache maxCatchUpBlocks(long maxCatchUpBlocks) {
+        this.maxCatchUpBlocks = maxCatchUpBlocks;
+        return this;
+    }
+
+    public synchronized BigInteger getCurrentBlock() {
+        return currentBlock;
+    }
+
+    /**
+     * 토큰 잔액 (캐시에 없으면 현재 블록 기준으로 조회)
+     */
+    public BigInteger getBalance(String token, String holder) throws IOException {
+        return getBalances(token, List.of(holder)).get(0);
+    }
+
+    /**
+     * 여러 보유자의 토큰 잔액 (캐시에 없는 것만 Multicall3로 한 번에 조회, 결과는 holders 순서)
+     * 조회에 실패한 보유자는 null
+     */
+    public List<BigInteger> getBalances(String token, List<String> holders) throws IOException {
+        List<Call> calls = new ArrayList<>(holders.size());
+        for (String holder : holders) {
+            calls.add(Call.balanceOf(token, holder));
+        }
+        return get(calls);
+    }
+
+    public BigInteger getAllowance(String token, String owner, String spender) throws IOException {
+        return get(List.of(Call.allowance(token, owner, spender))).get(0);
+    }
+
+    /**
+     * 네이티브 코인 잔액 (같은 블록 안에서만 캐시)
+     */
+    public BigInteger getNativeBalance(String holder) throws IOException {
+        String key = key(NATIVE, holder);
+        BigInteger block;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.blockNumber.equals(currentBlock)) {
+                hits.incrementAndGet();
+                return entry.value;
+            }
+            block = currentBlock;
+        }
+        misses.incrementAndGet();
+        EthGetBalance response = web3.ethGetBalance(holder, DefaultBlockParameter.valueOf(block)).send();
+        if (response.hasError()) {
+            throw new IOException("eth_getBalance 실패: " + response.getError().getMessage());
+        }
+        put(key, response.getBalance(), block);
+        return response.getBalance();
+    }
+
+    private List<BigInteger> get(List<Call> calls) throws IOException {
+        List<BigInteger> values = new ArrayList<>(calls.size());
+        List<Call> missing = new ArrayList<>();
+        List<Integer> missingIndexes = new ArrayList<>();
+        BigInteger block;
+        synchronized (this) {
+            block = currentBlock;
+            for (int i = 0; i < calls.size(); i++) {
+                Entry entry = entries.get(key(calls.get(i)));
+                values.add(entry != null ? entry.value : null);
+                if (entry == null) {
+                    missing.add(calls.get(i));
+                    missingIndexes.add(i);
+                    // 조회 전에 등록 → 이후 처리하는 블록 구간의 로그 필터에 포함됨
+                    tokens.add(calls.get(i).getToken().toLowerCase());
+                }
+            }
+        }
+        hits.addAndGet(calls.size() - missing.size());
+        misses.addAndGet(missing.size());
+        if (missing.isEmpty()) {
+            return values;
+        }
+
+        List<CallResult> results = reader.readMulticall(missing, DefaultBlockParameter.valueOf(block));
+        for (int i = 0; i < results.size(); i++) {
+            CallResult result = results.get(i);
+            if (result.isSuccess()) {
+                values.set(missingIndexes.get(i), result.getValue());
+                put(key(result.getCall()), result.getValue(), block);
+            }
+        }
+        return values;
+    }
+
+    private synchronized void put(String key, BigInteger value, BigInteger block) {
+        // 조회 도중 새 블록이 처리되었다면 그 사이 로그를 반영하지 못한 값이므로 저장하지 않음
+        if (!block.equals(currentBlock)) {
+            return;
+        }
+        String token = tokenOf(key);
+        if (!token.equals(NATIVE)) {
+            // 조회 중에 필터에서 제외되었을 수 있음 (eth_getLogs 실패로 블록이 그대로인 경우)
+            tokens.add(token);
+        }
+        if (entries.put(key, new Entry(value, block)) == null) {
+            entriesPerToken.merge(token, 1, Integer::sum);
+        }
+    }
+
+    private void removed(String key) {
+        entriesPerToken.computeIfPresent(tokenOf(key), (token, count) -> count == 1 ? null : count - 1);
+    }
+
+    private static String tokenOf(String key) {
+        return key.substring(0, key.indexOf(':'));
+    }
+
+    /**
+     * 새 블록 반영: (현재 블록, blockNumber] 구간의 Transfer / Approval 로그로 해당 항목만 무효화
+     */
+    public void onNewBlock(BigInteger blockNumber) throws IOException {
+        synchronized (blockLock) {
+            processBlocks(blockNumber);
+        }
+    }
+
+    private void processBlocks(BigInteger blockNumber) throws IOException {
+        BigInteger from;
+        List<String> filterTokens;
+        synchronized (this) {
+            if (blockNumber.compareTo(currentBlock) <= 0) {
+                return;
+            }
+            from = currentBlock.add(BigInteger.ONE);
+            // 항목이 모두 제거된 토큰은 필터에서 제외
+            // (등록만 하고 조회 중인 토큰의 결과는 블록이 바뀌므로 어차피 저장되지 않음)
+            tokens.retainAll(entriesPerToken.keySet());
+            if (blockNumber.subtract(currentBlock).longValue() > maxCatchUpBlocks || tokens.isEmpty()) {
+                invalidations.addAndGet(entries.size());
+                entries.clear();
+                entriesPerToken.clear();
+                currentBlock = blockNumber;
+                return;
+            }
+            // currentBlock과 같은 시점의 토큰 목록 (이후 등록된 토큰은 이 구간의 로그를 받지 못함)
+            filterTokens = new ArrayList<>(tokens);
+        }
+
+        EthFilter filter = new EthFilter(
+            DefaultBlockParameter.valueOf(from), DefaultBlockParameter.valueOf(blockNumber), filterTokens);
+        filter.addOptionalTopics(TRANSFER_TOPIC, APPROVAL_TOPIC);
+        EthLog response = web3.ethGetLogs(filter).send();
+        if (response.hasError()) {
+            throw new IOException("eth_getLogs 실패: " + response.getError().getMessage());
+        }
+
+        synchronized (this) {
+            for (EthLog.LogResult<?> result : response.getLogs()) {
+                invalidate((Log) result.get());
+            }
+            // 로그 조회 중에 새로 등록된 토큰은 이 구간의 로그를 확인하지 못했으므로 이전 블록 기준 값을 버림
+            if (tokens.size() > filterTokens.size()) {
+                Set<String> unfiltered = new HashSet<>(tokens);
+                unfiltered.removeAll(filterTokens);
+                unfiltered.forEach(this::removeToken);
+            }
+            currentBlock = blockNumber;
+        }
+    }
+
+    /**
+     * 노드의 최신 블록 번호를 확인하여 onNewBlock 호출
+     */
+    public void poll() throws IOException {
+        onNewBlock(web3.ethBlockNumber().send().getBlockNumber());
+    }
+
+    private void invalidate(Log log) {
+        String token = log.getAddress();
+        List<String> topics = log.getTopics();
+        if (topics.size() != 3) {
+            // indexed 인자가 없는 비표준 이벤트 → 토큰 전체 무효화
+            removeToken(token);
+            return;
+        }
+        String first = topicAddress(topics.get(1));
+        String second = topicAddress(topics.get(2));
+        if (TRANSFER_TOPIC.equalsIgnoreCase(topics.get(0))) {
+            remove(key(token, first));
+            remove(key(token, second));
+            if (ZERO_ADDRESS.equals(first) || ZERO_ADDRESS.equals(second)) {
+                // 발행(mint) / 소각(burn) → 총 발행량 변경
+                remove(key(token, Method.TOTAL_SUPPLY.name()));
+            }
+        } else {
+            remove(key(token, first, second));
+        }
+    }
+
+    private void removeToken(String token) {
+        String prefix = token.toLowerCase() + ':';
+        Iterator<String> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().startsWith(prefix)) {
+                keys.remove();
+                invalidations.incrementAndGet();
+            }
+        }
+        entriesPerToken.remove(token.toLowerCase());
+    }
+
+    private void remove(String key) {
+        if (entries.remove(key) != null) {
+            invalidations.incrementAndGet();
+            removed(key);
+        }
+    }
+
+    private static String topicAddress(String topic) {
+        return "0x" + topic.substring(topic.length() - 40).toLowerCase();
+    }
+
+    private static String key(Call call) {
+        switch (call.getMethod()) {
+            case BALANCE_OF:
+                return key(call.getToken(), call.getArgument(0));
+            case ALLOWANCE:
+                return key(call.getToken(), call.getArgument(0), call.getArgument(1));
+            default:
+                return key(call.getToken(), call.getMethod().name());
+        }
+    }
+
+    private static String key(String... parts) {
+        return String.join(":", parts).toLowerCase();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : hits.get() / (double) total;
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * SEO 토큰 (Sepolia) 잔액을 블록마다 반복 조회하는 예시
+     * 두 번째 조회부터는 Transfer 로그가 없는 한 노드 호출 없이 캐시에서 반환
+     */
+    public static void main(String[] args) throws Exception {
+        String infuraKey = System.getenv("INFURA_PROJECT_ID");
+        String sepoliaUrl = "https://sepolia.infura.io/v3/" + infuraKey;
+        Web3j web3 = Web3j.build(new HttpService(sepoliaUrl));
+
+        String contractAddress = "0x1797da0ffff01bf87fef6becfa9e943e31540e03"; // SEO 토큰
+        List<String> holders = List.of(
+            "0x658b8a1ae242d0460d4777e17C9Af438dAAB4f77",
+            "0x192897df0B17c99fA24eCF998c22e2E83C3cD3D8");
+
+        ERC20BalanceCache cache = new ERC20BalanceCache(web3, web3.ethBlockNumber().send().getBlockNumber());
+        for (int i = 0; i < 5; i++) {
+            cache.poll();
+            List<BigInteger> balances = cache.getBalances(contractAddress, holders);
+            for (int h = 0; h < holders.size(); h++) {
+                System.out.println("블록 " + cache.getCurrentBlock() + " " + holders.get(h) + " : "
+                    + Convert.fromWei(String.valueOf(balances.get(h)), Unit.ETHER) + " SEO");
+            }
+            Thread.sleep(12_000);
+        }
+
+        System.out.println("\n=== 잔액 캐시 통계 ===");
+        System.out.printf("적중 %d / 미적중 %d (%.1f%%), 무효화 %d%n", cache.getHitCount(), cache.getMissCount(),
+            cache.getHitRatio() * 100, cache.getInvalidationCount());
+
+        web3.shutdown();
+    }
+}
@@ -0,0 +1,480 @@
+package contractdeployment.web3j;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthCall;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.utils.Convert;
+import org.web3j.utils.Convert.Unit;
+import org.web3j.utils.Numeric;
+
+/**
+ * ERC20 조회 함수 일괄 호출기 (Multicall3 aggregate3 / JSON-RPC 배치)
+ *
+ * ERC20ContractFunctionCall의 aContract.balanceOf(aAddress).send()는 주소 1개당 eth_call 1회
+ * → (토큰, 보유자) 수천 쌍을 블록마다 조회하면 수천 번의 HTTP 왕복
+ *
+ * 방법 1. Multicall3 aggregate3 (readMulticall)
+ * - 여러 조회 호출을 Multicall3 컨트랙트의 aggregate3((address,bool,bytes)[]) 호출 1회로 묶음
+ * - allowFailure = true → 일부 호출이 실패(revert, 컨트랙트 아님)해도 나머지 결과는 정상 반환
+ * - 노드 입장에서도 eth_call 1회 → rate limit에 유리
+ * - Multicall3 주소는 대부분의 체인에서 동일 (0xcA11bde05977b3631167028862bE2a173976CA11)
+ * - 그 주소(또는 조회 블록)에 Multicall3가 없으면 eth_call이 빈 값(0x)을 돌려주므로 그 묶음은 readBatch로 다시 조회
+ *
+ * 방법 2. JSON-RPC 배치 (readBatch)
+ * - eth_call 여러 개를 HTTP 요청 1회로 전송 (Multicall3가 배포되지 않은 체인에서도 사용 가능)
+ * - 응답은 호출마다 따로 오므로 실패도 호출 단위
+ *
+ * ABI 인코딩/디코딩:
+ * - 조회 함수는 인자와 반환값이 모두 32바이트 고정 길이이므로 바이트 배열에 직접 기록/해석
+ *   (web3j TypeEncoder/TypeDecoder의 객체 생성 없이 대량 처리)
+ */
+public class ERC20MulticallReader {
+
+    public static final String MULTICALL3_ADDRESS = "0xcA11bde05977b3631167028862bE2a173976CA11";
+    public static final int DEFAULT_CALLS_PER_MULTICALL = 500;
+    public static final int DEFAULT_CALLS_PER_BATCH = 100;
+
+    // aggregate3((address target, bool allowFailure, bytes callData)[])
+    private static final byte[] AGGREGATE3_SELECTOR = {(byte) 0x82, (byte) 0xad, (byte) 0x56, (byte) 0xcb};
+
+    /**
+     * 조회 함수 종류와 selector
+     */
+    public enum Method {
+        BALANCE_OF(0x70a08231, 1),   // balanceOf(address)
+        ALLOWANCE(0xdd62ed3e, 2),    // allowance(address,address)
+        DECIMALS(0x313ce567, 0),     // decimals()
+        TOTAL_SUPPLY(0x18160ddd, 0); // totalSupply()
+
+        private final int selector;
+        private final int argumentCount;
+
+        Method(int selector, int argumentCount) {
+            this.selector = selector;
+            this.argumentCount = argumentCount;
+        }
+    }
+
+    /**
+     * 조회 호출 1건
+     */
+    public static final class Call {
+        private final String token;
+        private final Method method;
+        private final String[] arguments;
+
+        private Call(String token, Method method, String... arguments) {
+            checkAddress(token);
+            for (String argument : arguments) {
+                checkAddress(argument);
+            }
+            this.token = token;
+            this.method = method;
+            this.arguments = arguments;
+        }
+
+        public static Call balanceOf(String token, String holder) {
+            return new Call(token, Method.BALANCE_OF, holder);
+        }
+
+        public static Call allowance(String token, String owner, String spender) {
+            return new Call(token, Method.ALLOWANCE, owner, spender);
+        }
+
+        public static Call decimals(String token) {
+            return new Call(token, Method.DECIMALS);
+        }
+
+        public static Call totalSupply(String token) {
+            return new Call(token, Method.TOTAL_SUPPLY);
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        public String getArgument(int index) {
+            return arguments[index];
+        }
+
+        /** 호출 데이터 길이 (selector 4바이트 + 인자 32바이트씩) */
+        int callDataLength() {
+            return 4 + 32 * method.argumentCount;
+        }
+
+        /** dest[offset..]에 호출 데이터 기록 */
+        void writeCallData(byte[] dest, int offset) {
+            writeSelector(dest, offset, method.selector);
+            for (int i = 0; i < method.argumentCount; i++) {
+                writeAddress(dest, offset + 4 + 32 * i, arguments[i]);
+            }
+        }
+
+        String callDataHex() {
+            byte[] data = new byte[callDataLength()];
+            writeCallData(data, 0);
+            return Numeric.toHexString(data);
+        }
+
+        @Override
+        public String toString() {
+            return method + "(" + String.join(",", arguments) + ")@" + token;
+        }
+    }
+
+    /**
+     * 호출 1건의 결과 (실패해도 다른 호출 결과에는 영향 없음)
+     */
+    public static final class CallResult {
+        private final Call call;
+        private final BigInteger value;
+        private final String error;
+
+        CallResult(Call call, BigInteger value, String error) {
+            this.call = call;
+            this.value = value;
+            this.error = error;
+        }
+
+        public Call getCall() {
+            return call;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        public BigInteger getValue() {
+            return value;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return call + " = " + (isSuccess() ? value : "실패(" + error + ")");
+        }
+    }
+
+    private final Web3j web3;
+    private final String multicallAddress;
+    private int callsPerMulticall = DEFAULT_CALLS_PER_MULTICALL;
+    private int callsPerBatch = DEFAULT_CALLS_PER_BATCH;
+
+    public ERC20MulticallReader(Web3j web3) {
+        this(web3, MULTICALL3_ADDRESS);
+    }
+
+    public ERC20MulticallReader(Web3j web3, String multicallAddress) {
+        this.web3 = web3;
+        this.multicallAddress = multicallAddress;
+    }
+
+    /** aggregate3 1회에 묶을 호출 수 (노드의 eth_call 가스 한도 고려) */
+    public ERC20MulticallReader callsPerMulticall(int callsPerMulticall) {
+        this.callsPerMulticall = callsPerMulticall;
+        return this;
+    }
+
+    /** JSON-RPC 배치 1회에 담을 요청 수 */
+    public ERC20MulticallReader callsPerBatch(int callsPerBatch) {
+        this.callsPerBatch = callsPerBatch;
+        return this;
+    }
+
+    /**
+     * Multicall3 aggregate3로 조회 (결과는 calls와 같은 순서)
+     *
+     * callsPerMulticall개씩 나눈 aggregate3 eth_call들을 다시 JSON-RPC 배치로 묶어서 전송
+     * → 2,000건 = aggregate3 4회 = HTTP 요청 1회
+     */
+    public List<CallResult> readMulticall(List<Call> calls, DefaultBlockParameter block) throws IOException {
+        List<List<Call>> chunks = partition(calls, callsPerMulticall);
+        List<CallResult> results = new ArrayList<>(calls.size());
+
+        for (List<List<Call>> group : partition(chunks, callsPerBatch)) {
+            BatchRequest batch = web3.newBatch();
+            List<Request<?, EthCall>> requests = new ArrayList<>(group.size());
+            for (List<Call> chunk : group) {
+                Request<?, EthCall> request = web3.ethCall(Transaction.createEthCallTransaction(
+                    null, multicallAddress, Numeric.toHexString(encodeAggregate3(chunk))), block);
+                requests.add(request);
+                batch.add(request);
+            }
+            Map<Long, Response<?>> responses = responsesById(batch);
+
+            for (int i = 0; i < group.size(); i++) {
+                List<Call> chunk = group.get(i);
+                EthCall response = (EthCall) responses.get(requests.get(i).getId());
+                String error = errorOf(response);
+                if (error != null) {
+                    // aggregate3 호출 자체가 실패 → 묶인 호출 모두 실패 처리
+                    for (Call call : chunk) {
+                        results.add(new CallResult(call, null, error));
+                    }
+                } else {
+                    byte[] data = Numeric.hexStringToByteArray(response.getValue());
+                    if (data.length == 0) {
+                        // 컨트랙트가 없는 주소를 호출하면 성공 + 빈 반환값 → 개별 eth_call로 대체
+                        results.addAll(readBatch(chunk, block));
+                        continue;
+                    }
+                    try {
+                        decodeAggregate3(chunk, data, results);
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException("aggregate3 반환값 해석 실패 (" + multicallAddress + "가 Multicall3인지 확인): "
+                            + e.getMessage(), e);
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * eth_call을 JSON-RPC 배치로 조회 (결과는 calls와 같은 순서)
+     */
+    public List<CallResult> readBatch(List<Call> calls, DefaultBlockParameter block) throws IOException {
+        List<CallResult> results = new ArrayList<>(calls.size());
+        for (List<Call> chunk : partition(calls, callsPerBatch)) {
+            BatchRequest batch = web3.newBatch();
+            List<Request<?, EthCall>> requests = new ArrayList<>(chunk.size());
+            for (Call call : chunk) {
+                Request<?, EthCall> request = web3.ethCall(
+                    Transaction.createEthCallTransaction(null, call.token, call.callDataHex()), block);
+                requests.add(request);
+                batch.add(request);
+            }
+            Map<Long, Response<?>> responses = responsesById(batch);
+
+            for (int i = 0; i < chunk.size(); i++) {
+                EthCall response = (EthCall) responses.get(requests.get(i).getId());
+                String error = errorOf(response);
+                if (error != null) {
+                    results.add(new CallResult(chunk.get(i), null, error));
+                } else {
+                    byte[] data = Numeric.hexStringToByteArray(response.getValue());
+                    results.add(toResult(chunk.get(i), data, 0, data.length));
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 배치 응답은 순서가 보장되지 않으므로 JSON-RPC id로 매칭
+     */
+    private static Map<Long, Response<?>> responsesById(BatchRequest batch) throws IOException {
+        Map<Long, Response<?>> responses = new HashMap<>();
+        for (Response<?> response : batch.send().getResponses()) {
+            responses.put(response.getId(), response);
+        }
+        return responses;
+    }
+
+    private static String errorOf(EthCall response) {
+        if (response == null) {
+            return "missing response in batch";
+        }
+        if (response.hasError()) {
+            return response.getError().getMessage();
+        }
+        if (response.isReverted()) {
+            return response.getRevertReason();
+        }
+        return null;
+    }
+
+    /**
+     * aggregate3 호출 데이터 인코딩
+     *
+     * selector
+     * [0x20]                  배열 위치
+     * [N]                     배열 길이
+     * [offset_0 .. offset_N-1] 각 tuple 위치 (배열 길이 다음 위치 기준)
+     * tuple_i = [target][allowFailure=1][0x60][callData 길이][callData (32바이트 단위로 0 패딩)]
+     */
+    static byte[] encodeAggregate3(List<Call> calls) {
+        int n = calls.size();
+        int[] tupleSizes = new int[n];
+        int tuplesLength = 0;
+        for (int i = 0; i < n; i++) {
+            tupleSizes[i] = 32 * 4 + padded(calls.get(i).callDataLength());
+            tuplesLength += tupleSizes[i];
+        }
+
+        byte[] data = new byte[4 + 32 + 32 + 32 * n + tuplesLength];
+        System.arraycopy(AGGREGATE3_SELECTOR, 0, data, 0, 4);
+        writeWord(data, 4, 0x20);
+        writeWord(data, 36, n);
+
+        int arrayBase = 68;
+        int tupleOffset = 32 * n;
+        for (int i = 0; i < n; i++) {
+            Call call = calls.get(i);
+            writeWord(data, arrayBase + 32 * i, tupleOffset);
+            int tuple = arrayBase + tupleOffset;
+            writeAddress(data, tuple, call.token);
+            writeWord(data, tuple + 32, 1);    // allowFailure
+            writeWord(data, tuple + 64, 0x60); // callData 위치 (tuple 시작 기준)
+            writeWord(data, tuple + 96, call.callDataLength());
+            call.writeCallData(data, tuple + 128);
+            tupleOffset += tupleSizes[i];
+        }
+        return data;
+    }
+
+    /**
+     * aggregate3 반환값 (bool success, bytes returnData)[] 디코딩
+     * 배열 머리(위치/길이)가 깨졌으면 IllegalArgumentException, 개별 tuple이 깨졌으면 그 호출만 실패 처리
+     */
+    static void decodeAggregate3(List<Call> calls, byte[] data, List<CallResult> out) {
+        int arrayOffset = readInt(data, 0);
+        int n = readInt(data, arrayOffset);
+        int arrayBase = arrayOffset + 32;
+        for (int i = 0; i < calls.size(); i++) {
+            Call call = calls.get(i);
+            if (i >= n) {
+                out.add(new CallResult(call, null, "missing result in multicall"));
+                continue;
+            }
+            try {
+                int tuple = arrayBase + readInt(data, arrayBase + 32 * i);
+                boolean success = readInt(data, tuple) != 0;
+                int bytesOffset = tuple + readInt(data, tuple + 32);
+                int length = readInt(data, bytesOffset);
+                if (!success) {
+                    out.add(new CallResult(call, null, "reverted"));
+                } else {
+                    out.add(toResult(call, data, bytesOffset + 32, length));
+                }
+            } catch (IllegalArgumentException e) {
+                out.add(new CallResult(call, null, e.getMessage()));
+            }
+        }
+    }
+
+    private static CallResult toResult(Call call, byte[] data, int offset, int length) {
+        if (length < 32) {
+            // 컨트랙트가 아닌 주소를 호출하면 성공 + 빈 반환값
+            return new CallResult(call, null, "empty return data");
+        }
+        if ((long) offset + length > data.length) {
+            return new CallResult(call, null, "malformed multicall return data at " + offset);
+        }
+        byte[] word = new byte[32];
+        System.arraycopy(data, offset, word, 0, 32);
+        return new CallResult(call, new BigInteger(1, word), null);
+    }
+
+    private static int padded(int length) {
+        return (length + 31) / 32 * 32;
+    }
+
+    private static void writeSelector(byte[] dest, int offset, int selector) {
+        dest[offset] = (byte) (selector >>> 24);
+        dest[offset + 1] = (byte) (selector >>> 16);
+        dest[offset + 2] = (byte) (selector >>> 8);
+        dest[offset + 3] = (byte) selector;
+    }
+
+    /** 32바이트 워드의 하위 4바이트에 값 기록 (상위 바이트는 0) */
+    private static void writeWord(byte[] dest, int offset, int value) {
+        writeSelector(dest, offset + 28, value);
+    }
+
+    /** 0x 포함 여부와 관계없이 16진수 40자리인지 확인 */
+    private static void checkAddress(String address) {
+        String hex = address == null ? "" : Numeric.cleanHexPrefix(address);
+        if (hex.length() != 40) {
+            throw new IllegalArgumentException("invalid address: " + address);
+        }
+        for (int i = 0; i < hex.length(); i++) {
+            if (Character.digit(hex.charAt(i), 16) < 0) {
+                throw new IllegalArgumentException("invalid address: " + address);
+            }
+        }
+    }
+
+    /** 32바이트 워드의 하위 20바이트에 주소 기록 (Call 생성 시 checkAddress로 검증된 주소) */
+    private static void writeAddress(byte[] dest, int offset, String address) {
+        String hex = Numeric.cleanHexPrefix(address);
+        for (int i = 0; i < 20; i++) {
+            dest[offset + 12 + i] = (byte) (Character.digit(hex.charAt(2 * i), 16) << 4
+                | Character.digit(hex.charAt(2 * i + 1), 16));
+        }
+    }
+
+    /** 32바이트 워드를 int로 읽기 (오프셋/길이/bool 용도, int 범위를 넘으면 깨진 데이터로 간주) */
+    private static int readInt(byte[] data, int offset) {
+        if (offset < 0 || offset > data.length - 32 || data[offset + 28] < 0) {
+            throw new IllegalArgumentException("malformed multicall return data at " + offset);
+        }
+        for (int i = offset; i < offset + 28; i++) {
+            if (data[i] != 0) {
+                throw new IllegalArgumentException("malformed multicall return data at " + offset);
+            }
+        }
+        return (data[offset + 28] & 0xff) << 24 | (data[offset + 29] & 0xff) << 16
+            | (data[offset + 30] & 0xff) << 8 | (data[offset + 31] & 0xff);
+    }
+
+    private static <T> List<List<T>> partition(List<T> list, int size) {
+        List<List<T>> parts = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += size) {
+            parts.add(list.subList(from, Math.min(from + size, list.size())));
+        }
+        return parts;
+    }
+
+    /**
+     * SEO 토큰 (Sepolia) 잔액/허용량 일괄 조회 예시
+     */
+    public static void main(String[] args) throws Exception {
+        String infuraKey = System.getenv("INFURA_PROJECT_ID");
+        String sepoliaUrl = "https://sepolia.infura.io/v3/" + infuraKey;
+        Web3j web3 = Web3j.build(new HttpService(sepoliaUrl));
+
+        String contractAddress = "0x1797da0ffff01bf87fef6becfa9e943e31540e03"; // SEO 토큰
+        String aAddress = "0x658b8a1ae242d0460d4777e17C9Af438dAAB4f77";
+        String bAddress = "0x192897df0B17c99fA24eCF998c22e2E83C3cD3D8";
+
+        List<Call> calls = List.of(
+            Call.totalSupply(contractAddress),
+            Call.decimals(contractAddress),
+            Call.balanceOf(contractAddress, aAddress),
+            Call.balanceOf(contractAddress, bAddress),
+            Call.allowance(contractAddress, aAddress, bAddress),
+            Call.balanceOf(aAddress, bAddress)); // 컨트랙트가 아닌 주소 → 이 호출만 실패
+
+        ERC20MulticallReader reader = new ERC20MulticallReader(web3);
+        for (CallResult result : reader.readMulticall(calls, DefaultBlockParameterName.LATEST)) {
+            if (result.isSuccess() && result.getCall().getMethod() == Method.BALANCE_OF) {
+                System.out.println(result.getCall() + " = "
+                    + Convert.fromWei(result.getValue().toString(), Unit.ETHER) + " SEO");
+            } else {
+                System.out.println(result);
+            }
+        }
+
+        web3.shutdown();
+    }
+}
@@ -0,0 +1,201 @@
+package contractdeployment.web3j;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import contractdeployment.web3j.ERC20MulticallReader.Call;
+import contractdeployment.web3j.ERC20MulticallReader.CallResult;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.web3j.crypto.Hash;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthCall;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.utils.Numeric;
+import rpc.StubRpcNode;
+
+/**
+ * ERC20 조회 일괄 호출 벤치마크 (로컬 스텁 노드)
+ *
+ * 같은 (토큰, 보유자) 조회 목록을 세 가지 방식으로 조회하여 비교
+ * 1. eth_call 순차 호출 (ERC20ContractFunctionCall의 balanceOf().send() 방식)
+ * 2. eth_call JSON-RPC 배치
+ * 3. Multicall3 aggregate3
+ *
+ * 스텁 노드는 조회 결과를 keccak256(토큰 + 호출 데이터)로 만들어 응답
+ * (토큰 주소가 0x...dead로 끝나면 revert → 호출 단위 실패 처리 확인)
+ *
+ * 실행 인자 (선택): [지연 ms] [조회 건수]
+ */
+public class ERC20MulticallReaderBenchmark {
+
+    private static final String FAILING_TOKEN = "0x000000000000000000000000000000000000dead";
+
+    public static void main(String[] args) throws Exception {
+        long latencyMillis = args.length > 0 ? Long.parseLong(args[0]) : 20;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+
+        try (StubRpcNode node = new StubRpcNode(latencyMillis, ERC20MulticallReaderBenchmark::handle)) {
+            Web3j web3 = Web3j.build(new HttpService(node.getUrl()));
+            ERC20MulticallReader reader = new ERC20MulticallReader(web3);
+            List<Call> calls = buildCalls(count);
+
+            System.out.printf("=== ERC20 조회 %,d건 (RPC 지연 %dms) ===%n", count, latencyMillis);
+
+            // 1. 순차 eth_call
+            node.resetCounters();
+            long start = System.nanoTime();
+            List<CallResult> sequential = new ArrayList<>(count);
+            for (Call call : calls) {
+                EthCall response = web3.ethCall(Transaction.createEthCallTransaction(
+                    null, call.getToken(), call.callDataHex()), DefaultBlockParameterName.LATEST).send();
+                byte[] data = response.hasError() ? new byte[0] : Numeric.hexStringToByteArray(response.getValue());
+                sequential.add(data.length < 32
+                    ? new CallResult(call, null, "reverted")
+                    : new CallResult(call, new BigInteger(1, data), null));
+            }
+            report("순차 eth_call", start, node, count);
+
+            // 2. JSON-RPC 배치
+            node.resetCounters();
+            start = System.nanoTime();
+            List<CallResult> batched = reader.readBatch(calls, DefaultBlockParameterName.LATEST);
+            report("JSON-RPC 배치 (" + ERC20MulticallReader.DEFAULT_CALLS_PER_BATCH + "건)", start, node, count);
+
+            // 3. Multicall3
+            node.resetCounters();
+            start = System.nanoTime();
+            List<CallResult> multicall = reader.readMulticall(calls, DefaultBlockParameterName.LATEST);
+            report("Multicall3 (" + ERC20MulticallReader.DEFAULT_CALLS_PER_MULTICALL + "건)", start, node, count);
+
+            int mismatches = 0;
+            int failures = 0;
+            for (int i = 0; i < count; i++) {
+                if (!sameResult(sequential.get(i), batched.get(i)) || !sameResult(sequential.get(i), multicall.get(i))) {
+                    mismatches++;
+                }
+                if (!multicall.get(i).isSuccess()) {
+                    failures++;
+                }
+            }
+            System.out.printf("결과 불일치 %d건, 호출 단위 실패 %d건%n", mismatches, failures);
+
+            web3.shutdown();
+        }
+    }
+
+    private static List<Call> buildCalls(int count) {
+        List<Call> calls = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String token = i % 97 == 0 ? FAILING_TOKEN : String.format("0x%040x", 0x1000 + i % 10);
+            String holder = String.format("0x%040x", 0x2000 + i);
+            switch (i % 10) {
+                case 0:
+                    calls.add(Call.decimals(token));
+                    break;
+                case 1:
+                    calls.add(Call.totalSupply(token));
+                    break;
+                case 2:
+                    calls.add(Call.allowance(token, holder, String.format("0x%040x", 0x3000 + i)));
+                    break;
+                default:
+                    calls.add(Call.balanceOf(token, holder));
+            }
+        }
+        return calls;
+    }
+
+    private static boolean sameResult(CallResult a, CallResult b) {
+        return a.isSuccess() == b.isSuccess() && (!a.isSuccess() || a.getValue().equals(b.getValue()));
+    }
+
+    private static void report(String name, long start, StubRpcNode node, int count) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-28s : %8.3f초, %,10.0f건/초, HTTP 요청 %,d회, eth_call %,d회%n",
+            name, seconds, count / seconds, node.getHttpRequestCount(), node.getRpcCallCount());
+    }
+
+    /**
+     * 스텁 노드의 eth_call 처리 (Multicall3 주소면 aggregate3 해석)
+     */
+    private static Object handle(String method, JsonNode params) throws Exception {
+        if (!"eth_call".equals(method)) {
+            throw new StubRpcNode.StubRpcException(-32601, "method not found: " + method);
+        }
+        String to = params.get(0).get("to").asText();
+        byte[] data = Numeric.hexStringToByteArray(params.get(0).get("data").asText());
+        if (to.equalsIgnoreCase(ERC20MulticallReader.MULTICALL3_ADDRESS)) {
+            return Numeric.toHexString(aggregate3(data));
+        }
+        byte[] result = call(to, data);
+        if (result == null) {
+            throw new StubRpcNode.StubRpcException(3, "execution reverted");
+        }
+        return Numeric.toHexString(result);
+    }
+
+    private static byte[] call(String token, byte[] callData) {
+        if (token.equalsIgnoreCase(FAILING_TOKEN)) {
+            return null;
+        }
+        byte[] input = new byte[20 + callData.length];
+        System.arraycopy(Numeric.hexStringToByteArray(token), 0, input, 0, 20);
+        System.arraycopy(callData, 0, input, 20, callData.length);
+        byte[] value = Hash.sha3(input);
+        value[0] = 0; // uint256 상위 바이트를 비워 작은 값으로
+        return value;
+    }
+
+    /**
+     * aggregate3 호출 데이터 해석 → (bool success, bytes returnData)[] 인코딩
+     */
+    private static byte[] aggregate3(byte[] data) {
+        int base = 4;
+        int arrayBase = base + word(data, base) + 32;
+        int n = word(data, arrayBase - 32);
+
+        byte[][] returns = new byte[n][];
+        for (int i = 0; i < n; i++) {
+            int tuple = arrayBase + word(data, arrayBase + 32 * i);
+            String target = Numeric.toHexString(data, tuple + 12, 20, true);
+            int bytesOffset = tuple + word(data, tuple + 64);
+            int length = word(data, bytesOffset);
+            byte[] callData = new byte[length];
+            System.arraycopy(data, bytesOffset + 32, callData, 0, length);
+            returns[i] = call(target, callData);
+        }
+
+        // 결과: [0x20][N][offsets...][tuple: success, 0x40, length, data(32)]
+        byte[] out = new byte[64 + 32 * n + n * 128];
+        putWord(out, 0, 0x20);
+        putWord(out, 32, n);
+        int resultBase = 64;
+        for (int i = 0; i < n; i++) {
+            int tupleOffset = 32 * n + i * 128;
+            putWord(out, resultBase + 32 * i, tupleOffset);
+            int tuple = resultBase + tupleOffset;
+            boolean success = returns[i] != null;
+            putWord(out, tuple, success ? 1 : 0);
+            putWord(out, tuple + 32, 0x40);
+            putWord(out, tuple + 64, success ? 32 : 0);
+            if (success) {
+                System.arraycopy(returns[i], 0, out, tuple + 96, 32);
+            }
+        }
+        return out;
+    }
+
+    private static int word(byte[] data, int offset) {
+        return new BigInteger(1, Arrays.copyOfRange(data, offset, offset + 32)).intValueExact();
+    }
+
+    private static void putWord(byte[] data, int offset, int value) {
+        data[offset + 28] = (byte) (value >>> 24);
+        data[offset + 29] = (byte) (value >>> 16);
+        data[offset + 30] = (byte) (value >>> 8);
+        data[offset + 31] = (byte) value;
+    }
+}
@@ -0,0 +1,403 @@
+package conversion;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import org.web3j.utils.Convert;
+import org.web3j.utils.Convert.Unit;
+
+/**
+ * wei / gwei / ether 단위 변환 고정소수점 빠른 경로
+ *
+ * EtherUnitConversion의 Convert.fromWei / toWei는 변환마다 BigDecimal(+ 내부 BigInteger)을 새로 만든다.
+ * 수수료 계산처럼 변환이 수백만 번 반복되는 곳에서는 이 할당이 대부분의 비용
+ *
+ * 방식:
+ * - 단위 변환은 10의 거듭제곱만큼 소수점을 옮기는 것 → 나눗셈 없이 자리 계산으로 처리
+ * - wei 값이 long 범위면 long 연산만 사용
+ * - 그보다 크면 2^128 - 1 wei까지 long 두 개(hi, lo)로 표현한 부호 없는 128비트 정수(UInt128) 사용
+ *
+ * 결과는 Convert와 동일:
+ * - formatWei(wei, unit) == Convert.fromWei(new BigDecimal(wei), unit).toPlainString()
+ *   (예: 1500000000000000000 wei, ETHER → "1.5")
+ * - parseToWei(value, unit) == Convert.toWei(value, unit).toBigIntegerExact()
+ *   (1 wei 미만의 소수가 남거나 범위를 넘으면 ArithmeticException)
+ * - 지수 표기(1e18) 등 일반 소수 형식이 아닌 입력은 BigDecimal 경로로 처리
+ */
+public final class FastUnitConversion {
+
+    private static final long[] POW10 = new long[19]; // 10^0 ~ 10^18
+    private static final int[] EXPONENTS = new int[Unit.values().length]; // 단위별 10의 지수
+
+    // 10^9 단위로 잘라 출력 (128비트 → 10진수)
+    private static final long BILLION = 1_000_000_000L;
+    private static final long MASK32 = 0xFFFFFFFFL;
+    // 부호 + 39자리(2^128) + 소수점 + 단위 지수(최대 27)만큼의 앞자리 0
+    private static final int MAX_CHARS = 48;
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+        for (Unit unit : Unit.values()) {
+            EXPONENTS[unit.ordinal()] = unit.getWeiFactor().precision() - 1;
+        }
+    }
+
+    private FastUnitConversion() {
+    }
+
+    /**
+     * 부호 없는 128비트 정수 (wei 금액, hi = 상위 64비트, lo = 하위 64비트)
+     */
+    public static final class UInt128 {
+
+        public static final UInt128 ZERO = new UInt128(0, 0);
+        public static final UInt128 MAX_VALUE = new UInt128(-1L, -1L);
+
+        private final long hi;
+        private final long lo;
+
+        public UInt128(long hi, long lo) {
+            this.hi = hi;
+            this.lo = lo;
+        }
+
+        public static UInt128 valueOf(long value) {
+            if (value < 0) {
+                throw new ArithmeticException("음수는 UInt128로 표현할 수 없음: " + value);
+            }
+            return new UInt128(0, value);
+        }
+
+        public static UInt128 valueOf(BigInteger value) {
+            if (value.signum() < 0 || value.bitLength() > 128) {
+                throw new ArithmeticException("UInt128 범위를 벗어남: " + value);
+            }
+            return new UInt128(value.shiftRight(64).longValue(), value.longValue());
+        }
+
+        public long getHi() {
+            return hi;
+        }
+
+        public long getLo() {
+            return lo;
+        }
+
+        /**
+         * long(부호 있는 64비트)으로 표현 가능한 값인지
+         */
+        public boolean fitsInLong() {
+            return hi == 0 && lo >= 0;
+        }
+
+        public BigInteger toBigInteger() {
+            if (fitsInLong()) {
+                return BigInteger.valueOf(lo);
+            }
+            byte[] bytes = new byte[16];
+            for (int i = 0; i < 8; i++) {
+                bytes[i] = (byte) (hi >>> (56 - 8 * i));
+                bytes[8 + i] = (byte) (lo >>> (56 - 8 * i));
+            }
+            return new BigInteger(1, bytes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof UInt128)) {
+                return false;
+            }
+            UInt128 other = (UInt128) o;
+            return hi == other.hi && lo == other.lo;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hi) * 31 + Long.hashCode(lo);
+        }
+
+        @Override
+        public String toString() {
+            return formatWei(this, Unit.WEI);
+        }
+    }
+
+    /**
+     * 단위의 10 지수 (WEI 0, GWEI 9, ETHER 18 ...)
+     */
+    public static int exponent(Unit unit) {
+        return EXPONENTS[unit.ordinal()];
+    }
+
+    // ===== wei → 단위 (문자열) =====
+
+    /**
+     * wei(long) → unit 단위 10진 문자열
+     */
+    public static String formatWei(long wei, Unit unit) {
+        // Long.MIN_VALUE의 절댓값(2^63)은 부호 없는 64비트로 그대로 표현됨
+        return format(wei < 0, 0, wei < 0 ? -wei : wei, exponent(unit));
+    }
+
+    /**
+     * wei(UInt128) → unit 단위 10진 문자열
+     */
+    public static String formatWei(UInt128 wei, Unit unit) {
+        return format(false, wei.hi, wei.lo, exponent(unit));
+    }
+
+    /**
+     * wei(BigInteger) → unit 단위 10진 문자열 (128비트를 넘는 값만 BigDecimal 경로)
+     */
+    public static String formatWei(BigInteger wei, Unit unit) {
+        if (wei.bitLength() <= 63) {
+            return formatWei(wei.longValue(), unit);
+        }
+        if (wei.signum() > 0 && wei.bitLength() <= 128) {
+            return format(false, wei.shiftRight(64).longValue(), wei.longValue(), exponent(unit));
+        }
+        return Convert.fromWei(new BigDecimal(wei), unit).toPlainString();
+    }
+
+    private static String format(boolean negative, long hi, long lo, int exponent) {
+        char[] buf = new char[MAX_CHARS];
+        int pos = MAX_CHARS;
+
+        // long 범위에 들어올 때까지 10^9로 나누며 9자리씩 출력 (32비트 단위 나눗셈)
+        while (hi != 0 || lo < 0) {
+            long q3 = hi >>> 32;
+            long r = q3 % BILLION;
+            q3 /= BILLION;
+            long t = (r << 32) | (hi & MASK32);
+            long q2 = t / BILLION;
+            r = t % BILLION;
+            t = (r << 32) | (lo >>> 32);
+            long q1 = t / BILLION;
+            r = t % BILLION;
+            t = (r << 32) | (lo & MASK32);
+            long q0 = t / BILLION;
+            r = t % BILLION;
+            hi = (q3 << 32) | q2;
+            lo = (q1 << 32) | q0;
+            for (int i = 0; i < 9; i++) {
+                buf[--pos] = (char) ('0' + r % 10);
+                r /= 10;
+            }
+        }
+        do {
+            buf[--pos] = (char) ('0' + lo % 10);
+            lo /= 10;
+        } while (lo != 0);
+
+        if (exponent == 0) {
+            if (negative) {
+                buf[--pos] = '-';
+            }
+            return new String(buf, pos, MAX_CHARS - pos);
+        }
+
+        // 정수부가 최소 한 자리가 되도록 앞자리 0 채움
+        int point = MAX_CHARS - exponent;
+        while (pos >= point) {
+            buf[--pos] = '0';
+        }
+        // 소수부 끝의 0 제거 (BigDecimal.divide가 정확히 나누어떨어지는 최소 scale을 쓰는 것과 동일)
+        int end = MAX_CHARS;
+        while (end > point && buf[end - 1] == '0') {
+            end--;
+        }
+        if (end > point) {
+            System.arraycopy(buf, pos, buf, pos - 1, point - pos);
+            pos--;
+            buf[point - 1] = '.';
+        } else {
+            end = point;
+        }
+        if (negative) {
+            buf[--pos] = '-';
+        }
+        return new String(buf, pos, end - pos);
+    }
+
+    // ===== 단위 → wei (문자열 파싱) =====
+
+    /**
+     * unit 단위 10진 문자열 → wei(long)
+     * long 범위를 넘거나 1 wei 미만의 소수가 남으면 ArithmeticException
+     */
+    public static long parseToWei(CharSequence value, Unit unit) {
+        int point = scan(value);
+        if (point < 0) {
+            return slowToWei(value, unit).longValueExact();
+        }
+        int exponent = exponent(unit);
+        char first = value.charAt(0);
+        boolean negative = first == '-';
+        int start = negative || first == '+' ? 1 : 0;
+        int end = fractionEnd(value, point, exponent);
+
+        // 음수로 누적 (Long.MIN_VALUE까지 표현)
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            if (i != point) {
+                result = Math.subtractExact(Math.multiplyExact(result, 10), value.charAt(i) - '0');
+            }
+        }
+        int shift = exponent - fractionDigits(point, end);
+        if (result != 0) {
+            if (shift >= POW10.length) {
+                throw new ArithmeticException("long 범위 초과: " + value);
+            }
+            result = Math.multiplyExact(result, POW10[shift]);
+        }
+        return negative ? result : Math.negateExact(result);
+    }
+
+    /**
+     * unit 단위 10진 문자열 → wei(UInt128)
+     * 음수이거나 2^128 - 1을 넘거나 1 wei 미만의 소수가 남으면 ArithmeticException
+     */
+    public static UInt128 parseToWei128(CharSequence value, Unit unit) {
+        int point = scan(value);
+        if (point < 0) {
+            return UInt128.valueOf(slowToWei(value, unit));
+        }
+        int exponent = exponent(unit);
+        char first = value.charAt(0);
+        int start = first == '-' || first == '+' ? 1 : 0;
+        int end = fractionEnd(value, point, exponent);
+
+        // 18자리씩 long으로 모은 뒤 128비트 값에 곱하고 더함
+        Accumulator acc = new Accumulator();
+        long chunk = 0;
+        int chunkDigits = 0;
+        for (int i = start; i < end; i++) {
+            if (i == point) {
+                continue;
+            }
+            chunk = chunk * 10 + (value.charAt(i) - '0');
+            if (++chunkDigits == 18) {
+                acc.multiplyAdd(POW10[18], chunk);
+                chunk = 0;
+                chunkDigits = 0;
+            }
+        }
+        acc.multiplyAdd(POW10[chunkDigits], chunk);
+        for (int shift = exponent - fractionDigits(point, end); shift > 0; shift -= 18) {
+            acc.multiplyAdd(POW10[Math.min(shift, 18)], 0);
+        }
+
+        if (first == '-' && (acc.hi | acc.lo) != 0) {
+            throw new ArithmeticException("음수는 UInt128로 표현할 수 없음: " + value);
+        }
+        return new UInt128(acc.hi, acc.lo);
+    }
+
+    /**
+     * unit 단위 10진 문자열 → wei(BigInteger) (128비트를 넘는 값만 BigDecimal 경로)
+     */
+    public static BigInteger parseToWeiBigInteger(CharSequence value, Unit unit) {
+        try {
+            return parseToWei128(value, unit).toBigInteger();
+        } catch (ArithmeticException e) {
+            return slowToWei(value, unit);
+        }
+    }
+
+    /**
+     * 부호 없는 128비트 누적값 (hi, lo) = (hi, lo) * m + a
+     */
+    private static final class Accumulator {
+        long hi;
+        long lo;
+
+        void multiplyAdd(long m, long a) {
+            long loHigh = Math.multiplyHigh(lo, m) + ((lo >> 63) & m); // lo * m의 부호 없는 상위 64비트
+            long hiHigh = Math.multiplyHigh(hi, m) + ((hi >> 63) & m);
+            long hiLow = hi * m;
+            long newHi = hiLow + loHigh;
+            if (hiHigh != 0 || Long.compareUnsigned(newHi, hiLow) < 0) {
+                throw new ArithmeticException("2^128 wei 범위 초과");
+            }
+            long loLow = lo * m;
+            long newLo = loLow + a;
+            if (Long.compareUnsigned(newLo, loLow) < 0 && ++newHi == 0) {
+                throw new ArithmeticException("2^128 wei 범위 초과");
+            }
+            hi = newHi;
+            lo = newLo;
+        }
+    }
+
+    /**
+     * 일반 소수 형식([+-]숫자[.숫자])이면 소수점 위치(없으면 길이), 아니면 -1
+     */
+    private static int scan(CharSequence value) {
+        int length = value.length();
+        int i = 0;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            i++;
+        }
+        int point = -1;
+        int digits = 0;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c == '.' && point < 0) {
+                point = i;
+            } else {
+                return -1;
+            }
+        }
+        if (digits == 0) {
+            return -1;
+        }
+        return point < 0 ? length : point;
+    }
+
+    /**
+     * 소수부 중 wei로 표현되는 자리까지의 끝 위치 (그 뒤는 0이어야 함)
+     */
+    private static int fractionEnd(CharSequence value, int point, int exponent) {
+        int length = value.length();
+        int end = (int) Math.min(length, (long) point + 1 + exponent);
+        for (int i = end; i < length; i++) {
+            if (value.charAt(i) != '0') {
+                throw new ArithmeticException("1 wei 미만의 소수가 남음: " + value);
+            }
+        }
+        return end;
+    }
+
+    private static int fractionDigits(int point, int end) {
+        return end > point ? end - point - 1 : 0;
+    }
+
+    private static BigInteger slowToWei(CharSequence value, Unit unit) {
+        return Convert.toWei(new BigDecimal(value.toString()), unit).toBigIntegerExact();
+    }
+
+    /**
+     * EtherUnitConversion과 같은 변환을 빠른 경로로 수행
+     */
+    public static void main(String[] args) {
+        long wei1 = 18_000_000_000_000_000L;                          // 0.018 ETH에 해당하는 wei
+        System.out.println("=== wei -> gwei, wei -> eth ===");
+        System.out.println("gwei1 = " + formatWei(wei1, Unit.GWEI));  // 18000000
+        System.out.println("eth1 = " + formatWei(wei1, Unit.ETHER));  // 0.018
+
+        UInt128 wei2 = parseToWei128("123456789012345678.9", Unit.ETHER); // long 범위를 넘는 값
+        System.out.println("wei2 = " + wei2);
+        System.out.println("eth2 = " + formatWei(wei2, Unit.ETHER));
+
+        System.out.println("=== eth -> wei, gwei -> wei ===");
+        System.out.println("wei3 = " + parseToWei("0.39", Unit.ETHER)); // 390000000000000000
+        System.out.println("wei4 = " + parseToWei("0.39", Unit.GWEI));  // 390000000
+    }
+}
@@ -0,0 +1,176 @@
+package conversion;
+
+import conversion.FastUnitConversion.UInt128;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.LongSupplier;
+import org.web3j.utils.Convert;
+import org.web3j.utils.Convert.Unit;
+
+public class FastUnitConversionBenchmark {
+
+    /**
+     * 단위 변환 벤치마크 (Convert + BigDecimal vs FastUnitConversion)
+     *
+     * 변환 종류:
+     * - wei → gwei   : 수수료 크기의 wei(long) → 문자열
+     * - wei → ether  : 토큰 잔액 크기의 wei(최대 2^100, UInt128 / BigDecimal) → 문자열
+     * - ether → wei  : "12.345678" 형식 문자열 → wei (UInt128 / BigInteger)
+     * - gwei → wei   : "1.5" 형식 문자열 → wei (long / BigInteger)
+     *
+     * 입력은 각 방식의 원래 표현(long / UInt128 / BigDecimal / String)으로 미리 만들어 두고 변환만 측정
+     * 측정 전 두 방식의 결과가 모두 같은지 먼저 확인
+     *
+     * 측정 항목:
+     * - 변환/초 (반복 중 중앙값)
+     * - 변환당 할당 바이트 (com.sun.management.ThreadMXBean 스레드 할당량 기준)
+     *
+     * 실행 인자 (선택): [변환 개수] [반복 횟수]
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        Random random = new Random(42);
+        long[] feeWei = new long[count];
+        BigDecimal[] feeWeiDecimal = new BigDecimal[count];
+        UInt128[] balanceWei = new UInt128[count];
+        BigDecimal[] balanceWeiDecimal = new BigDecimal[count];
+        String[] etherValues = new String[count];
+        String[] gweiValues = new String[count];
+        for (int i = 0; i < count; i++) {
+            // gasPrice(0.1~100 gwei) × gasUsed(21000~300000)
+            feeWei[i] = (100_000_000L + random.nextInt(100_000_000) * 1000L) * (21_000 + random.nextInt(279_000));
+            feeWeiDecimal[i] = BigDecimal.valueOf(feeWei[i]);
+            BigInteger balance = new BigInteger(40 + random.nextInt(61), random);
+            balanceWei[i] = UInt128.valueOf(balance);
+            balanceWeiDecimal[i] = new BigDecimal(balance);
+            etherValues[i] = random.nextInt(1_000_000) + "." + random.nextInt(1_000_000);
+            gweiValues[i] = random.nextInt(500) + "." + random.nextInt(10);
+        }
+
+        int mismatches = 0;
+        for (int i = 0; i < count; i++) {
+            if (!FastUnitConversion.formatWei(feeWei[i], Unit.GWEI)
+                    .equals(Convert.fromWei(feeWeiDecimal[i], Unit.GWEI).toPlainString())
+                || !FastUnitConversion.formatWei(balanceWei[i], Unit.ETHER)
+                    .equals(Convert.fromWei(balanceWeiDecimal[i], Unit.ETHER).toPlainString())
+                || !FastUnitConversion.parseToWei128(etherValues[i], Unit.ETHER).toBigInteger()
+                    .equals(Convert.toWei(etherValues[i], Unit.ETHER).toBigIntegerExact())
+                || FastUnitConversion.parseToWei(gweiValues[i], Unit.GWEI)
+                    != Convert.toWei(gweiValues[i], Unit.GWEI).toBigIntegerExact().longValueExact()) {
+                mismatches++;
+            }
+        }
+
+        System.out.println("=== 단위 변환 벤치마크 (" + count + "건 × " + rounds + "회) ===");
+        System.out.println("결과 불일치 " + mismatches + "건");
+
+        LongSupplier[][] cases = {
+            {
+                () -> {
+                    long checksum = 0;
+                    for (BigDecimal wei : feeWeiDecimal) {
+                        checksum += Convert.fromWei(wei, Unit.GWEI).toPlainString().length();
+                    }
+                    return checksum;
+                },
+                () -> {
+                    long checksum = 0;
+                    for (long wei : feeWei) {
+                        checksum += FastUnitConversion.formatWei(wei, Unit.GWEI).length();
+                    }
+                    return checksum;
+                }
+            },
+            {
+                () -> {
+                    long checksum = 0;
+                    for (BigDecimal wei : balanceWeiDecimal) {
+                        checksum += Convert.fromWei(wei, Unit.ETHER).toPlainString().length();
+                    }
+                    return checksum;
+                },
+                () -> {
+                    long checksum = 0;
+                    for (UInt128 wei : balanceWei) {
+                        checksum += FastUnitConversion.formatWei(wei, Unit.ETHER).length();
+                    }
+                    return checksum;
+                }
+            },
+            {
+                () -> {
+                    long checksum = 0;
+                    for (String ether : etherValues) {
+                        checksum += Convert.toWei(ether, Unit.ETHER).toBigIntegerExact().longValue();
+                    }
+                    return checksum;
+                },
+                () -> {
+                    long checksum = 0;
+                    for (String ether : etherValues) {
+                        checksum += FastUnitConversion.parseToWei128(ether, Unit.ETHER).getLo();
+                    }
+                    return checksum;
+                }
+            },
+            {
+                () -> {
+                    long checksum = 0;
+                    for (String gwei : gweiValues) {
+                        checksum += Convert.toWei(gwei, Unit.GWEI).toBigIntegerExact().longValue();
+                    }
+                    return checksum;
+                },
+                () -> {
+                    long checksum = 0;
+                    for (String gwei : gweiValues) {
+                        checksum += FastUnitConversion.parseToWei(gwei, Unit.GWEI);
+                    }
+                    return checksum;
+                }
+            }
+        };
+        String[] names = {"wei → gwei", "wei → ether", "ether → wei", "gwei → wei"};
+
+        // JIT 워밍업
+        for (int i = 0; i < 3; i++) {
+            for (LongSupplier[] pair : cases) {
+                pair[0].getAsLong();
+                pair[1].getAsLong();
+            }
+        }
+
+        for (int c = 0; c < cases.length; c++) {
+            double bigDecimal = measure(names[c] + " (BigDecimal)", count, rounds, cases[c][0]);
+            double fast = measure(names[c] + " (FastUnitConversion)", count, rounds, cases[c][1]);
+            System.out.printf("  → %.1f배%n", fast / bigDecimal);
+        }
+    }
+
+    private static double measure(String label, int count, int rounds, LongSupplier task) {
+        com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long[] nanos = new long[rounds];
+        long blackhole = 0;
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            blackhole += task.getAsLong();
+            nanos[r] = System.nanoTime() - start;
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        Arrays.sort(nanos);
+        double perSecond = count / (nanos[rounds / 2] / 1e9);
+        System.out.printf("%-36s : %,14.0f 변환/초, 변환당 할당 %,7.1f bytes (checksum %d)%n",
+            label, perSecond, allocated / ((double) count * rounds), blackhole);
+        return perSecond;
+    }
+}
@@ -0,0 +1,560 @@
+package rpc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.reactivex.Flowable;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.core.methods.response.EthChainId;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.protocol.websocket.events.Notification;
+import org.web3j.utils.Numeric;
+
+/**
+ * 확정된 블록의 RPC 응답을 메모리 + 디스크에 캐시하는 Web3jService
+ *
+ * 확정(finalized) 블록에 들어간 트랜잭션 / 영수증 / 블록은 바뀌지 않으므로
+ * 한 번 받은 응답을 저장해 두고 같은 요청은 네트워크 없이 돌려준다.
+ *
+ * 캐시 대상 (응답의 블록 번호가 최신 블록 - confirmations 이하일 때만):
+ * - eth_getTransactionByHash
+ * - eth_getTransactionReceipt
+ * - eth_getBlockByNumber (블록 번호 지정, latest / finalized 등 태그는 제외)
+ *
+ * 2단계 구조:
+ * 1. 메모리 : LRU (최근 사용 순, maxMemoryEntries개)
+ * 2. 디스크 : 추가 전용(append-only) 로그 파일, 레코드 = [CRC32][키 길이][압축 길이][원본 길이][키][Deflate 압축 JSON]
+ *            키 → 파일 위치 인덱스는 메모리에 두고, 열 때 파일을 한 번 훑어 다시 만듦
+ *            (쓰다가 끊긴 마지막 레코드는 CRC로 감지해서 잘라냄)
+ *            파일 앞에 [매직][체인 ID] 헤더 → 키에 체인 구분이 없으므로 다른 체인의 노드로 열면 IOException
+ *
+ * 최신 블록 번호는 필요할 때만 조회 (이미 알고 있는 최신 블록 기준으로 확정이면 조회하지 않음)
+ * 배치 요청 / 구독은 캐시 없이 그대로 전달
+ */
+public class CachingWeb3jService implements Web3jService {
+
+    public static final int DEFAULT_CONFIRMATIONS = 64; // 약 2 에포크 (PoS finalized)
+    public static final int DEFAULT_MEMORY_ENTRIES = 10_000;
+    public static final long HEAD_REFRESH_MILLIS = 2_000;
+
+    private static final String TRANSACTION = "eth_getTransactionByHash";
+    private static final String RECEIPT = "eth_getTransactionReceipt";
+    private static final String BLOCK = "eth_getBlockByNumber";
+    private static final String BLOCK_NUMBER = "eth_blockNumber";
+    private static final String CHAIN_ID = "eth_chainId";
+
+    /**
+     * result를 JSON 트리 그대로 받는 응답 (캐시에 원본 JSON을 저장하기 위해)
+     */
+    public static class RawResponse extends Response<JsonNode> {
+    }
+
+    private final Web3jService delegate;
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+    private final int confirmations;
+    private final DiskLog diskLog;
+
+    // 메모리 LRU (키 → result JSON)
+    private final Map<String, byte[]> memory;
+
+    // 알고 있는 최신 블록 번호 (줄어들지 않음)
+    private final AtomicLong knownHead = new AtomicLong(-1);
+    private volatile long headCheckedAt;
+
+    // 통계
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong notFinal = new AtomicLong();
+    private final AtomicLong headRequests = new AtomicLong();
+
+    public CachingWeb3jService(Web3jService delegate, Path file) throws IOException {
+        this(delegate, file, DEFAULT_CONFIRMATIONS, DEFAULT_MEMORY_ENTRIES);
+    }
+
+    /**
+     * @param file             디스크 로그 파일 (없으면 생성, 있으면 같은 체인인지 확인 후 이어서 사용)
+     * @param confirmations    최신 블록에서 이만큼 이전 블록까지만 캐시
+     * @param maxMemoryEntries 메모리 LRU 크기 (0이면 디스크만 사용)
+     */
+    public CachingWeb3jService(Web3jService delegate, Path file, int confirmations, int maxMemoryEntries)
+        throws IOException {
+        this.delegate = delegate;
+        this.confirmations = confirmations;
+        this.diskLog = new DiskLog(file, fetchChainId(delegate));
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > maxMemoryEntries;
+            }
+        };
+    }
+
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+        String key = cacheKey(request);
+        if (key == null) {
+            T response = delegate.send(request, responseType);
+            if (BLOCK_NUMBER.equals(request.getMethod()) && response instanceof EthBlockNumber
+                && !response.hasError()) {
+                // 호출자가 조회한 최신 블록도 확정 판단에 사용
+                updateHead(((EthBlockNumber) response).getBlockNumber().longValue());
+            }
+            return response;
+        }
+
+        byte[] cached;
+        synchronized (memory) {
+            cached = memory.get(key);
+        }
+        if (cached != null) {
+            memoryHits.incrementAndGet();
+            return fromCache(request.getId(), cached, responseType);
+        }
+        cached = diskLog.read(key);
+        if (cached != null) {
+            diskHits.incrementAndGet();
+            remember(key, cached);
+            return fromCache(request.getId(), cached, responseType);
+        }
+
+        misses.incrementAndGet();
+        RawResponse raw = delegate.send(request, RawResponse.class);
+        JsonNode result = raw.getResult();
+        if (!raw.hasError() && result != null && !result.isNull()) {
+            JsonNode blockNumber = BLOCK.equals(request.getMethod()) ? result.get("number") : result.get("blockNumber");
+            if (blockNumber != null && blockNumber.isTextual() && isFinal(Numeric.decodeQuantity(blockNumber.asText()).longValue())) {
+                byte[] json = objectMapper.writeValueAsBytes(result);
+                diskLog.append(key, json);
+                remember(key, json);
+                stored.incrementAndGet();
+            } else {
+                notFinal.incrementAndGet();
+            }
+        }
+        return toResponse(raw, responseType);
+    }
+
+    private static long fetchChainId(Web3jService delegate) throws IOException {
+        EthChainId response = new Request<>(CHAIN_ID, Collections.<String>emptyList(), delegate, EthChainId.class)
+            .send();
+        if (response.hasError()) {
+            throw new IOException("eth_chainId 실패: " + response.getError().getMessage());
+        }
+        return response.getChainId().longValueExact();
+    }
+
+    /**
+     * 캐시 대상이면 키, 아니면 null
+     */
+    private static String cacheKey(Request<?, ?> request) {
+        List<?> params = request.getParams();
+        switch (request.getMethod()) {
+            case TRANSACTION:
+            case RECEIPT:
+                if (params.size() == 1 && params.get(0) instanceof String) {
+                    return request.getMethod() + ':' + ((String) params.get(0)).toLowerCase();
+                }
+                return null;
+            case BLOCK:
+                // 태그(latest, finalized, ...)는 가리키는 블록이 바뀌므로 제외
+                if (params.size() == 2 && params.get(0) instanceof String && ((String) params.get(0)).startsWith("0x")) {
+                    return BLOCK + ':' + Numeric.decodeQuantity((String) params.get(0)) + ':' + params.get(1);
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * blockNumber가 최신 블록 - confirmations 이하인지
+     * 이미 알고 있는 최신 블록 기준으로 판단할 수 없을 때만 (HEAD_REFRESH_MILLIS 간격으로) 최신 블록을 다시 조회
+     */
+    private boolean isFinal(long blockNumber) {
+        if (blockNumber <= knownHead.get() - confirmations) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (knownHead.get() >= 0 && now - headCheckedAt < TimeUnit.MILLISECONDS.toNanos(HEAD_REFRESH_MILLIS)) {
+            return false;
+        }
+        headCheckedAt = now;
+        try {
+            headRequests.incrementAndGet();
+            EthBlockNumber response = new Request<>(BLOCK_NUMBER, Collections.<String>emptyList(), delegate,
+                EthBlockNumber.class).send();
+            if (!response.hasError()) {
+                updateHead(response.getBlockNumber().longValue());
+            }
+        } catch (IOException e) {
+            // 최신 블록을 모르면 캐시하지 않음 (응답은 그대로 반환)
+            return false;
+        }
+        return blockNumber <= knownHead.get() - confirmations;
+    }
+
+    private void updateHead(long head) {
+        knownHead.accumulateAndGet(head, Math::max);
+    }
+
+    private void remember(String key, byte[] json) {
+        synchronized (memory) {
+            memory.put(key, json);
+        }
+    }
+
+    private <T extends Response> T fromCache(long id, byte[] result, Class<T> responseType) throws IOException {
+        byte[] prefix = ("{\"jsonrpc\":\"2.0\",\"id\":" + id + ",\"result\":").getBytes(StandardCharsets.US_ASCII);
+        byte[] envelope = Arrays.copyOf(prefix, prefix.length + result.length + 1);
+        System.arraycopy(result, 0, envelope, prefix.length, result.length);
+        envelope[envelope.length - 1] = '}';
+        return objectMapper.readValue(envelope, responseType);
+    }
+
+    private <T extends Response> T toResponse(RawResponse raw, Class<T> responseType) throws IOException {
+        ObjectNode envelope = objectMapper.createObjectNode();
+        envelope.put("jsonrpc", raw.getJsonrpc());
+        envelope.put("id", raw.getId());
+        if (raw.hasError()) {
+            envelope.set("error", objectMapper.valueToTree(raw.getError()));
+        } else {
+            envelope.set("result", raw.getResult());
+        }
+        return objectMapper.treeToValue(envelope, responseType);
+    }
+
+    public long getMemoryHitCount() {
+        return memoryHits.get();
+    }
+
+    public long getDiskHitCount() {
+        return diskHits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * 캐시 대상 요청 중 네트워크 없이 응답한 비율
+     */
+    public double getHitRatio() {
+        long hits = memoryHits.get() + diskHits.get();
+        long total = hits + misses.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * 받은 응답이 아직 확정 전이라 저장하지 않은 횟수
+     */
+    public long getNotFinalCount() {
+        return notFinal.get();
+    }
+
+    public long getStoredCount() {
+        return stored.get();
+    }
+
+    public long getHeadRequestCount() {
+        return headRequests.get();
+    }
+
+    public int getDiskEntryCount() {
+        return diskLog.size();
+    }
+
+    public long getDiskBytes() {
+        return diskLog.bytes();
+    }
+
+    public void resetCounters() {
+        memoryHits.set(0);
+        diskHits.set(0);
+        misses.set(0);
+        stored.set(0);
+        notFinal.set(0);
+        headRequests.set(0);
+    }
+
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(Request request, Class<T> responseType) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return send(request, responseType);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Override
+    public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        return delegate.sendBatch(batchRequest);
+    }
+
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        return delegate.sendBatchAsync(batchRequest);
+    }
+
+    @Override
+    public <T extends Notification<?>> Flowable<T> subscribe(Request request, String unsubscribeMethod,
+                                                              Class<T> responseType) {
+        return delegate.subscribe(request, unsubscribeMethod, responseType);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            diskLog.close();
+        } finally {
+            delegate.close();
+        }
+    }
+
+    /**
+     * 추가 전용 로그 파일 + 메모리 인덱스
+     */
+    private static final class DiskLog {
+        private static final int HEADER_BYTES = 16;
+        // 파일 헤더 = [매직 8바이트][체인 ID 8바이트]
+        private static final byte[] MAGIC = "RPCCACHE".getBytes(StandardCharsets.US_ASCII);
+        private static final int FILE_HEADER_BYTES = 16;
+
+        /**
+         * 압축된 값의 파일 내 위치
+         */
+        private static final class Location {
+            final long offset;
+            final int storedLength;
+            final int rawLength;
+
+            Location(long offset, int storedLength, int rawLength) {
+                this.offset = offset;
+                this.storedLength = storedLength;
+                this.rawLength = rawLength;
+            }
+        }
+
+        private final FileChannel channel;
+        private final Map<String, Location> index = new HashMap<>();
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(Inflater::new);
+        private final CRC32 crc = new CRC32();
+        private byte[] deflateBuffer = new byte[4_096];
+        private long end;
+
+        DiskLog(Path file, long chainId) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                if (channel.size() < FILE_HEADER_BYTES) {
+                    // 새 파일 (또는 헤더를 쓰다 끊긴 파일)
+                    channel.truncate(0);
+                    writeFileHeader(chainId);
+                } else {
+                    checkFileHeader(file, chainId);
+                }
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            end = load();
+            if (end < channel.size()) {
+                // 쓰다가 끊긴 레코드 제거
+                channel.truncate(end);
+            }
+        }
+
+        private void writeFileHeader(long chainId) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES).put(MAGIC).putLong(chainId).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+
+        private void checkFileHeader(Path file, long chainId) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new EOFException("캐시 파일 헤더가 잘림: " + file);
+                }
+            }
+            byte[] magic = new byte[MAGIC.length];
+            header.flip().get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("체인 ID 헤더가 없는 캐시 파일 (이전 형식이면 삭제 후 다시 생성): " + file);
+            }
+            long stored = header.getLong();
+            if (stored != chainId) {
+                throw new IOException("캐시 파일과 노드의 체인 ID가 다름 (파일 " + stored + ", 노드 " + chainId + "): " + file);
+            }
+        }
+
+        /**
+         * 파일 헤더 다음부터 읽어 인덱스를 만들고, 마지막 정상 레코드의 끝 위치를 반환
+         */
+        private long load() throws IOException {
+            long position = FILE_HEADER_BYTES;
+            long size = channel.size();
+            InputStream input = new BufferedInputStream(Channels.newInputStream(channel.position(position)), 1 << 16);
+            DataInputStream data = new DataInputStream(input);
+            CRC32 check = new CRC32();
+            while (true) {
+                try {
+                    int expectedCrc = data.readInt();
+                    int keyLength = data.readInt();
+                    int storedLength = data.readInt();
+                    int rawLength = data.readInt();
+                    if (keyLength <= 0 || storedLength < 0 || rawLength < 0
+                        || position + HEADER_BYTES + keyLength + storedLength > size) {
+                        return position;
+                    }
+                    byte[] key = new byte[keyLength];
+                    byte[] value = new byte[storedLength];
+                    data.readFully(key);
+                    data.readFully(value);
+                    check.reset();
+                    check.update(key);
+                    check.update(value);
+                    if ((int) check.getValue() != expectedCrc) {
+                        return position;
+                    }
+                    long valueOffset = position + HEADER_BYTES + keyLength;
+                    index.put(new String(key, StandardCharsets.UTF_8), new Location(valueOffset, storedLength, rawLength));
+                    position = valueOffset + storedLength;
+                } catch (EOFException e) {
+                    return position;
+                }
+            }
+        }
+
+        byte[] read(String key) throws IOException {
+            Location location;
+            synchronized (this) {
+                location = index.get(key);
+            }
+            if (location == null) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(location.storedLength);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, location.offset + buffer.position()) < 0) {
+                    throw new EOFException("캐시 파일이 잘림: " + key);
+                }
+            }
+            Inflater inflater = inflaters.get();
+            inflater.reset();
+            inflater.setInput(buffer.array());
+            byte[] json = new byte[location.rawLength];
+            try {
+                int length = inflater.inflate(json);
+                if (length != json.length) {
+                    throw new IOException("캐시 레코드 길이 불일치: " + key);
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("캐시 레코드 손상: " + key, e);
+            }
+            return json;
+        }
+
+        synchronized void append(String key, byte[] json) throws IOException {
+            if (index.containsKey(key)) {
+                return;
+            }
+            deflater.reset();
+            deflater.setInput(json);
+            deflater.finish();
+            int storedLength = 0;
+            while (!deflater.finished()) {
+                if (storedLength == deflateBuffer.length) {
+                    deflateBuffer = Arrays.copyOf(deflateBuffer, deflateBuffer.length * 2);
+                }
+                storedLength += deflater.deflate(deflateBuffer, storedLength, deflateBuffer.length - storedLength);
+            }
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            crc.reset();
+            crc.update(keyBytes);
+            crc.update(deflateBuffer, 0, storedLength);
+
+            ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + keyBytes.length + storedLength);
+            record.putInt((int) crc.getValue()).putInt(keyBytes.length).putInt(storedLength).putInt(json.length);
+            record.put(keyBytes).put(deflateBuffer, 0, storedLength).flip();
+            long position = end;
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+            index.put(key, new Location(end + HEADER_BYTES + keyBytes.length, storedLength, json.length));
+            end = position;
+        }
+
+        synchronized int size() {
+            return index.size();
+        }
+
+        synchronized long bytes() {
+            return end;
+        }
+
+        synchronized void close() throws IOException {
+            channel.force(false);
+            channel.close();
+            deflater.end();
+        }
+    }
+
+    /**
+     * GetNativeCoinTransaction과 같은 트랜잭션을 두 번 조회하는 예시 (두 번째는 캐시에서 응답)
+     * 환경 변수: INFURA_PROJECT_ID
+     */
+    public static void main(String[] args) throws IOException {
+        String sepoliaUrl = "https://sepolia.infura.io/v3/" + System.getenv("INFURA_PROJECT_ID");
+        CachingWeb3jService service = new CachingWeb3jService(new HttpService(sepoliaUrl), Paths.get("rpc-cache.log"));
+        Web3j web3 = Web3j.build(service);
+
+        String transactionHash = "0x0db5f62336bc07a59ec38ea5a2b2b4a30d5819650fb7e2bbd988766d97b69022";
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            String from = web3.ethGetTransactionByHash(transactionHash).send().getTransaction().get().getFrom();
+            String status = web3.ethGetTransactionReceipt(transactionHash).send().getTransactionReceipt().get().getStatus();
+            System.out.printf("%d회차: from %s, status %s (%.1fms)%n", i + 1, from, status, (System.nanoTime() - start) / 1e6);
+        }
+        System.out.printf("적중률 %.0f%% (메모리 %d건, 디스크 %d건, 미스 %d건), 디스크 %d건 / %,d bytes%n",
+            service.getHitRatio() * 100, service.getMemoryHitCount(), service.getDiskHitCount(), service.getMissCount(),
+            service.getDiskEntryCount(), service.getDiskBytes());
+        web3.shutdown();
+    }
+}
@@ -0,0 +1,153 @@
+package rpc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.utils.Numeric;
+import rpc.StubRpcNode.StubRpcException;
+
+public class CachingWeb3jServiceBenchmark {
+
+    private static final long HEAD = 9_095_000;
+    private static final int TRANSACTIONS_PER_BLOCK = 50;
+    private static final ObjectMapper OBJECT_MAPPER = ObjectMapperFactory.getObjectMapper();
+
+    /**
+     * 확정 블록 응답 캐시 벤치마크 (로컬 스텁 노드 + 지연 주입)
+     *
+     * 작업: 같은 과거 트랜잭션 해시 목록을 여러 번 처리 (해시마다 tx 조회 + receipt 조회, 블록 일부 조회)
+     * 스텁 체인의 트랜잭션은 블록 9,000,000 ~ 9,099,999에 흩어져 있고 최신 블록은 9,095,000
+     * → 최신 블록 - 64 이후 블록의 응답(약 5%)은 확정 전이라 캐시하지 않음
+     *
+     * 비교 대상:
+     * - 캐시 없음 : HttpService 그대로
+     * - 캐시 첫 실행 : 모두 미스, 응답 저장
+     * - 캐시 재실행 : 메모리 LRU 적중
+     * - 재시작 후 : 같은 파일로 새 인스턴스 생성 (메모리 비어 있음) → 디스크 적중
+     *
+     * 측정 항목: 조회/초, HTTP 왕복 수, 적중률, 디스크 파일 크기 (원본 JSON 대비)
+     *
+     * 실행 인자 (선택): [지연ms] [해시 개수]
+     */
+    public static void main(String[] args) throws Exception {
+        long latencyMillis = args.length > 0 ? Long.parseLong(args[0]) : 20;
+        int hashCount = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+
+        List<String> hashes = StubChainData.transactionHashes(hashCount);
+        List<Long> blocks = new ArrayList<>();
+        for (int i = 0; i < hashCount / 10; i++) {
+            blocks.add(StubChainData.blockNumberOf(hashes.get(i)));
+        }
+        Path file = Files.createTempFile("rpc-cache", ".log");
+        file.toFile().deleteOnExit();
+
+        try (StubRpcNode node = new StubRpcNode(latencyMillis, CachingWeb3jServiceBenchmark::handle)) {
+            System.out.println("=== 확정 블록 응답 캐시 벤치마크 (지연 " + latencyMillis + "ms, 해시 " + hashCount
+                + "건 + 블록 " + blocks.size() + "개, 최신 블록 " + HEAD + ") ===");
+
+            HttpService http = new HttpService(node.getUrl());
+            run("캐시 없음", http, hashes, blocks, node, null);
+
+            CachingWeb3jService cache = new CachingWeb3jService(new HttpService(node.getUrl()), file);
+            run("캐시 첫 실행", cache, hashes, blocks, node, cache);
+            run("캐시 재실행 (메모리)", cache, hashes, blocks, node, cache);
+            System.out.printf("  저장 %,d건, 확정 전이라 저장 안 함 %,d건, 디스크 %,d bytes (원본 JSON 약 %,d bytes)%n",
+                cache.getDiskEntryCount(), cache.getNotFinalCount(), cache.getDiskBytes(), rawJsonBytes(hashes, blocks));
+            cache.close();
+
+            CachingWeb3jService restarted = new CachingWeb3jService(new HttpService(node.getUrl()), file);
+            run("재시작 후 (디스크)", restarted, hashes, blocks, node, restarted);
+            restarted.close();
+            http.close();
+        }
+    }
+
+    private static void run(String label, Web3jService service, List<String> hashes, List<Long> blocks,
+                            StubRpcNode node, CachingWeb3jService cache) throws Exception {
+        Web3j web3 = Web3j.build(service);
+        node.resetCounters();
+        if (cache != null) {
+            cache.resetCounters();
+        }
+        long start = System.nanoTime();
+        for (String hash : hashes) {
+            String from = web3.ethGetTransactionByHash(hash).send().getTransaction().get().getFrom();
+            String status = web3.ethGetTransactionReceipt(hash).send().getTransactionReceipt().get().getStatus();
+            if (from == null || !"0x1".equals(status)) {
+                throw new IllegalStateException("응답 불일치: " + hash);
+            }
+        }
+        for (long number : blocks) {
+            int size = web3.ethGetBlockByNumber(new DefaultBlockParameterNumber(number), false).send()
+                .getBlock().getTransactions().size();
+            if (size != TRANSACTIONS_PER_BLOCK) {
+                throw new IllegalStateException("블록 트랜잭션 수 불일치: " + size);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int lookups = hashes.size() * 2 + blocks.size();
+        System.out.printf("%-18s : %,10.1f 조회/초, HTTP 왕복 %,5d회, 소요 %6.3f초", label, lookups / seconds,
+            node.getHttpRequestCount(), seconds);
+        if (cache != null) {
+            System.out.printf(", 적중률 %5.1f%% (메모리 %,d / 디스크 %,d / 미스 %,d)", cache.getHitRatio() * 100,
+                cache.getMemoryHitCount(), cache.getDiskHitCount(), cache.getMissCount());
+        }
+        System.out.println();
+    }
+
+    private static long rawJsonBytes(List<String> hashes, List<Long> blocks) throws Exception {
+        long bytes = 0;
+        for (String hash : hashes) {
+            bytes += OBJECT_MAPPER.writeValueAsBytes(StubChainData.transaction(hash)).length;
+            bytes += OBJECT_MAPPER.writeValueAsBytes(StubChainData.receipt(hash)).length;
+        }
+        for (long number : blocks) {
+            bytes += OBJECT_MAPPER.writeValueAsBytes(block(number)).length;
+        }
+        return bytes;
+    }
+
+    private static Object handle(String method, JsonNode params) throws StubRpcException {
+        switch (method) {
+            case "eth_chainId":
+                return Numeric.encodeQuantity(BigInteger.valueOf(11155111L)); // Sepolia
+            case "eth_blockNumber":
+                return Numeric.encodeQuantity(BigInteger.valueOf(HEAD));
+            case "eth_getTransactionByHash":
+                return StubChainData.transaction(params.path(0).asText());
+            case "eth_getTransactionReceipt":
+                return StubChainData.receipt(params.path(0).asText());
+            case "eth_getBlockByNumber":
+                return block(Numeric.decodeQuantity(params.path(0).asText()).longValueExact());
+            default:
+                throw new StubRpcException(-32601, "method not found: " + method);
+        }
+    }
+
+    private static Map<String, Object> block(long number) {
+        Map<String, Object> block = new LinkedHashMap<>();
+        block.put("number", Numeric.encodeQuantity(BigInteger.valueOf(number)));
+        block.put("hash", StubChainData.blockHash(number));
+        block.put("parentHash", StubChainData.blockHash(number - 1));
+        block.put("timestamp", Numeric.encodeQuantity(BigInteger.valueOf(1_700_000_000L + number * 12)));
+        block.put("gasLimit", "0x1c9c380");
+        block.put("gasUsed", "0x0");
+        List<String> transactions = new ArrayList<>(TRANSACTIONS_PER_BLOCK);
+        for (int i = 0; i < TRANSACTIONS_PER_BLOCK; i++) {
+            transactions.add(StubChainData.transactionHash(number * 1_000 + i));
+        }
+        block.put("transactions", transactions);
+        return block;
+    }
+}
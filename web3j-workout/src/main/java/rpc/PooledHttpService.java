@@ -0,0 +1,389 @@
+package rpc;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.EventListener;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import org.web3j.protocol.Service;
+import org.web3j.protocol.exceptions.ClientConnectionException;
+import org.web3j.protocol.http.HttpService;
+
+/**
+ * 커넥션 풀 / 동시성 / 압축을 조절할 수 있는 JSON-RPC HTTP 전송 계층 (Web3j.build(new PooledHttpService(url)))
+ *
+ * 기본 HttpService(url)의 문제:
+ * - OkHttp 기본 커넥션 풀은 유휴 연결 5개 → 동시 요청이 5개를 넘으면 응답 후 연결을 닫고 다음 요청에서 다시 연결
+ *   (TLS 노드면 요청마다 핸드셰이크)
+ * - 동시 요청 수 제한이 없어 노드(Infura)의 동시 연결 / 요청 제한에 그대로 부딪힘
+ * - 요청 JSON을 매번 String → byte[]로 새로 인코딩, 응답은 전체를 byte[]로 복사한 뒤 파싱
+ *
+ * 이 전송 계층:
+ * 1. 커넥션 풀 : 유휴 연결 수와 유휴 연결 유지 시간(keep-alive 후 제거)을 지정
+ * 2. 동시성 제한 : maxConcurrentRequests개까지만 동시에 전송 (서비스 1개 = 노드 호스트 1개이므로 호스트별 제한)
+ *                  응답 스트림을 닫을 때(파싱 완료) 허가를 반환
+ * 3. HTTP/2 : TLS 노드는 ALPN으로 HTTP/2 협상 → 연결 1개에서 요청 다중화 (헤드 오브 라인 블로킹 없음)
+ *             평문 h2c 노드는 http2PriorKnowledge = true
+ * 4. gzip 요청 : gzipMinBytes를 지정하면 그 이상인 본문을 압축해서 전송 (Content-Encoding: gzip, 큰 배치 / eth_call 데이터)
+ *    gzip 응답 : OkHttp가 Accept-Encoding: gzip을 붙이고 투명하게 해제
+ * 5. 버퍼 재사용 : 스레드별 본문 버퍼 / Deflater / CRC32를 재사용 (send()는 호출 스레드에서 본문을 모두 씀)
+ *                  응답은 복사하지 않고 스트림으로 바로 파싱
+ *
+ * gzip 요청 본문을 지원하지 않는 노드가 많아 (415 / 파싱 오류) 요청 압축은 기본으로 꺼져 있음
+ * → 지원을 확인한 노드에만 gzipMinBytes(1_024) 등으로 켤 것
+ */
+public class PooledHttpService extends Service {
+
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 64;
+    public static final long DEFAULT_KEEP_ALIVE_SECONDS = 300;
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 256;
+    public static final int DEFAULT_GZIP_MIN_BYTES = -1;
+
+    private static final MediaType JSON_MEDIA_TYPE = HttpService.JSON_MEDIA_TYPE;
+    // 이보다 큰 요청(대형 배치)의 버퍼는 스레드에 남기지 않음
+    private static final int MAX_RETAINED_BUFFER_BYTES = 1 << 20;
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private final String url;
+    private final OkHttpClient client;
+    private final Map<String, String> headers = new HashMap<>();
+    private Semaphore permits = new Semaphore(DEFAULT_MAX_CONCURRENT_REQUESTS);
+    private int gzipMinBytes = DEFAULT_GZIP_MIN_BYTES;
+
+    // 통계
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong gzipRequests = new AtomicLong();
+    private final AtomicLong requestBytes = new AtomicLong();
+    private final AtomicLong sentBytes = new AtomicLong();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final AtomicLong permitWaits = new AtomicLong();
+
+    /**
+     * 스레드별 인코딩 / 압축 버퍼
+     */
+    private static final class Buffers {
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        final CRC32 crc = new CRC32();
+        byte[] body = new byte[4_096];
+        byte[] compressed = new byte[4_096];
+        // 마지막 encode / gzip 결과 길이
+        int bodyLength;
+        int compressedLength;
+    }
+
+    public PooledHttpService(String url) {
+        this(url, DEFAULT_MAX_IDLE_CONNECTIONS, DEFAULT_KEEP_ALIVE_SECONDS, false);
+    }
+
+    /**
+     * @param maxIdleConnections  풀에 유지할 유휴 연결 수 (동시 요청 수 이상 권장, HTTP/2면 몇 개로 충분)
+     * @param keepAliveSeconds    유휴 연결을 풀에서 제거하기까지의 시간
+     * @param http2PriorKnowledge 평문 HTTP/2(h2c) 노드에 HTTP/1.1 협상 없이 바로 HTTP/2로 연결
+     */
+    public PooledHttpService(String url, int maxIdleConnections, long keepAliveSeconds, boolean http2PriorKnowledge) {
+        super(false);
+        this.url = url;
+        // HttpService.getOkHttpClientBuilder() : Infura 호환 TLS 설정 (기본 HttpService와 동일)
+        OkHttpClient.Builder builder = HttpService.getOkHttpClientBuilder()
+            .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS))
+            .protocols(http2PriorKnowledge
+                ? List.of(Protocol.H2_PRIOR_KNOWLEDGE)
+                : List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+            .eventListener(new EventListener() {
+                @Override
+                public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+                    connectionsOpened.incrementAndGet();
+                }
+            });
+        if (http2PriorKnowledge) {
+            // 연결 1개를 오래 공유하므로 PING으로 끊긴 연결을 빨리 감지
+            builder.pingInterval(30, TimeUnit.SECONDS);
+        }
+        this.client = builder.build();
+    }
+
+    /**
+     * 동시에 전송 중인 요청 수 제한 (사용 전에 설정)
+     */
+    public PooledHttpService maxConcurrentRequests(int maxConcurrentRequests) {
+        this.permits = new Semaphore(maxConcurrentRequests);
+        return this;
+    }
+
+    /**
+     * 요청 본문이 minBytes 이상이면 gzip 압축 (-1이면 압축 안 함)
+     */
+    public PooledHttpService gzipMinBytes(int minBytes) {
+        this.gzipMinBytes = minBytes;
+        return this;
+    }
+
+    public PooledHttpService addHeader(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public OkHttpClient getClient() {
+        return client;
+    }
+
+    @Override
+    protected InputStream performIO(String payload) throws IOException {
+        Buffers buffers = BUFFERS.get();
+        byte[] body = encode(buffers, payload);
+        int length = buffers.bodyLength;
+        requests.incrementAndGet();
+        requestBytes.addAndGet(length);
+
+        boolean gzip = gzipMinBytes >= 0 && length >= gzipMinBytes;
+        if (gzip) {
+            body = gzip(buffers, body, length);
+            length = buffers.compressedLength;
+            gzipRequests.incrementAndGet();
+        }
+        sentBytes.addAndGet(length);
+
+        Request.Builder request = new Request.Builder()
+            .url(url)
+            .post(new ByteArrayBody(body, length));
+        headers.forEach(request::header);
+        if (gzip) {
+            request.header("Content-Encoding", "gzip");
+        }
+
+        Semaphore permits = this.permits;
+        acquire(permits);
+        Response response;
+        try {
+            response = client.newCall(request.build()).execute();
+        } catch (IOException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        ResponseBody responseBody = response.body();
+        if (!response.isSuccessful()) {
+            try {
+                String text = responseBody == null ? "N/A" : responseBody.string();
+                throw new ClientConnectionException("Invalid response received: " + response.code() + "; " + text);
+            } finally {
+                response.close();
+                permits.release();
+            }
+        }
+        if (responseBody == null) {
+            permits.release();
+            return null;
+        }
+        // Service.send()가 파싱 후 스트림을 닫으면 응답을 닫고 허가 반환
+        return new FilterInputStream(responseBody.byteStream()) {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    try {
+                        super.close();
+                    } finally {
+                        permits.release();
+                    }
+                }
+            }
+        };
+    }
+
+    private void acquire(Semaphore permits) throws InterruptedIOException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        permitWaits.incrementAndGet();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("동시 요청 허가 대기 중 인터럽트");
+        }
+    }
+
+    /**
+     * payload → UTF-8 (스레드 버퍼 재사용, 너무 큰 요청은 임시 배열)
+     * JSON-RPC 요청은 거의 ASCII라 문자를 바로 기록, 짝 없는 서로게이트는 String.getBytes와 같이 '?'로 대체
+     */
+    private static byte[] encode(Buffers buffers, String payload) {
+        int length = payload.length();
+        byte[] target = buffers.body;
+        if (target.length < length * 3) {
+            target = new byte[Math.max(length * 3, target.length * 2)];
+            if (target.length <= MAX_RETAINED_BUFFER_BYTES) {
+                buffers.body = target;
+            }
+        }
+        int position = 0;
+        for (int i = 0; i < length; i++) {
+            char c = payload.charAt(i);
+            if (c < 0x80) {
+                target[position++] = (byte) c;
+            } else if (c < 0x800) {
+                target[position++] = (byte) (0xC0 | (c >> 6));
+                target[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(payload.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, payload.charAt(++i));
+                    target[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    target[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    target[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    target[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    target[position++] = '?';
+                }
+            } else {
+                target[position++] = (byte) (0xE0 | (c >> 12));
+                target[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                target[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        buffers.bodyLength = position;
+        return target;
+    }
+
+    /**
+     * body[0..length) → gzip (헤더 + raw deflate + CRC32 + 원본 길이)
+     */
+    private static byte[] gzip(Buffers buffers, byte[] body, int length) {
+        byte[] target = buffers.compressed;
+        int capacity = length + length / 1_000 + 64;
+        if (target.length < capacity) {
+            target = new byte[Math.max(capacity, target.length * 2)];
+            if (target.length <= MAX_RETAINED_BUFFER_BYTES) {
+                buffers.compressed = target;
+            }
+        }
+        System.arraycopy(GZIP_HEADER, 0, target, 0, GZIP_HEADER.length);
+        int position = GZIP_HEADER.length;
+
+        Deflater deflater = buffers.deflater;
+        deflater.reset();
+        deflater.setInput(body, 0, length);
+        deflater.finish();
+        while (!deflater.finished()) {
+            if (position == target.length) {
+                target = Arrays.copyOf(target, target.length * 2);
+            }
+            position += deflater.deflate(target, position, target.length - position);
+        }
+
+        CRC32 crc = buffers.crc;
+        crc.reset();
+        crc.update(body, 0, length);
+        if (position + 8 > target.length) {
+            target = Arrays.copyOf(target, position + 8);
+        }
+        writeIntLittleEndian(target, position, (int) crc.getValue());
+        writeIntLittleEndian(target, position + 4, length);
+        buffers.compressedLength = position + 8;
+        return target;
+    }
+
+    private static void writeIntLittleEndian(byte[] dest, int offset, int value) {
+        dest[offset] = (byte) value;
+        dest[offset + 1] = (byte) (value >>> 8);
+        dest[offset + 2] = (byte) (value >>> 16);
+        dest[offset + 3] = (byte) (value >>> 24);
+    }
+
+    /**
+     * 배열 일부를 그대로 쓰는 요청 본문 (execute()가 반환되기 전에 호출 스레드에서 기록됨)
+     */
+    private static final class ByteArrayBody extends RequestBody {
+        private final byte[] bytes;
+        private final int length;
+
+        ByteArrayBody(byte[] bytes, int length) {
+            this.bytes = bytes;
+            this.length = length;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return JSON_MEDIA_TYPE;
+        }
+
+        @Override
+        public long contentLength() {
+            return length;
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            sink.write(bytes, 0, length);
+        }
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getGzipRequestCount() {
+        return gzipRequests.get();
+    }
+
+    /**
+     * 압축 전 요청 본문 바이트 합계
+     */
+    public long getRequestBytes() {
+        return requestBytes.get();
+    }
+
+    /**
+     * 실제 전송한 요청 본문 바이트 합계 (압축 후)
+     */
+    public long getSentBytes() {
+        return sentBytes.get();
+    }
+
+    public long getConnectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    public long getPermitWaitCount() {
+        return permitWaits.get();
+    }
+
+    public int getIdleConnectionCount() {
+        return client.connectionPool().idleConnectionCount();
+    }
+
+    @Override
+    public void close() {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+}
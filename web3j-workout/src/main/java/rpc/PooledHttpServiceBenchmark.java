@@ -0,0 +1,131 @@
+package rpc;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.http.HttpService;
+import rpc.StubRpcNode.StubRpcException;
+
+public class PooledHttpServiceBenchmark {
+
+    private static final String TOKEN = "0x1797da0ffff01bf87fef6becfa9e943e31540e03";
+    private static final int LOGS_PER_RESPONSE = 20;
+    private static final int FILTER_ADDRESSES = 40;
+
+    /**
+     * JSON-RPC 전송 계층 벤치마크 (로컬 스텁 노드 + 지연 주입)
+     *
+     * 비교 대상:
+     * - new HttpService(url) : OkHttp 기본 설정 (유휴 연결 5개)
+     * - new PooledHttpService(url).gzipMinBytes(1_024) : 유휴 연결 64개, gzip 요청 (1KB 이상), 버퍼 재사용
+     *
+     * 요청: 주소 40개 eth_getLogs 필터 (약 2KB) → 응답: Transfer 로그 20건 (약 14KB, 스텁이 gzip 응답)
+     * 스레드마다 요청을 순차로 보내고 요청별 지연을 기록
+     *
+     * 측정 항목:
+     * - 요청/초, p50 / p99 지연
+     * - 스텁 노드가 본 TCP 연결 수 (연결 재사용 여부), gzip 요청 수
+     *
+     * JDK HttpServer 스텁은 HTTP/1.1만 지원하므로 HTTP/2 다중화는 이 벤치마크에서 측정하지 않음
+     *
+     * 실행 인자 (선택): [지연ms] [클라이언트 스레드 수] [스레드당 요청 수]
+     */
+    public static void main(String[] args) throws Exception {
+        long latencyMillis = args.length > 0 ? Long.parseLong(args[0]) : 2;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int requestsPerThread = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        List<Map<String, Object>> logs = new ArrayList<>();
+        for (int i = 0; i < LOGS_PER_RESPONSE; i++) {
+            logs.add(StubChainData.transferLog(TOKEN, 5_000_000, i,
+                "0x658b8a1ae242d0460d4777e17c9af438daab4f77", "0x" + String.format("%040x", i + 1),
+                BigInteger.valueOf(1_000_000L * (i + 1))));
+        }
+        StubRpcNode.MethodHandler handler = (method, params) -> {
+            if (!"eth_getLogs".equals(method)) {
+                throw new StubRpcException(-32601, "method not found: " + method);
+            }
+            return logs;
+        };
+
+        List<String> addresses = new ArrayList<>();
+        for (int i = 0; i < FILTER_ADDRESSES; i++) {
+            addresses.add("0x" + String.format("%040x", 0xABCDEFL * (i + 1)));
+        }
+        EthFilter filter = new EthFilter(new DefaultBlockParameterNumber(5_000_000),
+            new DefaultBlockParameterNumber(5_000_100), addresses);
+
+        try (StubRpcNode node = new StubRpcNode(latencyMillis, threads * 2, handler)) {
+            node.setResponseCompression(1_024);
+            System.out.println("=== JSON-RPC 전송 계층 벤치마크 (지연 " + latencyMillis + "ms, 스레드 " + threads
+                + "개 × " + requestsPerThread + "건) ===");
+
+            HttpService defaultService = new HttpService(node.getUrl());
+            PooledHttpService pooledService = new PooledHttpService(node.getUrl()).gzipMinBytes(1_024);
+
+            // JIT / 연결 워밍업
+            run(defaultService, node, filter, threads, requestsPerThread / 4, null);
+            run(pooledService, node, filter, threads, requestsPerThread / 4, null);
+
+            double baseline = run(defaultService, node, filter, threads, requestsPerThread, "기본 HttpService");
+            double pooled = run(pooledService, node, filter, threads, requestsPerThread, "PooledHttpService");
+            System.out.printf("  → %.2f배%n", pooled / baseline);
+            System.out.printf("PooledHttpService 요청 본문: %,d → %,d bytes (gzip %d건), 새 연결 %d개%n",
+                pooledService.getRequestBytes(), pooledService.getSentBytes(),
+                pooledService.getGzipRequestCount(), pooledService.getConnectionsOpened());
+
+            defaultService.close();
+            pooledService.close();
+        }
+    }
+
+    private static double run(Web3jService service, StubRpcNode node, EthFilter filter,
+                              int threads, int requestsPerThread, String label) throws Exception {
+        Web3j web3 = Web3j.build(service);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        node.resetCounters();
+        long start = System.nanoTime();
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                long[] latencies = new long[requestsPerThread];
+                for (int i = 0; i < requestsPerThread; i++) {
+                    long requestStart = System.nanoTime();
+                    int size = web3.ethGetLogs(filter).send().getLogs().size();
+                    latencies[i] = System.nanoTime() - requestStart;
+                    if (size != LOGS_PER_RESPONSE) {
+                        throw new IllegalStateException("로그 개수 불일치: " + size);
+                    }
+                }
+                return latencies;
+            }));
+        }
+        long[] all = new long[threads * requestsPerThread];
+        int index = 0;
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            System.arraycopy(latencies, 0, all, index, latencies.length);
+            index += latencies.length;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        executor.shutdown();
+
+        double perSecond = all.length / seconds;
+        if (label != null) {
+            Arrays.sort(all);
+            System.out.printf("%-18s : %,8.0f 요청/초, p50 %6.2fms, p99 %6.2fms, TCP 연결 %,d개, gzip 요청 %,d건%n",
+                label, perSecond, all[all.length / 2] / 1e6, all[(int) (all.length * 0.99)] / 1e6,
+                node.getConnectionCount(), node.getGzipRequestCount());
+        }
+        return perSecond;
+    }
+}
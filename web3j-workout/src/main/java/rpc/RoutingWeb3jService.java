@@ -0,0 +1,624 @@
+package rpc;
+
+import io.reactivex.Flowable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.exceptions.ClientConnectionException;
+import org.web3j.protocol.websocket.events.Notification;
+
+/**
+ * 여러 RPC 엔드포인트에 요청을 분산하는 Web3jService (지연 기반 선택 + 헤지 요청 + 서킷 브레이커)
+ *
+ * 기존 예제는 체인마다 Infura URL 하나(https://sepolia.infura.io/v3/...)에 고정:
+ * - 그 노드가 느려지면(꼬리 지연) 모든 호출이 같이 느려짐
+ * - 노드가 503 / rate limit을 돌려주면 그대로 실패
+ *
+ * 이 라우터:
+ * 1. 선택 : 엔드포인트별 지연 EWMA × (1 + 오류율 EWMA 가중치)가 가장 낮은 노드 선택
+ *           probeRatio 비율은 다른 정상 노드로 보내서 측정값을 갱신 (한 번 느렸던 노드도 회복을 알 수 있음)
+ * 2. 헤지 요청 : 읽기 전용 메서드는 선택한 노드의 최근 p95 지연이 지나도 응답이 없으면 다음 노드에 같은 요청을 보내고
+ *               먼저 성공한 응답 사용 (헤지 수는 전체 요청의 maxHedgeRatio 이하로 제한)
+ * 3. 장애 조치 : 연결 오류 / HTTP 오류 / rate limit(-32005)이면 다음 노드로 재시도
+ *               (eth_sendRawTransaction은 같은 서명 트랜잭션이라 다시 보내도 같은 해시)
+ * 4. 서킷 브레이커 : 연속 실패 failureThreshold회 → OPEN (openMillis 동안 제외)
+ *                   → HALF_OPEN (시험 요청 1건) → 성공하면 CLOSED로 복귀, 실패하면 다시 OPEN
+ *
+ * 필터 메서드(eth_newFilter, eth_getFilterChanges 등)는 필터 상태가 노드마다 다르므로 첫 번째 엔드포인트로만 보냄
+ * 구독(subscribe)은 지원하지 않음 (WebSocketEventStream 사용)
+ */
+public class RoutingWeb3jService implements Web3jService {
+
+    public static final long DEFAULT_MIN_HEDGE_DELAY_MILLIS = 20;
+    public static final long DEFAULT_INITIAL_HEDGE_DELAY_MILLIS = 200;
+    public static final double DEFAULT_MAX_HEDGE_RATIO = 0.1;
+    public static final double DEFAULT_PROBE_RATIO = 0.05;
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final long DEFAULT_OPEN_MILLIS = 5_000;
+
+    // 같은 요청을 다른 노드에 다시 보내도 결과가 같은 읽기 메서드
+    private static final Set<String> HEDGEABLE_METHODS = new HashSet<>(Arrays.asList(
+        "eth_blockNumber", "eth_chainId", "net_version", "eth_gasPrice", "eth_maxPriorityFeePerGas", "eth_feeHistory",
+        "eth_getBalance", "eth_getCode", "eth_getStorageAt", "eth_getTransactionCount", "eth_call", "eth_estimateGas",
+        "eth_getBlockByNumber", "eth_getBlockByHash", "eth_getBlockTransactionCountByNumber",
+        "eth_getTransactionByHash", "eth_getTransactionReceipt", "eth_getLogs"));
+    // 노드에 상태가 남는 필터 메서드
+    private static final Set<String> STICKY_METHODS = new HashSet<>(Arrays.asList(
+        "eth_newFilter", "eth_newBlockFilter", "eth_newPendingTransactionFilter",
+        "eth_getFilterChanges", "eth_getFilterLogs", "eth_uninstallFilter"));
+    // 노드 과부하로 보는 JSON-RPC 오류 코드 (Infura: limit exceeded)
+    private static final int RATE_LIMITED = -32005;
+    private static final double EWMA_ALPHA = 0.2;
+    private static final double ERROR_PENALTY = 10;
+    private static final int LATENCY_SAMPLES = 256;
+    private static final int MIN_SAMPLES_FOR_P95 = 20;
+
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final ExecutorService executor;
+
+    private boolean hedging = true;
+    private long minHedgeDelayMillis = DEFAULT_MIN_HEDGE_DELAY_MILLIS;
+    private double maxHedgeRatio = DEFAULT_MAX_HEDGE_RATIO;
+    private double probeRatio = DEFAULT_PROBE_RATIO;
+    private int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+    private long openMillis = DEFAULT_OPEN_MILLIS;
+
+    // 통계
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong failovers = new AtomicLong();
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * 엔드포인트 1개의 지연 / 오류 측정값과 서킷 상태
+     */
+    private final class Endpoint {
+        final String name;
+        final Web3jService service;
+
+        // 아래 필드는 this로 보호
+        double latencyEwmaMillis = -1; // 측정 전이면 -1 → 먼저 선택되어 측정됨
+        double errorEwma;
+        final long[] samples = new long[LATENCY_SAMPLES];
+        int sampleCount;
+        int sampleIndex;
+        long p95Nanos = -1;
+        int samplesSinceP95;
+        State state = State.CLOSED;
+        int consecutiveFailures;
+        long openUntilNanos;
+        boolean trialInFlight;
+
+        final AtomicLong requestCount = new AtomicLong();
+        final AtomicLong failureCount = new AtomicLong();
+        final AtomicLong ejections = new AtomicLong();
+
+        Endpoint(String name, Web3jService service) {
+            this.name = name;
+            this.service = service;
+        }
+
+        /**
+         * 후보가 될 수 있는지만 확인 (상태는 바꾸지 않음)
+         */
+        synchronized boolean isAvailable(long now) {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    return now - openUntilNanos >= 0;
+                default:
+                    return !trialInFlight;
+            }
+        }
+
+        /**
+         * 이 노드로 요청을 보내도 되는지 (OPEN 기간이 끝났으면 HALF_OPEN 시험 요청 1건 허용)
+         */
+        synchronized boolean tryAcquire(long now) {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (now - openUntilNanos < 0) {
+                        return false;
+                    }
+                    state = State.HALF_OPEN;
+                    trialInFlight = true;
+                    return true;
+                default:
+                    if (trialInFlight) {
+                        return false;
+                    }
+                    trialInFlight = true;
+                    return true;
+            }
+        }
+
+        synchronized void onSuccess(long nanos) {
+            double millis = nanos / 1e6;
+            latencyEwmaMillis = latencyEwmaMillis < 0 ? millis : latencyEwmaMillis + EWMA_ALPHA * (millis - latencyEwmaMillis);
+            errorEwma -= EWMA_ALPHA * errorEwma;
+            consecutiveFailures = 0;
+            if (state == State.HALF_OPEN) {
+                state = State.CLOSED;
+                trialInFlight = false;
+            }
+            samples[sampleIndex] = nanos;
+            sampleIndex = (sampleIndex + 1) % LATENCY_SAMPLES;
+            sampleCount = Math.min(sampleCount + 1, LATENCY_SAMPLES);
+            samplesSinceP95++;
+        }
+
+        synchronized void onFailure(long now) {
+            failureCount.incrementAndGet();
+            errorEwma += EWMA_ALPHA * (1 - errorEwma);
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+                if (state == State.CLOSED) {
+                    ejections.incrementAndGet();
+                }
+                state = State.OPEN;
+                trialInFlight = false;
+                openUntilNanos = now + TimeUnit.MILLISECONDS.toNanos(openMillis);
+            }
+        }
+
+        /**
+         * 노드 상태와 무관한 오류로 끝난 요청 → 성공 / 실패로 세지 않고 HALF_OPEN 시험 자리만 반납
+         * (반납하지 않으면 isAvailable / tryAcquire가 이 노드를 계속 거절)
+         */
+        synchronized void onIgnored() {
+            if (state == State.HALF_OPEN) {
+                trialInFlight = false;
+            }
+        }
+
+        /**
+         * 최근 응답 지연의 p95 (표본이 쌓일 때마다 16건 간격으로 다시 계산)
+         */
+        synchronized long p95Nanos() {
+            if (sampleCount < MIN_SAMPLES_FOR_P95) {
+                return -1;
+            }
+            if (p95Nanos < 0 || samplesSinceP95 >= 16) {
+                long[] sorted = Arrays.copyOf(samples, sampleCount);
+                Arrays.sort(sorted);
+                p95Nanos = sorted[(int) (sorted.length * 0.95)];
+                samplesSinceP95 = 0;
+            }
+            return p95Nanos;
+        }
+
+        synchronized long openUntil() {
+            return openUntilNanos;
+        }
+
+        synchronized double score() {
+            return latencyEwmaMillis < 0 ? -1 : latencyEwmaMillis * (1 + ERROR_PENALTY * errorEwma);
+        }
+
+        synchronized EndpointStats stats() {
+            return new EndpointStats(name, state, latencyEwmaMillis, errorEwma,
+                sampleCount < MIN_SAMPLES_FOR_P95 ? -1 : p95Nanos() / 1e6,
+                requestCount.get(), failureCount.get(), ejections.get());
+        }
+    }
+
+    /**
+     * 요청 1건의 결과 (성공이면 error == null)
+     */
+    private static final class Outcome<T> {
+        final Endpoint endpoint;
+        final T value;
+        final Exception error;
+
+        Outcome(Endpoint endpoint, T value, Exception error) {
+            this.endpoint = endpoint;
+            this.value = value;
+            this.error = error;
+        }
+    }
+
+    /**
+     * 엔드포인트별 현황
+     */
+    public static class EndpointStats {
+        private final String name;
+        private final State state;
+        private final double latencyEwmaMillis;
+        private final double errorRate;
+        private final double p95Millis;
+        private final long requests;
+        private final long failures;
+        private final long ejections;
+
+        EndpointStats(String name, State state, double latencyEwmaMillis, double errorRate, double p95Millis,
+                      long requests, long failures, long ejections) {
+            this.name = name;
+            this.state = state;
+            this.latencyEwmaMillis = latencyEwmaMillis;
+            this.errorRate = errorRate;
+            this.p95Millis = p95Millis;
+            this.requests = requests;
+            this.failures = failures;
+            this.ejections = ejections;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getState() {
+            return state.name();
+        }
+
+        public double getLatencyEwmaMillis() {
+            return latencyEwmaMillis;
+        }
+
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        public double getP95Millis() {
+            return p95Millis;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public long getEjections() {
+            return ejections;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s [%s] 지연 EWMA %.1fms, p95 %.1fms, 오류율 %.2f, 요청 %,d건, 실패 %,d건, 제외 %d회",
+                name, state, latencyEwmaMillis, p95Millis, errorRate, requests, failures, ejections);
+        }
+    }
+
+    /**
+     * @param endpoints 이름 → 서비스 (순서 유지, 첫 번째는 필터 메서드 전용 노드)
+     */
+    public RoutingWeb3jService(Map<String, ? extends Web3jService> endpoints) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("엔드포인트가 1개 이상 필요함");
+        }
+        endpoints.forEach((name, service) -> this.endpoints.add(new Endpoint(name, service)));
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "rpc-router");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * URL마다 PooledHttpService를 만들어 라우터 생성 (이름은 호스트, 프로젝트 ID가 로그에 남지 않도록)
+     */
+    public static RoutingWeb3jService ofUrls(String... urls) {
+        Map<String, Web3jService> endpoints = new LinkedHashMap<>();
+        for (String url : urls) {
+            URI uri = URI.create(url);
+            String name = uri.getHost() + (uri.getPort() > 0 ? ":" + uri.getPort() : "");
+            endpoints.put(endpoints.containsKey(name) ? name + "#" + endpoints.size() : name, new PooledHttpService(url));
+        }
+        return new RoutingWeb3jService(endpoints);
+    }
+
+    public RoutingWeb3jService hedging(boolean hedging) {
+        this.hedging = hedging;
+        return this;
+    }
+
+    /**
+     * 헤지 요청을 보내기 전 최소 대기 시간 (p95가 이보다 작아도 이만큼은 기다림)
+     */
+    public RoutingWeb3jService minHedgeDelay(long millis) {
+        this.minHedgeDelayMillis = millis;
+        return this;
+    }
+
+    /**
+     * 전체 요청 대비 헤지 요청 상한 (노드 부하가 같이 늘어나지 않도록)
+     */
+    public RoutingWeb3jService maxHedgeRatio(double ratio) {
+        this.maxHedgeRatio = ratio;
+        return this;
+    }
+
+    public RoutingWeb3jService probeRatio(double ratio) {
+        this.probeRatio = ratio;
+        return this;
+    }
+
+    public RoutingWeb3jService circuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        return this;
+    }
+
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+        requests.incrementAndGet();
+        String method = request.getMethod();
+        if (STICKY_METHODS.contains(method)) {
+            Endpoint endpoint = endpoints.get(0);
+            endpoint.requestCount.incrementAndGet();
+            return endpoint.service.send(request, responseType);
+        }
+        return execute(endpoint -> endpoint.service.send(request, responseType),
+            hedging && HEDGEABLE_METHODS.contains(method));
+    }
+
+    @Override
+    public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        requests.incrementAndGet();
+        return execute(endpoint -> endpoint.service.sendBatch(batchRequest), false);
+    }
+
+    @FunctionalInterface
+    private interface Call<T> {
+        T call(Endpoint endpoint) throws IOException;
+    }
+
+    /**
+     * 선택한 노드로 보내고, 실패하면 다음 노드로 장애 조치, hedgeable이면 p95 이후 헤지 요청
+     */
+    private <T> T execute(Call<T> call, boolean hedgeable) throws IOException {
+        BlockingQueue<Outcome<T>> outcomes = new LinkedBlockingQueue<>();
+        Set<Endpoint> used = new HashSet<>();
+        Endpoint primary = select(used, true);
+        used.add(primary);
+        launch(primary, call, outcomes);
+        int running = 1;
+
+        boolean hedgePending = hedgeable && endpoints.size() > 1;
+        long hedgeDeadline = System.nanoTime() + hedgeDelayNanos(primary);
+        Exception lastError = null;
+        try {
+            while (running > 0) {
+                Outcome<T> outcome;
+                if (hedgePending) {
+                    outcome = outcomes.poll(hedgeDeadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (outcome == null) {
+                        // p95를 넘김 → 다른 노드에 같은 요청
+                        hedgePending = false;
+                        Endpoint next = hedgeBudgetAvailable() ? select(used, false) : null;
+                        if (next != null) {
+                            used.add(next);
+                            hedges.incrementAndGet();
+                            launch(next, call, outcomes);
+                            running++;
+                        }
+                        continue;
+                    }
+                } else {
+                    outcome = outcomes.take();
+                }
+                running--;
+                if (outcome.error == null) {
+                    if (outcome.endpoint != primary && running > 0) {
+                        hedgeWins.incrementAndGet();
+                    }
+                    return outcome.value;
+                }
+                if (outcome.error instanceof RuntimeException && !(outcome.error instanceof ClientConnectionException)) {
+                    // 노드 장애가 아님 (다른 노드로 보내도 같은 결과) → 다른 노드로 넘기지 않고 그대로 던짐
+                    throw (RuntimeException) outcome.error;
+                }
+                lastError = outcome.error;
+                if (running == 0) {
+                    Endpoint next = select(used, false);
+                    if (next != null) {
+                        used.add(next);
+                        failovers.incrementAndGet();
+                        launch(next, call, outcomes);
+                        running++;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("RPC 응답 대기 중 인터럽트");
+        }
+        if (lastError instanceof IOException) {
+            throw (IOException) lastError;
+        }
+        throw new IOException("모든 RPC 엔드포인트 실패", lastError);
+    }
+
+    private <T> void launch(Endpoint endpoint, Call<T> call, BlockingQueue<Outcome<T>> outcomes) {
+        endpoint.requestCount.incrementAndGet();
+        CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                T value = call.call(endpoint);
+                if (value instanceof Response && isRateLimited((Response<?>) value)) {
+                    endpoint.onFailure(System.nanoTime());
+                    outcomes.add(new Outcome<>(endpoint, null,
+                        new IOException(endpoint.name + " rate limited: " + ((Response<?>) value).getError().getMessage())));
+                    return;
+                }
+                endpoint.onSuccess(System.nanoTime() - start);
+                outcomes.add(new Outcome<>(endpoint, value, null));
+            } catch (IOException | ClientConnectionException e) {
+                endpoint.onFailure(System.nanoTime());
+                outcomes.add(new Outcome<>(endpoint, null, e));
+            } catch (RuntimeException e) {
+                // 응답 역직렬화 오류 등은 노드 상태와 무관 → 그대로 호출자에게
+                endpoint.onIgnored();
+                outcomes.add(new Outcome<>(endpoint, null, e));
+            }
+        }, executor);
+    }
+
+    private static boolean isRateLimited(Response<?> response) {
+        return response.hasError() && response.getError().getCode() == RATE_LIMITED;
+    }
+
+    /**
+     * 사용하지 않은 노드 중 점수가 가장 낮은 노드 (probeRatio 비율은 임의의 정상 노드)
+     * 첫 선택인데 모든 노드의 서킷이 OPEN이면 가장 먼저 열릴 노드를 사용 (전부 거절하지 않음)
+     */
+    private Endpoint select(Set<Endpoint> used, boolean first) {
+        long now = System.nanoTime();
+        List<Endpoint> candidates = new ArrayList<>(endpoints.size());
+        for (Endpoint endpoint : endpoints) {
+            if (!used.contains(endpoint) && endpoint.isAvailable(now)) {
+                candidates.add(endpoint);
+            }
+        }
+        boolean probe = ThreadLocalRandom.current().nextDouble() < probeRatio;
+        while (!candidates.isEmpty()) {
+            Endpoint best = candidates.get(0);
+            if (probe && candidates.size() > 1) {
+                best = candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+            } else {
+                double bestScore = best.score();
+                for (Endpoint endpoint : candidates) {
+                    double score = endpoint.score();
+                    if (score < bestScore) {
+                        best = endpoint;
+                        bestScore = score;
+                    }
+                }
+            }
+            // 다른 스레드가 먼저 HALF_OPEN 시험 슬롯을 가져갔으면 다음 후보
+            if (best.tryAcquire(now)) {
+                return best;
+            }
+            candidates.remove(best);
+        }
+        if (!first) {
+            return null;
+        }
+        Endpoint soonest = endpoints.get(0);
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.openUntil() - soonest.openUntil() < 0) {
+                soonest = endpoint;
+            }
+        }
+        return soonest;
+    }
+
+    private long hedgeDelayNanos(Endpoint primary) {
+        long p95 = primary.p95Nanos();
+        long delay = p95 < 0 ? TimeUnit.MILLISECONDS.toNanos(DEFAULT_INITIAL_HEDGE_DELAY_MILLIS) : p95;
+        return Math.max(delay, TimeUnit.MILLISECONDS.toNanos(minHedgeDelayMillis));
+    }
+
+    private boolean hedgeBudgetAvailable() {
+        // 초기 몇 건은 허용하고 이후 전체 요청 비율로 제한
+        return hedges.get() < 10 + requests.get() * maxHedgeRatio;
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getHedgeCount() {
+        return hedges.get();
+    }
+
+    /**
+     * 헤지 요청이 원래 요청보다 먼저 응답한 횟수
+     */
+    public long getHedgeWinCount() {
+        return hedgeWins.get();
+    }
+
+    public long getFailoverCount() {
+        return failovers.get();
+    }
+
+    public List<EndpointStats> getEndpointStats() {
+        List<EndpointStats> stats = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            stats.add(endpoint.stats());
+        }
+        return stats;
+    }
+
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(Request request, Class<T> responseType) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return send(request, responseType);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return sendBatch(batchRequest);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }, executor);
+    }
+
+    @Override
+    public <T extends Notification<?>> Flowable<T> subscribe(Request request, String unsubscribeMethod,
+                                                              Class<T> responseType) {
+        throw new UnsupportedOperationException("RoutingWeb3jService는 구독을 지원하지 않음 (WebSocketEventStream 사용)");
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        for (Endpoint endpoint : endpoints) {
+            endpoint.service.close();
+        }
+    }
+
+    /**
+     * Sepolia 노드 여러 개로 최신 블록 번호를 조회하는 예시
+     * 환경 변수: INFURA_PROJECT_ID, 추가 노드 URL은 실행 인자로 전달
+     */
+    public static void main(String[] args) throws Exception {
+        List<String> urls = new ArrayList<>();
+        urls.add("https://sepolia.infura.io/v3/" + System.getenv("INFURA_PROJECT_ID"));
+        urls.addAll(Arrays.asList(args));
+        RoutingWeb3jService router = ofUrls(urls.toArray(new String[0]));
+        Web3j web3 = Web3j.build(router);
+        for (int i = 0; i < 20; i++) {
+            System.out.println("최신 블록: " + web3.ethBlockNumber().send().getBlockNumber());
+        }
+        router.getEndpointStats().forEach(System.out::println);
+        web3.shutdown();
+    }
+}
@@ -0,0 +1,162 @@
+package rpc;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.utils.Numeric;
+import rpc.StubRpcNode.StubRpcException;
+
+public class RoutingWeb3jServiceBenchmark {
+
+    private static final int NODES = 3;
+
+    /**
+     * 다중 엔드포인트 라우터 벤치마크 (로컬 스텁 노드 3개 + 지연 / 장애 주입)
+     *
+     * 시나리오 1. 꼬리 지연 : 모든 노드가 요청의 slowRate 비율을 slowMillis만큼 늦게 응답
+     * - 단일 노드 / 라우터 (헤지 없음) / 라우터 (p95 이후 헤지) 의 p50 / p95 / p99 / 최대 지연 비교
+     *
+     * 시나리오 2. 노드 장애 : 첫 번째 노드가 실행 중간에 전부 503을 돌려준 뒤 복구
+     * - 단일 노드 / 라우터의 오류 수, 장애 조치 횟수, 서킷 제외 / 재투입 확인
+     *
+     * 실행 인자 (선택): [기본 지연ms] [느린 요청 비율] [추가 지연ms] [클라이언트 스레드 수] [스레드당 요청 수]
+     */
+    public static void main(String[] args) throws Exception {
+        long latencyMillis = args.length > 0 ? Long.parseLong(args[0]) : 5;
+        double slowRate = args.length > 1 ? Double.parseDouble(args[1]) : 0.03;
+        long slowMillis = args.length > 2 ? Long.parseLong(args[2]) : 150;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        int requestsPerThread = args.length > 4 ? Integer.parseInt(args[4]) : 300;
+
+        AtomicLong blockNumber = new AtomicLong(5_000_000);
+        StubRpcNode.MethodHandler handler = (method, params) -> {
+            if (!"eth_blockNumber".equals(method)) {
+                throw new StubRpcException(-32601, "method not found: " + method);
+            }
+            return Numeric.encodeQuantity(BigInteger.valueOf(blockNumber.get()));
+        };
+
+        List<StubRpcNode> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            nodes.add(new StubRpcNode(latencyMillis, threads * 4, handler));
+        }
+        try {
+            System.out.println("=== 시나리오 1. 꼬리 지연 (기본 " + latencyMillis + "ms, 요청의 " + (slowRate * 100)
+                + "%가 +" + slowMillis + "ms, 스레드 " + threads + "개 × " + requestsPerThread + "건) ===");
+            nodes.forEach(node -> node.setSlowRequests(slowRate, slowMillis));
+
+            PooledHttpService single = new PooledHttpService(nodes.get(0).getUrl());
+            RoutingWeb3jService noHedge = router(nodes).hedging(false);
+            RoutingWeb3jService hedged = router(nodes);
+
+            // JIT / 연결 워밍업 (라우터는 엔드포인트별 지연 표본도 쌓임)
+            run(single, threads, requestsPerThread / 4, null, null);
+            run(noHedge, threads, requestsPerThread / 4, null, null);
+            run(hedged, threads, requestsPerThread / 4, null, null);
+
+            run(single, threads, requestsPerThread, "단일 노드", null);
+            run(noHedge, threads, requestsPerThread, "라우터 (헤지 없음)", null);
+            long hedgesBefore = hedged.getHedgeCount();
+            long requestsBefore = hedged.getRequestCount();
+            long winsBefore = hedged.getHedgeWinCount();
+            run(hedged, threads, requestsPerThread, "라우터 (헤지)", null);
+            System.out.printf("  헤지 요청 %,d건 (전체의 %.1f%%), 헤지 응답이 먼저 도착 %,d건%n",
+                hedged.getHedgeCount() - hedgesBefore,
+                100.0 * (hedged.getHedgeCount() - hedgesBefore) / (hedged.getRequestCount() - requestsBefore),
+                hedged.getHedgeWinCount() - winsBefore);
+            noHedge.close();
+            hedged.close();
+
+            System.out.println();
+            System.out.println("=== 시나리오 2. 노드 장애 (첫 번째 노드가 중간 1/3 구간 동안 전부 503, 서킷 브레이커 3회 / 500ms) ===");
+            nodes.forEach(node -> node.setSlowRequests(0, 0));
+            RoutingWeb3jService failover = router(nodes).circuitBreaker(3, 500);
+            run(failover, threads, requestsPerThread / 4, null, null);
+
+            AtomicLong completed = new AtomicLong();
+            long total = (long) threads * requestsPerThread;
+            Runnable outage = () -> {
+                long done = completed.incrementAndGet();
+                if (done == total / 3) {
+                    nodes.get(0).setFailureRate(1.0);
+                } else if (done == total * 2 / 3) {
+                    nodes.get(0).setFailureRate(0);
+                }
+            };
+            run(single, threads, requestsPerThread, "단일 노드", outage);
+            completed.set(0);
+            nodes.get(0).resetCounters();
+            long failoversBefore = failover.getFailoverCount();
+            run(failover, threads, requestsPerThread, "라우터", outage);
+            System.out.printf("  장애 조치 %,d건, 첫 번째 노드가 돌려준 503 %,d건%n",
+                failover.getFailoverCount() - failoversBefore, nodes.get(0).getFailedRequestCount());
+
+            // 복구 후 서킷이 다시 닫히는지 확인 (OPEN 기간이 지난 뒤 시험 요청 → CLOSED)
+            Thread.sleep(600);
+            run(failover, threads, requestsPerThread / 4, null, null);
+            failover.getEndpointStats().forEach(stats -> System.out.println("  " + stats));
+            failover.close();
+            single.close();
+        } finally {
+            nodes.forEach(StubRpcNode::close);
+        }
+    }
+
+    private static RoutingWeb3jService router(List<StubRpcNode> nodes) {
+        Map<String, Web3jService> endpoints = new LinkedHashMap<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            endpoints.put("node-" + i, new PooledHttpService(nodes.get(i).getUrl()));
+        }
+        return new RoutingWeb3jService(endpoints);
+    }
+
+    private static void run(Web3jService service, int threads, int requestsPerThread, String label,
+                            Runnable afterEach) throws Exception {
+        Web3j web3 = Web3j.build(service);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                long[] latencies = new long[requestsPerThread];
+                for (int i = 0; i < requestsPerThread; i++) {
+                    long start = System.nanoTime();
+                    try {
+                        web3.ethBlockNumber().send().getBlockNumber();
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - start;
+                    if (afterEach != null) {
+                        afterEach.run();
+                    }
+                }
+                return latencies;
+            }));
+        }
+        long[] all = new long[threads * requestsPerThread];
+        int index = 0;
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            System.arraycopy(latencies, 0, all, index, latencies.length);
+            index += latencies.length;
+        }
+        executor.shutdown();
+
+        if (label != null) {
+            Arrays.sort(all);
+            System.out.printf("%-14s : p50 %6.1fms, p95 %6.1fms, p99 %6.1fms, 최대 %6.1fms, 오류 %,d건%n",
+                label, all[all.length / 2] / 1e6, all[(int) (all.length * 0.95)] / 1e6,
+                all[(int) (all.length * 0.99)] / 1e6, all[all.length - 1] / 1e6, errors.get());
+        }
+    }
+}
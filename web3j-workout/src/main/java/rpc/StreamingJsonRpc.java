@@ -0,0 +1,185 @@
+package rpc;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.core.methods.response.Transaction;
+
+/**
+ * 큰 JSON-RPC 응답을 스트리밍으로 읽어 원소 1개씩 콜백으로 넘기는 클라이언트
+ *
+ * 기존 방식 (web3j.ethGetLogs(filter).send()):
+ * - 응답 전체를 EthLog → List<LogResult> → Log 객체 그래프로 만든 뒤 반환
+ * - 로그 수만 건이면 응답 크기의 몇 배가 힙에 한꺼번에 올라가고 GC 정지가 길어짐
+ *
+ * 이 클래스:
+ * - PooledHttpService의 응답 스트림을 Jackson JsonParser로 토큰 단위로 읽음
+ * - "result" 배열의 원소를 1개씩 Log / Transaction으로 역직렬화해서 바로 consumer에 전달
+ * - 전달한 객체는 더 이상 참조하지 않으므로 최대 힙 사용량이 응답 크기와 무관하게 원소 1개 수준으로 유지
+ *
+ * 지원:
+ * - eth_getLogs → Consumer<Log>
+ * - eth_getBlockByNumber(전체 트랜잭션 포함) → Consumer<Transaction>, 반환값은 트랜잭션을 뺀 블록 헤더
+ *
+ * consumer는 응답을 읽는 스레드에서 호출되므로 오래 걸리는 작업은 다른 스레드로 넘길 것
+ */
+public class StreamingJsonRpc {
+
+    private final PooledHttpService service;
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+    private final ObjectReader logReader = objectMapper.readerFor(Log.class);
+    private final ObjectReader transactionReader = objectMapper.readerFor(Transaction.class);
+
+    // 통계
+    private final AtomicLong logs = new AtomicLong();
+    private final AtomicLong transactions = new AtomicLong();
+
+    public StreamingJsonRpc(PooledHttpService service) {
+        this.service = service;
+    }
+
+    /**
+     * eth_getLogs 결과를 1건씩 consumer에 전달
+     *
+     * @return 전달한 로그 수
+     */
+    public long getLogs(EthFilter filter, Consumer<Log> consumer) throws IOException {
+        Request<?, EthLog> request = new Request<>("eth_getLogs", Collections.singletonList(filter), service, EthLog.class);
+        try (InputStream input = service.performIO(objectMapper.writeValueAsString(request));
+             JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            long count = 0;
+            if (toResult(parser, request.getMethod()) != JsonToken.START_ARRAY) {
+                return 0;
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == JsonToken.START_OBJECT) {
+                    consumer.accept(logReader.readValue(parser));
+                    count++;
+                } else {
+                    // 블록 / 트랜잭션 필터의 해시 문자열은 건너뜀
+                    parser.skipChildren();
+                }
+            }
+            logs.addAndGet(count);
+            return count;
+        }
+    }
+
+    /**
+     * 블록의 트랜잭션을 1건씩 consumer에 전달
+     *
+     * @return 트랜잭션 목록을 뺀 블록 헤더 (블록이 없으면 null)
+     */
+    public EthBlock.Block getBlockByNumber(DefaultBlockParameter block, Consumer<Transaction> consumer)
+        throws IOException {
+        Request<?, EthBlock> request = new Request<>("eth_getBlockByNumber",
+            Arrays.asList(block.getValue(), true), service, EthBlock.class);
+        try (InputStream input = service.performIO(objectMapper.writeValueAsString(request));
+             JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (toResult(parser, request.getMethod()) != JsonToken.START_OBJECT) {
+                return null;
+            }
+            // 트랜잭션 외 필드는 크기가 작으므로 트리로 모아 마지막에 Block으로 변환
+            ObjectNode header = objectMapper.createObjectNode();
+            long count = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if ("transactions".equals(field) && token == JsonToken.START_ARRAY) {
+                    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                        if (token == JsonToken.START_OBJECT) {
+                            consumer.accept(transactionReader.readValue(parser));
+                            count++;
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else {
+                    header.set(field, objectMapper.readTree(parser));
+                }
+            }
+            transactions.addAndGet(count);
+            header.putArray("transactions");
+            return objectMapper.treeToValue(header, EthBlock.Block.class);
+        }
+    }
+
+    /**
+     * 응답 객체에서 "result" 값의 시작 토큰까지 이동 (error면 IOException, result가 없거나 null이면 null 반환)
+     * result 앞의 필드(jsonrpc, id)는 건너뜀
+     */
+    private JsonToken toResult(JsonParser parser, String method) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException(method + " 응답이 JSON 객체가 아님");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("result".equals(field)) {
+                return token == JsonToken.VALUE_NULL ? null : token;
+            }
+            if ("error".equals(field) && token == JsonToken.START_OBJECT) {
+                Response.Error error = objectMapper.readValue(parser, Response.Error.class);
+                throw new IOException(method + " 실패: " + error.getMessage());
+            }
+            parser.skipChildren();
+        }
+        return null;
+    }
+
+    public long getStreamedLogCount() {
+        return logs.get();
+    }
+
+    public long getStreamedTransactionCount() {
+        return transactions.get();
+    }
+
+    /**
+     * BSC 테스트넷에서 최근 5,000블록의 토큰 Transfer 로그와 최신 블록 트랜잭션을 스트리밍으로 조회하는 예시
+     * 환경 변수: INFURA_PROJECT_ID
+     */
+    public static void main(String[] args) throws IOException {
+        String bscTestnetUrl = "https://bsc-testnet.infura.io/v3/" + System.getenv("INFURA_PROJECT_ID");
+        PooledHttpService service = new PooledHttpService(bscTestnetUrl);
+        StreamingJsonRpc rpc = new StreamingJsonRpc(service);
+        Web3j web3 = Web3j.build(service);
+
+        BigInteger latest = web3.ethBlockNumber().send().getBlockNumber();
+        EthFilter filter = new EthFilter(new DefaultBlockParameterNumber(latest.subtract(BigInteger.valueOf(5_000))),
+            new DefaultBlockParameterNumber(latest), "0x1797da0ffff01bf87fef6becfa9e943e31540e03");
+        filter.addSingleTopic(StubChainData.TRANSFER_EVENT_TOPIC);
+        long count = rpc.getLogs(filter, log -> System.out.println(log.getBlockNumber() + " " + log.getTransactionHash()));
+        System.out.println("Transfer 로그 " + count + "건");
+
+        AtomicLong coinTransfers = new AtomicLong();
+        EthBlock.Block header = rpc.getBlockByNumber(new DefaultBlockParameterNumber(latest), transaction -> {
+            if (transaction.getValue().signum() > 0) {
+                coinTransfers.incrementAndGet();
+            }
+        });
+        System.out.println("블록 " + header.getNumber() + ": 트랜잭션 " + rpc.getStreamedTransactionCount()
+            + "건 중 코인 전송 " + coinTransfers.get() + "건");
+        web3.shutdown();
+    }
+}
@@ -0,0 +1,198 @@
+package rpc;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+
+public class StreamingJsonRpcBenchmark {
+
+    private static final String TOKEN = "0x1797da0ffff01bf87fef6becfa9e943e31540e03";
+    private static final String FROM = "0x658b8a1ae242d0460d4777e17c9af438daab4f77";
+    private static final int LOGS_PER_BLOCK = 100;
+
+    /**
+     * 큰 eth_getLogs 응답 디코딩 벤치마크 (전체 객체 그래프 vs 스트리밍)
+     *
+     * 합성 eth_getLogs 응답(기본 100MB, Transfer 로그)을 임시 파일로 만들고 로컬 HTTP 서버가 파일을 그대로 흘려보낸다.
+     * (StubRpcNode는 응답을 메모리에서 직렬화하므로 서버 쪽 힙이 측정에 섞이지 않도록 파일로 제공)
+     *
+     * 비교 대상 (둘 다 같은 PooledHttpService 사용, 로그마다 logIndex 합산):
+     * - web3j 기본 : web3j.ethGetLogs(filter).send() → List<LogResult> 순회
+     * - 스트리밍 : StreamingJsonRpc.getLogs(filter, consumer)
+     *
+     * 측정 항목:
+     * - 처리량 (MB/초, 로그/초), 호출 스레드 할당량, GC 횟수 / 누적 시간
+     * - 생존 힙 : 별도 실행에서 절반째 로그를 처리할 때 System.gc() 후 사용 중인 힙 (실행 전 대비 증가분)
+     *
+     * 실행 인자 (선택): [응답 크기MB]
+     */
+    public static void main(String[] args) throws Exception {
+        int sizeMegabytes = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+
+        Path warmup = Files.createTempFile("eth-getlogs-warmup", ".json");
+        Path large = Files.createTempFile("eth-getlogs", ".json");
+        warmup.toFile().deleteOnExit();
+        large.toFile().deleteOnExit();
+        long warmupLogs = writeResponse(warmup, 5L << 20);
+        long logCount = writeResponse(large, (long) sizeMegabytes << 20);
+        long responseBytes = Files.size(large);
+
+        AtomicReference<Path> served = new AtomicReference<>(warmup);
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            try (InputStream request = exchange.getRequestBody(); OutputStream response = exchange.getResponseBody()) {
+                request.readAllBytes();
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, Files.size(served.get()));
+                Files.copy(served.get(), response);
+            }
+        });
+        server.setExecutor(Executors.newSingleThreadExecutor());
+        server.start();
+
+        PooledHttpService service = new PooledHttpService("http://127.0.0.1:" + server.getAddress().getPort());
+        Web3j web3 = Web3j.build(service);
+        StreamingJsonRpc streaming = new StreamingJsonRpc(service);
+        EthFilter filter = new EthFilter(new DefaultBlockParameterNumber(5_000_000),
+            new DefaultBlockParameterNumber(5_100_000), TOKEN);
+        filter.addSingleTopic(StubChainData.TRANSFER_EVENT_TOPIC);
+
+        Decoder materialized = consumer -> {
+            EthLog response = web3.ethGetLogs(filter).send();
+            long count = 0;
+            for (EthLog.LogResult<?> result : response.getLogs()) {
+                consumer.accept((Log) result.get());
+                count++;
+            }
+            return count;
+        };
+        Decoder streamed = consumer -> streaming.getLogs(filter, consumer);
+
+        System.out.printf("=== eth_getLogs 응답 디코딩 (응답 %,d bytes, 로그 %,d건, 최대 힙 %,dMB) ===%n",
+            responseBytes, logCount, Runtime.getRuntime().maxMemory() >> 20);
+
+        // JIT 워밍업
+        for (int i = 0; i < 3; i++) {
+            measure(materialized, warmupLogs, false);
+            measure(streamed, warmupLogs, false);
+        }
+
+        served.set(large);
+        report("web3j 기본", measure(materialized, logCount, false), measure(materialized, logCount, true), responseBytes, logCount);
+        report("스트리밍", measure(streamed, logCount, false), measure(streamed, logCount, true), responseBytes, logCount);
+
+        web3.shutdown();
+        server.stop(0);
+        System.exit(0);
+    }
+
+    @FunctionalInterface
+    private interface Decoder {
+        long decode(Consumer<Log> consumer) throws IOException;
+    }
+
+    /**
+     * @param liveHeap true면 절반째 로그에서 GC 후 사용 중인 힙을 측정 (시간 측정은 의미 없음)
+     * @return {소요 ns, 할당 bytes, GC 횟수, GC 시간 ms, 생존 힙 증가 bytes}
+     */
+    private static long[] measure(Decoder decoder, long expectedLogs, boolean liveHeap) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long baseline = runtime.totalMemory() - runtime.freeMemory();
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTime();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+
+        AtomicLong seen = new AtomicLong();
+        AtomicLong live = new AtomicLong();
+        long[] indexSum = new long[1];
+        long start = System.nanoTime();
+        long count = decoder.decode(log -> {
+            indexSum[0] += log.getLogIndex().longValue();
+            if (liveHeap && seen.incrementAndGet() == expectedLogs / 2) {
+                System.gc();
+                live.set(runtime.totalMemory() - runtime.freeMemory() - baseline);
+            }
+        });
+        long elapsed = System.nanoTime() - start;
+        if (count != expectedLogs || indexSum[0] != expectedIndexSum(expectedLogs)) {
+            throw new IllegalStateException("로그 수 / 내용 불일치: " + count);
+        }
+        return new long[] {elapsed, threads.getCurrentThreadAllocatedBytes() - allocatedBefore,
+            gcCount() - gcCountBefore, gcTime() - gcTimeBefore, live.get()};
+    }
+
+    private static void report(String label, long[] timing, long[] memory, long responseBytes, long logCount) {
+        double seconds = timing[0] / 1e9;
+        System.out.printf("%-10s : %6.1f MB/초, %,9.0f 로그/초, 할당 %,6dMB, GC %3d회 / %,5dms, 생존 힙 %,6.1fMB%n",
+            label, responseBytes / 1e6 / seconds, logCount / seconds, timing[1] >> 20, timing[2], timing[3],
+            memory[4] / 1e6);
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += gc.getCollectionCount();
+        }
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += gc.getCollectionTime();
+        }
+        return time;
+    }
+
+    private static long expectedIndexSum(long logCount) {
+        long fullBlocks = logCount / LOGS_PER_BLOCK;
+        long rest = logCount % LOGS_PER_BLOCK;
+        return fullBlocks * (LOGS_PER_BLOCK * (LOGS_PER_BLOCK - 1L) / 2) + rest * (rest - 1) / 2;
+    }
+
+    /**
+     * targetBytes 크기가 될 때까지 Transfer 로그를 이어 붙인 eth_getLogs 응답을 파일로 작성 (로그 수 반환)
+     */
+    private static long writeResponse(Path file, long targetBytes) throws IOException {
+        ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+        long count = 0;
+        try (OutputStream output = Files.newOutputStream(file);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.writeStartObject();
+            generator.writeStringField("jsonrpc", "2.0");
+            generator.writeNumberField("id", 1);
+            generator.writeArrayFieldStart("result");
+            while (generator.getOutputBuffered() + Files.size(file) < targetBytes) {
+                long blockNumber = 5_000_000 + count / LOGS_PER_BLOCK;
+                long logIndex = count % LOGS_PER_BLOCK;
+                objectMapper.writeValue(generator, StubChainData.transferLog(TOKEN, blockNumber, logIndex, FROM,
+                    "0x" + String.format("%040x", count + 1), BigInteger.valueOf(1_000_000L * (count + 1))));
+                count++;
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,126 @@
+package rpc;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.web3j.crypto.Hash;
+import org.web3j.utils.Numeric;
+
+/**
+ * StubRpcNode가 돌려줄 가짜 체인 데이터 생성기
+ *
+ * - 해시 문자열에서 결정적으로(deterministic) 값을 만들어 같은 요청에는 항상 같은 응답
+ * - 필드 이름/형식은 실제 노드(geth, Infura) 응답과 동일하게 맞춰 web3j 응답 객체로 역직렬화 가능
+ */
+public final class StubChainData {
+
+    public static final String TRANSFER_EVENT_TOPIC =
+        "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef";
+
+    private static final String ZERO_BLOOM = "0x" + "0".repeat(512);
+
+    private StubChainData() {
+    }
+
+    /**
+     * 임의의 트랜잭션 해시 n번째 값 (0x + 64자리)
+     */
+    public static String transactionHash(long n) {
+        return Numeric.toHexString(Hash.sha3(Numeric.toBytesPadded(BigInteger.valueOf(n), 32)));
+    }
+
+    public static List<String> transactionHashes(int count) {
+        List<String> hashes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            hashes.add(transactionHash(i));
+        }
+        return hashes;
+    }
+
+    /**
+     * 해시에서 블록 번호를 결정적으로 도출
+     */
+    public static long blockNumberOf(String hash) {
+        return 9_000_000L + (Math.abs(hash.hashCode()) % 100_000);
+    }
+
+    public static Map<String, Object> transaction(String hash) {
+        long blockNumber = blockNumberOf(hash);
+        Map<String, Object> tx = new LinkedHashMap<>();
+        tx.put("hash", hash);
+        tx.put("nonce", "0x1");
+        tx.put("blockHash", blockHash(blockNumber));
+        tx.put("blockNumber", Numeric.toHexStringWithPrefix(BigInteger.valueOf(blockNumber)));
+        tx.put("transactionIndex", "0x6e");
+        tx.put("from", "0x658b8a1ae242d0460d4777e17c9af438daab4f77");
+        tx.put("to", "0x192897df0b17c99fa24ecf998c22e2e83c3cd3d8");
+        tx.put("value", "0xe8d4a51000");
+        tx.put("gasPrice", "0x42f40a");
+        tx.put("gas", "0x5208");
+        tx.put("input", "0x");
+        tx.put("type", "0x2");
+        tx.put("v", "0x0");
+        tx.put("r", "0x1");
+        tx.put("s", "0x1");
+        return tx;
+    }
+
+    public static Map<String, Object> receipt(String hash) {
+        return receipt(hash, new ArrayList<>());
+    }
+
+    public static Map<String, Object> receipt(String hash, List<Map<String, Object>> logs) {
+        long blockNumber = blockNumberOf(hash);
+        Map<String, Object> receipt = new LinkedHashMap<>();
+        receipt.put("transactionHash", hash);
+        receipt.put("transactionIndex", "0x6e");
+        receipt.put("blockHash", blockHash(blockNumber));
+        receipt.put("blockNumber", Numeric.toHexStringWithPrefix(BigInteger.valueOf(blockNumber)));
+        receipt.put("cumulativeGasUsed", "0x5208");
+        receipt.put("gasUsed", "0x5208");
+        receipt.put("contractAddress", null);
+        receipt.put("status", "0x1");
+        receipt.put("from", "0x658b8a1ae242d0460d4777e17c9af438daab4f77");
+        receipt.put("to", "0x192897df0b17c99fa24ecf998c22e2e83c3cd3d8");
+        receipt.put("logs", logs);
+        receipt.put("logsBloom", ZERO_BLOOM);
+        receipt.put("effectiveGasPrice", "0x42f40a");
+        receipt.put("type", "0x2");
+        return receipt;
+    }
+
+    /**
+     * ERC20 Transfer 이벤트 로그 1건
+     */
+    public static Map<String, Object> transferLog(String contract, long blockNumber, long logIndex,
+                                                  String from, String to, BigInteger amount) {
+        Map<String, Object> log = new LinkedHashMap<>();
+        log.put("removed", false);
+        log.put("logIndex", Numeric.toHexStringWithPrefix(BigInteger.valueOf(logIndex)));
+        log.put("transactionIndex", "0x0");
+        log.put("transactionHash", transactionHash(blockNumber * 1_000 + logIndex));
+        log.put("blockHash", blockHash(blockNumber));
+        log.put("blockNumber", Numeric.toHexStringWithPrefix(BigInteger.valueOf(blockNumber)));
+        log.put("address", contract);
+        log.put("data", "0x" + Numeric.toHexStringNoPrefixZeroPadded(amount, 64));
+        List<String> topics = new ArrayList<>(3);
+        topics.add(TRANSFER_EVENT_TOPIC);
+        topics.add(padAddress(from));
+        topics.add(padAddress(to));
+        log.put("topics", topics);
+        return log;
+    }
+
+    public static String blockHash(long blockNumber) {
+        return Numeric.toHexString(Hash.sha3(Numeric.toBytesPadded(BigInteger.valueOf(blockNumber), 8)));
+    }
+
+    /**
+     * 20바이트 주소 → 32바이트 토픽 (앞 12바이트 0 패딩)
+     */
+    public static String padAddress(String address) {
+        return "0x" + "0".repeat(24) + Numeric.cleanHexPrefix(address).toLowerCase();
+    }
+}
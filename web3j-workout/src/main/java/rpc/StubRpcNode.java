@@ -0,0 +1,274 @@
+package rpc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.web3j.protocol.ObjectMapperFactory;
+
+/**
+ * 벤치마크용 로컬 JSON-RPC 스텁 노드
+ *
+ * 목적:
+ * - Infura 같은 원격 노드 없이 RPC 호출 패턴(왕복 횟수, 동시성)을 측정
+ * - HTTP 요청 1건마다 지연(latency)을 주입하여 네트워크 왕복 비용을 흉내냄
+ * - 단건 요청과 JSON-RPC 배치 요청(JSON 배열)을 모두 처리
+ * - gzip 요청 본문(Content-Encoding: gzip) 해제, 설정 시 gzip 응답 (Accept-Encoding: gzip)
+ * - 장애 주입: 일정 비율 HTTP 503 응답, 일정 비율 추가 지연 (꼬리 지연)
+ *
+ * 실제 응답 내용은 MethodHandler가 결정한다.
+ */
+public class StubRpcNode implements Closeable {
+
+    /**
+     * RPC 메서드 처리기
+     * - 반환값은 JSON-RPC 응답의 result 필드로 직렬화된다.
+     * - StubRpcException을 던지면 error 필드로 응답한다.
+     */
+    @FunctionalInterface
+    public interface MethodHandler {
+        Object handle(String method, JsonNode params) throws Exception;
+    }
+
+    /**
+     * JSON-RPC error 응답을 만들기 위한 예외
+     */
+    public static class StubRpcException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private final int code;
+
+        public StubRpcException(int code, String message) {
+            super(message);
+            this.code = code;
+        }
+
+        public int getCode() {
+            return code;
+        }
+    }
+
+    static {
+        // JDK HttpServer 기본값은 Nagle 알고리즘 사용 → 작은 응답마다 수십 ms 지연이 섞여 측정값이 왜곡됨
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+    private final MethodHandler handler;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private volatile long latencyMillis;
+    private volatile int responseCompressionMinBytes = -1;
+    private volatile double failureRate;
+    private volatile double slowRate;
+    private volatile long slowExtraMillis;
+
+    // 통계: HTTP 왕복 횟수, 처리한 RPC 호출 수
+    private final AtomicLong httpRequests = new AtomicLong();
+    private final AtomicLong rpcCalls = new AtomicLong();
+    private final AtomicLong gzipRequests = new AtomicLong();
+    private final AtomicLong failedRequests = new AtomicLong();
+    // 요청을 보낸 클라이언트 소켓 (원격 주소:포트) → 연결 재사용 여부 확인용
+    private final Set<InetSocketAddress> connections = ConcurrentHashMap.newKeySet();
+
+    public StubRpcNode(long latencyMillis, MethodHandler handler) throws IOException {
+        this(latencyMillis, 64, handler);
+    }
+
+    public StubRpcNode(long latencyMillis, int serverThreads, MethodHandler handler) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.handler = handler;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.executor = Executors.newFixedThreadPool(serverThreads, r -> {
+            Thread thread = new Thread(r, "stub-rpc-node");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handleExchange);
+        server.start();
+    }
+
+    /**
+     * 스텁 노드 URL (HttpService에 그대로 전달)
+     */
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * 응답 본문이 minBytes 이상이고 클라이언트가 gzip을 받을 수 있으면 압축해서 응답 (-1이면 압축 안 함, 기본값)
+     */
+    public void setResponseCompression(int minBytes) {
+        this.responseCompressionMinBytes = minBytes;
+    }
+
+    /**
+     * 요청 중 rate 비율을 HTTP 503으로 응답 (0이면 장애 없음, 1이면 노드 다운)
+     */
+    public void setFailureRate(double rate) {
+        this.failureRate = rate;
+    }
+
+    /**
+     * 요청 중 rate 비율에 extraMillis만큼 지연을 더함 (꼬리 지연 주입)
+     */
+    public void setSlowRequests(double rate, long extraMillis) {
+        this.slowRate = rate;
+        this.slowExtraMillis = extraMillis;
+    }
+
+    public long getHttpRequestCount() {
+        return httpRequests.get();
+    }
+
+    public long getRpcCallCount() {
+        return rpcCalls.get();
+    }
+
+    public long getFailedRequestCount() {
+        return failedRequests.get();
+    }
+
+    public long getGzipRequestCount() {
+        return gzipRequests.get();
+    }
+
+    /**
+     * 마지막 초기화 이후 요청을 보낸 서로 다른 TCP 연결 수
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    public void resetCounters() {
+        httpRequests.set(0);
+        rpcCalls.set(0);
+        gzipRequests.set(0);
+        failedRequests.set(0);
+        connections.clear();
+    }
+
+    private void handleExchange(HttpExchange exchange) throws IOException {
+        try {
+            httpRequests.incrementAndGet();
+            connections.add(exchange.getRemoteAddress());
+
+            JsonNode request;
+            boolean gzipRequest = "gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"));
+            try (InputStream body = gzipRequest
+                ? new GZIPInputStream(exchange.getRequestBody())
+                : exchange.getRequestBody()) {
+                if (gzipRequest) {
+                    gzipRequests.incrementAndGet();
+                }
+                request = objectMapper.readTree(body);
+            }
+
+            // 네트워크 왕복 지연 주입 (배치 요청도 왕복 1회로 취급)
+            long latency = latencyMillis;
+            if (slowRate > 0 && ThreadLocalRandom.current().nextDouble() < slowRate) {
+                latency += slowExtraMillis;
+            }
+            if (latency > 0) {
+                Thread.sleep(latency);
+            }
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                failedRequests.incrementAndGet();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+
+            JsonNode response;
+            if (request.isArray()) {
+                ArrayNode responses = JsonNodeFactory.instance.arrayNode();
+                for (JsonNode call : request) {
+                    responses.add(handleCall(call));
+                }
+                response = responses;
+            } else {
+                response = handleCall(request);
+            }
+
+            byte[] bytes = objectMapper.writeValueAsBytes(response);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            int minBytes = responseCompressionMinBytes;
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (minBytes >= 0 && bytes.length >= minBytes && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                bytes = gzip(bytes);
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.sendResponseHeaders(503, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private ObjectNode handleCall(JsonNode call) {
+        rpcCalls.incrementAndGet();
+
+        ObjectNode response = JsonNodeFactory.instance.objectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", call.get("id"));
+
+        String method = call.path("method").asText();
+        try {
+            Object result = handler.handle(method, call.path("params"));
+            response.set("result", objectMapper.valueToTree(result));
+        } catch (StubRpcException e) {
+            response.set("error", errorNode(e.getCode(), e.getMessage()));
+        } catch (Exception e) {
+            response.set("error", errorNode(-32603, String.valueOf(e.getMessage())));
+        }
+        return response;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(bytes);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static ObjectNode errorNode(int code, String message) {
+        ObjectNode error = JsonNodeFactory.instance.objectNode();
+        error.put("code", code);
+        error.put("message", message);
+        return error;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
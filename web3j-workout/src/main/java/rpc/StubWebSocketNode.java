@@ -0,0 +1,217 @@
+package rpc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import org.java_websocket.WebSocket;
+import org.java_websocket.framing.CloseFrame;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.web3j.protocol.ObjectMapperFactory;
+
+/**
+ * 구독 벤치마크용 로컬 WebSocket 스텁 노드
+ *
+ * - eth_subscribe("newHeads") / eth_subscribe("logs", {address}) / eth_unsubscribe 처리
+ * - publishHead / publishLog로 구독 중인 연결에 eth_subscription 알림 전송 (logs는 주소로만 필터)
+ * - dropConnections / setAccepting(false)로 연결 끊김과 노드 재시작 구간을 흉내냄
+ *
+ * 이외의 메서드는 -32601 오류로 응답한다 (조회는 StubRpcNode HTTP로).
+ */
+public class StubWebSocketNode implements Closeable {
+
+    private static final class Subscription {
+        final WebSocket connection;
+        final String id;
+        final boolean logs;
+        final Set<String> addresses; // 비어 있으면 모든 주소
+
+        Subscription(WebSocket connection, String id, boolean logs, Set<String> addresses) {
+            this.connection = connection;
+            this.id = id;
+            this.logs = logs;
+            this.addresses = addresses;
+        }
+    }
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicLong subscriptionIds = new AtomicLong();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final Server server;
+    private volatile boolean accepting = true;
+
+    // 통계
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong notifications = new AtomicLong();
+
+    public StubWebSocketNode() throws IOException {
+        server = new Server();
+        server.setTcpNoDelay(true);
+        server.setReuseAddr(true);
+        server.start();
+        try {
+            started.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("스텁 WebSocket 노드 시작 대기 중 인터럽트", e);
+        }
+    }
+
+    /**
+     * 스텁 노드 URL (WebSocketService에 그대로 전달)
+     */
+    public String getUrl() {
+        return "ws://127.0.0.1:" + server.getPort();
+    }
+
+    /**
+     * false면 새 연결을 바로 닫음 (노드 재시작 중)
+     */
+    public void setAccepting(boolean accepting) {
+        this.accepting = accepting;
+    }
+
+    /**
+     * 열린 연결을 모두 끊음 (구독도 함께 사라짐)
+     */
+    public void dropConnections() {
+        for (WebSocket connection : server.getConnections()) {
+            connection.close(CloseFrame.GOING_AWAY, "stub restart");
+        }
+    }
+
+    public void publishHead(Map<String, Object> head) {
+        publish(false, null, head);
+    }
+
+    public void publishLog(Map<String, Object> log) {
+        publish(true, String.valueOf(log.get("address")).toLowerCase(), log);
+    }
+
+    public long getConnectionCount() {
+        return connections.get();
+    }
+
+    public long getNotificationCount() {
+        return notifications.get();
+    }
+
+    private void publish(boolean logs, String address, Object result) {
+        for (Subscription subscription : subscriptions.values()) {
+            if (subscription.logs != logs || !subscription.connection.isOpen()) {
+                continue;
+            }
+            if (logs && !subscription.addresses.isEmpty() && !subscription.addresses.contains(address)) {
+                continue;
+            }
+            ObjectNode params = JsonNodeFactory.instance.objectNode();
+            params.put("subscription", subscription.id);
+            params.set("result", objectMapper.valueToTree(result));
+            ObjectNode notification = JsonNodeFactory.instance.objectNode();
+            notification.put("jsonrpc", "2.0");
+            notification.put("method", "eth_subscription");
+            notification.set("params", params);
+            try {
+                subscription.connection.send(objectMapper.writeValueAsString(notification));
+                notifications.incrementAndGet();
+            } catch (Exception e) {
+                // 전송 중 연결이 닫힘 → 구독은 onClose에서 정리
+            }
+        }
+    }
+
+    private String handle(WebSocket connection, JsonNode call) {
+        ObjectNode response = JsonNodeFactory.instance.objectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", call.get("id"));
+
+        String method = call.path("method").asText();
+        JsonNode params = call.path("params");
+        if ("eth_subscribe".equals(method) && ("newHeads".equals(params.path(0).asText())
+            || "logs".equals(params.path(0).asText()))) {
+            boolean logs = "logs".equals(params.path(0).asText());
+            Set<String> addresses = new HashSet<>();
+            JsonNode address = params.path(1).path("address");
+            if (address.isArray()) {
+                address.forEach(node -> addresses.add(node.asText().toLowerCase()));
+            } else if (address.isTextual()) {
+                addresses.add(address.asText().toLowerCase());
+            }
+            String id = "0x" + Long.toHexString(subscriptionIds.incrementAndGet());
+            subscriptions.put(id, new Subscription(connection, id, logs, addresses));
+            response.put("result", id);
+        } else if ("eth_unsubscribe".equals(method)) {
+            response.put("result", subscriptions.remove(params.path(0).asText()) != null);
+        } else {
+            ObjectNode error = JsonNodeFactory.instance.objectNode();
+            error.put("code", -32601);
+            error.put("message", "method not found: " + method);
+            response.set("error", error);
+        }
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            server.stop(1_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private final class Server extends WebSocketServer {
+
+        Server() {
+            super(new InetSocketAddress("127.0.0.1", 0));
+        }
+
+        @Override
+        public void onOpen(WebSocket connection, ClientHandshake handshake) {
+            if (!accepting) {
+                connection.close(CloseFrame.TRY_AGAIN_LATER, "stub unavailable");
+                return;
+            }
+            connections.incrementAndGet();
+        }
+
+        @Override
+        public void onClose(WebSocket connection, int code, String reason, boolean remote) {
+            subscriptions.values().removeIf(subscription -> subscription.connection == connection);
+        }
+
+        @Override
+        public void onMessage(WebSocket connection, String message) {
+            try {
+                connection.send(handle(connection, objectMapper.readTree(message)));
+            } catch (IOException e) {
+                connection.close(CloseFrame.PROTOCOL_ERROR, "invalid json");
+            }
+        }
+
+        @Override
+        public void onError(WebSocket connection, Exception e) {
+            // 연결별 오류는 onClose에서 정리
+        }
+
+        @Override
+        public void onStart() {
+            started.countDown();
+        }
+    }
+}
@@ -0,0 +1,602 @@
+package rpc;
+
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.EthSubscribe;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.protocol.websocket.WebSocketService;
+import org.web3j.protocol.websocket.events.NewHead;
+import org.web3j.protocol.websocket.events.Notification;
+
+/**
+ * WebSocket eth_subscribe 기반 블록 / 로그 스트림 (폴링 대체)
+ *
+ * GetNativeCoinTransaction / GetERC20TokenTransaction처럼 HTTP로만 조회하면 새 이벤트를 알기 위해 폴링해야 함:
+ * - 이벤트 → 처리까지 지연 = 폴링 주기(평균 절반) + RPC 왕복
+ * - 새 블록이 없어도 주기마다 eth_blockNumber / eth_getLogs 호출
+ *
+ * 이 스트림:
+ * 1. newHeads / logs(주소, 토픽) 구독 → 노드가 푸시 (지연 = 푸시 지연)
+ * 2. java.util.concurrent.Flow.Publisher로 전달 (SubmissionPublisher, 구독자별 버퍼)
+ *    → 구독자가 request(n)으로 소비 속도를 조절, 버퍼가 차면 WebSocket 수신 스레드가 대기 (배압)
+ *    → deliveryTimeout 동안 버퍼가 비지 않으면 연결을 끊고 재연결 + 백필로 그 이벤트부터 다시 전달
+ *      (같은 스트림의 다른 구독자는 그 구간을 한 번 더 받을 수 있음)
+ * 3. 연결이 끊기면 지수 백오프로 재연결하고 다시 구독
+ * 4. 재구독 직후 HTTP로 빈 구간 백필 (마지막으로 전달한 블록 다음부터 최신 블록까지)
+ *    - 백필 중 들어온 푸시 이벤트는 백필이 끝날 때까지 대기 후 전달 (블록 순서 유지)
+ *    - 블록 해시 / (블록 해시, 로그 인덱스, removed)로 중복 제거 → 재구성(reorg)으로 바뀐 블록은 새 해시라 그대로 전달
+ * 5. 재구성으로 취소된 로그는 노드가 보낸 removed=true 그대로 한 번 더 전달 (구독자가 되돌릴 것)
+ *
+ * 사용:
+ *   WebSocketEventStream stream = new WebSocketEventStream(wsUrl, Web3j.build(new HttpService(httpUrl)));
+ *   stream.newHeads().subscribe(...);
+ *   stream.logs(List.of(token), List.of(TRANSFER_TOPIC)).subscribe(...);
+ *   stream.start();                // 현재 최신 블록 다음부터
+ *   stream.start(checkpointBlock); // 저장해 둔 블록부터 (백필 후 실시간)
+ */
+public class WebSocketEventStream implements AutoCloseable {
+
+    public static final long DEFAULT_RECONNECT_DELAY_MILLIS = 500;
+    public static final long DEFAULT_MAX_RECONNECT_DELAY_MILLIS = 30_000;
+    public static final int DEFAULT_MAX_BACKFILL_BLOCKS = 1_000;
+    public static final long DEFAULT_DELIVERY_TIMEOUT_MILLIS = 10_000;
+
+    // 중복 제거용으로 기억할 최근 블록 해시 / 로그 키 수
+    private static final int RECENT_KEYS = 8_192;
+
+    private final String webSocketUrl;
+    private final Web3j http;
+    private final ExecutorService subscriberExecutor;
+    private final ScheduledExecutorService scheduler;
+    private final Object deliveryLock = new Object();
+    private final AtomicInteger generation = new AtomicInteger();
+
+    private long reconnectDelayMillis = DEFAULT_RECONNECT_DELAY_MILLIS;
+    private long maxReconnectDelayMillis = DEFAULT_MAX_RECONNECT_DELAY_MILLIS;
+    private int maxBackfillBlocks = DEFAULT_MAX_BACKFILL_BLOCKS;
+    private int bufferSize = Flow.defaultBufferSize();
+    private long deliveryTimeoutMillis = DEFAULT_DELIVERY_TIMEOUT_MILLIS;
+    private long currentDelayMillis;
+    private volatile boolean closed;
+    private volatile Connection connection;
+
+    private HeadFeed heads;
+    private final List<LogFeed> logFeeds = new CopyOnWriteArrayList<>();
+
+    // 통계
+    private final AtomicLong reconnects = new AtomicLong();
+    private final AtomicLong pushedHeads = new AtomicLong();
+    private final AtomicLong pushedLogs = new AtomicLong();
+    private final AtomicLong backfilledHeads = new AtomicLong();
+    private final AtomicLong backfilledLogs = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong deliveryTimeouts = new AtomicLong();
+    private final AtomicLong backfillRequests = new AtomicLong();
+
+    /**
+     * newHeads 구독 상태
+     */
+    private final class HeadFeed {
+        final SubmissionPublisher<EthBlock.Block> publisher = new SubmissionPublisher<>(subscriberExecutor, bufferSize);
+        final Map<String, Boolean> recentHashes = recentKeys();
+        // 아직 전달하지 않은 첫 블록 번호
+        long nextBlock = -1;
+    }
+
+    /**
+     * logs 구독 상태 (필터마다 1개)
+     */
+    private final class LogFeed {
+        final List<String> addresses;
+        final List<String> topics;
+        final SubmissionPublisher<Log> publisher = new SubmissionPublisher<>(subscriberExecutor, bufferSize);
+        final Map<String, Boolean> recentKeys = recentKeys();
+        // 일부만 전달했을 수 있는 첫 블록 번호 (백필은 여기부터, 중복은 키로 제거)
+        long resumeBlock = -1;
+
+        LogFeed(List<String> addresses, List<String> topics) {
+            this.addresses = addresses;
+            this.topics = topics;
+        }
+    }
+
+    /**
+     * logs 구독 알림 (web3j의 events.Log에는 removed가 없어서 응답용 Log로 역직렬화)
+     */
+    static class LogNotification extends Notification<Log> {
+    }
+
+    /**
+     * WebSocket 연결 1회분 (끊기면 통째로 버리고 새로 만듦)
+     */
+    private static final class Connection {
+        final int generation;
+        final WebSocketService service;
+        final List<Disposable> subscriptions = new CopyOnWriteArrayList<>();
+
+        Connection(int generation, WebSocketService service) {
+            this.generation = generation;
+            this.service = service;
+        }
+
+        /**
+         * @param unsubscribe 연결이 살아 있으면 eth_unsubscribe (끊긴 연결은 web3j가 구독을 오류로 종료)
+         */
+        void close(boolean unsubscribe) {
+            if (unsubscribe) {
+                subscriptions.forEach(Disposable::dispose);
+            }
+            try {
+                service.close();
+            } catch (RuntimeException e) {
+                // 이미 닫힌 연결
+            }
+        }
+    }
+
+    /**
+     * @param webSocketUrl 구독용 WebSocket URL (wss://...)
+     * @param http         백필용 HTTP 클라이언트 (같은 노드 / 네트워크)
+     */
+    public WebSocketEventStream(String webSocketUrl, Web3j http) {
+        this.webSocketUrl = webSocketUrl;
+        this.http = http;
+        this.subscriberExecutor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "ws-event-stream-subscriber");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ws-event-stream-reconnect");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public WebSocketEventStream reconnectDelay(long initialMillis, long maxMillis) {
+        this.reconnectDelayMillis = initialMillis;
+        this.maxReconnectDelayMillis = maxMillis;
+        return this;
+    }
+
+    /**
+     * 재연결 시 백필할 최대 블록 수 (더 길게 끊겼으면 최신 블록 기준 이 개수만 백필)
+     */
+    public WebSocketEventStream maxBackfillBlocks(int maxBackfillBlocks) {
+        this.maxBackfillBlocks = maxBackfillBlocks;
+        return this;
+    }
+
+    /**
+     * 구독자별 버퍼 크기 (newHeads / logs 호출 전에 설정)
+     */
+    public WebSocketEventStream bufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * 구독자 버퍼가 가득 찼을 때 기다리는 최대 시간 (넘기면 재연결 후 백필로 다시 전달)
+     * 대기 중에는 deliveryLock을 잡고 있으므로 느린 구독자 1명이 모든 스트림을 이 시간만큼 멈춘다.
+     */
+    public WebSocketEventStream deliveryTimeout(long millis) {
+        this.deliveryTimeoutMillis = millis;
+        return this;
+    }
+
+    /**
+     * 새 블록 헤더 스트림 (start 전에 호출, 트랜잭션 목록은 비어 있음)
+     */
+    public synchronized Flow.Publisher<EthBlock.Block> newHeads() {
+        if (heads == null) {
+            heads = new HeadFeed();
+        }
+        return heads.publisher;
+    }
+
+    /**
+     * 로그 스트림 (start 전에 호출)
+     *
+     * @param addresses 컨트랙트 주소 (비우면 전체)
+     * @param topics    토픽 필터 (예: Transfer 이벤트 시그니처)
+     */
+    public Flow.Publisher<Log> logs(List<String> addresses, List<String> topics) {
+        LogFeed feed = new LogFeed(addresses, topics);
+        logFeeds.add(feed);
+        return feed.publisher;
+    }
+
+    /**
+     * 현재 최신 블록 다음 블록부터 스트림 시작
+     */
+    public void start() throws IOException {
+        start(http.ethBlockNumber().send().getBlockNumber().add(BigInteger.ONE));
+    }
+
+    /**
+     * fromBlock부터 스트림 시작 (최신 블록까지는 HTTP로 백필한 뒤 실시간)
+     * 첫 연결에 실패해도 백그라운드에서 재연결을 계속 시도한다.
+     */
+    public void start(BigInteger fromBlock) {
+        long from = fromBlock.longValueExact();
+        synchronized (deliveryLock) {
+            if (heads != null) {
+                heads.nextBlock = from;
+            }
+            for (LogFeed feed : logFeeds) {
+                feed.resumeBlock = from;
+            }
+        }
+        currentDelayMillis = reconnectDelayMillis;
+        connect();
+    }
+
+    private void connect() {
+        if (closed) {
+            return;
+        }
+        Connection conn = new Connection(generation.incrementAndGet(), new WebSocketService(webSocketUrl, false));
+        connection = conn;
+        try {
+            conn.service.connect(message -> { }, error -> { }, () -> onDisconnect(conn));
+            Web3j ws = Web3j.build(conn.service);
+            // 구독을 먼저 등록하고 백필이 끝날 때까지 푸시 이벤트 전달을 막음 (deliveryLock)
+            synchronized (deliveryLock) {
+                if (heads != null) {
+                    conn.subscriptions.add(ws.newHeadsNotifications().subscribe(
+                        notification -> onHead(conn, notification.getParams().getResult()),
+                        error -> onDisconnect(conn)));
+                }
+                for (LogFeed feed : logFeeds) {
+                    conn.subscriptions.add(subscribeLogs(conn.service, feed).subscribe(
+                        notification -> onLog(conn, feed, notification.getParams().getResult()),
+                        error -> onDisconnect(conn)));
+                }
+                backfill();
+            }
+            currentDelayMillis = reconnectDelayMillis;
+        } catch (Exception e) {
+            onDisconnect(conn);
+        }
+    }
+
+    /**
+     * Web3j.logsNotifications와 같은 eth_subscribe 요청 (알림만 LogNotification으로 받음)
+     */
+    private static Flowable<LogNotification> subscribeLogs(WebSocketService service, LogFeed feed) {
+        Map<String, Object> params = new HashMap<>();
+        if (!feed.addresses.isEmpty()) {
+            params.put("address", feed.addresses);
+        }
+        if (!feed.topics.isEmpty()) {
+            params.put("topics", feed.topics);
+        }
+        Request<Object, EthSubscribe> request = new Request<>("eth_subscribe", Arrays.asList("logs", params),
+            service, EthSubscribe.class);
+        return service.subscribe(request, "eth_unsubscribe", LogNotification.class);
+    }
+
+    /**
+     * 연결 끊김 / 구독 오류 → 연결당 1번만 재연결 예약
+     */
+    private void onDisconnect(Connection conn) {
+        if (closed || !generation.compareAndSet(conn.generation, conn.generation + 1)) {
+            return;
+        }
+        reconnects.incrementAndGet();
+        long delay = currentDelayMillis;
+        currentDelayMillis = Math.min(delay * 2, maxReconnectDelayMillis);
+        // WebSocket 콜백 스레드에서 자기 연결을 닫지 않도록 스케줄러에서 정리
+        scheduler.execute(() -> conn.close(false));
+        scheduler.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void onHead(Connection conn, NewHead newHead) {
+        synchronized (deliveryLock) {
+            if (conn.generation != generation.get()) {
+                return;
+            }
+            try {
+                if (deliverHead(toBlock(newHead))) {
+                    pushedHeads.incrementAndGet();
+                }
+            } catch (IOException e) {
+                onDisconnect(conn);
+            }
+        }
+    }
+
+    private void onLog(Connection conn, LogFeed feed, Log log) {
+        synchronized (deliveryLock) {
+            if (conn.generation != generation.get()) {
+                return;
+            }
+            try {
+                if (deliverLog(feed, log)) {
+                    pushedLogs.incrementAndGet();
+                }
+            } catch (IOException e) {
+                onDisconnect(conn);
+            }
+        }
+    }
+
+    /**
+     * 마지막으로 전달한 위치부터 최신 블록까지 HTTP로 채움 (deliveryLock 보유 중)
+     */
+    private void backfill() throws IOException {
+        long latest = http.ethBlockNumber().send().getBlockNumber().longValueExact();
+        backfillRequests.incrementAndGet();
+
+        if (heads != null && heads.nextBlock >= 0) {
+            long from = Math.max(heads.nextBlock, latest - maxBackfillBlocks + 1);
+            for (long number = from; number <= latest; number++) {
+                EthBlock.Block block = http.ethGetBlockByNumber(new DefaultBlockParameterNumber(number), false)
+                    .send().getBlock();
+                backfillRequests.incrementAndGet();
+                if (block != null && deliverHead(block)) {
+                    backfilledHeads.incrementAndGet();
+                }
+            }
+        }
+
+        for (LogFeed feed : logFeeds) {
+            if (feed.resumeBlock < 0 || feed.resumeBlock > latest) {
+                continue;
+            }
+            long from = Math.max(feed.resumeBlock, latest - maxBackfillBlocks + 1);
+            EthFilter filter = new EthFilter(new DefaultBlockParameterNumber(from),
+                new DefaultBlockParameterNumber(latest), feed.addresses);
+            for (String topic : feed.topics) {
+                filter.addSingleTopic(topic);
+            }
+            EthLog response = http.ethGetLogs(filter).send();
+            backfillRequests.incrementAndGet();
+            if (response.hasError()) {
+                throw new IOException("로그 백필 실패: " + response.getError().getMessage());
+            }
+            for (EthLog.LogResult<?> result : response.getLogs()) {
+                if (deliverLog(feed, (Log) result.get())) {
+                    backfilledLogs.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * @throws IOException 전달 실패 → 호출자가 재연결 (다음 백필이 이 블록부터 다시 전달)
+     */
+    private boolean deliverHead(EthBlock.Block block) throws IOException {
+        if (heads.recentHashes.put(block.getHash(), Boolean.TRUE) != null) {
+            duplicates.incrementAndGet();
+            return false;
+        }
+        try {
+            offer(heads.publisher, block);
+        } catch (IOException e) {
+            heads.recentHashes.remove(block.getHash());
+            throw e;
+        }
+        heads.nextBlock = Math.max(heads.nextBlock, block.getNumber().longValueExact() + 1);
+        return true;
+    }
+
+    /**
+     * @throws IOException 전달 실패 → 호출자가 재연결 (다음 백필이 이 로그의 블록부터 다시 전달)
+     */
+    private boolean deliverLog(LogFeed feed, Log log) throws IOException {
+        String key = log.getBlockHash() + ':' + log.getLogIndexRaw() + ':' + log.isRemoved();
+        if (feed.recentKeys.put(key, Boolean.TRUE) != null) {
+            duplicates.incrementAndGet();
+            return false;
+        }
+        try {
+            offer(feed.publisher, log);
+        } catch (IOException e) {
+            feed.recentKeys.remove(key);
+            throw e;
+        }
+        if (log.getBlockNumberRaw() != null) {
+            feed.resumeBlock = Math.max(feed.resumeBlock, log.getBlockNumber().longValueExact());
+        }
+        return true;
+    }
+
+    /**
+     * 구독자 버퍼가 가득 차면 deliveryTimeout까지 대기 (배압)
+     * 시간 안에 넣지 못한 구독자가 있거나 스트림이 닫혔으면 IOException
+     */
+    private <T> void offer(SubmissionPublisher<T> publisher, T item) throws IOException {
+        if (closed) {
+            throw new IOException("스트림이 닫힘");
+        }
+        int lag;
+        try {
+            lag = publisher.offer(item, deliveryTimeoutMillis, TimeUnit.MILLISECONDS, null);
+        } catch (IllegalStateException e) {
+            // 대기 중 close()로 publisher가 닫힘
+            throw new IOException("스트림이 닫힘", e);
+        }
+        if (lag < 0) {
+            deliveryTimeouts.incrementAndGet();
+            throw new IOException("구독자 버퍼가 " + deliveryTimeoutMillis + "ms 동안 가득 참");
+        }
+    }
+
+    private static Map<String, Boolean> recentKeys() {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > RECENT_KEYS;
+            }
+        });
+    }
+
+    private static EthBlock.Block toBlock(NewHead head) {
+        EthBlock.Block block = new EthBlock.Block();
+        block.setNumber(head.getNumber());
+        block.setHash(head.getHash());
+        block.setParentHash(head.getParentHash());
+        block.setNonce(head.getNonce());
+        block.setSha3Uncles(head.getSha3Uncles());
+        block.setLogsBloom(head.getLogsBloom());
+        block.setTransactionsRoot(head.getTransactionRoot());
+        block.setStateRoot(head.getStateRoot());
+        block.setReceiptsRoot(head.getReceiptRoot());
+        block.setMiner(head.getMiner());
+        block.setDifficulty(head.getDifficulty());
+        block.setExtraData(head.getExtraData());
+        block.setGasLimit(head.getGasLimit());
+        block.setGasUsed(head.getGasUsed());
+        block.setTimestamp(head.getTimestamp());
+        block.setTransactions(new ArrayList<>());
+        return block;
+    }
+
+    public long getReconnectCount() {
+        return reconnects.get();
+    }
+
+    public long getPushedHeadCount() {
+        return pushedHeads.get();
+    }
+
+    public long getPushedLogCount() {
+        return pushedLogs.get();
+    }
+
+    public long getBackfilledHeadCount() {
+        return backfilledHeads.get();
+    }
+
+    public long getBackfilledLogCount() {
+        return backfilledLogs.get();
+    }
+
+    public long getDuplicateCount() {
+        return duplicates.get();
+    }
+
+    /**
+     * 구독자 버퍼가 가득 차서 재연결한 횟수
+     */
+    public long getDeliveryTimeoutCount() {
+        return deliveryTimeouts.get();
+    }
+
+    /**
+     * 백필에 사용한 HTTP 요청 수
+     */
+    public long getBackfillRequestCount() {
+        return backfillRequests.get();
+    }
+
+    /**
+     * 연결을 닫고 구독자에게 onComplete 전달
+     */
+    @Override
+    public void close() {
+        closed = true;
+        generation.incrementAndGet();
+        Connection conn = connection;
+        if (conn != null) {
+            conn.close(true);
+        }
+        scheduler.shutdownNow();
+        // deliveryLock을 잡지 않음: 전달 스레드가 가득 찬 버퍼 앞에서 락을 잡고 대기 중일 수 있음
+        // (SubmissionPublisher.close는 스레드 안전, 대기 중인 offer도 deliveryTimeout 안에 끝남)
+        if (heads != null) {
+            heads.publisher.close();
+        }
+        logFeeds.forEach(feed -> feed.publisher.close());
+        subscriberExecutor.shutdown();
+    }
+
+    /**
+     * Sepolia 새 블록과 SEO 토큰 Transfer 로그를 60초 동안 구독하는 예시
+     * 환경 변수: INFURA_PROJECT_ID
+     */
+    public static void main(String[] args) throws Exception {
+        String projectId = System.getenv("INFURA_PROJECT_ID");
+        Web3j http = Web3j.build(new HttpService("https://sepolia.infura.io/v3/" + projectId));
+        String token = "0x1797da0ffff01bf87fef6becfa9e943e31540e03";
+        String transferTopic = "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef";
+
+        try (WebSocketEventStream stream = new WebSocketEventStream("wss://sepolia.infura.io/ws/v3/" + projectId, http)) {
+            stream.newHeads().subscribe(new Flow.Subscriber<>() {
+                private Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onNext(EthBlock.Block block) {
+                    System.out.println("새 블록: " + block.getNumber() + " " + block.getHash());
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    System.out.println("스트림 오류: " + throwable.getMessage());
+                }
+
+                @Override
+                public void onComplete() {
+                    System.out.println("스트림 종료");
+                }
+            });
+            stream.logs(List.of(token), List.of(transferTopic)).subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(Log log) {
+                    System.out.println("Transfer 로그: 블록 " + log.getBlockNumber() + ", tx " + log.getTransactionHash());
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            });
+            stream.start();
+            Thread.sleep(60_000);
+            System.out.println("재연결 " + stream.getReconnectCount() + "회, 푸시 블록 " + stream.getPushedHeadCount()
+                + "개, 백필 블록 " + stream.getBackfilledHeadCount() + "개");
+        }
+        http.shutdown();
+    }
+}
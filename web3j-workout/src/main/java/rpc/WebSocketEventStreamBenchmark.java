@@ -0,0 +1,233 @@
+package rpc;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.utils.Numeric;
+import rpc.StubRpcNode.StubRpcException;
+
+public class WebSocketEventStreamBenchmark {
+
+    private static final String TOKEN = "0x1797da0ffff01bf87fef6becfa9e943e31540e03";
+    private static final int LOGS_PER_BLOCK = 2;
+    private static final int OUTAGE_BLOCKS = 5;
+
+    /**
+     * 폴링 vs WebSocket 구독 벤치마크 (로컬 HTTP / WebSocket 스텁 노드)
+     *
+     * 스텁 체인이 blockIntervalMs마다 블록 1개(Transfer 로그 2건)를 만들고 WebSocket 구독자에게 푸시한다.
+     * - 폴링 소비자 : pollIntervalMs마다 eth_blockNumber → 새 블록 eth_getBlockByNumber + eth_getLogs
+     * - 스트림 소비자 : WebSocketEventStream의 newHeads / logs (request(1)씩 소비)
+     * 실행 중간에 WebSocket 노드를 OUTAGE_BLOCKS개 블록 동안 내려서 재연결 + HTTP 백필을 확인한다.
+     *
+     * 측정 항목:
+     * - 블록 생성 → 핸들러 도착 지연 p50 / p99
+     * - 소비자별 HTTP 요청 수
+     * - 누락 / 중복 블록과 로그 수
+     *
+     * 실행 인자 (선택): [블록 간격ms] [블록 수] [폴링 간격ms]
+     */
+    public static void main(String[] args) throws Exception {
+        long blockIntervalMillis = args.length > 0 ? Long.parseLong(args[0]) : 200;
+        int blockCount = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        long pollIntervalMillis = args.length > 2 ? Long.parseLong(args[2]) : 1_000;
+
+        long firstBlock = 5_000_000;
+        AtomicLong latest = new AtomicLong(firstBlock);
+        Map<Long, Long> producedAt = new ConcurrentHashMap<>();
+        Map<Long, List<Map<String, Object>>> logsByBlock = new ConcurrentHashMap<>();
+        StubRpcNode.MethodHandler handler = (method, params) -> {
+            switch (method) {
+                case "eth_blockNumber":
+                    return Numeric.encodeQuantity(BigInteger.valueOf(latest.get()));
+                case "eth_getBlockByNumber": {
+                    long number = Numeric.decodeQuantity(params.path(0).asText()).longValueExact();
+                    return number <= latest.get() ? head(number) : null;
+                }
+                case "eth_getLogs": {
+                    long from = Numeric.decodeQuantity(params.path(0).path("fromBlock").asText()).longValueExact();
+                    long to = Numeric.decodeQuantity(params.path(0).path("toBlock").asText()).longValueExact();
+                    List<Map<String, Object>> result = new ArrayList<>();
+                    for (long number = from; number <= Math.min(to, latest.get()); number++) {
+                        result.addAll(logsByBlock.getOrDefault(number, Collections.emptyList()));
+                    }
+                    return result;
+                }
+                default:
+                    throw new StubRpcException(-32601, "method not found: " + method);
+            }
+        };
+
+        try (StubRpcNode pollingNode = new StubRpcNode(5, handler);
+             StubRpcNode backfillNode = new StubRpcNode(5, handler);
+             StubWebSocketNode webSocketNode = new StubWebSocketNode()) {
+
+            System.out.println("=== 폴링 vs WebSocket 구독 (블록 " + blockCount + "개, 간격 " + blockIntervalMillis
+                + "ms, 폴링 " + pollIntervalMillis + "ms, 중간에 WebSocket " + OUTAGE_BLOCKS + "블록 중단) ===");
+
+            // 1. 스트림 소비자
+            Web3j backfillWeb3 = Web3j.build(new HttpService(backfillNode.getUrl()));
+            WebSocketEventStream stream = new WebSocketEventStream(webSocketNode.getUrl(), backfillWeb3)
+                .reconnectDelay(100, 1_000);
+            List<Long> streamLatencies = Collections.synchronizedList(new ArrayList<>());
+            Map<Long, Integer> streamBlocks = new ConcurrentHashMap<>();
+            Set<String> streamLogs = ConcurrentHashMap.newKeySet();
+            AtomicLong streamLogDuplicates = new AtomicLong();
+            stream.newHeads().subscribe(new RequestOneSubscriber<>(block -> {
+                long number = block.getNumber().longValueExact();
+                streamLatencies.add(System.nanoTime() - producedAt.get(number));
+                streamBlocks.merge(number, 1, Integer::sum);
+            }));
+            stream.logs(List.of(TOKEN), List.of(StubChainData.TRANSFER_EVENT_TOPIC)).subscribe(new RequestOneSubscriber<>(log -> {
+                if (!streamLogs.add(log.getBlockHash() + ':' + log.getLogIndexRaw())) {
+                    streamLogDuplicates.incrementAndGet();
+                }
+            }));
+            stream.start();
+
+            // 2. 폴링 소비자
+            Web3j pollingWeb3 = Web3j.build(new HttpService(pollingNode.getUrl()));
+            List<Long> pollingLatencies = Collections.synchronizedList(new ArrayList<>());
+            Set<Long> pollingBlocks = ConcurrentHashMap.newKeySet();
+            Set<String> pollingLogs = ConcurrentHashMap.newKeySet();
+            long end = firstBlock + blockCount;
+            Thread poller = new Thread(() -> {
+                long last = firstBlock;
+                try {
+                    while (last < end) {
+                        Thread.sleep(pollIntervalMillis);
+                        long head = pollingWeb3.ethBlockNumber().send().getBlockNumber().longValueExact();
+                        for (long number = last + 1; number <= head; number++) {
+                            EthBlock.Block block = pollingWeb3.ethGetBlockByNumber(
+                                new DefaultBlockParameterNumber(number), false).send().getBlock();
+                            pollingLatencies.add(System.nanoTime() - producedAt.get(number));
+                            pollingBlocks.add(block.getNumber().longValueExact());
+                        }
+                        if (head > last) {
+                            EthFilter filter = new EthFilter(new DefaultBlockParameterNumber(last + 1),
+                                new DefaultBlockParameterNumber(head), TOKEN);
+                            filter.addSingleTopic(StubChainData.TRANSFER_EVENT_TOPIC);
+                            for (EthLog.LogResult<?> result : pollingWeb3.ethGetLogs(filter).send().getLogs()) {
+                                Log log = (Log) result.get();
+                                pollingLogs.add(log.getBlockHash() + ':' + log.getLogIndexRaw());
+                            }
+                            last = head;
+                        }
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }, "polling-consumer");
+            poller.start();
+
+            // 3. 블록 생성 (중간에 WebSocket 노드 중단)
+            long outageStart = firstBlock + blockCount / 3;
+            for (long number = firstBlock + 1; number <= end; number++) {
+                Thread.sleep(blockIntervalMillis);
+                if (number == outageStart) {
+                    webSocketNode.setAccepting(false);
+                    webSocketNode.dropConnections();
+                } else if (number == outageStart + OUTAGE_BLOCKS) {
+                    webSocketNode.setAccepting(true);
+                }
+                List<Map<String, Object>> logs = new ArrayList<>();
+                for (int i = 0; i < LOGS_PER_BLOCK; i++) {
+                    logs.add(StubChainData.transferLog(TOKEN, number, i, "0x658b8a1ae242d0460d4777e17c9af438daab4f77",
+                        "0x" + String.format("%040x", number * 10 + i), BigInteger.valueOf(1_000 + i)));
+                }
+                logsByBlock.put(number, logs);
+                producedAt.put(number, System.nanoTime());
+                latest.set(number);
+                webSocketNode.publishHead(head(number));
+                logs.forEach(webSocketNode::publishLog);
+            }
+            poller.join();
+            Thread.sleep(500);
+
+            long expectedLogs = (long) blockCount * LOGS_PER_BLOCK;
+            long missingStreamBlocks = blockCount - streamBlocks.size();
+            long duplicateStreamBlocks = streamBlocks.values().stream().filter(count -> count > 1).count();
+            report("폴링", pollingLatencies, pollingNode.getHttpRequestCount(),
+                blockCount - pollingBlocks.size(), 0, expectedLogs - pollingLogs.size(), 0);
+            report("WebSocket 구독", streamLatencies, backfillNode.getHttpRequestCount(),
+                missingStreamBlocks, duplicateStreamBlocks, expectedLogs - streamLogs.size(), streamLogDuplicates.get());
+            System.out.println("스트림: 재연결 " + stream.getReconnectCount() + "회, 푸시 블록 " + stream.getPushedHeadCount()
+                + "개 / 로그 " + stream.getPushedLogCount() + "건, 백필 블록 " + stream.getBackfilledHeadCount()
+                + "개 / 로그 " + stream.getBackfilledLogCount() + "건, 중복 제거 " + stream.getDuplicateCount() + "건");
+
+            stream.close();
+            backfillWeb3.shutdown();
+            pollingWeb3.shutdown();
+        }
+        System.exit(0);
+    }
+
+    private static Map<String, Object> head(long number) {
+        Map<String, Object> head = new HashMap<>();
+        head.put("number", Numeric.encodeQuantity(BigInteger.valueOf(number)));
+        head.put("hash", StubChainData.blockHash(number));
+        head.put("parentHash", StubChainData.blockHash(number - 1));
+        head.put("timestamp", Numeric.encodeQuantity(BigInteger.valueOf(1_700_000_000L + number * 12)));
+        head.put("gasLimit", "0x1c9c380");
+        head.put("gasUsed", "0x0");
+        return head;
+    }
+
+    private static void report(String label, List<Long> latencies, long httpRequests, long missingBlocks,
+                               long duplicateBlocks, long missingLogs, long duplicateLogs) {
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        double p50 = sorted.isEmpty() ? 0 : sorted.get(sorted.size() / 2) / 1e6;
+        double p99 = sorted.isEmpty() ? 0 : sorted.get((int) (sorted.size() * 0.99)) / 1e6;
+        System.out.printf("%-14s : 지연 p50 %7.1fms, p99 %7.1fms, HTTP 요청 %,4d회, 누락 블록 %d / 로그 %d, 중복 블록 %d / 로그 %d%n",
+            label, p50, p99, httpRequests, missingBlocks, missingLogs, duplicateBlocks, duplicateLogs);
+    }
+
+    /**
+     * 1건씩 요청하는 구독자 (처리 속도만큼만 받음)
+     */
+    private static final class RequestOneSubscriber<T> implements Flow.Subscriber<T> {
+        private final Consumer<T> handler;
+        private Flow.Subscription subscription;
+
+        RequestOneSubscriber(Consumer<T> handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(T item) {
+            handler.accept(item);
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            System.out.println("구독 오류: " + throwable);
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package transfer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.web3j.crypto.Credentials;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.tx.RawTransactionManager;
+import org.web3j.tx.Transfer;
+import org.web3j.tx.response.TransactionReceiptProcessor;
+import org.web3j.utils.Convert;
+import transfer.nativecoin.BatchTransactionLookup;
+
+/**
+ * 블록 단위 공유 영수증 감시기
+ *
+ * Transfer.sendFunds(...).send() / contract.transfer(...).send()의 기본 동작:
+ * - 트랜잭션마다 PollingTransactionReceiptProcessor가 eth_getTransactionReceipt를 주기적으로 호출
+ * - 대기 중인 트랜잭션 N건 → 폴링 주기마다 N번 호출 (대부분 null 응답)
+ *
+ * 이 감시기:
+ * - 스레드 1개가 eth_blockNumber로 새 블록을 확인하고, 새 블록마다 eth_getBlockByNumber(해시만) 1회 조회
+ * - 블록의 트랜잭션 해시를 대기 목록(ConcurrentHashMap)과 비교하여 포함된 것만 영수증을 배치로 조회 후 future 완료
+ * → HTTP 요청 수 = 폴링 횟수 + 새 블록 수 × 2 (대기 중인 트랜잭션 수와 무관)
+ *
+ * 등록 전에 이미 블록에 포함된 트랜잭션은 블록 비교로 찾을 수 없으므로
+ * 새로 등록된 해시는 다음 주기에 영수증을 1회만 직접 조회한다 (주기당 배치 요청 1회).
+ * 조회가 실패하면 해시를 다시 큐에 넣고 다음 주기에 재시도하며, 실패한 주기 수와 마지막 오류를 제공한다.
+ * 블록에는 포함되었는데 영수증이 아직 없는 해시(노드의 영수증 색인 지연)는 따로 모아 매 주기 다시 조회한다.
+ *
+ * 기존 코드에 적용: asReceiptProcessor()를 RawTransactionManager 생성자에 넘기면
+ * Transfer.sendFunds / ERC20 래퍼의 send()가 개별 폴링 대신 이 감시기를 기다림
+ */
+public class BlockReceiptWatcher implements AutoCloseable {
+
+    public static final long DEFAULT_POLL_INTERVAL_MILLIS = 1_000;
+    public static final long DEFAULT_TIMEOUT_MILLIS = 600_000;
+
+    private static final int RECEIPT_BATCH_SIZE = BatchTransactionLookup.DEFAULT_BATCH_SIZE;
+
+    private final Web3j web3;
+    private final long timeoutMillis;
+    private final ScheduledExecutorService scheduler;
+
+    // 대기 중인 트랜잭션 해시(소문자) → 영수증 future
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    // 등록 직후 1회 직접 조회할 해시
+    private final ConcurrentLinkedQueue<String> newlyWatched = new ConcurrentLinkedQueue<>();
+    // 블록에 포함되었지만 영수증이 비어 있던 해시 (감시기 스레드만 사용)
+    private final Set<String> includedWithoutReceipt = new HashSet<>();
+    private BigInteger lastBlock;
+
+    // 통계
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong blocks = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failedPolls = new AtomicLong();
+    private volatile Exception lastFailure;
+
+    private static final class Pending {
+        final CompletableFuture<TransactionReceipt> future = new CompletableFuture<>();
+        final long deadline;
+
+        Pending(long deadline) {
+            this.deadline = deadline;
+        }
+    }
+
+    public BlockReceiptWatcher(Web3j web3) {
+        this(web3, DEFAULT_POLL_INTERVAL_MILLIS, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public BlockReceiptWatcher(Web3j web3, long pollIntervalMillis, long timeoutMillis) {
+        this.web3 = web3;
+        this.timeoutMillis = timeoutMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "block-receipt-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::poll, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 트랜잭션 해시 등록 → 블록에 포함되면 영수증으로 완료되는 future 반환
+     * (같은 해시를 여러 번 등록하면 같은 future를 공유)
+     */
+    public CompletableFuture<TransactionReceipt> watch(String transactionHash) {
+        String key = transactionHash.toLowerCase();
+        Pending created = new Pending(System.currentTimeMillis() + timeoutMillis);
+        Pending existing = pending.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing.future;
+        }
+        // 대기 목록에 들어간 뒤에 큐에 넣어야 감시기 스레드가 놓치지 않음
+        newlyWatched.add(key);
+        return created.future;
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /** 감시기가 보낸 HTTP 요청 수 (배치 요청은 1회로 집계) */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getBlockCount() {
+        return blocks.get();
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    /** RPC 오류로 중간에 끝난 감시 주기 수 */
+    public long getFailedPollCount() {
+        return failedPolls.get();
+    }
+
+    /** 마지막으로 실패한 감시 주기의 오류 (없으면 null) */
+    public Exception getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * 감시기 스레드에서 주기적으로 실행
+     */
+    private void poll() {
+        try {
+            checkNewlyWatched();
+            retryIncludedWithoutReceipt();
+            checkNewBlocks();
+        } catch (Exception e) {
+            // 다음 주기에 다시 시도 (처리한 블록 위치와 직접 조회할 해시는 유지됨)
+            // 예외를 밖으로 던지면 scheduleWithFixedDelay가 이후 실행을 멈추므로 여기서 기록만 함
+            failedPolls.incrementAndGet();
+            lastFailure = e;
+        } finally {
+            // RPC가 계속 실패해도 대기 시간이 지난 future는 완료
+            expire();
+        }
+    }
+
+    private void checkNewlyWatched() throws IOException {
+        List<String> hashes = new ArrayList<>();
+        String hash;
+        while ((hash = newlyWatched.poll()) != null) {
+            if (pending.containsKey(hash)) {
+                hashes.add(hash);
+            }
+        }
+        try {
+            fetchReceipts(hashes);
+        } catch (IOException | RuntimeException e) {
+            // 등록 전에 포함된 트랜잭션은 블록 비교로 찾을 수 없으므로 버리지 않고 다음 주기에 다시 조회
+            newlyWatched.addAll(hashes);
+            throw e;
+        }
+    }
+
+    private void retryIncludedWithoutReceipt() throws IOException {
+        // 완료되었거나 대기 시간이 지난 해시는 제외
+        includedWithoutReceipt.retainAll(pending.keySet());
+        if (includedWithoutReceipt.isEmpty()) {
+            return;
+        }
+        List<String> missing = fetchReceipts(new ArrayList<>(includedWithoutReceipt));
+        includedWithoutReceipt.retainAll(missing);
+    }
+
+    private void checkNewBlocks() throws IOException {
+        requests.incrementAndGet();
+        BigInteger latest = web3.ethBlockNumber().send().getBlockNumber();
+        if (lastBlock == null) {
+            // 시작 시점 이전 블록은 checkNewlyWatched()가 영수증 직접 조회로 처리
+            lastBlock = latest;
+            return;
+        }
+        while (lastBlock.compareTo(latest) < 0) {
+            BigInteger number = lastBlock.add(BigInteger.ONE);
+            if (!pending.isEmpty()) {
+                requests.incrementAndGet();
+                EthBlock.Block block = web3.ethGetBlockByNumber(DefaultBlockParameter.valueOf(number), false)
+                    .send().getBlock();
+                if (block == null) {
+                    // 노드 간 동기화 차이 → 다음 주기에 다시 조회
+                    return;
+                }
+                List<String> included = new ArrayList<>();
+                for (EthBlock.TransactionResult<?> result : block.getTransactions()) {
+                    String hash = ((String) result.get()).toLowerCase();
+                    if (pending.containsKey(hash)) {
+                        included.add(hash);
+                    }
+                }
+                includedWithoutReceipt.addAll(fetchReceipts(included));
+            }
+            blocks.incrementAndGet();
+            lastBlock = number;
+        }
+    }
+
+    /**
+     * 영수증을 JSON-RPC 배치로 조회 (해시 수와 관계없이 배치 크기당 HTTP 요청 1회)
+     * 오류 응답이 있으면 받은 영수증은 완료한 뒤 IOException (호출자가 같은 해시를 다시 조회)
+     *
+     * @return 오류 없이 영수증이 비어 있던(null) 해시
+     */
+    private List<String> fetchReceipts(List<String> hashes) throws IOException {
+        List<String> missing = new ArrayList<>();
+        for (int from = 0; from < hashes.size(); from += RECEIPT_BATCH_SIZE) {
+            List<String> chunk = hashes.subList(from, Math.min(from + RECEIPT_BATCH_SIZE, hashes.size()));
+            BatchRequest batch = web3.newBatch();
+            for (String hash : chunk) {
+                batch.add(web3.ethGetTransactionReceipt(hash));
+            }
+            requests.incrementAndGet();
+            Response.Error error = null;
+            List<? extends Response<?>> responses = batch.send().getResponses();
+            for (int i = 0; i < responses.size(); i++) {
+                EthGetTransactionReceipt receiptResponse = (EthGetTransactionReceipt) responses.get(i);
+                if (receiptResponse.hasError()) {
+                    error = receiptResponse.getError();
+                } else if (receiptResponse.getTransactionReceipt().isPresent()) {
+                    complete(receiptResponse.getTransactionReceipt().get());
+                } else {
+                    missing.add(chunk.get(i));
+                }
+            }
+            if (error != null) {
+                throw new IOException("eth_getTransactionReceipt 실패: " + error.getMessage());
+            }
+        }
+        return missing;
+    }
+
+    private void complete(TransactionReceipt receipt) {
+        Pending entry = pending.remove(receipt.getTransactionHash().toLowerCase());
+        if (entry != null) {
+            completed.incrementAndGet();
+            entry.future.complete(receipt);
+        }
+    }
+
+    private void expire() {
+        long now = System.currentTimeMillis();
+        pending.entrySet().removeIf(e -> {
+            if (e.getValue().deadline > now) {
+                return false;
+            }
+            e.getValue().future.completeExceptionally(new TransactionException(
+                "Transaction receipt was not generated after " + timeoutMillis / 1000
+                    + " seconds for transaction: " + e.getKey(), e.getKey()));
+            return true;
+        });
+    }
+
+    /**
+     * TransactionManager에 넘길 수 있는 영수증 처리기
+     * → 해당 매니저로 보내는 모든 트랜잭션이 이 감시기를 공유
+     */
+    public TransactionReceiptProcessor asReceiptProcessor() {
+        return new TransactionReceiptProcessor(web3) {
+            @Override
+            public TransactionReceipt waitForTransactionReceipt(String transactionHash)
+                throws IOException, TransactionException {
+                try {
+                    return watch(transactionHash).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("영수증 대기 중 인터럽트", e);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof TransactionException) {
+                        throw (TransactionException) e.getCause();
+                    }
+                    throw new IOException(e.getCause());
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        pending.values().forEach(entry -> entry.future.cancel(false));
+        pending.clear();
+    }
+
+    /**
+     * BNB 전송 여러 건을 동시에 보내고 감시기 하나로 영수증을 기다리는 예시 (BSC 테스트넷)
+     */
+    public static void main(String[] args) throws Exception {
+        String privateKey = System.getenv("PRIVATE_KEY");
+        String infuraKey = System.getenv("INFURA_PROJECT_ID");
+        String bscTestnetUrl = "https://bsc-testnet.infura.io/v3/" + infuraKey;
+        Web3j web3 = Web3j.build(new HttpService(bscTestnetUrl));
+
+        Credentials credentials = Credentials.create(privateKey);
+        long bscTestnetChainId = 97L;
+        String toAddress = "0x658b8a1ae242d0460d4777e17C9Af438dAAB4f77";
+
+        try (BlockReceiptWatcher watcher = new BlockReceiptWatcher(web3)) {
+            // nonce는 로컬에서 할당, 영수증 대기는 감시기 공유
+            RawTransactionManager txManager = new NonceTrackingTransactionManager(
+                web3, credentials, bscTestnetChainId, watcher.asReceiptProcessor());
+            Transfer transfer = new Transfer(web3, txManager);
+
+            int count = 5;
+            List<CompletableFuture<TransactionReceipt>> receipts = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                receipts.add(transfer.sendFunds(toAddress, new BigDecimal("0.0001"), Convert.Unit.ETHER)
+                    .sendAsync());
+            }
+            for (CompletableFuture<TransactionReceipt> receipt : receipts) {
+                TransactionReceipt r = receipt.get();
+                System.out.println("블록 " + r.getBlockNumber() + " : " + r.getTransactionHash());
+            }
+
+            System.out.println("\n=== 감시기 통계 ===");
+            System.out.println("처리한 블록 : " + watcher.getBlockCount());
+            System.out.println("완료한 트랜잭션 : " + watcher.getCompletedCount());
+            System.out.println("HTTP 요청 : " + watcher.getRequestCount());
+        }
+
+        web3.shutdown();
+    }
+}
@@ -0,0 +1,148 @@
+package transfer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+/**
+ * 동시 영수증 조회 엔진
+ *
+ * GetNativeCoinTransaction / GetERC20TokenTransaction은
+ * web3.ethGetTransactionReceipt(hash).send()를 1건씩 순차로 호출한다.
+ * → RPC 지연이 100ms면 해시 10,000건 조회에 1,000초 이상 소요
+ *
+ * 동작 방식:
+ * - 동시에 진행 중인 요청 수를 Semaphore(maxInFlight)로 제한 (노드 rate limit 보호)
+ * - 요청은 executor 스레드에서 실행, 완료되는 순서대로 결과를 호출 스레드에 전달
+ * - 결과마다 대기 시간(queue wait)과 RPC 지연(latency)을 함께 기록
+ *
+ * 스레드 모델:
+ * - 이 프로젝트는 JDK 17 기준이라 기본 executor는 데몬 cached thread pool
+ *   (permit을 얻은 요청만 제출하므로 스레드 수는 maxInFlight를 넘지 않음)
+ * - JDK 21 이상에서는 Executors.newVirtualThreadPerTaskExecutor()를 생성자로 넘기면
+ *   블로킹 .send() 호출을 가상 스레드에서 그대로 사용할 수 있음
+ */
+public class ConcurrentReceiptFetcher implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 64;
+
+    private final Web3j web3;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    public ConcurrentReceiptFetcher(Web3j web3) {
+        this(web3, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public ConcurrentReceiptFetcher(Web3j web3, int maxInFlight) {
+        this(web3, maxInFlight, newDaemonExecutor(), true);
+    }
+
+    public ConcurrentReceiptFetcher(Web3j web3, int maxInFlight, ExecutorService executor) {
+        this(web3, maxInFlight, executor, false);
+    }
+
+    private ConcurrentReceiptFetcher(Web3j web3, int maxInFlight, ExecutorService executor, boolean ownsExecutor) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.web3 = web3;
+        this.permits = new Semaphore(maxInFlight);
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * 해시 목록의 영수증을 동시에 조회하고, 완료되는 순서대로 onResult 호출
+     *
+     * - onResult는 fetch()를 호출한 스레드에서만 실행되므로 thread-safe할 필요 없음
+     * - 모든 결과가 전달된 뒤 반환
+     */
+    public void fetch(List<String> transactionHashes, Consumer<ReceiptResult> onResult) throws InterruptedException {
+        LinkedBlockingQueue<ReceiptResult> completed = new LinkedBlockingQueue<>();
+        long enqueuedAt = System.nanoTime();
+
+        int submitted = 0;
+        int delivered = 0;
+        int total = transactionHashes.size();
+
+        while (delivered < total) {
+            // 남은 permit만큼 요청 제출
+            // permit은 인스턴스 전체가 공유 → 이 호출의 진행 중인 요청이 없으면 다른 호출이 반납할 때까지 대기
+            // (대기하지 않으면 아무것도 제출하지 않은 채 빈 큐에서 영원히 기다림)
+            while (submitted < total) {
+                if (submitted == delivered) {
+                    permits.acquire();
+                } else if (!permits.tryAcquire()) {
+                    break;
+                }
+                String hash = transactionHashes.get(submitted);
+                try {
+                    executor.execute(() -> completed.add(fetchOne(hash, enqueuedAt)));
+                } catch (RejectedExecutionException e) {
+                    // close() 이후 등 → 실행되지 않은 요청의 permit 반납
+                    permits.release();
+                    throw e;
+                }
+                submitted++;
+            }
+            // 결과 1건이 도착하면 permit도 1개 반납된 상태 → 다시 제출 루프로
+            onResult.accept(completed.take());
+            delivered++;
+        }
+    }
+
+    /**
+     * 모든 결과를 완료 순서대로 모아서 반환
+     */
+    public List<ReceiptResult> fetchAll(List<String> transactionHashes) throws InterruptedException {
+        List<ReceiptResult> results = new ArrayList<>(transactionHashes.size());
+        fetch(transactionHashes, results::add);
+        return results;
+    }
+
+    private ReceiptResult fetchOne(String hash, long enqueuedAt) {
+        long startedAt = System.nanoTime();
+        TransactionReceipt receipt = null;
+        Throwable error = null;
+        try {
+            EthGetTransactionReceipt response = web3.ethGetTransactionReceipt(hash).send();
+            if (response.hasError()) {
+                error = new IllegalStateException(response.getError().getMessage());
+            } else {
+                receipt = response.getTransactionReceipt().orElse(null);
+            }
+        } catch (Exception e) {
+            error = e;
+        } finally {
+            permits.release();
+        }
+        return new ReceiptResult(hash, receipt, error, startedAt - enqueuedAt, System.nanoTime() - startedAt);
+    }
+
+    private static ExecutorService newDaemonExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "receipt-fetcher-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package transfer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.http.HttpService;
+import rpc.StubChainData;
+import rpc.StubRpcNode;
+import rpc.StubRpcNode.StubRpcException;
+
+public class ConcurrentReceiptFetcherBenchmark {
+
+    /**
+     * 동시 영수증 조회 벤치마크 (로컬 스텁 노드 + 지연 주입)
+     *
+     * - 순차 조회: 해시 1건당 RPC 지연만큼 걸림 (일부만 측정 후 전체 시간으로 환산)
+     * - 동시 조회: maxInFlight개의 요청이 겹쳐서 진행
+     *
+     * 실행 인자 (선택): [지연ms] [해시 개수] [maxInFlight]
+     */
+    public static void main(String[] args) throws Exception {
+        long latencyMillis = args.length > 0 ? Long.parseLong(args[0]) : 100;
+        int hashCount = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int maxInFlight = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+
+        StubRpcNode.MethodHandler handler = (method, params) -> {
+            if (!"eth_getTransactionReceipt".equals(method)) {
+                throw new StubRpcException(-32601, "method not found: " + method);
+            }
+            return StubChainData.receipt(params.path(0).asText());
+        };
+
+        try (StubRpcNode node = new StubRpcNode(latencyMillis, maxInFlight * 2, handler)) {
+            // OkHttp 기본 커넥션 풀(유휴 5개)은 동시 요청 수보다 작아 연결을 계속 새로 맺게 되므로 크기를 맞춤
+            OkHttpClient client = HttpService.getOkHttpClientBuilder()
+                .connectionPool(new ConnectionPool(maxInFlight, 5, TimeUnit.MINUTES))
+                .build();
+            Web3j web3 = Web3j.build(new HttpService(node.getUrl(), client));
+            List<String> hashes = StubChainData.transactionHashes(hashCount);
+
+            System.out.println("=== 동시 영수증 조회 벤치마크 (지연 " + latencyMillis + "ms, 해시 " + hashCount
+                + "건, maxInFlight " + maxInFlight + ") ===");
+
+            // 1. 순차 조회 (20건 측정 후 환산)
+            int sample = Math.min(20, hashCount);
+            long start = System.nanoTime();
+            for (String hash : hashes.subList(0, sample)) {
+                web3.ethGetTransactionReceipt(hash).send();
+            }
+            double sequentialSeconds = (System.nanoTime() - start) / 1e9 * hashCount / sample;
+            System.out.printf("순차 조회 (환산)   : %,.1f초%n", sequentialSeconds);
+
+            // 2. 동시 조회
+            try (ConcurrentReceiptFetcher fetcher = new ConcurrentReceiptFetcher(web3, maxInFlight)) {
+                long[] latencies = new long[hashCount];
+                long[] queueWaits = new long[hashCount];
+                int[] count = {0, 0};
+
+                start = System.nanoTime();
+                fetcher.fetch(hashes, result -> {
+                    if (result.getError() != null) {
+                        count[1]++;
+                    }
+                    latencies[count[0]] = result.getLatencyNanos();
+                    queueWaits[count[0]] = result.getQueueWaitNanos();
+                    count[0]++;
+                });
+                double concurrentSeconds = (System.nanoTime() - start) / 1e9;
+
+                System.out.printf("동시 조회          : %,.1f초 (%,.0f건/초, 실패 %d건)%n",
+                    concurrentSeconds, hashCount / concurrentSeconds, count[1]);
+                System.out.printf("RPC 지연 (ms)      : p50 %.1f / p95 %.1f / p99 %.1f%n",
+                    percentile(latencies, 50), percentile(latencies, 95), percentile(latencies, 99));
+                System.out.printf("대기 시간 (ms)     : p50 %.1f / p95 %.1f / p99 %.1f%n",
+                    percentile(queueWaits, 50), percentile(queueWaits, 95), percentile(queueWaits, 99));
+                System.out.printf("속도 향상          : %.0f배%n", sequentialSeconds / concurrentSeconds);
+            }
+
+            web3.shutdown();
+        }
+    }
+
+    private static double percentile(long[] nanos, int percentile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
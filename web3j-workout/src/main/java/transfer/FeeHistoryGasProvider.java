@@ -0,0 +1,382 @@
+package transfer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthFeeHistory;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.tx.gas.ContractEIP1559GasProvider;
+import org.web3j.utils.Convert;
+import org.web3j.utils.Numeric;
+
+/**
+ * eth_feeHistory 기반 EIP-1559 가스비 제공자
+ *
+ * 기존 예제의 고정 가스비:
+ * - ERC20TokenTransfer.getStaticGasProvider()         : 0.5 gwei
+ * - ERC20ContractFunctionCall.getLowGasProvider()     : 1 gwei
+ * - ERC20ContractDeployment (DefaultGasProvider)      : 4.1 gwei
+ * → 한가할 때는 과다 지불, 혼잡할 때는 포함되지 않고 대기
+ *
+ * 계산 방식 (최근 blockCount개 블록):
+ * - eth_feeHistory(blockCount, latest, [urgency 백분위수])
+ *     baseFeePerGas : 각 블록의 base fee + 다음 블록의 base fee (마지막 값)
+ *     reward        : 각 블록에서 urgency 백분위수에 해당하는 priority fee
+ * - maxPriorityFeePerGas = 구간 reward의 중앙값 (빈 블록의 0은 제외, 최소 minPriorityFee)
+ * - maxFeePerGas         = 다음 블록 base fee × baseFeeMultiplier + maxPriorityFeePerGas
+ *   (base fee는 블록당 최대 12.5% 상승 → 2배면 연속 6블록 가득 차도 포함 가능)
+ *
+ * 캐시:
+ * - 조회 결과는 블록 단위로 재사용 (트랜잭션마다 RPC를 호출하지 않음)
+ * - refreshIntervalMillis(블록 시간)가 지나거나 onNewBlock()으로 더 새로운 블록이 알려지면 다시 조회
+ * - web3j는 트랜잭션 1건에 getMaxFeePerGas / getMaxPriorityFeePerGas를 따로 호출하므로
+ *   같은 스레드의 두 호출은 같은 조회 결과를 사용 (사이에 갱신되어 tip > maxFee가 되는 것 방지)
+ *   단, 그 결과가 캐시에서 교체되었거나 오래되었으면 짝 호출이 없었던 것으로 보고 현재 값 사용
+ *
+ * 정확도 지표:
+ * - 다음 블록 base fee는 eth_feeHistory가 프로토콜 규칙으로 계산한 확정값이므로 예측 오차는 측정하지 않음
+ * - tip 충족률       : 이후 블록들의 실제 urgency 백분위 reward 이하였던 비율
+ *                     (제시한 tip으로 그 블록에 들어갈 수 있었던 비율)
+ * - 수수료 여유       : recordReceipt()로 받은 실제 effectiveGasPrice 대비 제시한 maxFeePerGas 배율
+ */
+public class FeeHistoryGasProvider implements ContractEIP1559GasProvider {
+
+    /**
+     * 긴급도 → eth_feeHistory reward 백분위수
+     */
+    public enum Urgency {
+        SLOW(10), STANDARD(50), FAST(90);
+
+        private final double percentile;
+
+        Urgency(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+    }
+
+    /**
+     * 한 번의 eth_feeHistory 조회 결과로 계산한 값
+     */
+    private static final class Estimate {
+        final BigInteger newestBlock;
+        final BigInteger nextBaseFee;
+        final BigInteger maxPriorityFeePerGas;
+        final BigInteger maxFeePerGas;
+        final long fetchedAt;
+
+        Estimate(BigInteger newestBlock, BigInteger nextBaseFee, BigInteger maxPriorityFeePerGas,
+                 BigInteger maxFeePerGas, long fetchedAt) {
+            this.newestBlock = newestBlock;
+            this.nextBaseFee = nextBaseFee;
+            this.maxPriorityFeePerGas = maxPriorityFeePerGas;
+            this.maxFeePerGas = maxFeePerGas;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    /**
+     * 한 스레드가 getMaxFeePerGas / getMaxPriorityFeePerGas 중 하나만 호출한 상태
+     */
+    private static final class Pinned {
+        final Estimate estimate;
+        final boolean maxFee;
+
+        Pinned(Estimate estimate, boolean maxFee) {
+            this.estimate = estimate;
+            this.maxFee = maxFee;
+        }
+    }
+
+    private final Web3j web3;
+    private final long chainId;
+    private final BigInteger gasLimit;
+
+    private int blockCount = 20;
+    private double rewardPercentile = Urgency.STANDARD.getPercentile();
+    private long baseFeeMultiplier = 2;
+    private BigInteger minPriorityFee = Convert.toWei("0.01", Convert.Unit.GWEI).toBigInteger();
+    private long refreshIntervalMillis = 3_000;
+
+    private volatile Estimate estimate;
+    private volatile BigInteger knownLatestBlock = BigInteger.ZERO;
+    private final ThreadLocal<Pinned> pinned = new ThreadLocal<>();
+
+    // 정확도 측정용: 블록 번호 → 그 블록에 대해 제시한 tip
+    private final Map<BigInteger, BigInteger> offeredTips = new ConcurrentHashMap<>();
+
+    // 통계
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private long tipSamples;
+    private long tipCovered;
+    private long receiptSamples;
+    private double headroomSum;
+
+    public FeeHistoryGasProvider(Web3j web3, long chainId, BigInteger gasLimit) {
+        this.web3 = web3;
+        this.chainId = chainId;
+        this.gasLimit = gasLimit;
+    }
+
+    /** 조회할 최근 블록 수 (기본 20) */
+    public FeeHistoryGasProvider blockCount(int blockCount) {
+        this.blockCount = blockCount;
+        return this;
+    }
+
+    public FeeHistoryGasProvider urgency(Urgency urgency) {
+        return rewardPercentile(urgency.getPercentile());
+    }
+
+    /** priority fee 계산에 쓸 reward 백분위수 (0~100) */
+    public FeeHistoryGasProvider rewardPercentile(double rewardPercentile) {
+        this.rewardPercentile = rewardPercentile;
+        this.estimate = null;
+        return this;
+    }
+
+    public FeeHistoryGasProvider baseFeeMultiplier(long baseFeeMultiplier) {
+        this.baseFeeMultiplier = baseFeeMultiplier;
+        return this;
+    }
+
+    public FeeHistoryGasProvider minPriorityFee(BigInteger minPriorityFee) {
+        this.minPriorityFee = minPriorityFee;
+        return this;
+    }
+
+    /** 캐시 유지 시간 (보통 네트워크의 블록 시간) */
+    public FeeHistoryGasProvider refreshIntervalMillis(long refreshIntervalMillis) {
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        return this;
+    }
+
+    /**
+     * 새 블록 알림 (BlockReceiptWatcher나 newHeads 구독에서 호출)
+     * → 캐시된 값보다 새로운 블록이면 다음 조회 때 다시 계산
+     */
+    public void onNewBlock(BigInteger blockNumber) {
+        if (blockNumber.compareTo(knownLatestBlock) > 0) {
+            knownLatestBlock = blockNumber;
+        }
+    }
+
+    @Override
+    public BigInteger getMaxFeePerGas() {
+        return paired(true).maxFeePerGas;
+    }
+
+    @Override
+    public BigInteger getMaxPriorityFeePerGas() {
+        Estimate current = paired(false);
+        return current.maxPriorityFeePerGas.min(current.maxFeePerGas);
+    }
+
+    /**
+     * EIP-1559를 지원하지 않는 경로(legacy 트랜잭션)용 가스 가격
+     * → 다음 블록 base fee + priority fee
+     */
+    @Override
+    public BigInteger getGasPrice() {
+        Estimate current = current();
+        return current.nextBaseFee.add(current.maxPriorityFeePerGas);
+    }
+
+    @Override
+    public BigInteger getGasLimit(Transaction transaction) {
+        return gasLimit;
+    }
+
+    @Override
+    public BigInteger getGasLimit() {
+        return gasLimit;
+    }
+
+    @Override
+    public long getChainId() {
+        return chainId;
+    }
+
+    /**
+     * 같은 스레드에서 짝이 되는 getter가 먼저 호출되었으면 그때의 조회 결과, 아니면 현재 값을 고정해서 반환
+     * - 한쪽만 호출하고 끝난 스레드의 고정값은 현재 캐시보다 오래되면 버림
+     *   (스레드 풀에서 다음 트랜잭션이 몇 블록 전 가스비를 받는 것 방지)
+     */
+    private Estimate paired(boolean maxFee) {
+        Pinned last = pinned.get();
+        if (last != null && last.maxFee != maxFee) {
+            pinned.remove();
+            return last.estimate == estimate && !isStale(last.estimate) ? last.estimate : current();
+        }
+        Estimate current = current();
+        pinned.set(new Pinned(current, maxFee));
+        return current;
+    }
+
+    private Estimate current() {
+        Estimate cached = estimate;
+        if (cached != null && !isStale(cached)) {
+            cacheHits.incrementAndGet();
+            return cached;
+        }
+        synchronized (this) {
+            // 다른 스레드가 먼저 갱신했으면 그대로 사용 (블록당 조회 1회)
+            cached = estimate;
+            if (cached != null && !isStale(cached)) {
+                cacheHits.incrementAndGet();
+                return cached;
+            }
+            try {
+                estimate = refresh();
+            } catch (IOException e) {
+                if (cached == null) {
+                    throw new UncheckedIOException("eth_feeHistory 조회 실패", e);
+                }
+                // 조회 실패 시 직전 값 유지 (다음 호출 때 다시 시도)
+                return cached;
+            }
+            return estimate;
+        }
+    }
+
+    private boolean isStale(Estimate cached) {
+        return System.currentTimeMillis() - cached.fetchedAt >= refreshIntervalMillis
+            || knownLatestBlock.compareTo(cached.newestBlock) > 0;
+    }
+
+    private Estimate refresh() throws IOException {
+        refreshes.incrementAndGet();
+        EthFeeHistory response = web3.ethFeeHistory(
+            blockCount, DefaultBlockParameterName.LATEST, List.of(rewardPercentile)).send();
+        if (response.hasError()) {
+            throw new IOException(response.getError().getMessage());
+        }
+        EthFeeHistory.FeeHistory history = response.getFeeHistory();
+        List<BigInteger> baseFees = history.getBaseFeePerGas();
+        List<List<BigInteger>> rewards = history.getReward();
+        BigInteger oldestBlock = history.getOldestBlock();
+
+        recordTipCoverage(oldestBlock, baseFees, rewards);
+
+        // 빈 블록(reward 0)은 priority fee 시장을 반영하지 않으므로 제외
+        List<BigInteger> nonZeroRewards = new ArrayList<>();
+        if (rewards != null) {
+            for (List<BigInteger> reward : rewards) {
+                if (!reward.isEmpty() && reward.get(0).signum() > 0) {
+                    nonZeroRewards.add(reward.get(0));
+                }
+            }
+        }
+        BigInteger tip = minPriorityFee;
+        if (!nonZeroRewards.isEmpty()) {
+            Collections.sort(nonZeroRewards);
+            tip = tip.max(nonZeroRewards.get(nonZeroRewards.size() / 2));
+        }
+
+        BigInteger nextBaseFee = baseFees.get(baseFees.size() - 1);
+        BigInteger newestBlock = oldestBlock.add(BigInteger.valueOf(baseFees.size() - 2));
+        BigInteger nextBlock = newestBlock.add(BigInteger.ONE);
+        offeredTips.put(nextBlock, tip);
+        if (newestBlock.compareTo(knownLatestBlock) > 0) {
+            knownLatestBlock = newestBlock;
+        }
+
+        BigInteger maxFee = nextBaseFee.multiply(BigInteger.valueOf(baseFeeMultiplier)).add(tip);
+        return new Estimate(newestBlock, nextBaseFee, tip, maxFee, System.currentTimeMillis());
+    }
+
+    /**
+     * 이전에 tip을 제시한 블록의 실제 reward가 들어왔으면 충족 여부 기록
+     */
+    private void recordTipCoverage(BigInteger oldestBlock, List<BigInteger> baseFees, List<List<BigInteger>> rewards) {
+        for (int i = 0; i < baseFees.size() - 1; i++) {
+            BigInteger block = oldestBlock.add(BigInteger.valueOf(i));
+            BigInteger tip = offeredTips.remove(block);
+            if (tip != null && rewards != null && i < rewards.size() && !rewards.get(i).isEmpty()) {
+                tipSamples++;
+                if (tip.compareTo(rewards.get(i).get(0)) >= 0) {
+                    tipCovered++;
+                }
+            }
+        }
+        // 구간을 벗어난 오래된 기록은 버림
+        offeredTips.keySet().removeIf(block -> block.compareTo(oldestBlock) < 0);
+    }
+
+    /**
+     * 이 제공자의 가스비로 보낸 트랜잭션의 영수증 기록 → 실제 지불 가격 대비 여유 측정
+     *
+     * @param maxFeePerGas 그 트랜잭션에 서명한 maxFeePerGas (영수증이 올 때의 현재 추정값과 다를 수 있음)
+     */
+    public synchronized void recordReceipt(TransactionReceipt receipt, BigInteger maxFeePerGas) {
+        if (maxFeePerGas == null || receipt.getEffectiveGasPrice() == null) {
+            return;
+        }
+        BigInteger effective = Numeric.decodeQuantity(receipt.getEffectiveGasPrice());
+        if (effective.signum() > 0) {
+            headroomSum += maxFeePerGas.doubleValue() / effective.doubleValue();
+            receiptSamples++;
+        }
+    }
+
+    public long getRefreshCount() {
+        return refreshes.get();
+    }
+
+    public long getCacheHitCount() {
+        return cacheHits.get();
+    }
+
+    /** 제시한 tip이 이후 블록의 urgency 백분위 reward 이상이었던 비율 */
+    public synchronized double getTipCoverageRatio() {
+        return tipSamples == 0 ? 0 : tipCovered / (double) tipSamples;
+    }
+
+    /** maxFeePerGas / 실제 effectiveGasPrice 평균 (1에 가까울수록 여유가 적음) */
+    public synchronized double getFeeHeadroom() {
+        return receiptSamples == 0 ? 0 : headroomSum / receiptSamples;
+    }
+
+    /**
+     * Sepolia 테스트넷 가스비 조회 예시
+     * 블록 시간(12초) 동안 여러 번 조회해도 eth_feeHistory는 블록당 1회만 호출됨
+     */
+    public static void main(String[] args) throws Exception {
+        String infuraKey = System.getenv("INFURA_PROJECT_ID");
+        String sepoliaUrl = "https://sepolia.infura.io/v3/" + infuraKey;
+        Web3j web3 = Web3j.build(new HttpService(sepoliaUrl));
+
+        long sepoliaChainId = 11155111L;
+        FeeHistoryGasProvider gasProvider = new FeeHistoryGasProvider(web3, sepoliaChainId, BigInteger.valueOf(100_000L))
+            .urgency(Urgency.STANDARD)
+            .refreshIntervalMillis(12_000);
+
+        for (int i = 0; i < 12; i++) {
+            System.out.printf("maxFeePerGas %s gwei / maxPriorityFeePerGas %s gwei%n",
+                Convert.fromWei(gasProvider.getMaxFeePerGas().toString(), Convert.Unit.GWEI),
+                Convert.fromWei(gasProvider.getMaxPriorityFeePerGas().toString(), Convert.Unit.GWEI));
+            Thread.sleep(5_000);
+        }
+
+        System.out.println("\n=== 가스비 제공자 통계 ===");
+        System.out.println("eth_feeHistory 호출 : " + gasProvider.getRefreshCount());
+        System.out.println("캐시 사용 : " + gasProvider.getCacheHitCount());
+        System.out.printf("tip 충족률 : %.1f%%%n", gasProvider.getTipCoverageRatio() * 100);
+
+        web3.shutdown();
+    }
+}
@@ -0,0 +1,417 @@
+package transfer;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.crypto.Credentials;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthCall;
+import org.web3j.protocol.core.methods.response.EthEstimateGas;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.tx.gas.ContractEIP1559GasProvider;
+import org.web3j.tx.gas.ContractGasProvider;
+import org.web3j.tx.gas.StaticGasProvider;
+import org.web3j.utils.Convert;
+import org.web3j.utils.Numeric;
+
+/**
+ * 컨트랙트 함수별 gas limit 캐시
+ *
+ * 기존 예제의 고정 gas limit:
+ * - ERC20ContractFunctionCall : transfer / approve / transferFrom 모두 100,000
+ * - ERC20TokenTransfer        : 80,000
+ * → 너무 높으면 잔액이 묶이고(최대 수수료 기준), 너무 낮으면 out of gas로 실패
+ * → 매번 eth_estimateGas를 호출하면 전송마다 RPC가 1회씩 늘어남
+ *
+ * 캐시 키 = 컨트랙트 주소 + 함수 selector(호출 데이터 앞 4바이트) + 인자 분류
+ * - 같은 함수라도 상태에 따라 가스가 다름
+ *   (ERC20 transfer: 수신자 잔액 0 → 저장 슬롯 새로 씀(약 +17,000 gas), 잔액 있음 → 갱신만)
+ * - 인자 분류는 ArgumentClassifier로 지정 (기본: ERC20 수신자의 현재 잔액이 0인지 balanceOf로 확인)
+ *
+ * 값 채우기:
+ * - 처음 보는 키 → eth_estimateGas
+ * - 이후 sampleInterval번마다 1번만 다시 추정 (상태 변화 반영)
+ * - recordReceipt()로 실제 gasUsed 반영 → 관측된 최댓값 × (1 + safetyMargin)을 gas limit으로 사용
+ * - 실패한 영수증의 gasUsed가 gas limit과 같으면 out of gas로 보고 다음 호출 때 다시 추정
+ *
+ * 키가 maxEntries를 넘으면 가장 오래 사용하지 않은 것부터 제거 (LRU)
+ */
+public class GasLimitCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1_024;
+    public static final int DEFAULT_SAMPLE_INTERVAL = 100;
+    public static final double DEFAULT_SAFETY_MARGIN = 0.2;
+
+    private static final String TRANSFER_SELECTOR = "a9059cbb";      // transfer(address,uint256)
+    private static final String APPROVE_SELECTOR = "095ea7b3";       // approve(address,uint256)
+    private static final String TRANSFER_FROM_SELECTOR = "23b872dd"; // transferFrom(address,address,uint256)
+    private static final String BALANCE_OF_SELECTOR = "70a08231";    // balanceOf(address)
+
+    /**
+     * 호출 데이터 → 인자 분류 문자열 (가스 사용량이 크게 달라지는 경우만 구분)
+     */
+    @FunctionalInterface
+    public interface ArgumentClassifier {
+        String classify(String contractAddress, String data);
+    }
+
+    private static final class Entry {
+        long maxObserved;
+        long uses;
+        boolean estimateRequired;
+    }
+
+    private final Web3j web3;
+    private final ArgumentClassifier classifier;
+    private final int maxEntries;
+    private int sampleInterval = DEFAULT_SAMPLE_INTERVAL;
+    private double safetyMargin = DEFAULT_SAFETY_MARGIN;
+    private BigInteger fallbackGasLimit = BigInteger.valueOf(100_000L);
+    private BigInteger maxGasLimit = BigInteger.valueOf(10_000_000L);
+
+    private final LinkedHashMap<String, Entry> entries;
+
+    // 통계
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong estimates = new AtomicLong();
+    private final AtomicLong estimateErrors = new AtomicLong();
+    private final AtomicLong outOfGas = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong balanceChecks = new AtomicLong();
+
+    public GasLimitCache(Web3j web3) {
+        this(web3, null, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param classifier null이면 ERC20 수신자 기준 기본 분류기 사용
+     */
+    public GasLimitCache(Web3j web3, ArgumentClassifier classifier, int maxEntries) {
+        this.web3 = web3;
+        this.classifier = classifier != null ? classifier : this::classifyErc20Recipient;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > GasLimitCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /** 몇 번 조회마다 eth_estimateGas로 다시 추정할지 (1이면 매번 추정) */
+    public GasLimitCache sampleInterval(int sampleInterval) {
+        if (sampleInterval < 1) {
+            throw new IllegalArgumentException("sampleInterval은 1 이상이어야 함: " + sampleInterval);
+        }
+        this.sampleInterval = sampleInterval;
+        return this;
+    }
+
+    public GasLimitCache safetyMargin(double safetyMargin) {
+        this.safetyMargin = safetyMargin;
+        return this;
+    }
+
+    /** eth_estimateGas가 실패했을 때(예: revert 예정) 사용할 값 */
+    public GasLimitCache fallbackGasLimit(BigInteger fallbackGasLimit) {
+        this.fallbackGasLimit = fallbackGasLimit;
+        return this;
+    }
+
+    public GasLimitCache maxGasLimit(BigInteger maxGasLimit) {
+        this.maxGasLimit = maxGasLimit;
+        return this;
+    }
+
+    /**
+     * 호출에 사용할 gas limit
+     * 캐시에 없거나 재추정 차례이면 eth_estimateGas 호출
+     */
+    public BigInteger getGasLimit(String from, String contractAddress, String data) {
+        lookups.incrementAndGet();
+        String key = key(contractAddress, data);
+        boolean estimate;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry();
+                entry.estimateRequired = true;
+                entries.put(key, entry);
+            }
+            entry.uses++;
+            estimate = entry.estimateRequired || entry.uses % sampleInterval == 0;
+            if (!estimate) {
+                return withMargin(entry.maxObserved);
+            }
+        }
+
+        long estimated = estimate(from, contractAddress, data);
+        synchronized (this) {
+            Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+            if (estimated > 0) {
+                entry.maxObserved = Math.max(entry.maxObserved, estimated);
+                entry.estimateRequired = false;
+            }
+            return entry.maxObserved > 0 ? withMargin(entry.maxObserved) : fallbackGasLimit;
+        }
+    }
+
+    /**
+     * 보낸 트랜잭션의 영수증 반영
+     *
+     * @param data     보낸 호출 데이터
+     * @param gasLimit 그 트랜잭션에 사용한 gas limit (out of gas 판단용)
+     */
+    public void recordReceipt(String data, BigInteger gasLimit, TransactionReceipt receipt) {
+        String key = key(receipt.getTo(), data);
+        long gasUsed = receipt.getGasUsed().longValue();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (receipt.isStatusOK()) {
+                if (entry != null) {
+                    entry.maxObserved = Math.max(entry.maxObserved, gasUsed);
+                }
+            } else if (gasUsed >= gasLimit.longValue() && entry != null) {
+                // gas를 전부 소모하고 실패 → out of gas로 보고 한도를 올린 뒤 다음에 다시 추정
+                outOfGas.incrementAndGet();
+                entry.maxObserved = Math.max(entry.maxObserved, gasUsed);
+                entry.estimateRequired = true;
+            }
+        }
+    }
+
+    private long estimate(String from, String contractAddress, String data) {
+        estimates.incrementAndGet();
+        try {
+            EthEstimateGas response = web3.ethEstimateGas(
+                Transaction.createEthCallTransaction(from, contractAddress, data)).send();
+            if (response.hasError()) {
+                estimateErrors.incrementAndGet();
+                return -1;
+            }
+            return response.getAmountUsed().longValue();
+        } catch (IOException e) {
+            estimateErrors.incrementAndGet();
+            return -1;
+        }
+    }
+
+    private BigInteger withMargin(long gas) {
+        return BigInteger.valueOf((long) Math.ceil(gas * (1 + safetyMargin))).min(maxGasLimit);
+    }
+
+    private String key(String contractAddress, String data) {
+        String clean = data == null ? "" : Numeric.cleanHexPrefix(data);
+        String selector = clean.length() >= 8 ? clean.substring(0, 8).toLowerCase() : clean;
+        return String.valueOf(contractAddress).toLowerCase() + ':' + selector + ':'
+            + classifier.classify(contractAddress, data);
+    }
+
+    /**
+     * 기본 분류기: ERC20 transfer / transferFrom 수신자의 현재 잔액을 balanceOf(eth_call)로 확인
+     * - 이 프로세스가 보낸 기록은 기준이 될 수 없음 (수신자가 다른 곳으로 전부 보내면 잔액이 다시 0)
+     * - eth_call 1회는 eth_estimateGas(여러 번 실행하며 한도 탐색)보다 훨씬 가벼움
+     * - approve(owner를 알 수 없음)와 조회 실패는 "new"로 분류 (가스가 더 드는 쪽 → 안전)
+     */
+    private String classifyErc20Recipient(String contractAddress, String data) {
+        String clean = data == null ? "" : Numeric.cleanHexPrefix(data).toLowerCase();
+        String recipient = recipientOf(data);
+        if (recipient == null) {
+            return "-";
+        }
+        if (clean.startsWith(APPROVE_SELECTOR)) {
+            return "new";
+        }
+        balanceChecks.incrementAndGet();
+        try {
+            EthCall response = web3.ethCall(Transaction.createEthCallTransaction(null, contractAddress,
+                "0x" + BALANCE_OF_SELECTOR + "0".repeat(24) + recipient), DefaultBlockParameterName.LATEST).send();
+            if (response.hasError() || response.isReverted()) {
+                return "new";
+            }
+            String value = Numeric.cleanHexPrefix(response.getValue());
+            return value.isEmpty() || new BigInteger(value, 16).signum() == 0 ? "new" : "funded";
+        } catch (IOException | NumberFormatException e) {
+            return "new";
+        }
+    }
+
+    /**
+     * transfer(to, amount) / approve(spender, amount) → 첫 번째 인자
+     * transferFrom(from, to, amount) → 두 번째 인자 (32바이트 인자의 하위 20바이트)
+     */
+    private static String recipientOf(String data) {
+        if (data == null) {
+            return null;
+        }
+        String clean = Numeric.cleanHexPrefix(data).toLowerCase();
+        if (clean.length() < 8 + 64) {
+            return null;
+        }
+        String selector = clean.substring(0, 8);
+        int argument;
+        if (selector.equals(TRANSFER_SELECTOR) || selector.equals(APPROVE_SELECTOR)) {
+            argument = 0;
+        } else if (selector.equals(TRANSFER_FROM_SELECTOR) && clean.length() >= 8 + 128) {
+            argument = 1;
+        } else {
+            return null;
+        }
+        int start = 8 + argument * 64 + 24;
+        return clean.substring(start, start + 40);
+    }
+
+    /**
+     * 이 캐시의 gas limit + priceProvider의 가스비를 사용하는 ContractGasProvider
+     * (Contract.executeTransaction()은 getGasLimit(Transaction)에 from / to / data를 넘겨줌)
+     * priceProvider가 EIP-1559 제공자이면 결과도 EIP-1559 제공자
+     */
+    public ContractGasProvider asGasProvider(ContractGasProvider priceProvider) {
+        if (priceProvider instanceof ContractEIP1559GasProvider) {
+            ContractEIP1559GasProvider eip1559 = (ContractEIP1559GasProvider) priceProvider;
+            return new ContractEIP1559GasProvider() {
+                @Override
+                public long getChainId() {
+                    return eip1559.getChainId();
+                }
+
+                @Override
+                public BigInteger getMaxFeePerGas() {
+                    return eip1559.getMaxFeePerGas();
+                }
+
+                @Override
+                public BigInteger getMaxPriorityFeePerGas() {
+                    return eip1559.getMaxPriorityFeePerGas();
+                }
+
+                @Override
+                public BigInteger getGasPrice() {
+                    return eip1559.getGasPrice();
+                }
+
+                @Override
+                public BigInteger getGasLimit(Transaction transaction) {
+                    return GasLimitCache.this.getGasLimit(transaction);
+                }
+
+                @Override
+                public BigInteger getGasLimit() {
+                    return fallbackGasLimit;
+                }
+            };
+        }
+        return new ContractGasProvider() {
+            @Override
+            public BigInteger getGasPrice() {
+                return priceProvider.getGasPrice();
+            }
+
+            @Override
+            public BigInteger getGasLimit(Transaction transaction) {
+                return GasLimitCache.this.getGasLimit(transaction);
+            }
+
+            @Override
+            public BigInteger getGasLimit() {
+                return fallbackGasLimit;
+            }
+        };
+    }
+
+    private BigInteger getGasLimit(Transaction transaction) {
+        if (transaction == null || transaction.getTo() == null) {
+            // 컨트랙트 배포는 캐시 대상이 아님
+            return fallbackGasLimit;
+        }
+        return getGasLimit(transaction.getFrom(), transaction.getTo(), transaction.getData());
+    }
+
+    public long getLookupCount() {
+        return lookups.get();
+    }
+
+    public long getEstimateCount() {
+        return estimates.get();
+    }
+
+    /** eth_estimateGas를 호출하지 않고 캐시로 처리한 비율 */
+    public double getHitRatio() {
+        long total = lookups.get();
+        return total == 0 ? 0 : 1 - estimates.get() / (double) total;
+    }
+
+    public long getEstimateErrorCount() {
+        return estimateErrors.get();
+    }
+
+    public long getOutOfGasCount() {
+        return outOfGas.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /** 기본 분류기가 호출한 balanceOf 횟수 */
+    public long getBalanceCheckCount() {
+        return balanceChecks.get();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * STRC 토큰 연속 전송 시 gas limit 캐시 사용 예시 (BSC 테스트넷)
+     */
+    public static void main(String[] args) throws Exception {
+        String privateKey = System.getenv("PRIVATE_KEY");
+        String infuraKey = System.getenv("INFURA_PROJECT_ID");
+        String bscTestnetUrl = "https://bsc-testnet.infura.io/v3/" + infuraKey;
+        Web3j web3 = Web3j.build(new HttpService(bscTestnetUrl));
+
+        Credentials credentials = Credentials.create(privateKey);
+        long bscTestnetChainId = 97L;
+        NonceTrackingTransactionManager txManager =
+            new NonceTrackingTransactionManager(web3, credentials, bscTestnetChainId);
+
+        String contractAddress = "0xfF9F57987Acb440C9752ab3F0Af4D00EA1d97d89"; // STRC 토큰
+        String toAddress = "0x658b8a1ae242d0460d4777e17C9Af438dAAB4f77";
+        BigInteger weiValue = Convert.toWei("1", Convert.Unit.ETHER).toBigInteger();
+        String data = FunctionEncoder.encode(new Function(
+            "transfer", List.of(new Address(toAddress), new Uint256(weiValue)), List.of()));
+
+        GasLimitCache cache = new GasLimitCache(web3);
+        BigInteger gasPrice = new StaticGasProvider(BigInteger.valueOf(500_000_000L), BigInteger.ZERO).getGasPrice();
+
+        for (int i = 0; i < 5; i++) {
+            BigInteger gasLimit = cache.getGasLimit(credentials.getAddress(), contractAddress, data);
+            EthSendTransaction response =
+                txManager.sendTransaction(gasPrice, gasLimit, contractAddress, data, BigInteger.ZERO);
+            System.out.println("gas limit " + gasLimit + " → "
+                + (response.hasError() ? response.getError().getMessage() : response.getTransactionHash()));
+        }
+
+        System.out.println("\n=== gas limit 캐시 통계 ===");
+        System.out.println("조회 : " + cache.getLookupCount() + ", eth_estimateGas : " + cache.getEstimateCount());
+        System.out.printf("캐시 적중률 : %.1f%%%n", cache.getHitRatio() * 100);
+
+        web3.shutdown();
+    }
+}
@@ -0,0 +1,241 @@
+package transfer;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.web3j.crypto.Hash;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.utils.Numeric;
+
+/**
+ * logsBloom 기반 사전 필터
+ *
+ * 블록 헤더와 영수증에는 logsBloom(2048비트 블룸 필터)이 들어 있다.
+ * - 로그를 남긴 컨트랙트 주소와 모든 topic이 블룸 필터에 기록됨
+ * - 블룸에 해당 비트가 없으면 그 블록/영수증에는 절대 해당 로그가 없음 (false negative 없음)
+ * - 비트가 모두 있어도 실제로는 없을 수 있음 (false positive 가능)
+ *
+ * → 감시 대상(컨트랙트 주소 + topic)과 블룸이 맞지 않는 블록은
+ *   영수증 조회 / eth_getLogs 호출 없이 건너뛸 수 있음
+ *
+ * 블룸 비트 계산 (이더리움 황서 M3:2048):
+ * - h = keccak256(값)
+ * - h[0,1], h[2,3], h[4,5] 각 2바이트의 하위 11비트 → 비트 위치 3개
+ *
+ * 감시 항목마다 비트 위치를 미리 계산하여 (long 워드 인덱스, 마스크) 형태로 보관
+ * → 검사 비용은 필요한 워드의 16진수 16자리 파싱 + AND 연산 몇 번
+ */
+public class LogsBloomFilter {
+
+    private static final int BLOOM_WORDS = 32;          // 2048비트 = long 32개
+    private static final int BLOOM_HEX_LENGTH = 2 + 512; // 0x + 256바이트
+
+    /**
+     * 감시 항목 1개의 미리 계산된 비트 마스크 (같은 워드의 비트는 하나의 마스크로 합침)
+     */
+    private static final class WatchMask {
+        final String description;
+        final int[] wordIndexes;
+        final long[] masks;
+
+        WatchMask(String description, long[] bloom) {
+            this.description = description;
+            int count = 0;
+            for (long word : bloom) {
+                if (word != 0) {
+                    count++;
+                }
+            }
+            this.wordIndexes = new int[count];
+            this.masks = new long[count];
+            int i = 0;
+            for (int w = 0; w < BLOOM_WORDS; w++) {
+                if (bloom[w] != 0) {
+                    wordIndexes[i] = w;
+                    masks[i] = bloom[w];
+                    i++;
+                }
+            }
+        }
+    }
+
+    private final List<WatchMask> watchMasks = new ArrayList<>();
+
+    // 통계
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicLong skips = new AtomicLong();
+    private final AtomicLong rpcCallsSaved = new AtomicLong();
+
+    /**
+     * 감시 항목 추가
+     *
+     * @param contractAddress 로그를 남기는 컨트랙트 주소 (null이면 주소 무관)
+     * @param topics 함께 포함되어야 하는 topic들 (예: Transfer 이벤트 시그니처, 패딩된 수신 주소)
+     */
+    public LogsBloomFilter watch(String contractAddress, String... topics) {
+        long[] bloom = new long[BLOOM_WORDS];
+        StringBuilder description = new StringBuilder();
+        if (contractAddress != null) {
+            addToBloom(bloom, Numeric.hexStringToByteArray(contractAddress));
+            description.append(contractAddress);
+        }
+        for (String topic : topics) {
+            addToBloom(bloom, Numeric.hexStringToByteArray(topic));
+            description.append(description.length() > 0 ? " + " : "").append(topic);
+        }
+        watchMasks.add(new WatchMask(description.toString(), bloom));
+        return this;
+    }
+
+    /**
+     * logsBloom 16진수 문자열이 감시 항목 중 하나라도 포함할 가능성이 있는지 검사
+     * (통계에 반영되지 않음)
+     */
+    public boolean mightContain(String logsBloom) {
+        if (logsBloom == null || logsBloom.length() != BLOOM_HEX_LENGTH) {
+            // 블룸이 없거나 형식이 다르면 걸러낼 수 없으므로 통과
+            return true;
+        }
+        for (WatchMask watch : watchMasks) {
+            if (matches(watch, logsBloom)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 블록 헤더 검사
+     * 건너뛰면 블록 내 트랜잭션 수만큼의 영수증 조회(없으면 eth_getLogs 1회)를 절약한 것으로 집계
+     */
+    public boolean mightMatch(EthBlock.Block block) {
+        int transactionCount = block.getTransactions() != null ? block.getTransactions().size() : 0;
+        return record(mightContain(block.getLogsBloom()), Math.max(1, transactionCount));
+    }
+
+    /**
+     * 영수증 검사
+     * 건너뛰면 로그 조회/디코딩 1회를 절약한 것으로 집계
+     */
+    public boolean mightMatch(TransactionReceipt receipt) {
+        return record(mightContain(receipt.getLogsBloom()), 1);
+    }
+
+    private boolean record(boolean mightMatch, long callsSavedIfSkipped) {
+        checks.incrementAndGet();
+        if (!mightMatch) {
+            skips.incrementAndGet();
+            rpcCallsSaved.addAndGet(callsSavedIfSkipped);
+        }
+        return mightMatch;
+    }
+
+    private static boolean matches(WatchMask watch, String logsBloom) {
+        for (int i = 0; i < watch.wordIndexes.length; i++) {
+            long word = parseWord(logsBloom, watch.wordIndexes[i]);
+            if ((word & watch.masks[i]) != watch.masks[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 블룸 16진수 문자열에서 w번째 64비트 워드만 파싱 (할당 없음)
+     */
+    private static long parseWord(String logsBloom, int wordIndex) {
+        int offset = 2 + wordIndex * 16;
+        long value = 0;
+        for (int i = offset; i < offset + 16; i++) {
+            value = (value << 4) | Character.digit(logsBloom.charAt(i), 16);
+        }
+        return value;
+    }
+
+    /**
+     * keccak256(value)에서 비트 위치 3개를 계산하여 bloom에 설정
+     */
+    private static void addToBloom(long[] bloom, byte[] value) {
+        byte[] hash = Hash.sha3(value);
+        for (int i = 0; i < 6; i += 2) {
+            int bit = ((hash[i] & 0xff) << 8 | (hash[i + 1] & 0xff)) & 0x7ff;
+            // 비트 0은 256바이트 블룸의 마지막 바이트 최하위 비트
+            int byteIndex = 255 - bit / 8;
+            int wordIndex = byteIndex / 8;
+            int shift = (7 - byteIndex % 8) * 8 + bit % 8;
+            bloom[wordIndex] |= 1L << shift;
+        }
+    }
+
+    public long getCheckCount() {
+        return checks.get();
+    }
+
+    public long getSkipCount() {
+        return skips.get();
+    }
+
+    public double getSkipRatio() {
+        long total = checks.get();
+        return total == 0 ? 0 : skips.get() / (double) total;
+    }
+
+    public long getRpcCallsSaved() {
+        return rpcCallsSaved.get();
+    }
+
+    /**
+     * 감시 항목별 미리 계산된 워드/마스크 (디버깅용)
+     */
+    public Map<String, String> describe() {
+        Map<String, String> description = new LinkedHashMap<>();
+        for (WatchMask watch : watchMasks) {
+            StringBuilder masks = new StringBuilder();
+            for (int i = 0; i < watch.wordIndexes.length; i++) {
+                masks.append(String.format("[%d]=%016x ", watch.wordIndexes[i], watch.masks[i]));
+            }
+            description.put(watch.description, masks.toString().trim());
+        }
+        return description;
+    }
+
+    /**
+     * STRC 토큰 Transfer 이벤트가 있을 수 있는 블록만 골라내는 예시 (BSC 테스트넷)
+     */
+    public static void main(String[] args) throws Exception {
+        String infuraKey = System.getenv("INFURA_PROJECT_ID");
+        String bscTestnetUrl = "https://bsc-testnet.infura.io/v3/" + infuraKey;
+        Web3j web3 = Web3j.build(new HttpService(bscTestnetUrl));
+
+        String contractAddress = "0xfF9F57987Acb440C9752ab3F0Af4D00EA1d97d89"; // STRC 토큰
+        String transferTopic = "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef";
+
+        LogsBloomFilter filter = new LogsBloomFilter().watch(contractAddress, transferTopic);
+        filter.describe().forEach((watch, masks) -> System.out.println(watch + " → " + masks));
+
+        // ERC20TokenTransfer 실행 결과 트랜잭션이 포함된 블록(0x3ba29b0) 전후 100개 블록
+        long center = 0x3ba29b0L;
+        for (long number = center - 50; number <= center + 50; number++) {
+            EthBlock.Block block = web3.ethGetBlockByNumber(
+                DefaultBlockParameter.valueOf(BigInteger.valueOf(number)), false).send().getBlock();
+            if (filter.mightMatch(block)) {
+                System.out.println("후보 블록: " + number + " (트랜잭션 " + block.getTransactions().size() + "건)");
+            }
+        }
+
+        System.out.println("\n=== 블룸 필터 통계 ===");
+        System.out.println("검사한 블록 : " + filter.getCheckCount());
+        System.out.println("건너뛴 블록 : " + filter.getSkipCount()
+            + String.format(" (%.1f%%)", filter.getSkipRatio() * 100));
+        System.out.println("절약한 RPC 호출 : " + filter.getRpcCallsSaved());
+
+        web3.shutdown();
+    }
+}
@@ -0,0 +1,283 @@
+package transfer;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.transaction.type.Transaction1559;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.tx.RawTransactionManager;
+import org.web3j.tx.exceptions.TxHashMismatchException;
+import org.web3j.tx.response.NoOpProcessor;
+import org.web3j.tx.response.TransactionReceiptProcessor;
+import org.web3j.utils.Convert;
+
+/**
+ * 로컬 nonce 관리 트랜잭션 매니저
+ *
+ * RawTransactionManager의 기본 동작:
+ * - 트랜잭션마다 eth_getTransactionCount(pending)로 nonce 조회 (RPC 1회 추가)
+ * - 아직 전파되지 않은 직전 트랜잭션과 같은 nonce를 받을 수 있어 연속 전송 불가
+ * - 기본 영수증 처리기(PollingTransactionReceiptProcessor)가 블록 포함까지 대기
+ * → 계정 1개로 블록당 트랜잭션 1건 수준
+ *
+ * 이 매니저:
+ * - 최초 1회만 노드에서 nonce를 가져오고, 이후에는 로컬에서 원자적으로 할당
+ * - 기본 영수증 처리기는 NoOpProcessor → 영수증을 기다리지 않고 바로 반환 (파이프라인 전송)
+ * - 전송 실패 시 nonce 처리:
+ *     - "already known" → 노드가 이 서명 트랜잭션을 이미 가지고 있음 (이전 전송이 도달함) → 원래 해시로 성공 처리
+ *     - "nonce too low" → 재동기화 후, 우리 트랜잭션이 조회되면 원래 해시로 성공 처리
+ *       다른 트랜잭션이 nonce를 차지한 것이 확인될 때만 새 nonce로 재서명하여 재전송 (같은 전송이 두 번 나가지 않도록)
+ *     - "replacement transaction underpriced" → 같은 nonce의 다른 트랜잭션이 대기 중
+ *       → 재서명하지 않고 거절 응답을 그대로 반환 (그 트랜잭션이 포함될 수 있으므로)
+ *     - 그 밖의 거절 (잔액 부족, 가스비 부족 등) → 사용되지 않은 nonce이므로 빈 자리(gap)로 반환
+ *     - IOException (전파 여부 불명) → 다음 할당 전에 재동기화
+ * - 빈 자리는 다음 트랜잭션이 가장 작은 nonce부터 채움 (중간이 비면 이후 트랜잭션이 모두 멈추기 때문)
+ */
+public class NonceTrackingTransactionManager extends RawTransactionManager {
+
+    private static final int MAX_NONCE_RETRIES = 3;
+
+    private final Web3j web3;
+    private final String address;
+
+    private final Object lock = new Object();
+    private final TreeSet<BigInteger> gaps = new TreeSet<>();
+    // 할당되어 아직 전송 결과를 받지 못한 nonce (재동기화 시 빈 자리로 오인하지 않기 위함)
+    private final Set<BigInteger> inFlight = new HashSet<>();
+    private BigInteger nextNonce;
+    private boolean resyncRequired = true;
+
+    public NonceTrackingTransactionManager(Web3j web3, Credentials credentials, long chainId) {
+        this(web3, credentials, chainId, new NoOpProcessor(web3));
+    }
+
+    public NonceTrackingTransactionManager(Web3j web3, Credentials credentials, long chainId,
+                                           TransactionReceiptProcessor receiptProcessor) {
+        super(web3, credentials, chainId, receiptProcessor);
+        this.web3 = web3;
+        this.address = credentials.getAddress();
+    }
+
+    /**
+     * RawTransactionManager.sendTransaction()이 트랜잭션마다 호출
+     * → 노드 조회 대신 로컬 할당
+     */
+    @Override
+    protected BigInteger getNonce() throws IOException {
+        synchronized (lock) {
+            if (resyncRequired) {
+                resync();
+            }
+            BigInteger nonce = gaps.pollFirst();
+            if (nonce == null) {
+                nonce = nextNonce;
+                nextNonce = nextNonce.add(BigInteger.ONE);
+            }
+            inFlight.add(nonce);
+            return nonce;
+        }
+    }
+
+    @Override
+    public EthSendTransaction signAndSend(RawTransaction rawTransaction) throws IOException {
+        RawTransaction transaction = rawTransaction;
+        for (int attempt = 0; ; attempt++) {
+            String signedTransaction = sign(transaction);
+            String transactionHash = Hash.sha3(signedTransaction);
+            EthSendTransaction response;
+            try {
+                response = web3.ethSendRawTransaction(signedTransaction).send();
+            } catch (IOException e) {
+                // 노드에 도달했는지 알 수 없으므로 다음 할당 전에 노드 기준으로 맞춤
+                requireResync();
+                throw e;
+            } finally {
+                completed(transaction.getNonce());
+            }
+
+            if (!response.hasError()) {
+                if (!txHashVerifier.verify(transactionHash, response.getTransactionHash())) {
+                    throw new TxHashMismatchException(transactionHash, response.getTransactionHash());
+                }
+                return response;
+            }
+
+            String message = String.valueOf(response.getError().getMessage()).toLowerCase();
+            if (message.contains("already known")) {
+                return accepted(response, transactionHash);
+            }
+            if (message.contains("nonce too low")) {
+                BigInteger pending = resync();
+                if (isKnown(transactionHash)) {
+                    // 이전 전송(타임아웃 등)이 이미 이 nonce를 사용함
+                    return accepted(response, transactionHash);
+                }
+                // 노드의 pending nonce가 더 크면 다른 트랜잭션이 이 nonce를 사용한 것
+                if (attempt < MAX_NONCE_RETRIES && pending.compareTo(transaction.getNonce()) > 0) {
+                    transaction = withNonce(transaction, getNonce());
+                    continue;
+                }
+            } else if (message.contains("replacement transaction underpriced")) {
+                // 이 nonce는 대기 중인 다른 트랜잭션이 사용 중 → 빈 자리로 반환하지 않고 다시 맞춤
+                requireResync();
+                if (isKnown(transactionHash)) {
+                    return accepted(response, transactionHash);
+                }
+            } else if (message.contains("nonce too high")) {
+                requireResync();
+            } else {
+                // 노드가 거절 → 이 nonce는 사용되지 않았으므로 다음 트랜잭션이 채우도록 반환
+                releaseNonce(transaction.getNonce());
+            }
+            return response;
+        }
+    }
+
+    /**
+     * 브로드캐스트했지만 블록에 포함되지 않고 사라진(dropped) 트랜잭션의 nonce 반환
+     * → 다음 트랜잭션이 해당 nonce를 채워 뒤의 트랜잭션들이 막히지 않게 함
+     */
+    public void reportDropped(BigInteger nonce) {
+        releaseNonce(nonce);
+    }
+
+    /**
+     * 노드의 pending nonce 기준으로 다음 nonce를 다시 맞춤
+     *
+     * @return 노드의 pending nonce
+     */
+    public BigInteger resync() throws IOException {
+        EthGetTransactionCount count =
+            web3.ethGetTransactionCount(address, DefaultBlockParameterName.PENDING).send();
+        if (count.hasError()) {
+            throw new IOException("eth_getTransactionCount 실패: " + count.getError().getMessage());
+        }
+        synchronized (lock) {
+            BigInteger pending = count.getTransactionCount();
+            if (nextNonce == null || pending.compareTo(nextNonce) >= 0) {
+                // 로컬에서 할당한 nonce가 모두 노드에 반영됨 (또는 다른 곳에서 전송함)
+                nextNonce = pending;
+                gaps.clear();
+            } else {
+                // pending nonce = 노드 기준으로 연속된 nonce 다음의 첫 빈 자리
+                // → 그 자리를 먼저 채워야 뒤에 대기 중인 트랜잭션이 블록에 포함될 수 있음
+                // (다른 스레드가 전송 중인 nonce라면 곧 채워지므로 제외)
+                gaps.headSet(pending).clear();
+                if (!inFlight.contains(pending)) {
+                    gaps.add(pending);
+                }
+            }
+            resyncRequired = false;
+            return pending;
+        }
+    }
+
+    private void completed(BigInteger nonce) {
+        synchronized (lock) {
+            inFlight.remove(nonce);
+        }
+    }
+
+    private void requireResync() {
+        synchronized (lock) {
+            resyncRequired = true;
+        }
+    }
+
+    private void releaseNonce(BigInteger nonce) {
+        synchronized (lock) {
+            if (nextNonce != null && nonce.compareTo(nextNonce) < 0) {
+                gaps.add(nonce);
+            }
+        }
+    }
+
+    /**
+     * 노드가 이 해시의 트랜잭션을 가지고 있는지 (대기 중 또는 포함됨)
+     */
+    private boolean isKnown(String transactionHash) throws IOException {
+        return web3.ethGetTransactionByHash(transactionHash).send().getTransaction().isPresent();
+    }
+
+    /**
+     * 노드가 이미 가진 트랜잭션에 대한 거절 응답을 원래 해시의 성공 응답으로 바꿈
+     */
+    private static EthSendTransaction accepted(EthSendTransaction rejected, String transactionHash) {
+        EthSendTransaction response = new EthSendTransaction();
+        response.setId(rejected.getId());
+        response.setJsonrpc(rejected.getJsonrpc());
+        response.setResult(transactionHash);
+        return response;
+    }
+
+    /**
+     * 같은 내용의 트랜잭션을 새 nonce로 다시 생성
+     */
+    private static RawTransaction withNonce(RawTransaction transaction, BigInteger nonce) {
+        if (transaction.getTransaction() instanceof Transaction1559) {
+            Transaction1559 eip1559 = (Transaction1559) transaction.getTransaction();
+            return RawTransaction.createTransaction(
+                eip1559.getChainId(), nonce, transaction.getGasLimit(), transaction.getTo(),
+                transaction.getValue(), transaction.getData(),
+                eip1559.getMaxPriorityFeePerGas(), eip1559.getMaxFeePerGas());
+        }
+        return RawTransaction.createTransaction(
+            nonce, transaction.getGasPrice(), transaction.getGasLimit(), transaction.getTo(),
+            transaction.getValue(), transaction.getData());
+    }
+
+    /**
+     * STRC 토큰 연속 전송 예시 (BSC 테스트넷)
+     * 영수증을 기다리지 않고 nonce만 올려가며 트랜잭션을 연달아 브로드캐스트
+     */
+    public static void main(String[] args) throws Exception {
+        String privateKey = System.getenv("PRIVATE_KEY");
+        String infuraKey = System.getenv("INFURA_PROJECT_ID");
+        String bscTestnetUrl = "https://bsc-testnet.infura.io/v3/" + infuraKey;
+        Web3j web3 = Web3j.build(new HttpService(bscTestnetUrl));
+
+        Credentials credentials = Credentials.create(privateKey);
+        long bscTestnetChainId = 97L;
+        NonceTrackingTransactionManager txManager =
+            new NonceTrackingTransactionManager(web3, credentials, bscTestnetChainId);
+
+        String contractAddress = "0xfF9F57987Acb440C9752ab3F0Af4D00EA1d97d89"; // STRC 토큰
+        String toAddress = "0x658b8a1ae242d0460d4777e17C9Af438dAAB4f77";
+        BigInteger weiValue = Convert.toWei("1", Convert.Unit.ETHER).toBigInteger();
+
+        // transfer(address,uint256) 호출 데이터 (ERC20 래퍼 없이 직접 인코딩)
+        String data = FunctionEncoder.encode(new Function(
+            "transfer", List.of(new Address(toAddress), new Uint256(weiValue)), List.of()));
+
+        BigInteger gasPrice = BigInteger.valueOf(500_000_000L); // 0.5 gwei
+        BigInteger gasLimit = BigInteger.valueOf(80_000L);
+
+        long start = System.nanoTime();
+        int count = 10;
+        for (int i = 0; i < count; i++) {
+            EthSendTransaction response =
+                txManager.sendTransaction(gasPrice, gasLimit, contractAddress, data, BigInteger.ZERO);
+            System.out.println(response.hasError()
+                ? "전송 실패 : " + response.getError().getMessage()
+                : "전송 완료 : " + response.getTransactionHash());
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d건 브로드캐스트 : %.2f초 (%.1f건/초)%n", count, seconds, count / seconds);
+
+        web3.shutdown();
+    }
+}
@@ -0,0 +1,69 @@
+package transfer;
+
+import java.util.concurrent.TimeUnit;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+/**
+ * 영수증 조회 결과 1건
+ *
+ * - receipt == null && error == null : 아직 블록에 포함되지 않음 (pending)
+ * - queueWaitNanos : 조회 요청이 들어온 뒤 동시 요청 한도(permit)를 얻기까지 기다린 시간
+ * - latencyNanos : 실제 RPC 호출 소요 시간
+ */
+public class ReceiptResult {
+
+    private final String transactionHash;
+    private final TransactionReceipt receipt;
+    private final Throwable error;
+    private final long queueWaitNanos;
+    private final long latencyNanos;
+
+    public ReceiptResult(String transactionHash, TransactionReceipt receipt, Throwable error,
+                         long queueWaitNanos, long latencyNanos) {
+        this.transactionHash = transactionHash;
+        this.receipt = receipt;
+        this.error = error;
+        this.queueWaitNanos = queueWaitNanos;
+        this.latencyNanos = latencyNanos;
+    }
+
+    public String getTransactionHash() {
+        return transactionHash;
+    }
+
+    public TransactionReceipt getReceipt() {
+        return receipt;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isPending() {
+        return receipt == null && error == null;
+    }
+
+    public long getQueueWaitNanos() {
+        return queueWaitNanos;
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    public double getQueueWaitMillis() {
+        return queueWaitNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getLatencyMillis() {
+        return latencyNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return "ReceiptResult{hash='" + transactionHash + "', status="
+            + (receipt != null ? receipt.getStatus() : null)
+            + String.format(", queueWait=%.1fms, latency=%.1fms", getQueueWaitMillis(), getLatencyMillis())
+            + (error != null ? ", error=" + error : "") + "}";
+    }
+}
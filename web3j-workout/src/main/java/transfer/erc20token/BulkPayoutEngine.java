@@ -0,0 +1,555 @@
+package transfer.erc20token;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.TransactionDecoder;
+import org.web3j.crypto.TransactionEncoder;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.utils.Numeric;
+import transfer.ConcurrentReceiptFetcher;
+import transfer.ReceiptResult;
+
+/**
+ * ERC20 대량 지급 엔진
+ *
+ * ERC20TokenTransfer 방식으로 여러 명에게 지급하면:
+ * - contract.transfer(to, amount).send()가 영수증을 받을 때까지 블로킹 → 수신자 1명당 블록 1개 이상
+ * - 매번 nonce 조회 + 서명 + 전송 + 영수증 폴링이 순차로 진행
+ * - 중간에 프로세스가 죽으면 어디까지 지급했는지 알 수 없어 재실행 시 이중 지급 위험
+ *
+ * 이 엔진:
+ * 1. nonce 할당 : 노드의 pending nonce부터 지급 순서대로 연속 할당 (chunkSize 단위)
+ * 2. 서명      : transfer(address,uint256) ABI 인코딩 + EIP-155 서명을 ForkJoinPool에서 병렬 처리
+ * 3. 저널 기록  : 서명된 트랜잭션을 PayoutJournal에 기록하고 fsync (브로드캐스트 전)
+ * 4. 전송      : eth_sendRawTransaction을 비동기로 최대 maxInFlight건까지 겹쳐서 전송 (파이프라인)
+ * 5. 확정 추적  : 별도 스레드가 ConcurrentReceiptFetcher로 미확정 트랜잭션의 영수증을 모아서 조회
+ *
+ * 재시작 (같은 CSV + 같은 저널 파일로 다시 실행):
+ * - CONFIRMED : 건너뜀
+ * - SIGNED    : 새로 서명하지 않고 저널의 서명 트랜잭션을 그대로 다시 브로드캐스트
+ *               (노드가 이미 받았다면 "already known"으로 끝남)
+ * - "nonce too low" : 그 nonce가 이미 쓰였다는 뜻일 뿐 우리 트랜잭션이라는 보장은 없음
+ *               → 우리 해시의 영수증이 있으면 전송된 것으로 기록, 없으면 새 nonce로 다시 서명해서 전송
+ * - 기록 없음 : 저널의 마지막 nonce 다음부터 새로 할당하여 서명
+ *
+ * 노드가 전송을 거절하면(잔액 부족 등) 그 nonce 이후의 트랜잭션은 포함될 수 없으므로
+ * 남은 청크 전송을 중단한다. 원인을 해결하고 다시 실행하면 저널의 트랜잭션부터 이어서 전송된다.
+ */
+public class BulkPayoutEngine {
+
+    public static final int DEFAULT_CHUNK_SIZE = 200;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 32;
+
+    // "nonce too low" → 재서명을 반복할 최대 횟수 (다른 프로세스가 같은 계정으로 계속 보내는 경우 중단)
+    private static final int MAX_RESIGN_ROUNDS = 3;
+
+    private final Web3j web3;
+    private final Credentials credentials;
+    private final long chainId;
+    private final String tokenAddress;
+
+    private BigInteger gasPrice = BigInteger.valueOf(500_000_000L); // 0.5 gwei
+    private BigInteger gasLimit = BigInteger.valueOf(80_000L);
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private long pollIntervalMillis = 1_000;
+    private long confirmationTimeoutMillis = 300_000;
+    private ForkJoinPool signingPool = ForkJoinPool.commonPool();
+
+    /**
+     * 지급 작업 결과
+     */
+    public static class Report {
+        private final int total;
+        private final int skipped;
+        private final int confirmed;
+        private final int reverted;
+        private final int unconfirmed;
+        private final List<String> rejections;
+        private final long elapsedNanos;
+        private final long[] confirmationNanos;
+
+        Report(int total, int skipped, int confirmed, int reverted, int unconfirmed,
+               List<String> rejections, long elapsedNanos, long[] confirmationNanos) {
+            this.total = total;
+            this.skipped = skipped;
+            this.confirmed = confirmed;
+            this.reverted = reverted;
+            this.unconfirmed = unconfirmed;
+            this.rejections = rejections;
+            this.elapsedNanos = elapsedNanos;
+            this.confirmationNanos = confirmationNanos;
+            Arrays.sort(this.confirmationNanos);
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        /** 이전 실행에서 이미 확정되어 건너뛴 건수 */
+        public int getSkipped() {
+            return skipped;
+        }
+
+        /** 이번 실행에서 확정된 건수 (status 0x1) */
+        public int getConfirmed() {
+            return confirmed;
+        }
+
+        /** 블록에 포함되었지만 실행 실패한 건수 (status 0x0, nonce는 소모됨) */
+        public int getReverted() {
+            return reverted;
+        }
+
+        /** 제한 시간 안에 확정되지 않은 건수 (다시 실행하면 이어서 처리) */
+        public int getUnconfirmed() {
+            return unconfirmed;
+        }
+
+        /** 노드가 거절한 전송 (index: 사유) */
+        public List<String> getRejections() {
+            return rejections;
+        }
+
+        public double getElapsedSeconds() {
+            return elapsedNanos / 1e9;
+        }
+
+        /** 초당 확정 건수 */
+        public double getTransfersPerSecond() {
+            return elapsedNanos == 0 ? 0 : (confirmed + reverted) / getElapsedSeconds();
+        }
+
+        /** 브로드캐스트부터 영수증 확인까지 걸린 시간의 백분위수 (ms) */
+        public double getConfirmationLatencyMillis(int percentile) {
+            if (confirmationNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * confirmationNanos.length) - 1;
+            return confirmationNanos[Math.max(0, index)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "전체 %d건 (이전 실행 확정 %d) / 확정 %d, 실행 실패 %d, 미확정 %d, 전송 거절 %d%n"
+                    + "소요 %.2f초, %.1f건/초, 확정 지연 p50 %.0fms / p95 %.0fms / p99 %.0fms",
+                total, skipped, confirmed, reverted, unconfirmed, rejections.size(),
+                getElapsedSeconds(), getTransfersPerSecond(),
+                getConfirmationLatencyMillis(50), getConfirmationLatencyMillis(95),
+                getConfirmationLatencyMillis(99));
+        }
+    }
+
+    public BulkPayoutEngine(Web3j web3, Credentials credentials, long chainId, String tokenAddress) {
+        this.web3 = web3;
+        this.credentials = credentials;
+        this.chainId = chainId;
+        this.tokenAddress = tokenAddress;
+    }
+
+    public BulkPayoutEngine gasPrice(BigInteger gasPrice) {
+        this.gasPrice = gasPrice;
+        return this;
+    }
+
+    public BulkPayoutEngine gasLimit(BigInteger gasLimit) {
+        this.gasLimit = gasLimit;
+        return this;
+    }
+
+    public BulkPayoutEngine chunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    public BulkPayoutEngine maxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    public BulkPayoutEngine pollIntervalMillis(long pollIntervalMillis) {
+        this.pollIntervalMillis = pollIntervalMillis;
+        return this;
+    }
+
+    public BulkPayoutEngine confirmationTimeoutMillis(long confirmationTimeoutMillis) {
+        this.confirmationTimeoutMillis = confirmationTimeoutMillis;
+        return this;
+    }
+
+    public BulkPayoutEngine signingPool(ForkJoinPool signingPool) {
+        this.signingPool = signingPool;
+        return this;
+    }
+
+    /**
+     * 지급 목록 실행 (같은 목록을 같은 저널로 다시 실행하면 이어서 처리)
+     */
+    public Report run(List<Payout> payouts, PayoutJournal journal) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Map<Integer, PayoutJournal.Entry> journaled = journal.getEntries();
+        verifyJournal(payouts, journaled);
+
+        // 이전 실행에서 서명했지만 확정되지 않은 트랜잭션 → 그대로 재전송
+        List<PayoutJournal.Entry> resend = new ArrayList<>();
+        int skipped = 0;
+        BigInteger nextNonce = fetchPendingNonce();
+        for (PayoutJournal.Entry entry : journaled.values()) {
+            if (entry.isConfirmed()) {
+                skipped++;
+            } else {
+                resend.add(entry);
+            }
+            nextNonce = nextNonce.max(entry.getNonce().add(BigInteger.ONE));
+        }
+        List<Integer> unsigned = IntStream.range(0, payouts.size())
+            .filter(index -> !journaled.containsKey(index))
+            .boxed()
+            .collect(Collectors.toList());
+
+        Submission submission = new Submission(journal);
+        Thread tracker = new Thread(submission::trackConfirmations, "payout-confirmation-tracker");
+        tracker.setDaemon(true);
+        tracker.start();
+
+        try {
+            submission.broadcast(resend);
+            nextNonce = resignTakenNonces(payouts, journal, submission, nextNonce);
+            for (int from = 0; from < unsigned.size() && !submission.isAborted(); from += chunkSize) {
+                List<Integer> chunk = unsigned.subList(from, Math.min(from + chunkSize, unsigned.size()));
+                List<PayoutJournal.Entry> signed = sign(payouts, chunk, nextNonce);
+                nextNonce = nextNonce.add(BigInteger.valueOf(chunk.size()));
+                // 디스크에 기록된 뒤에만 브로드캐스트 → 재시작 시 같은 트랜잭션을 재전송할 수 있음
+                journal.recordSigned(signed);
+                submission.broadcast(signed);
+                nextNonce = resignTakenNonces(payouts, journal, submission, nextNonce);
+            }
+            submission.awaitConfirmations(confirmationTimeoutMillis);
+        } finally {
+            tracker.interrupt();
+            tracker.join();
+            journal.sync();
+        }
+
+        return new Report(payouts.size(), skipped, submission.confirmed, submission.reverted,
+            submission.pending.size(), submission.rejections, System.nanoTime() - start,
+            submission.confirmationNanos.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    /**
+     * 다른 트랜잭션이 nonce를 차지한 지급을 새 nonce로 다시 서명해서 전송
+     * (같은 index의 새 SIGNED 기록이 저널에서 이전 기록을 대체)
+     */
+    private BigInteger resignTakenNonces(List<Payout> payouts, PayoutJournal journal, Submission submission,
+                                         BigInteger nextNonce) throws IOException, InterruptedException {
+        for (int round = 0; round < MAX_RESIGN_ROUNDS && !submission.isAborted(); round++) {
+            List<Integer> taken = submission.resolveNonceTooLow();
+            if (taken.isEmpty()) {
+                return nextNonce;
+            }
+            nextNonce = nextNonce.max(fetchPendingNonce());
+            List<PayoutJournal.Entry> signed = sign(payouts, taken, nextNonce);
+            nextNonce = nextNonce.add(BigInteger.valueOf(taken.size()));
+            journal.recordSigned(signed);
+            submission.broadcast(signed);
+        }
+        if (!submission.isAborted() && !submission.resolveNonceTooLow().isEmpty()) {
+            submission.abort("nonce가 " + MAX_RESIGN_ROUNDS + "회 연속 다른 트랜잭션에 사용됨");
+        }
+        return nextNonce;
+    }
+
+    /**
+     * 지급 목록의 index 순서대로 nonce를 붙여 병렬 서명
+     */
+    private List<PayoutJournal.Entry> sign(List<Payout> payouts, List<Integer> indexes, BigInteger baseNonce)
+        throws InterruptedException {
+        try {
+            return signingPool.submit(() -> IntStream.range(0, indexes.size())
+                .parallel()
+                .mapToObj(i -> {
+                    int index = indexes.get(i);
+                    BigInteger nonce = baseNonce.add(BigInteger.valueOf(i));
+                    RawTransaction transaction = RawTransaction.createTransaction(
+                        nonce, gasPrice, gasLimit, tokenAddress, BigInteger.ZERO, encodeTransfer(payouts.get(index)));
+                    String signed = Numeric.toHexString(TransactionEncoder.signMessage(transaction, chainId, credentials));
+                    return new PayoutJournal.Entry(index, nonce, Hash.sha3(signed), signed);
+                })
+                .collect(Collectors.toList())).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("트랜잭션 서명 실패", e.getCause());
+        }
+    }
+
+    private static String encodeTransfer(Payout payout) {
+        return FunctionEncoder.encode(new Function(
+            "transfer", List.of(new Address(payout.getRecipient()), new Uint256(payout.getAmount())), List.of()));
+    }
+
+    /**
+     * 저널이 이 지급 목록으로 만든 것인지 확인 (다른 CSV로 재실행하면 index가 어긋나 잘못 지급될 수 있음)
+     */
+    private void verifyJournal(List<Payout> payouts, Map<Integer, PayoutJournal.Entry> journaled) {
+        for (PayoutJournal.Entry entry : journaled.values()) {
+            if (entry.getIndex() >= payouts.size()) {
+                throw new IllegalStateException("저널의 지급 index " + entry.getIndex() + "가 지급 목록에 없음");
+            }
+            RawTransaction decoded = TransactionDecoder.decode(entry.getSignedTransaction());
+            String expected = Numeric.cleanHexPrefix(encodeTransfer(payouts.get(entry.getIndex())));
+            if (!tokenAddress.equalsIgnoreCase(decoded.getTo())
+                || !expected.equalsIgnoreCase(Numeric.cleanHexPrefix(decoded.getData()))) {
+                throw new IllegalStateException("저널의 지급 index " + entry.getIndex() + "가 지급 목록과 다름");
+            }
+        }
+    }
+
+    private BigInteger fetchPendingNonce() throws IOException {
+        EthGetTransactionCount count =
+            web3.ethGetTransactionCount(credentials.getAddress(), DefaultBlockParameterName.PENDING).send();
+        if (count.hasError()) {
+            throw new IOException("eth_getTransactionCount 실패: " + count.getError().getMessage());
+        }
+        return count.getTransactionCount();
+    }
+
+    private static boolean isAlreadySubmitted(String message) {
+        return String.valueOf(message).toLowerCase().contains("already known");
+    }
+
+    private static boolean isNonceTooLow(String message) {
+        return String.valueOf(message).toLowerCase().contains("nonce too low");
+    }
+
+    /**
+     * 한 번의 run() 동안의 전송/확정 상태
+     */
+    private class Submission {
+        private final PayoutJournal journal;
+        private final Semaphore permits = new Semaphore(maxInFlight);
+        // 미확정 트랜잭션 해시 → (index, 브로드캐스트 시각)
+        private final Map<String, long[]> pending = new ConcurrentHashMap<>();
+        private final List<Long> confirmationNanos = new ArrayList<>();
+        private final List<String> rejections = new ArrayList<>();
+        private final AtomicReference<String> abortReason = new AtomicReference<>();
+        // "nonce too low"로 끝나서 우리 트랜잭션이 포함되었는지 확인해야 하는 지급
+        private final List<PayoutJournal.Entry> nonceTooLow = new ArrayList<>();
+        private int confirmed;
+        private int reverted;
+
+        Submission(PayoutJournal journal) {
+            this.journal = journal;
+        }
+
+        boolean isAborted() {
+            return abortReason.get() != null;
+        }
+
+        void abort(String reason) {
+            abortReason.compareAndSet(null, reason);
+        }
+
+        /**
+         * "nonce too low"로 끝난 지급의 영수증을 조회 (broadcast가 반환된 뒤 호출)
+         * - 영수증 있음 → 우리 트랜잭션이 포함됨, 전송 기록 후 확정 추적
+         * - 영수증 없음 → 다른 트랜잭션이 nonce를 사용, 다시 서명할 index로 반환
+         */
+        List<Integer> resolveNonceTooLow() throws IOException {
+            List<PayoutJournal.Entry> entries;
+            synchronized (nonceTooLow) {
+                entries = new ArrayList<>(nonceTooLow);
+                nonceTooLow.clear();
+            }
+            List<Integer> taken = new ArrayList<>();
+            for (PayoutJournal.Entry entry : entries) {
+                EthGetTransactionReceipt response =
+                    web3.ethGetTransactionReceipt(entry.getTransactionHash()).send();
+                if (response.hasError()) {
+                    throw new IOException("eth_getTransactionReceipt 실패: " + response.getError().getMessage());
+                }
+                if (response.getTransactionReceipt().isPresent()) {
+                    journal.recordSent(entry.getIndex());
+                    pending.put(entry.getTransactionHash(), new long[] {entry.getIndex(), System.nanoTime()});
+                } else {
+                    taken.add(entry.getIndex());
+                }
+            }
+            return taken;
+        }
+
+        /**
+         * nonce 순서대로 비동기 전송 (동시 전송 수는 maxInFlight로 제한)
+         */
+        void broadcast(List<PayoutJournal.Entry> entries) throws InterruptedException {
+            for (PayoutJournal.Entry entry : entries) {
+                if (isAborted()) {
+                    return;
+                }
+                permits.acquire();
+                long sentAt = System.nanoTime();
+                pending.put(entry.getTransactionHash(), new long[] {entry.getIndex(), sentAt});
+                web3.ethSendRawTransaction(entry.getSignedTransaction()).sendAsync()
+                    .whenComplete((response, error) -> {
+                        try {
+                            onSent(entry, response, error);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+            }
+            // 이 목록의 전송 응답을 모두 받을 때까지 대기
+            permits.acquire(maxInFlight);
+            permits.release(maxInFlight);
+        }
+
+        private void onSent(PayoutJournal.Entry entry, EthSendTransaction response, Throwable error) {
+            String reason = null;
+            if (error != null) {
+                // 노드 도달 여부를 알 수 없음 → 재실행 시 같은 트랜잭션을 재전송
+                reason = String.valueOf(error.getMessage());
+            } else if (response.hasError() && isNonceTooLow(response.getError().getMessage())) {
+                // 우리 트랜잭션인지는 영수증으로 확인 (resolveNonceTooLow)
+                pending.remove(entry.getTransactionHash());
+                synchronized (nonceTooLow) {
+                    nonceTooLow.add(entry);
+                }
+                return;
+            } else if (response.hasError() && !isAlreadySubmitted(response.getError().getMessage())) {
+                reason = response.getError().getMessage();
+            }
+
+            if (reason == null) {
+                try {
+                    journal.recordSent(entry.getIndex());
+                } catch (IOException e) {
+                    reason = "저널 기록 실패: " + e.getMessage();
+                }
+            }
+            if (reason != null) {
+                pending.remove(entry.getTransactionHash());
+                synchronized (rejections) {
+                    rejections.add(entry.getIndex() + ": " + reason);
+                }
+                abortReason.compareAndSet(null, reason);
+            }
+        }
+
+        /**
+         * 미확정 트랜잭션의 영수증을 주기적으로 모아서 조회 (tracker 스레드)
+         */
+        void trackConfirmations() {
+            try (ConcurrentReceiptFetcher fetcher = new ConcurrentReceiptFetcher(web3, maxInFlight)) {
+                while (!Thread.currentThread().isInterrupted()) {
+                    List<String> hashes = new ArrayList<>(pending.keySet());
+                    if (!hashes.isEmpty()) {
+                        fetcher.fetch(hashes, this::onReceipt);
+                        journal.sync();
+                    }
+                    synchronized (this) {
+                        notifyAll();
+                    }
+                    Thread.sleep(pollIntervalMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                abortReason.compareAndSet(null, "저널 기록 실패: " + e.getMessage());
+            }
+        }
+
+        private void onReceipt(ReceiptResult result) {
+            TransactionReceipt receipt = result.getReceipt();
+            if (receipt == null) {
+                return;
+            }
+            long[] state = pending.remove(result.getTransactionHash());
+            if (state == null) {
+                return;
+            }
+            long now = System.nanoTime();
+            try {
+                journal.recordConfirmed((int) state[0], receipt.getStatus(), receipt.getBlockNumber());
+            } catch (IOException e) {
+                abortReason.compareAndSet(null, "저널 기록 실패: " + e.getMessage());
+            }
+            synchronized (this) {
+                if (receipt.isStatusOK()) {
+                    confirmed++;
+                } else {
+                    reverted++;
+                }
+                confirmationNanos.add(now - state[1]);
+            }
+        }
+
+        /**
+         * 미확정 트랜잭션이 없어지거나 제한 시간이 지날 때까지 대기
+         * (전송이 중단되었다면 빈 nonce 뒤의 트랜잭션은 포함될 수 없으므로 기다리지 않음)
+         */
+        synchronized void awaitConfirmations(long timeoutMillis) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            long remaining;
+            while (!pending.isEmpty() && !isAborted()
+                && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                wait(remaining);
+            }
+        }
+    }
+
+    /**
+     * STRC 토큰 대량 지급 예시 (BSC 테스트넷)
+     *
+     * 실행 인자: <지급 CSV 파일> [저널 파일 (기본: CSV 파일명 + .journal)]
+     * 중간에 종료되었다면 같은 인자로 다시 실행하면 이어서 처리
+     */
+    public static void main(String[] args) throws Exception {
+        Path csv = Path.of(args[0]);
+        Path journalPath = args.length > 1 ? Path.of(args[1]) : Path.of(args[0] + ".journal");
+
+        String privateKey = System.getenv("PRIVATE_KEY");
+        String infuraKey = System.getenv("INFURA_PROJECT_ID");
+        String bscTestnetUrl = "https://bsc-testnet.infura.io/v3/" + infuraKey;
+        Web3j web3 = Web3j.build(new HttpService(bscTestnetUrl));
+
+        Credentials credentials = Credentials.create(privateKey);
+        long bscTestnetChainId = 97L;
+        String contractAddress = "0xfF9F57987Acb440C9752ab3F0Af4D00EA1d97d89"; // STRC 토큰
+
+        List<Payout> payouts = Payout.readCsv(csv);
+        System.out.println("지급 " + payouts.size() + "건, 저널: " + journalPath);
+
+        BulkPayoutEngine engine = new BulkPayoutEngine(web3, credentials, bscTestnetChainId, contractAddress);
+        try (PayoutJournal journal = new PayoutJournal(journalPath)) {
+            Report report = engine.run(payouts, journal);
+            System.out.println(report);
+            report.getRejections().forEach(rejection -> System.out.println("전송 거절 - " + rejection));
+        }
+
+        web3.shutdown();
+    }
+}
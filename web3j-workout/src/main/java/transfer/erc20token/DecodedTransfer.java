@@ -0,0 +1,140 @@
+package transfer.erc20token;
+
+import java.math.BigInteger;
+import org.web3j.utils.Numeric;
+import wallet.EthAddress;
+
+/**
+ * 디코딩된 ERC20 Transfer 이벤트 (재사용 가능한 가변 버퍼)
+ *
+ * - from / to : 20바이트 주소 버퍼 (디코딩할 때마다 덮어씀)
+ * - amount : uint256 값을 64비트씩 4개의 long으로 저장 (amount0이 최상위, amount3이 최하위)
+ *
+ * 문자열(String)과 BigInteger는 필요할 때만 만들어서 반환한다.
+ * 같은 인스턴스를 계속 재사용하므로 다른 곳에 보관하려면 copy()를 사용할 것.
+ */
+public final class DecodedTransfer {
+
+    public static final int ADDRESS_LENGTH = 20;
+
+    final byte[] from = new byte[ADDRESS_LENGTH];
+    final byte[] to = new byte[ADDRESS_LENGTH];
+
+    long amount0;
+    long amount1;
+    long amount2;
+    long amount3;
+
+    long blockNumber;
+    long logIndex;
+
+    public byte[] getFrom() {
+        return from;
+    }
+
+    public byte[] getTo() {
+        return to;
+    }
+
+    public long getBlockNumber() {
+        return blockNumber;
+    }
+
+    public long getLogIndex() {
+        return logIndex;
+    }
+
+    /**
+     * amount를 64비트 단위로 조회 (0 = 최상위, 3 = 최하위)
+     */
+    public long getAmountWord(int index) {
+        switch (index) {
+            case 0: return amount0;
+            case 1: return amount1;
+            case 2: return amount2;
+            case 3: return amount3;
+            default: throw new IndexOutOfBoundsException("amount word index: " + index);
+        }
+    }
+
+    /**
+     * amount가 부호 없는 long 범위(2^64 미만)에 들어가는지 여부
+     */
+    public boolean amountFitsInLong() {
+        return amount0 == 0 && amount1 == 0 && amount2 == 0;
+    }
+
+    /**
+     * amount를 BigInteger로 변환 (필요할 때만 할당)
+     */
+    public BigInteger getAmount() {
+        if (amountFitsInLong() && amount3 >= 0) {
+            return BigInteger.valueOf(amount3);
+        }
+        byte[] bytes = new byte[33]; // 맨 앞 0x00 → 항상 양수
+        writeLong(bytes, 1, amount0);
+        writeLong(bytes, 9, amount1);
+        writeLong(bytes, 17, amount2);
+        writeLong(bytes, 25, amount3);
+        return new BigInteger(bytes);
+    }
+
+    public String getFromAddress() {
+        return Numeric.toHexString(from);
+    }
+
+    public String getToAddress() {
+        return Numeric.toHexString(to);
+    }
+
+    /**
+     * from 주소를 값 타입으로 복사 (맵 키 / 보관용)
+     */
+    public EthAddress getFromEthAddress() {
+        return EthAddress.fromBytes(from, 0);
+    }
+
+    public EthAddress getToEthAddress() {
+        return EthAddress.fromBytes(to, 0);
+    }
+
+    /**
+     * 32바이트 big-endian amount를 dest[offset..offset+32)에 기록
+     */
+    public void writeAmount(byte[] dest, int offset) {
+        writeLong(dest, offset, amount0);
+        writeLong(dest, offset + 8, amount1);
+        writeLong(dest, offset + 16, amount2);
+        writeLong(dest, offset + 24, amount3);
+    }
+
+    public DecodedTransfer copy() {
+        DecodedTransfer copy = new DecodedTransfer();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    public void copyFrom(DecodedTransfer other) {
+        System.arraycopy(other.from, 0, from, 0, ADDRESS_LENGTH);
+        System.arraycopy(other.to, 0, to, 0, ADDRESS_LENGTH);
+        amount0 = other.amount0;
+        amount1 = other.amount1;
+        amount2 = other.amount2;
+        amount3 = other.amount3;
+        blockNumber = other.blockNumber;
+        logIndex = other.logIndex;
+    }
+
+    private static void writeLong(byte[] dest, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            dest[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DecodedTransfer{block=" + blockNumber + ", logIndex=" + logIndex
+            + ", from=" + getFromAddress() + ", to=" + getToAddress() + ", amount=" + getAmount() + "}";
+    }
+}
@@ -7,6 +7,7 @@ import org.web3j.protocol.core.methods.response.Log;
 import org.web3j.protocol.core.methods.response.Transaction;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.protocol.http.HttpService;
+import wallet.EthAddress;
 
 /**
  * ERC20 토큰 트랜잭션 조회 실습
@@ -127,6 +128,9 @@ public class GetERC20TokenTransaction {
         // 5. 추가 정보: from 주소도 동일한 방식으로 추출 가능
         String fromAddress = "0x" + topics.get(1).substring(26);
         System.out.println("토큰 보낸 주소 (실제 From): " + fromAddress);
+
+        // 참고: EthAddress.fromTopic은 중간 문자열 없이 topic에서 바로 파싱하고, EIP-55 체크섬 형식으로 출력 가능
+        System.out.println("토큰 받은 주소 (체크섬): " + EthAddress.fromTopic(topics.get(2)).toChecksumString());
         
         // 6. Transfer 이벤트 시그니처 확인
         System.out.println("Transfer 이벤트 시그니처: " + topics.get(0));
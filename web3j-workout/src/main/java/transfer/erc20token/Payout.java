@@ -0,0 +1,72 @@
+package transfer.erc20token;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.web3j.crypto.WalletUtils;
+import org.web3j.utils.Convert;
+
+/**
+ * 지급 1건 (수신 주소, wei 단위 토큰 양)
+ */
+public class Payout {
+
+    private final String recipient;
+    private final BigInteger amount;
+
+    public Payout(String recipient, BigInteger amount) {
+        if (!WalletUtils.isValidAddress(recipient)) {
+            throw new IllegalArgumentException("invalid recipient address: " + recipient);
+        }
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException("amount must be positive: " + amount);
+        }
+        this.recipient = recipient;
+        this.amount = amount;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public BigInteger getAmount() {
+        return amount;
+    }
+
+    /**
+     * CSV 파일 읽기
+     *
+     * 형식: 수신주소,토큰수량 (한 줄에 1건, '#'으로 시작하는 줄과 빈 줄은 무시)
+     * 예) 0x658b8a1ae242d0460d4777e17C9Af438dAAB4f77,1.5
+     *
+     * 토큰 수량은 ERC20TokenTransfer와 같이 18자리 소수점 기준으로 wei 단위로 변환
+     */
+    public static List<Payout> readCsv(Path csv) throws IOException {
+        List<Payout> payouts = new ArrayList<>();
+        try (Stream<String> lines = Files.lines(csv)) {
+            lines.map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .forEach(line -> {
+                    String[] columns = line.split(",");
+                    if (columns.length != 2) {
+                        throw new UncheckedIOException(new IOException("invalid payout line: " + line));
+                    }
+                    BigInteger wei = Convert.toWei(columns[1].trim(), Convert.Unit.ETHER).toBigIntegerExact();
+                    payouts.add(new Payout(columns[0].trim(), wei));
+                });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return payouts;
+    }
+
+    @Override
+    public String toString() {
+        return recipient + "," + amount;
+    }
+}
@@ -0,0 +1,249 @@
+package transfer.erc20token;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import org.web3j.crypto.Hash;
+
+/**
+ * 대량 지급 작업 저널 (append-only 텍스트 파일)
+ *
+ * 한 줄 = 한 이벤트 + 공백 + 앞부분의 CRC32 (16진수 8자리)
+ * - SIGNED <index> <nonce> <txHash> <signedTx> : 서명 완료 (브로드캐스트 전에 디스크에 강제 기록)
+ * - SENT <index>                                : 노드가 트랜잭션을 받음
+ * - CONFIRMED <index> <status> <blockNumber>    : 블록에 포함됨 (status 0x1 성공, 0x0 실패)
+ *
+ * 이중 지급 방지 원리:
+ * - 브로드캐스트 전에 서명된 트랜잭션(nonce 포함)을 먼저 저널에 fsync
+ * - 재시작 시 SIGNED 기록이 있으면 새로 서명하지 않고 같은 서명 트랜잭션을 다시 브로드캐스트
+ * - 같은 nonce의 트랜잭션은 체인에 하나만 포함될 수 있으므로 같은 지급이 두 번 실행되지 않음
+ *
+ * 기록 도중 종료된 경우 (열 때 복구):
+ * - 줄바꿈으로 끝나지 않았거나 CRC / 형식이 맞지 않거나 keccak(signedTx) != txHash인 줄부터 끝까지를 잘라냄
+ *   → 잘린 SIGNED 줄은 fsync 전이므로 브로드캐스트된 적이 없음, 다음 기록은 마지막 완전한 줄 뒤에 이어짐
+ * - 손상된 줄 뒤에 정상 줄이 있으면 끊긴 꼬리가 아니므로 IOException (자동으로 버리면 이중 지급 위험)
+ */
+public class PayoutJournal implements Closeable {
+
+    /**
+     * 지급 1건의 저널 상태
+     */
+    public static class Entry {
+        private final int index;
+        private final BigInteger nonce;
+        private final String transactionHash;
+        private final String signedTransaction;
+        private boolean sent;
+        private String status;
+        private BigInteger blockNumber;
+
+        public Entry(int index, BigInteger nonce, String transactionHash, String signedTransaction) {
+            this.index = index;
+            this.nonce = nonce;
+            this.transactionHash = transactionHash;
+            this.signedTransaction = signedTransaction;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public BigInteger getNonce() {
+            return nonce;
+        }
+
+        public String getTransactionHash() {
+            return transactionHash;
+        }
+
+        public String getSignedTransaction() {
+            return signedTransaction;
+        }
+
+        public boolean isSent() {
+            return sent;
+        }
+
+        public boolean isConfirmed() {
+            return status != null;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public BigInteger getBlockNumber() {
+            return blockNumber;
+        }
+    }
+
+    private final FileOutputStream output;
+    private final BufferedWriter writer;
+    private final Map<Integer, Entry> entries = new TreeMap<>();
+    private final CRC32 crc = new CRC32();
+
+    public PayoutJournal(Path path) throws IOException {
+        if (Files.exists(path)) {
+            long validLength = load(path);
+            if (validLength < Files.size(path)) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    channel.truncate(validLength);
+                    channel.force(true);
+                }
+            }
+        }
+        this.output = new FileOutputStream(path.toFile(), true);
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return 마지막 정상 줄까지의 바이트 수 (이후는 끊긴 꼬리)
+     */
+    private long load(Path path) throws IOException {
+        byte[] content = Files.readAllBytes(path);
+        long validLength = 0;
+        int lineStart = 0;
+        int brokenLine = -1;
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] != '\n') {
+                continue;
+            }
+            String line = new String(content, lineStart, i - lineStart, StandardCharsets.UTF_8);
+            if (brokenLine >= 0) {
+                throw new IOException("저널 손상: " + path + " 오프셋 " + brokenLine + "의 줄 뒤에 기록이 더 있음");
+            }
+            if (apply(line)) {
+                validLength = i + 1;
+            } else {
+                brokenLine = lineStart;
+            }
+            lineStart = i + 1;
+        }
+        return validLength;
+    }
+
+    /**
+     * 완전한 줄 1개를 검증하고 반영
+     *
+     * @return CRC / 형식 / 트랜잭션 해시가 맞아서 반영했으면 true
+     */
+    private boolean apply(String line) {
+        int checksumStart = line.lastIndexOf(' ');
+        if (checksumStart < 0) {
+            return false;
+        }
+        String body = line.substring(0, checksumStart);
+        try {
+            if (Long.parseLong(line.substring(checksumStart + 1), 16) != checksum(body)) {
+                return false;
+            }
+            String[] fields = body.split(" ");
+            switch (fields[0]) {
+                case "SIGNED":
+                    if (fields.length != 5 || !Hash.sha3(fields[4]).equalsIgnoreCase(fields[3])) {
+                        return false;
+                    }
+                    int index = Integer.parseInt(fields[1]);
+                    entries.put(index, new Entry(index, new BigInteger(fields[2]), fields[3], fields[4]));
+                    return true;
+                case "SENT":
+                    if (fields.length != 2) {
+                        return false;
+                    }
+                    Entry sent = entries.get(Integer.parseInt(fields[1]));
+                    if (sent != null) {
+                        sent.sent = true;
+                    }
+                    return true;
+                case "CONFIRMED":
+                    if (fields.length != 4) {
+                        return false;
+                    }
+                    Entry confirmed = entries.get(Integer.parseInt(fields[1]));
+                    BigInteger blockNumber = new BigInteger(fields[3]);
+                    if (confirmed != null) {
+                        confirmed.status = fields[2];
+                        confirmed.blockNumber = blockNumber;
+                    }
+                    return true;
+                default:
+                    return false;
+            }
+        } catch (RuntimeException e) {
+            // 숫자 / 16진수 형식 불일치
+            return false;
+        }
+    }
+
+    /**
+     * 기존 저널 내용 (지급 index 순)
+     */
+    public synchronized Map<Integer, Entry> getEntries() {
+        return Collections.unmodifiableMap(entries);
+    }
+
+    /**
+     * 서명 결과를 기록하고 디스크에 강제 반영 (이 메서드가 반환된 뒤에만 브로드캐스트할 것)
+     */
+    public synchronized void recordSigned(List<Entry> signed) throws IOException {
+        for (Entry entry : signed) {
+            writeLine("SIGNED " + entry.index + " " + entry.nonce + " "
+                + entry.transactionHash + " " + entry.signedTransaction);
+            entries.put(entry.index, entry);
+        }
+        sync();
+    }
+
+    public synchronized void recordSent(int index) throws IOException {
+        Entry entry = entries.get(index);
+        entry.sent = true;
+        writeLine("SENT " + index);
+    }
+
+    public synchronized void recordConfirmed(int index, String status, BigInteger blockNumber) throws IOException {
+        Entry entry = entries.get(index);
+        entry.status = status;
+        entry.blockNumber = blockNumber;
+        writeLine("CONFIRMED " + index + " " + status + " " + blockNumber);
+    }
+
+    private void writeLine(String body) throws IOException {
+        writer.write(body);
+        writer.write(String.format(" %08x", checksum(body)));
+        // 플랫폼과 무관하게 \n (load가 \n 기준으로 줄을 나눔)
+        writer.write('\n');
+    }
+
+    private long checksum(String body) {
+        crc.reset();
+        crc.update(body.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    /**
+     * 버퍼 내용을 파일에 쓰고 fsync
+     */
+    public synchronized void sync() throws IOException {
+        writer.flush();
+        output.getChannel().force(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        sync();
+        writer.close();
+    }
+}
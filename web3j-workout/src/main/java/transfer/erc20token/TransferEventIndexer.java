@@ -0,0 +1,329 @@
+package transfer.erc20token;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.exceptions.ClientConnectionException;
+import org.web3j.protocol.http.HttpService;
+
+/**
+ * 블록 구간 단위 ERC20 Transfer 이벤트 인덱서
+ *
+ * GetERC20TokenTransaction은 트랜잭션 해시 1건의 영수증에서 Transfer 로그를 꺼낸다.
+ * → 토큰 컨트랙트의 전체 전송 내역을 모으려면 영수증을 1건씩 조회해야 해서 대량 처리 불가
+ *
+ * eth_getLogs 사용:
+ * - address(토큰 컨트랙트) + topics[0](Transfer 시그니처)로 필터링하여 구간 내 로그를 한 번에 조회
+ * - 노드는 응답 크기/구간 길이에 제한이 있음 (예: Infura 10,000건, 일부 노드는 블록 구간 제한)
+ *
+ * 적응형 구간 분할:
+ * - 노드가 "결과가 너무 많다"고 거절하면 구간을 절반으로 나눠 다시 요청
+ * - 결과가 적으면(targetLogsPerRequest의 절반 미만) 다음 구간을 2배로 늘려 요청 수를 줄임
+ * - 요청 빈도 제한(429, "rate limit", "limit exceeded")은 구간과 무관하므로 나누지 않고 지수 백오프 후 같은 구간 재요청
+ *
+ * 병렬 처리:
+ * - 전체 구간을 segmentSize 블록 단위 세그먼트로 나눠 작업 큐에 넣음
+ * - parallelism개의 워커가 세그먼트를 하나씩 꺼내 각자 적응형으로 순회
+ */
+public class TransferEventIndexer {
+
+    // Transfer(address indexed from, address indexed to, uint256 value) 이벤트 시그니처의 Keccak-256 해시
+    public static final String TRANSFER_EVENT_TOPIC =
+        "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef";
+
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    // 대기 시간 배수의 지수 상한 (시프트가 long 범위를 넘어 음수/0이 되지 않도록)
+    private static final int MAX_BACKOFF_SHIFT = 20;
+
+    private final Web3j web3;
+    private final String contractAddress;
+
+    private long initialRangeSize = 2_000;
+    private long maxRangeSize = 100_000;
+    private long segmentSize = 200_000;
+    private int targetLogsPerRequest = 5_000;
+    private int parallelism = 4;
+    private long rateLimitBackoffMillis = 500;
+    private int maxRateLimitRetries = 8;
+
+    // 통계
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong splits = new AtomicLong();
+    private final AtomicLong merges = new AtomicLong();
+    private final AtomicLong logCount = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+
+    public TransferEventIndexer(Web3j web3, String contractAddress) {
+        this.web3 = web3;
+        this.contractAddress = contractAddress;
+    }
+
+    public TransferEventIndexer initialRangeSize(long initialRangeSize) {
+        this.initialRangeSize = initialRangeSize;
+        return this;
+    }
+
+    public TransferEventIndexer maxRangeSize(long maxRangeSize) {
+        this.maxRangeSize = maxRangeSize;
+        return this;
+    }
+
+    public TransferEventIndexer segmentSize(long segmentSize) {
+        this.segmentSize = segmentSize;
+        return this;
+    }
+
+    public TransferEventIndexer targetLogsPerRequest(int targetLogsPerRequest) {
+        this.targetLogsPerRequest = targetLogsPerRequest;
+        return this;
+    }
+
+    public TransferEventIndexer parallelism(int parallelism) {
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * 요청 빈도 제한 응답을 받았을 때 첫 대기 시간과 최대 재시도 횟수 (대기 시간은 재시도마다 2배)
+     */
+    public TransferEventIndexer rateLimitBackoff(long initialMillis, int maxRetries) {
+        this.rateLimitBackoffMillis = initialMillis;
+        this.maxRateLimitRetries = maxRetries;
+        return this;
+    }
+
+    /**
+     * [fromBlock, toBlock] 구간의 Transfer 로그를 모두 조회하여 sink로 전달
+     *
+     * - sink는 여러 워커 스레드에서 동시에 호출되므로 thread-safe 해야 함
+     * - 한 번의 호출로 전달되는 로그 목록은 블록 순서대로 정렬되어 있지만,
+     *   서로 다른 세그먼트 간의 전달 순서는 보장되지 않음
+     */
+    public void index(long fromBlock, long toBlock, Consumer<List<Log>> sink)
+        throws IOException, InterruptedException {
+
+        ConcurrentLinkedQueue<long[]> segments = new ConcurrentLinkedQueue<>();
+        for (long start = fromBlock; start <= toBlock; start += segmentSize) {
+            segments.add(new long[] {start, Math.min(start + segmentSize - 1, toBlock)});
+        }
+
+        int workers = Math.max(1, Math.min(parallelism, segments.size()));
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "transfer-indexer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<Void>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> {
+                    long rangeSize = initialRangeSize;
+                    long[] segment;
+                    while ((segment = segments.poll()) != null) {
+                        rangeSize = indexSegment(segment[0], segment[1], rangeSize, sink);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Transfer 로그 인덱싱 실패", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 세그먼트 1개를 적응형 구간 크기로 순회
+     * 다음 세그먼트에서 이어 쓸 수 있도록 마지막 구간 크기를 반환
+     */
+    private long indexSegment(long fromBlock, long toBlock, long rangeSize, Consumer<List<Log>> sink)
+        throws IOException, InterruptedException {
+
+        long cursor = fromBlock;
+        int retries = 0;
+        while (cursor <= toBlock) {
+            long end = Math.min(cursor + rangeSize - 1, toBlock);
+
+            EthLog ethLog;
+            try {
+                ethLog = getLogs(cursor, end);
+            } catch (ClientConnectionException e) {
+                // HttpService는 HTTP 429를 JSON-RPC 오류가 아닌 예외로 던짐
+                if (!String.valueOf(e.getMessage()).contains("429")) {
+                    throw e;
+                }
+                ethLog = null;
+            }
+            if (ethLog == null || isRateLimited(ethLog)) {
+                if (retries == maxRateLimitRetries) {
+                    throw new IOException("eth_getLogs 요청 빈도 제한 [" + cursor + ", " + end + "]: "
+                        + retries + "회 재시도 후 실패");
+                }
+                // 구간 크기와 무관 → 같은 구간을 잠시 뒤 다시 요청
+                rateLimited.incrementAndGet();
+                long backoff = rateLimitBackoffMillis << Math.min(retries, MAX_BACKOFF_SHIFT);
+                Thread.sleep(Math.min(backoff, MAX_BACKOFF_MILLIS));
+                retries++;
+                continue;
+            }
+            retries = 0;
+            if (ethLog.hasError() || ethLog.getLogs() == null) {
+                if (!isTooManyResults(ethLog) || end == cursor) {
+                    throw new IOException("eth_getLogs 실패 [" + cursor + ", " + end + "]: "
+                        + (ethLog.hasError() ? ethLog.getError().getMessage() : "empty response"));
+                }
+                // 결과가 너무 많음 → 구간을 절반으로 분할하여 재시도
+                rangeSize = Math.max(1, (end - cursor + 1) / 2);
+                splits.incrementAndGet();
+                continue;
+            }
+
+            List<Log> logs = new ArrayList<>(ethLog.getLogs().size());
+            for (EthLog.LogResult<?> result : ethLog.getLogs()) {
+                logs.add((Log) result.get());
+            }
+            if (!logs.isEmpty()) {
+                sink.accept(logs);
+                logCount.addAndGet(logs.size());
+            }
+
+            // 결과가 적으면 다음 구간을 2배로 확장 (분할했던 구간을 다시 합침)
+            if (logs.size() < targetLogsPerRequest / 2 && rangeSize < maxRangeSize) {
+                rangeSize = Math.min(maxRangeSize, rangeSize * 2);
+                merges.incrementAndGet();
+            }
+            cursor = end + 1;
+        }
+        return rangeSize;
+    }
+
+    private EthLog getLogs(long fromBlock, long toBlock) throws IOException {
+        EthFilter filter = new EthFilter(
+            DefaultBlockParameter.valueOf(BigInteger.valueOf(fromBlock)),
+            DefaultBlockParameter.valueOf(BigInteger.valueOf(toBlock)),
+            contractAddress);
+        filter.addSingleTopic(TRANSFER_EVENT_TOPIC);
+
+        requests.incrementAndGet();
+        return web3.ethGetLogs(filter).send();
+    }
+
+    /**
+     * 노드별 "결과 과다" 에러 판별 (구간을 나누면 해결되는 오류만)
+     * - geth / Infura : -32005 "query returned more than 10000 results"
+     * - Alchemy : "Log response size exceeded"
+     * - 그 외 : "block range is too wide", "exceed maximum block range", "too many blocks" 등
+     * Infura는 요청 빈도 제한에도 -32005를 쓰므로 코드가 아닌 메시지로 판별
+     */
+    static boolean isTooManyResults(EthLog ethLog) {
+        if (!ethLog.hasError() || isRateLimited(ethLog)) {
+            return false;
+        }
+        String message = String.valueOf(ethLog.getError().getMessage()).toLowerCase();
+        return message.contains("more than")
+            || message.contains("too many results")
+            || message.contains("too many blocks")
+            || message.contains("size exceeded")
+            || message.contains("block range");
+    }
+
+    /**
+     * 요청 빈도 제한 판별 (-32005 "project ID request rate exceeded", "daily request count exceeded, request rate limited",
+     * 429 "Too Many Requests" 등) → 구간을 나누지 않고 백오프
+     */
+    static boolean isRateLimited(EthLog ethLog) {
+        if (!ethLog.hasError()) {
+            return false;
+        }
+        String message = String.valueOf(ethLog.getError().getMessage()).toLowerCase();
+        return ethLog.getError().getCode() == 429
+            || message.contains("rate limit")
+            || message.contains("rate exceeded")
+            || message.contains("limit exceeded")
+            || message.contains("too many requests");
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getSplitCount() {
+        return splits.get();
+    }
+
+    public long getMergeCount() {
+        return merges.get();
+    }
+
+    public long getLogCount() {
+        return logCount.get();
+    }
+
+    /** 요청 빈도 제한으로 백오프한 횟수 */
+    public long getRateLimitedCount() {
+        return rateLimited.get();
+    }
+
+    /**
+     * STRC 토큰 Transfer 이벤트 인덱싱 예시 (BSC 테스트넷)
+     */
+    public static void main(String[] args) throws Exception {
+        String infuraKey = System.getenv("INFURA_PROJECT_ID");
+        String bscTestnetUrl = "https://bsc-testnet.infura.io/v3/" + infuraKey;
+        Web3j web3 = Web3j.build(new HttpService(bscTestnetUrl));
+
+        // ERC20TokenTransfer에서 사용한 STRC 토큰 컨트랙트
+        String contractAddress = "0xfF9F57987Acb440C9752ab3F0Af4D00EA1d97d89";
+
+        // ERC20TokenTransfer 실행 결과 트랜잭션이 포함된 블록(0x3ba29b0) 주변 구간
+        long toBlock = 0x3ba29b0L + 1_000;
+        long fromBlock = toBlock - 500_000;
+
+        TransferEventIndexer indexer = new TransferEventIndexer(web3, contractAddress)
+            .initialRangeSize(5_000)
+            .parallelism(4);
+
+        long start = System.nanoTime();
+        indexer.index(fromBlock, toBlock, logs -> {
+            synchronized (System.out) {
+                for (Log log : logs) {
+                    System.out.println("block " + log.getBlockNumber() + " tx " + log.getTransactionHash());
+                }
+            }
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("\n=== 인덱싱 결과 ===");
+        System.out.println("블록 구간 : " + fromBlock + " ~ " + toBlock);
+        System.out.println("Transfer 로그 : " + indexer.getLogCount() + "건");
+        System.out.println("eth_getLogs 호출 : " + indexer.getRequestCount() + "회 (분할 "
+            + indexer.getSplitCount() + "회, 확장 " + indexer.getMergeCount() + "회, 빈도 제한 대기 "
+            + indexer.getRateLimitedCount() + "회)");
+        System.out.printf("소요 시간 : %.2f초%n", seconds);
+
+        web3.shutdown();
+    }
+}
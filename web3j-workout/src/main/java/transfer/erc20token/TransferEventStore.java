@@ -0,0 +1,312 @@
+package transfer.erc20token;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 디코딩된 Transfer 이벤트용 메모리 맵(append-only) 저장소
+ *
+ * GetERC20TokenTransaction은 디코딩 결과를 출력만 하고 버린다.
+ * → 리포팅 작업마다 노드를 다시 조회하고 JSON을 다시 파싱해야 함
+ *
+ * 저장 방식:
+ * - 고정 길이 바이너리 레코드 (88바이트)
+ *     [0]  blockNumber (long, 8)
+ *     [8]  logIndex    (int, 4)
+ *     [12] from        (20바이트)
+ *     [32] to          (20바이트)
+ *     [52] amount      (uint256, 32바이트 big-endian)
+ *     [84] CRC32       (int, 4) - 앞 84바이트의 체크섬
+ * - 세그먼트 파일(transfers-0000000000.seg ...)을 FileChannel.map()으로 메모리에 매핑하여 순차 기록
+ * - 세그먼트가 가득 차면 다음 세그먼트 파일 생성
+ *
+ * 장애 복구 (crash-safe tail recovery):
+ * - 레코드를 모두 쓴 뒤 마지막에 CRC를 기록
+ * - 다시 열 때 마지막 세그먼트를 처음부터 읽으며 CRC가 맞지 않는 첫 레코드를 끝(tail)으로 판단
+ * - 기록 도중 종료되어 일부만 쓰인 레코드는 다음 append가 덮어씀
+ * - tail 이후 영역은 0으로 지움 (매핑된 페이지는 순서 없이 디스크에 기록되므로 tail 뒤에 CRC가 맞는
+ *   이전 레코드가 남아 있을 수 있음 → 지우지 않으면 나중에 그 앞까지 다시 채웠을 때 복구가 이어 읽음)
+ *
+ * 조회:
+ * - scan()은 매핑된 버퍼에서 바로 DecodedTransfer로 읽으므로 JSON 파싱/노드 조회가 없음
+ */
+public class TransferEventStore implements Closeable {
+
+    public static final int RECORD_SIZE = 88;
+    public static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 20; // 세그먼트당 약 88MB
+
+    private static final int CHECKSUM_OFFSET = 84;
+    private static final String SEGMENT_PREFIX = "transfers-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final byte[] ZEROS = new byte[64 * 1024];
+
+    /**
+     * scan() 콜백 (transfer 인스턴스는 재사용되므로 보관하려면 copy())
+     */
+    @FunctionalInterface
+    public interface TransferVisitor {
+        void visit(DecodedTransfer transfer);
+    }
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final long segmentBytes;
+    private final CRC32 crc = new CRC32();
+    private final byte[] recordBuffer = new byte[RECORD_SIZE];
+
+    private int segmentIndex;
+    private MappedByteBuffer writeBuffer;
+    private int writeRecordIndex;
+    private long recordCount;
+
+    public TransferEventStore(Path directory) throws IOException {
+        this(directory, DEFAULT_RECORDS_PER_SEGMENT);
+    }
+
+    public TransferEventStore(Path directory, int recordsPerSegment) throws IOException {
+        // 세그먼트 1개를 int 오프셋으로 매핑할 수 있는 범위
+        if (recordsPerSegment <= 0 || recordsPerSegment > Integer.MAX_VALUE / RECORD_SIZE) {
+            throw new IllegalArgumentException("세그먼트당 레코드 수가 범위를 벗어남: " + recordsPerSegment);
+        }
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        this.segmentBytes = (long) recordsPerSegment * RECORD_SIZE;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * 기존 세그먼트를 확인하여 쓰기 위치(tail) 복구
+     */
+    private void recover() throws IOException {
+        List<Path> segments = listSegments();
+        if (segments.isEmpty()) {
+            segmentIndex = 0;
+            writeBuffer = map(segmentPath(0), MapMode.READ_WRITE);
+            writeRecordIndex = 0;
+            recordCount = 0;
+            return;
+        }
+
+        segmentIndex = segments.size() - 1;
+        writeBuffer = map(segments.get(segmentIndex), MapMode.READ_WRITE);
+        writeRecordIndex = countValidRecords(writeBuffer);
+        clearTail(writeBuffer, writeRecordIndex);
+        recordCount = (long) segmentIndex * recordsPerSegment + writeRecordIndex;
+    }
+
+    private int countValidRecords(MappedByteBuffer buffer) {
+        int count = 0;
+        while (count < recordsPerSegment && isValidRecord(buffer, count)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * fromRecord 이후를 0으로 채움 (대부분 이미 0이므로 읽어 보고 0이 아닌 곳부터만 기록)
+     */
+    private void clearTail(MappedByteBuffer buffer, int fromRecord) {
+        int end = (int) segmentBytes;
+        int offset = fromRecord * RECORD_SIZE;
+        while (offset < end && buffer.getLong(offset) == 0) {
+            offset += Long.BYTES;
+        }
+        if (offset == end) {
+            return;
+        }
+        while (offset < end) {
+            int length = Math.min(ZEROS.length, end - offset);
+            buffer.put(offset, ZEROS, 0, length);
+            offset += length;
+        }
+        buffer.force();
+    }
+
+    private boolean isValidRecord(MappedByteBuffer buffer, int recordIndex) {
+        int offset = recordIndex * RECORD_SIZE;
+        buffer.get(offset, recordBuffer, 0, RECORD_SIZE);
+        crc.reset();
+        crc.update(recordBuffer, 0, CHECKSUM_OFFSET);
+        return buffer.getInt(offset + CHECKSUM_OFFSET) == (int) crc.getValue();
+    }
+
+    /**
+     * 레코드 1건 추가 (flush() 전까지는 OS 페이지 캐시에만 반영될 수 있음)
+     */
+    public synchronized void append(DecodedTransfer transfer) throws IOException {
+        if (writeRecordIndex == recordsPerSegment) {
+            rollSegment();
+        }
+
+        byte[] record = recordBuffer;
+        writeLong(record, 0, transfer.blockNumber);
+        writeInt(record, 8, (int) transfer.logIndex);
+        System.arraycopy(transfer.from, 0, record, 12, DecodedTransfer.ADDRESS_LENGTH);
+        System.arraycopy(transfer.to, 0, record, 32, DecodedTransfer.ADDRESS_LENGTH);
+        transfer.writeAmount(record, 52);
+
+        crc.reset();
+        crc.update(record, 0, CHECKSUM_OFFSET);
+
+        int offset = writeRecordIndex * RECORD_SIZE;
+        writeBuffer.put(offset, record, 0, CHECKSUM_OFFSET);
+        // CRC는 마지막에 기록 → 중간에 종료되면 복구 시 CRC 불일치로 버려짐
+        writeBuffer.putInt(offset + CHECKSUM_OFFSET, (int) crc.getValue());
+
+        writeRecordIndex++;
+        recordCount++;
+    }
+
+    private void rollSegment() throws IOException {
+        writeBuffer.force();
+        segmentIndex++;
+        writeBuffer = map(segmentPath(segmentIndex), MapMode.READ_WRITE);
+        writeRecordIndex = 0;
+    }
+
+    /**
+     * 현재 세그먼트의 변경 내용을 디스크에 강제 기록
+     */
+    public synchronized void flush() {
+        writeBuffer.force();
+    }
+
+    public synchronized long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * 저장된 모든 레코드를 기록 순서대로 순회
+     */
+    public void scan(TransferVisitor visitor) throws IOException {
+        int lastSegment;
+        int lastSegmentRecords;
+        synchronized (this) {
+            lastSegment = segmentIndex;
+            lastSegmentRecords = writeRecordIndex;
+        }
+
+        DecodedTransfer transfer = new DecodedTransfer();
+        for (int segment = 0; segment <= lastSegment; segment++) {
+            MappedByteBuffer buffer = map(segmentPath(segment), MapMode.READ_ONLY);
+            int records = segment == lastSegment ? lastSegmentRecords : recordsPerSegment;
+            for (int i = 0; i < records; i++) {
+                readRecord(buffer, i * RECORD_SIZE, transfer);
+                visitor.visit(transfer);
+            }
+        }
+    }
+
+    private static void readRecord(MappedByteBuffer buffer, int offset, DecodedTransfer out) {
+        out.blockNumber = buffer.getLong(offset);
+        out.logIndex = buffer.getInt(offset + 8);
+        buffer.get(offset + 12, out.from, 0, DecodedTransfer.ADDRESS_LENGTH);
+        buffer.get(offset + 32, out.to, 0, DecodedTransfer.ADDRESS_LENGTH);
+        out.amount0 = buffer.getLong(offset + 52);
+        out.amount1 = buffer.getLong(offset + 60);
+        out.amount2 = buffer.getLong(offset + 68);
+        out.amount3 = buffer.getLong(offset + 76);
+    }
+
+    private MappedByteBuffer map(Path path, MapMode mode) throws IOException {
+        StandardOpenOption[] options = mode == MapMode.READ_ONLY
+            ? new StandardOpenOption[] {StandardOpenOption.READ}
+            : new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE};
+        // 매핑은 채널을 닫아도 유지됨 (해제는 GC 시점)
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            return channel.map(mode, 0, segmentBytes);
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(path -> {
+                    String name = path.getFileName().toString();
+                    return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                })
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private static void writeLong(byte[] dest, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            dest[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static void writeInt(byte[] dest, int offset, int value) {
+        for (int i = 3; i >= 0; i--) {
+            dest[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        writeBuffer.force();
+    }
+
+    /**
+     * 저장 / 복구 / 순차 조회 예시
+     *
+     * 실행 인자 (선택): [저장 디렉터리] [레코드 개수]
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = args.length > 0 ? Path.of(args[0]) : Files.createTempDirectory("transfer-store");
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+
+        System.out.println("=== Transfer 이벤트 저장소 (" + directory + ") ===");
+
+        // 1. 기록
+        DecodedTransfer transfer = new DecodedTransfer();
+        long start = System.nanoTime();
+        try (TransferEventStore store = new TransferEventStore(directory)) {
+            long base = store.getRecordCount();
+            for (int i = 0; i < count; i++) {
+                transfer.blockNumber = 0x3ba29b0L + (base + i) / 10;
+                transfer.logIndex = (base + i) % 10;
+                transfer.from[19] = (byte) i;
+                transfer.to[19] = (byte) (i >>> 8);
+                transfer.amount3 = 1_000_000_000_000_000_000L;
+                store.append(transfer);
+            }
+            store.flush();
+        }
+        double writeSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("기록 : %,d건, %,.0f건/초%n", count, count / writeSeconds);
+
+        // 2. 다시 열기 (tail 복구) + 전체 순차 조회
+        try (TransferEventStore store = new TransferEventStore(directory)) {
+            System.out.printf("복구된 레코드 수 : %,d건%n", store.getRecordCount());
+
+            // scanned[0] = 레코드 수, scanned[1] = 전송량 합계 (1e18 단위, 할당 없음)
+            long[] scanned = {0, 0};
+            start = System.nanoTime();
+            store.scan(t -> {
+                scanned[0]++;
+                scanned[1] += t.getAmountWord(3) / 1_000_000_000_000_000_000L;
+            });
+            double scanSeconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("조회 : %,d건, %,.0f건/초, 전송량 합계 %,d 토큰%n",
+                scanned[0], scanned[0] / scanSeconds, scanned[1]);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package transfer.erc20token;
+
+import java.util.List;
+import org.web3j.protocol.core.methods.response.Log;
+
+/**
+ * 할당 없는(allocation-free) ERC20 Transfer 로그 디코더
+ *
+ * GetERC20TokenTransaction의 기존 방식:
+ * - "0x" + topics.get(2).substring(26) → 주소마다 String 2개 생성
+ * - data(hex 문자열) → BigInteger 변환 시 char[]/byte[]/BigInteger 생성
+ *
+ * 이 디코더:
+ * - topic / data의 16진수 문자를 직접 읽어서 DecodedTransfer의 20바이트 버퍼와 long 4개에 기록
+ * - 블록 번호 / 로그 인덱스도 BigInteger 없이 long으로 파싱
+ * - 호출자가 DecodedTransfer를 재사용하면 이벤트당 힙 할당 0
+ *
+ * Transfer 로그 구조:
+ * - topics[0] : Transfer 이벤트 시그니처
+ * - topics[1] : from 주소 (32바이트 = 0x + 24자리 0 패딩 + 40자리 주소)
+ * - topics[2] : to 주소
+ * - data      : 전송량 uint256 (0x + 64자리)
+ */
+public final class TransferLogDecoder {
+
+    // 0x + 64자리
+    private static final int WORD_HEX_LENGTH = 66;
+    // 0x + 24자리 패딩 이후 주소 시작 위치
+    private static final int ADDRESS_OFFSET_IN_TOPIC = 26;
+
+    private TransferLogDecoder() {
+    }
+
+    /**
+     * Transfer 로그를 out에 디코딩
+     *
+     * @return Transfer 이벤트가 아니면 false (ERC721 Transfer처럼 topic이 4개인 경우 포함)
+     */
+    public static boolean decode(Log log, DecodedTransfer out) {
+        List<String> topics = log.getTopics();
+        if (topics == null || topics.size() != 3) {
+            return false;
+        }
+        if (!decode(topics.get(0), topics.get(1), topics.get(2), log.getData(), out)) {
+            return false;
+        }
+        out.blockNumber = parseQuantity(log.getBlockNumberRaw());
+        out.logIndex = parseQuantity(log.getLogIndexRaw());
+        return true;
+    }
+
+    /**
+     * topic / data 문자열에서 직접 디코딩 (블록 번호, 로그 인덱스는 변경하지 않음)
+     */
+    public static boolean decode(String topic0, String topic1, String topic2, String data, DecodedTransfer out) {
+        if (!TransferEventIndexer.TRANSFER_EVENT_TOPIC.equalsIgnoreCase(topic0)
+            || topic1.length() != WORD_HEX_LENGTH
+            || topic2.length() != WORD_HEX_LENGTH
+            || data == null || data.length() != WORD_HEX_LENGTH) {
+            return false;
+        }
+        readBytes(topic1, ADDRESS_OFFSET_IN_TOPIC, out.from, DecodedTransfer.ADDRESS_LENGTH);
+        readBytes(topic2, ADDRESS_OFFSET_IN_TOPIC, out.to, DecodedTransfer.ADDRESS_LENGTH);
+        out.amount0 = readLong(data, 2);
+        out.amount1 = readLong(data, 18);
+        out.amount2 = readLong(data, 34);
+        out.amount3 = readLong(data, 50);
+        return true;
+    }
+
+    /**
+     * 16진수 quantity("0x3ba29b0") → long
+     * null이면 -1 (pending 로그)
+     */
+    static long parseQuantity(String hex) {
+        if (hex == null) {
+            return -1;
+        }
+        int start = hex.startsWith("0x") ? 2 : 0;
+        long value = 0;
+        for (int i = start; i < hex.length(); i++) {
+            value = (value << 4) | hexValue(hex.charAt(i));
+        }
+        return value;
+    }
+
+    private static void readBytes(String hex, int offset, byte[] dest, int length) {
+        for (int i = 0; i < length; i++) {
+            int index = offset + i * 2;
+            dest[i] = (byte) ((hexValue(hex.charAt(index)) << 4) | hexValue(hex.charAt(index + 1)));
+        }
+    }
+
+    private static long readLong(String hex, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 16; i++) {
+            value = (value << 4) | hexValue(hex.charAt(i));
+        }
+        return value;
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        throw new IllegalArgumentException("invalid hex character: " + c);
+    }
+}
@@ -0,0 +1,113 @@
+package transfer.erc20token;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.utils.Numeric;
+import rpc.StubChainData;
+
+public class TransferLogDecoderBenchmark {
+
+    /**
+     * Transfer 로그 디코딩 벤치마크
+     *
+     * 비교 대상:
+     * - 기존 방식 : GetERC20TokenTransaction처럼 substring으로 주소 추출 + data를 BigInteger로 변환
+     * - 디코더    : TransferLogDecoder + 재사용 DecodedTransfer
+     *
+     * 측정 항목:
+     * - 이벤트/초
+     * - 이벤트당 할당 바이트 (com.sun.management.ThreadMXBean 스레드 할당량 기준)
+     *
+     * 실행 인자 (선택): [로그 개수] [반복 횟수]
+     */
+    public static void main(String[] args) {
+        int logCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        List<Log> logs = syntheticLogs(logCount);
+
+        System.out.println("=== Transfer 로그 디코딩 벤치마크 (로그 " + logCount + "건 × " + rounds + "회) ===");
+
+        // JIT 워밍업
+        for (int i = 0; i < 5; i++) {
+            runSubstring(logs);
+            runDecoder(logs, new DecodedTransfer());
+        }
+
+        measure("기존 방식 (substring + BigInteger)", logs, rounds, () -> runSubstring(logs));
+        DecodedTransfer reused = new DecodedTransfer();
+        measure("TransferLogDecoder", logs, rounds, () -> runDecoder(logs, reused));
+    }
+
+    /**
+     * GetERC20TokenTransaction과 같은 방식
+     */
+    private static long runSubstring(List<Log> logs) {
+        long checksum = 0;
+        for (Log log : logs) {
+            List<String> topics = log.getTopics();
+            String fromAddress = "0x" + topics.get(1).substring(26);
+            String toAddress = "0x" + topics.get(2).substring(26);
+            BigInteger amount = Numeric.toBigInt(log.getData());
+            BigInteger blockNumber = log.getBlockNumber();
+            checksum += fromAddress.length() + toAddress.length() + amount.longValue() + blockNumber.longValue();
+        }
+        return checksum;
+    }
+
+    private static long runDecoder(List<Log> logs, DecodedTransfer out) {
+        long checksum = 0;
+        for (Log log : logs) {
+            if (TransferLogDecoder.decode(log, out)) {
+                checksum += out.from[19] + out.to[19] + out.amount3 + out.blockNumber;
+            }
+        }
+        return checksum;
+    }
+
+    private static void measure(String label, List<Log> logs, int rounds, LongSupplier task) {
+        com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long[] nanos = new long[rounds];
+        long blackhole = 0;
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            blackhole += task.getAsLong();
+            nanos[r] = System.nanoTime() - start;
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        Arrays.sort(nanos);
+        double medianSeconds = nanos[rounds / 2] / 1e9;
+        long events = (long) logs.size() * rounds;
+        System.out.printf("%-36s : %,12.0f 이벤트/초, 이벤트당 할당 %,8.1f bytes (checksum %d)%n",
+            label, logs.size() / medianSeconds, allocated / (double) events, blackhole);
+    }
+
+    private static List<Log> syntheticLogs(int count) {
+        String contract = "0xff9f57987acb440c9752ab3f0af4d00ea1d97d89";
+        List<Log> logs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String from = String.format("0x%040x", 0x192897df0b17L + i);
+            String to = String.format("0x%040x", 0x658b8a1ae242L + i);
+            Log log = new Log();
+            log.setBlockNumber(Numeric.toHexStringWithPrefix(BigInteger.valueOf(0x3ba29b0L + i / 10)));
+            log.setLogIndex(Numeric.toHexStringWithPrefix(BigInteger.valueOf(i % 10)));
+            log.setAddress(contract);
+            log.setData("0x" + Numeric.toHexStringNoPrefixZeroPadded(
+                BigInteger.TEN.pow(18).multiply(BigInteger.valueOf(i + 1)), 64));
+            log.setTopics(List.of(StubChainData.TRANSFER_EVENT_TOPIC,
+                StubChainData.padAddress(from), StubChainData.padAddress(to)));
+            logs.add(log);
+        }
+        return logs;
+    }
+}
@@ -0,0 +1,116 @@
+package transfer.nativecoin;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.EthTransaction;
+import org.web3j.protocol.core.methods.response.Transaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+/**
+ * JSON-RPC 배치 모드 트랜잭션 + 영수증 조회
+ *
+ * GetNativeCoinTransaction은 해시 1건마다
+ * ethGetTransactionByHash / ethGetTransactionReceipt를 각각 .send()로 보낸다.
+ * → 해시 N건이면 HTTP 왕복 2N회
+ *
+ * 배치 모드:
+ * - 여러 JSON-RPC 호출을 하나의 JSON 배열로 묶어 HTTP 요청 1회로 전송
+ * - batchSize개의 해시 → 트랜잭션 조회 batchSize건 + 영수증 조회 batchSize건 = 왕복 1회
+ * - 해시 N건이면 HTTP 왕복 ceil(N / batchSize)회
+ *
+ * 주의:
+ * - 노드(프로바이더)마다 배치 최대 크기 제한이 있으므로 batchSize는 설정 가능해야 함
+ * - 배치 안의 개별 호출은 독립적으로 실패할 수 있음 → TransactionRecord.error로 전달
+ */
+public class BatchTransactionLookup {
+
+    public static final int DEFAULT_BATCH_SIZE = 50;
+
+    private final Web3j web3;
+    private final int batchSize;
+
+    public BatchTransactionLookup(Web3j web3) {
+        this(web3, DEFAULT_BATCH_SIZE);
+    }
+
+    public BatchTransactionLookup(Web3j web3, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.web3 = web3;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 해시 목록을 batchSize 단위로 나누어 조회
+     * 반환 목록의 순서는 입력 해시 순서와 동일
+     */
+    public List<TransactionRecord> lookup(List<String> transactionHashes) throws IOException {
+        List<TransactionRecord> records = new ArrayList<>(transactionHashes.size());
+        for (int from = 0; from < transactionHashes.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, transactionHashes.size());
+            records.addAll(lookupBatch(transactionHashes.subList(from, to)));
+        }
+        return records;
+    }
+
+    private List<TransactionRecord> lookupBatch(List<String> hashes) throws IOException {
+        BatchRequest batch = web3.newBatch();
+        List<Request<?, EthTransaction>> transactionRequests = new ArrayList<>(hashes.size());
+        List<Request<?, EthGetTransactionReceipt>> receiptRequests = new ArrayList<>(hashes.size());
+
+        for (String hash : hashes) {
+            Request<?, EthTransaction> transactionRequest = web3.ethGetTransactionByHash(hash);
+            Request<?, EthGetTransactionReceipt> receiptRequest = web3.ethGetTransactionReceipt(hash);
+            transactionRequests.add(transactionRequest);
+            receiptRequests.add(receiptRequest);
+            batch.add(transactionRequest).add(receiptRequest);
+        }
+
+        BatchResponse batchResponse = batch.send();
+
+        // web3j는 i번째 응답을 i번째 요청의 응답 타입으로 역직렬화하므로 위치로 매칭
+        // (순서를 바꿔 응답하는 노드는 id / 해시 확인에서 걸러 해당 레코드를 오류로 표시)
+        List<? extends Response<?>> responses = batchResponse.getResponses();
+        List<TransactionRecord> records = new ArrayList<>(hashes.size());
+        for (int i = 0; i < hashes.size(); i++) {
+            Response<?> transactionResponse = 2 * i < responses.size() ? responses.get(2 * i) : null;
+            Response<?> receiptResponse = 2 * i + 1 < responses.size() ? responses.get(2 * i + 1) : null;
+            if (transactionResponse == null || receiptResponse == null) {
+                records.add(new TransactionRecord(hashes.get(i), null, null, "missing response in batch"));
+            } else if (transactionResponse.getId() != transactionRequests.get(i).getId()
+                || receiptResponse.getId() != receiptRequests.get(i).getId()) {
+                records.add(new TransactionRecord(hashes.get(i), null, null, "batch response out of order"));
+            } else {
+                records.add(merge(hashes.get(i), (EthTransaction) transactionResponse,
+                    (EthGetTransactionReceipt) receiptResponse));
+            }
+        }
+        return records;
+    }
+
+    private static TransactionRecord merge(String hash, EthTransaction ethTransaction,
+                                           EthGetTransactionReceipt ethReceipt) {
+        if (ethTransaction.hasError()) {
+            return new TransactionRecord(hash, null, null, ethTransaction.getError().getMessage());
+        }
+        if (ethReceipt.hasError()) {
+            return new TransactionRecord(hash, ethTransaction.getTransaction().orElse(null), null,
+                ethReceipt.getError().getMessage());
+        }
+        Transaction transaction = ethTransaction.getTransaction().orElse(null);
+        TransactionReceipt receipt = ethReceipt.getTransactionReceipt().orElse(null);
+        if ((transaction != null && !hash.equalsIgnoreCase(transaction.getHash()))
+            || (receipt != null && !hash.equalsIgnoreCase(receipt.getTransactionHash()))) {
+            return new TransactionRecord(hash, null, null, "batch response for a different hash");
+        }
+        return new TransactionRecord(hash, transaction, receipt, null);
+    }
+}
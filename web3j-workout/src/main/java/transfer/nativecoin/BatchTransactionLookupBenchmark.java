@@ -0,0 +1,77 @@
+package transfer.nativecoin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.List;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.http.HttpService;
+import rpc.StubChainData;
+import rpc.StubRpcNode;
+import rpc.StubRpcNode.StubRpcException;
+
+public class BatchTransactionLookupBenchmark {
+
+    /**
+     * 배치 조회 처리량 벤치마크 (로컬 스텁 노드 + 지연 주입)
+     *
+     * 비교 대상:
+     * - 순차 조회 : GetNativeCoinTransaction 방식 (해시 1건당 tx 조회 + receipt 조회 = 왕복 2회)
+     * - 배치 조회 : BatchTransactionLookup (batchSize건당 왕복 1회)
+     *
+     * 실행 인자 (선택): [지연ms] [해시 개수]
+     */
+    public static void main(String[] args) throws Exception {
+        long latencyMillis = args.length > 0 ? Long.parseLong(args[0]) : 20;
+        int hashCount = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+
+        try (StubRpcNode node = new StubRpcNode(latencyMillis, BatchTransactionLookupBenchmark::handle)) {
+            Web3j web3 = Web3j.build(new HttpService(node.getUrl()));
+            List<String> hashes = StubChainData.transactionHashes(hashCount);
+
+            System.out.println("=== 배치 조회 벤치마크 (지연 " + latencyMillis + "ms, 해시 " + hashCount + "건) ===");
+
+            // 순차 조회는 왕복 횟수가 많아 일부만 측정 후 해시당 비용으로 환산
+            int sequentialCount = Math.min(hashCount, 100);
+            node.resetCounters();
+            long start = System.nanoTime();
+            for (String hash : hashes.subList(0, sequentialCount)) {
+                web3.ethGetTransactionByHash(hash).send();
+                web3.ethGetTransactionReceipt(hash).send();
+            }
+            report("순차 조회", sequentialCount, System.nanoTime() - start, node);
+
+            for (int batchSize : new int[] {10, 50, 100, 500}) {
+                BatchTransactionLookup lookup = new BatchTransactionLookup(web3, batchSize);
+                node.resetCounters();
+                start = System.nanoTime();
+                List<TransactionRecord> records = lookup.lookup(hashes);
+                long elapsed = System.nanoTime() - start;
+
+                long found = records.stream().filter(TransactionRecord::isFound).count();
+                if (found != hashCount) {
+                    throw new IllegalStateException("조회 누락: " + found + "/" + hashCount);
+                }
+                report("배치 조회 (batchSize=" + batchSize + ")", hashCount, elapsed, node);
+            }
+
+            web3.shutdown();
+        }
+    }
+
+    private static Object handle(String method, JsonNode params) throws StubRpcException {
+        String hash = params.path(0).asText();
+        switch (method) {
+            case "eth_getTransactionByHash":
+                return StubChainData.transaction(hash);
+            case "eth_getTransactionReceipt":
+                return StubChainData.receipt(hash);
+            default:
+                throw new StubRpcException(-32601, "method not found: " + method);
+        }
+    }
+
+    private static void report(String label, int hashCount, long elapsedNanos, StubRpcNode node) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%-28s : %,8.1f 해시/초, HTTP 왕복 %,6d회, RPC 호출 %,6d건, 소요 %.2f초%n",
+            label, hashCount / seconds, node.getHttpRequestCount(), node.getRpcCallCount(), seconds);
+    }
+}
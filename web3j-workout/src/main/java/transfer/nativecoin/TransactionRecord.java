@@ -0,0 +1,79 @@
+package transfer.nativecoin;
+
+import java.math.BigInteger;
+import org.web3j.protocol.core.methods.response.Transaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.utils.Numeric;
+
+/**
+ * Transaction(전송 시점 정보) + TransactionReceipt(실행 결과 정보) 병합 레코드
+ *
+ * - transaction == null : 노드가 해당 해시를 모름
+ * - receipt == null : 아직 블록에 포함되지 않음 (pending)
+ * - error != null : 해당 호출이 RPC 에러로 실패
+ */
+public class TransactionRecord {
+
+    private final String hash;
+    private final Transaction transaction;
+    private final TransactionReceipt receipt;
+    private final String error;
+
+    public TransactionRecord(String hash, Transaction transaction, TransactionReceipt receipt, String error) {
+        this.hash = hash;
+        this.transaction = transaction;
+        this.receipt = receipt;
+        this.error = error;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    public TransactionReceipt getReceipt() {
+        return receipt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isFound() {
+        return transaction != null;
+    }
+
+    public boolean isPending() {
+        return transaction != null && receipt == null;
+    }
+
+    /**
+     * 실제 수수료 = gasUsed × effectiveGasPrice (wei)
+     * effectiveGasPrice가 없는 노드는 Transaction.gasPrice로 대체
+     * 영수증이 없거나 가스 가격을 알 수 없으면 null
+     */
+    public BigInteger getTotalFee() {
+        if (receipt == null || receipt.getGasUsedRaw() == null) {
+            return null;
+        }
+        BigInteger price;
+        if (receipt.getEffectiveGasPrice() != null) {
+            price = Numeric.toBigInt(receipt.getEffectiveGasPrice());
+        } else if (transaction != null && transaction.getGasPriceRaw() != null) {
+            price = transaction.getGasPrice();
+        } else {
+            return null;
+        }
+        return receipt.getGasUsed().multiply(price);
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionRecord{hash='" + hash + "', found=" + isFound() + ", pending=" + isPending()
+            + ", status=" + (receipt != null ? receipt.getStatus() : null)
+            + (error != null ? ", error='" + error + "'" : "") + "}";
+    }
+}
@@ -0,0 +1,406 @@
+package wallet;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.bouncycastle.crypto.digests.KeccakDigest;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.ECDSASignature;
+import org.web3j.crypto.Sign;
+import org.web3j.crypto.Sign.SignatureData;
+import org.web3j.utils.Numeric;
+
+/**
+ * 서명 메시지 일괄 검증기 (서명자 주소 복구)
+ *
+ * PrivateKeySignGenerate처럼 Sign.signedMessageToKey로 한 건씩 검증하면:
+ * - 단일 스레드로만 공개키 복구 (검증 비용의 대부분)
+ * - 메시지마다 접두사 + 메시지를 이어 붙인 배열, Keccak 인스턴스, 주소 해시용 배열을 새로 생성
+ * - 형식이 잘못된 서명도 복구를 시도한 뒤에야 실패
+ * - 같은 서명이 다시 들어와도(재시도, 중복 요청) 매번 다시 복구
+ *
+ * 이 검증기:
+ * 1. 빠른 거절 : v(27/28, 0/1), r/s 길이와 범위(1 ~ n-1)를 복구 전에 확인 (선택: s > n/2 거절, EIP-2)
+ * 2. 해시     : 스레드별 KeccakDigest와 버퍼 재사용, personal_sign 접두사("\x19Ethereum Signed Message:\n" + 길이)는
+ *              배열을 이어 붙이지 않고 digest에 바로 입력
+ * 3. 캐시     : 최근 검증한 (메시지 해시, r, s, v) → 주소 LRU 캐시
+ *              키 해시로 나눈 샤드마다 잠금과 LRU를 따로 두어 병렬 검증 스레드가 잠금 하나에 줄 서지 않음
+ *              (LRU 순서는 샤드 안에서만 유지 → 전체로는 근사 LRU)
+ * 4. 병렬     : verifyAll()은 ForkJoinPool에서 메시지별 복구를 병렬 처리 (결과는 입력 순서)
+ *
+ * personalSign(false)면 PrivateKeySignGenerate의 Sign.signMessage처럼 접두사 없이 keccak256(메시지)를 검증
+ */
+public class BatchSignatureVerifier {
+
+    public static final int DEFAULT_CACHE_SIZE = 100_000;
+
+    private static final byte[] PERSONAL_MESSAGE_PREFIX =
+        "\u0019Ethereum Signed Message:\n".getBytes(StandardCharsets.US_ASCII);
+    private static final BigInteger CURVE_ORDER = Sign.CURVE_PARAMS.getN();
+    private static final BigInteger HALF_CURVE_ORDER = CURVE_ORDER.shiftRight(1);
+    // 캐시 키: 메시지 해시(32) + r(32) + s(32) + recId(1)
+    private static final int KEY_LENGTH = 97;
+    private static final int MAX_CACHE_SHARDS = 64;
+    // 샤드 하나의 최소 크기 (작은 캐시를 잘게 나누면 LRU가 의미 없어짐)
+    private static final int MIN_SHARD_SIZE = 256;
+
+    /**
+     * 스레드별 재사용 버퍼
+     */
+    private static final class Scratch {
+        final KeccakDigest digest = new KeccakDigest(256);
+        final byte[] hash = new byte[32];
+        final byte[] length = new byte[10]; // 메시지 길이 10진수 (int 최대 10자리)
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * 검증할 메시지와 서명
+     */
+    public static class SignedMessage {
+        private final byte[] message;
+        private final SignatureData signature;
+
+        public SignedMessage(byte[] message, SignatureData signature) {
+            this.message = message;
+            this.signature = signature;
+        }
+
+        public byte[] getMessage() {
+            return message;
+        }
+
+        public SignatureData getSignature() {
+            return signature;
+        }
+    }
+
+    /**
+     * 검증 결과 (address가 null이면 error에 거절 사유)
+     */
+    public static class Verification {
+        private final String address;
+        private final String error;
+        private final boolean cached;
+
+        Verification(String address, String error, boolean cached) {
+            this.address = address;
+            this.error = error;
+            this.cached = cached;
+        }
+
+        /** 복구한 서명자 주소 (0x + 소문자 40자리) */
+        public String getAddress() {
+            return address;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isValid() {
+            return address != null;
+        }
+
+        /** 캐시에서 가져온 결과인지 */
+        public boolean isCached() {
+            return cached;
+        }
+
+        /** 복구한 주소가 기대 주소와 같은지 (대소문자 무시) */
+        public boolean isSignedBy(String expectedAddress) {
+            return address != null && address.equalsIgnoreCase(expectedAddress);
+        }
+
+        @Override
+        public String toString() {
+            return address != null ? address : "invalid: " + error;
+        }
+    }
+
+    private static final class CacheKey {
+        private final byte[] bytes;
+        private final int hash;
+
+        CacheKey(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CacheKey && Arrays.equals(bytes, ((CacheKey) o).bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * 캐시 샤드 (자기 자신으로 잠금)
+     */
+    private final class CacheShard extends LinkedHashMap<CacheKey, String> {
+        private final int capacity;
+
+        CacheShard(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, String> eldest) {
+            if (size() > capacity) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private final int cacheSize;
+    private final CacheShard[] cache;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private boolean personalSign = true;
+    private boolean rejectHighS = false;
+
+    // 통계
+    private final AtomicLong verifications = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong recoveryFailures = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public BatchSignatureVerifier() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param cacheSize 캐시할 최대 서명 수 (0이면 캐시 사용 안 함)
+     */
+    public BatchSignatureVerifier(int cacheSize) {
+        this.cacheSize = cacheSize;
+        // 샤드 수는 2의 거듭제곱 (키 해시의 하위 비트로 선택)
+        int shards = Integer.highestOneBit(Math.max(1, Math.min(MAX_CACHE_SHARDS, cacheSize / MIN_SHARD_SIZE)));
+        this.cache = new CacheShard[shards];
+        for (int i = 0; i < shards; i++) {
+            cache[i] = new CacheShard((cacheSize + shards - 1) / shards);
+        }
+    }
+
+    public BatchSignatureVerifier pool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    public BatchSignatureVerifier personalSign(boolean personalSign) {
+        this.personalSign = personalSign;
+        return this;
+    }
+
+    public BatchSignatureVerifier rejectHighS(boolean rejectHighS) {
+        this.rejectHighS = rejectHighS;
+        return this;
+    }
+
+    /**
+     * 여러 메시지를 병렬로 검증 (결과는 입력 순서)
+     */
+    public List<Verification> verifyAll(List<SignedMessage> messages) throws InterruptedException {
+        try {
+            return pool.submit(() -> IntStream.range(0, messages.size())
+                .parallel()
+                .mapToObj(i -> verify(messages.get(i).getMessage(), messages.get(i).getSignature()))
+                .collect(Collectors.toList())).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("서명 일괄 검증 실패", e.getCause());
+        }
+    }
+
+    /**
+     * 메시지 한 건 검증 (호출한 스레드에서 처리)
+     */
+    public Verification verify(byte[] message, SignatureData signature) {
+        verifications.incrementAndGet();
+
+        // 1. 빠른 거절
+        byte[] r = signature.getR();
+        byte[] s = signature.getS();
+        byte[] v = signature.getV();
+        if (r == null || r.length != 32 || s == null || s.length != 32 || v == null || v.length != 1) {
+            return reject("r, s는 32바이트, v는 1바이트여야 함");
+        }
+        int recId = v[0] & 0xFF;
+        if (recId >= 27) {
+            recId -= 27;
+        }
+        if (recId > 1) {
+            return reject("v는 27, 28 (또는 0, 1)이어야 함: " + (v[0] & 0xFF));
+        }
+        BigInteger rValue = new BigInteger(1, r);
+        BigInteger sValue = new BigInteger(1, s);
+        if (rValue.signum() == 0 || rValue.compareTo(CURVE_ORDER) >= 0
+            || sValue.signum() == 0 || sValue.compareTo(CURVE_ORDER) >= 0) {
+            return reject("r, s는 1 ~ n-1 범위여야 함");
+        }
+        if (rejectHighS && sValue.compareTo(HALF_CURVE_ORDER) > 0) {
+            return reject("s가 n/2보다 큼 (EIP-2)");
+        }
+
+        // 2. 메시지 해시
+        Scratch scratch = SCRATCH.get();
+        KeccakDigest digest = scratch.digest;
+        if (personalSign) {
+            digest.update(PERSONAL_MESSAGE_PREFIX, 0, PERSONAL_MESSAGE_PREFIX.length);
+            int digits = writeDecimal(message.length, scratch.length);
+            digest.update(scratch.length, scratch.length.length - digits, digits);
+        }
+        digest.update(message, 0, message.length);
+        digest.doFinal(scratch.hash, 0);
+
+        // 3. 캐시 조회
+        CacheKey key = null;
+        if (cacheSize > 0) {
+            byte[] keyBytes = new byte[KEY_LENGTH];
+            System.arraycopy(scratch.hash, 0, keyBytes, 0, 32);
+            System.arraycopy(r, 0, keyBytes, 32, 32);
+            System.arraycopy(s, 0, keyBytes, 64, 32);
+            keyBytes[96] = (byte) recId;
+            key = new CacheKey(keyBytes);
+            CacheShard shard = shardOf(key);
+            String address;
+            synchronized (shard) {
+                address = shard.get(key);
+            }
+            if (address != null) {
+                cacheHits.incrementAndGet();
+                return new Verification(address, null, true);
+            }
+        }
+
+        // 4. 공개키 복구 → 주소
+        BigInteger publicKey;
+        try {
+            publicKey = Sign.recoverFromSignature(recId, new ECDSASignature(rValue, sValue), scratch.hash);
+        } catch (IllegalArgumentException e) {
+            // r이 곡선 위 점의 x좌표가 아님
+            publicKey = null;
+        }
+        if (publicKey == null) {
+            recoveryFailures.incrementAndGet();
+            return new Verification(null, "공개키를 복구할 수 없음", false);
+        }
+        byte[] publicKeyBytes = Numeric.toBytesPadded(publicKey, 64);
+        digest.update(publicKeyBytes, 0, 64);
+        digest.doFinal(scratch.hash, 0);
+        String address = Numeric.toHexString(scratch.hash, 12, 20, true);
+
+        if (key != null) {
+            CacheShard shard = shardOf(key);
+            synchronized (shard) {
+                shard.put(key, address);
+            }
+        }
+        return new Verification(address, null, false);
+    }
+
+    private CacheShard shardOf(CacheKey key) {
+        int hash = key.hashCode();
+        return cache[(hash ^ hash >>> 16) & (cache.length - 1)];
+    }
+
+    private Verification reject(String reason) {
+        rejected.incrementAndGet();
+        return new Verification(null, reason, false);
+    }
+
+    /**
+     * value를 10진수 ASCII로 buffer 끝에 맞춰 기록하고 자릿수 반환
+     */
+    private static int writeDecimal(int value, byte[] buffer) {
+        int position = buffer.length;
+        do {
+            buffer[--position] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        return buffer.length - position;
+    }
+
+    public long getVerificationCount() {
+        return verifications.get();
+    }
+
+    /** 형식 오류로 복구 전에 거절한 건수 */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /** 형식은 맞지만 공개키 복구에 실패한 건수 */
+    public long getRecoveryFailureCount() {
+        return recoveryFailures.get();
+    }
+
+    public long getCacheHitCount() {
+        return cacheHits.get();
+    }
+
+    public double getCacheHitRatio() {
+        long total = verifications.get();
+        return total == 0 ? 0 : cacheHits.get() / (double) total;
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public int getCacheSize() {
+        int size = 0;
+        for (CacheShard shard : cache) {
+            synchronized (shard) {
+                size += shard.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * PrivateKeySignGenerate와 같은 키로 personal_sign 서명을 만들어 일괄 검증하는 예시
+     */
+    public static void main(String[] args) throws Exception {
+        String privateKey = System.getenv("PRIVATE_KEY");
+        Credentials credentials = Credentials.create(privateKey);
+        System.out.println("서명자 주소: " + credentials.getAddress());
+
+        List<SignedMessage> messages = IntStream.range(0, 100)
+            .mapToObj(i -> {
+                byte[] message = ("login nonce " + i).getBytes(StandardCharsets.UTF_8);
+                return new SignedMessage(message, Sign.signPrefixedMessage(message, credentials.getEcKeyPair()));
+            })
+            .collect(Collectors.toList());
+        // 형식이 잘못된 서명 (v = 29)
+        SignatureData valid = messages.get(0).getSignature();
+        messages.add(new SignedMessage(messages.get(0).getMessage(),
+            new SignatureData((byte) 29, valid.getR(), valid.getS())));
+
+        BatchSignatureVerifier verifier = new BatchSignatureVerifier();
+        List<Verification> results = verifier.verifyAll(messages);
+        long signedBy = results.stream().filter(result -> result.isSignedBy(credentials.getAddress())).count();
+        System.out.println("검증 " + results.size() + "건 중 서명자 일치 " + signedBy + "건");
+        System.out.println("마지막 결과: " + results.get(results.size() - 1));
+
+        // 같은 서명을 다시 검증하면 캐시에서 반환
+        verifier.verifyAll(messages);
+        System.out.printf("캐시 적중률 %.1f%%, 빠른 거절 %d건%n",
+            verifier.getCacheHitRatio() * 100, verifier.getRejectedCount());
+    }
+}
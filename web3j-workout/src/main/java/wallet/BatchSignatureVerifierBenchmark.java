@@ -0,0 +1,142 @@
+package wallet;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.web3j.crypto.ECKeyPair;
+import org.web3j.crypto.Keys;
+import org.web3j.crypto.Sign;
+import org.web3j.crypto.Sign.SignatureData;
+import org.web3j.utils.Numeric;
+import wallet.BatchSignatureVerifier.SignedMessage;
+import wallet.BatchSignatureVerifier.Verification;
+
+public class BatchSignatureVerifierBenchmark {
+
+    /**
+     * 서명 일괄 검증 벤치마크
+     *
+     * 비교 대상:
+     * - 기존 방식 : PrivateKeySignGenerate처럼 Sign.signedPrefixedMessageToKey + Keys.getAddress를 한 건씩
+     * - 검증기    : BatchSignatureVerifier.verifyAll (캐시 끔), 스레드 1, 2, 4 ... 코어 수까지
+     * - 캐시      : 캐시를 켠 검증기, 스레드 수별로 (1) 새 캐시에 모두 저장 (2) 같은 배치를 다시 검증 (모두 적중)
+     *
+     * 서명 20개 중 1개는 형식 오류(v, r, s)로 만들어 빠른 거절 경로도 포함
+     * 측정 전 모든 결과가 기존 방식과 같은지 확인
+     *
+     * 실행 인자 (선택): [서명 개수] [반복 횟수]
+     */
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        List<SignedMessage> messages = buildMessages(count);
+        System.out.println("=== 서명 검증 벤치마크 (" + count + "건 × " + rounds + "회, 코어 "
+            + Runtime.getRuntime().availableProcessors() + "개) ===");
+
+        // 정확성 확인
+        String[] expected = new String[count];
+        for (int i = 0; i < count; i++) {
+            expected[i] = recoverWithSign(messages.get(i));
+        }
+        List<Verification> check = new BatchSignatureVerifier(0).verifyAll(messages);
+        int mismatches = 0;
+        for (int i = 0; i < count; i++) {
+            if (!String.valueOf(expected[i]).equals(String.valueOf(check.get(i).getAddress()))) {
+                mismatches++;
+            }
+        }
+        System.out.println("결과 불일치 " + mismatches + "건");
+
+        double baseline = measure("기존 방식 (Sign, 단일 스레드)", count, rounds, () -> {
+            for (SignedMessage message : messages) {
+                recoverWithSign(message);
+            }
+        });
+
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < Runtime.getRuntime().availableProcessors(); threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(Runtime.getRuntime().availableProcessors());
+        for (int threads : threadCounts) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            BatchSignatureVerifier verifier = new BatchSignatureVerifier(0).pool(pool);
+            double rate = measure("검증기 (스레드 " + threads + ")", count, rounds, () -> verifier.verifyAll(messages));
+            System.out.printf("  → 기존 대비 %.1f배, 스레드당 %,.0f건/초%n", rate / baseline, rate / threads);
+            pool.shutdown();
+        }
+
+        for (int threads : threadCounts) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            double rate = measure("캐시 저장 (스레드 " + threads + ")", count, rounds,
+                () -> new BatchSignatureVerifier(count).pool(pool).verifyAll(messages));
+            System.out.printf("  → 기존 대비 %.1f배, 스레드당 %,.0f건/초%n", rate / baseline, rate / threads);
+
+            BatchSignatureVerifier cached = new BatchSignatureVerifier(count).pool(pool);
+            cached.verifyAll(messages);
+            rate = measure("캐시 적중 (스레드 " + threads + ")", count, rounds, () -> cached.verifyAll(messages));
+            System.out.printf("  → 기존 대비 %.1f배, 스레드당 %,.0f건/초, 캐시 적중률 %.1f%%%n",
+                rate / baseline, rate / threads, cached.getCacheHitRatio() * 100);
+            pool.shutdown();
+        }
+    }
+
+    private interface Task {
+        void run() throws Exception;
+    }
+
+    private static double measure(String label, int count, int rounds, Task task) throws Exception {
+        // JIT 워밍업
+        task.run();
+        long[] nanos = new long[rounds];
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            task.run();
+            nanos[r] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        double perSecond = count / (nanos[rounds / 2] / 1e9);
+        System.out.printf("%-30s : %,10.0f 검증/초%n", label, perSecond);
+        return perSecond;
+    }
+
+    private static String recoverWithSign(SignedMessage message) {
+        try {
+            BigInteger publicKey = Sign.signedPrefixedMessageToKey(message.getMessage(), message.getSignature());
+            return Numeric.prependHexPrefix(Keys.getAddress(publicKey));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static List<SignedMessage> buildMessages(int count) {
+        ECKeyPair[] keys = new ECKeyPair[16];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ECKeyPair.create(BigInteger.valueOf(0x1000 + i).pow(8));
+        }
+        List<SignedMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] message = ("login nonce " + i + " for session").getBytes(StandardCharsets.UTF_8);
+            SignatureData signature = Sign.signPrefixedMessage(message, keys[i % keys.length]);
+            switch (i % 60) {
+                case 19:
+                    signature = new SignatureData((byte) 31, signature.getR(), signature.getS());
+                    break;
+                case 39:
+                    signature = new SignatureData(signature.getV(), new byte[32], signature.getS());
+                    break;
+                case 59:
+                    signature = new SignatureData(signature.getV(), signature.getR(), new byte[31]);
+                    break;
+                default:
+                    break;
+            }
+            messages.add(new SignedMessage(message, signature));
+        }
+        return messages;
+    }
+}
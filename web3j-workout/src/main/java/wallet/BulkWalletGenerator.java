@@ -0,0 +1,439 @@
+package wallet;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.Keys;
+import org.web3j.crypto.Sign;
+
+/**
+ * 대량 지갑 생성기 (입금 주소 일괄 발급용)
+ *
+ * WalletGenerate 방식(Keys.createEcKeyPair + Credentials.create)을 수십만 번 반복하면:
+ * - 단일 스레드로만 생성
+ * - 공유 SecureRandom / KeyPairGenerator(BouncyCastle provider) 경유
+ * - 결과를 모두 메모리에 모은 뒤 저장하면 개인키가 힙에 오래 남음
+ *
+ * 이 생성기:
+ * 1. 생성 : ForkJoinPool에서 청크를 나누어 병렬 생성, 스레드마다 자기 SecureRandom(DRBG) 사용 (잠금 경합 없음)
+ *           개인키 = 32바이트 난수 (1 ~ n-1), 공개키 = FixedBasePublicKeyDeriver(고정 기저 테이블), 주소 = Keys.getAddress
+ * 2. 직렬화: 각 워커가 "0x주소,0x개인키\n"(110바이트 고정)를 청크 버퍼의 자기 위치에 직접 기록 (문자열 생성 없음)
+ * 3. 암호화: 청크 단위 AES-256-GCM (키 = PBKDF2-HMAC-SHA256(비밀번호, salt)) 후 파일에 추가
+ *            다음 청크 생성과 현재 청크 암호화/쓰기를 겹쳐서 진행, 기록한 평문 버퍼는 0으로 지움
+ *    → 메모리에는 최대 청크 2개만 존재
+ *
+ * 파일 형식:
+ * - 헤더 : "WLT1" + salt(16) + PBKDF2 반복 횟수(int)
+ * - 청크 : 길이(int) + IV(12) + 암호문(GCM 태그 포함)
+ *          AAD = 청크 번호(long) + 마지막 청크 여부(byte) → 순서 바꾸기 / 뒤쪽 잘라내기 감지
+ * - read()로 복호화하여 (주소, 개인키)를 하나씩 넘겨받음
+ */
+public class BulkWalletGenerator {
+
+    public static final int DEFAULT_CHUNK_SIZE = 10_000;
+    public static final int DEFAULT_PBKDF2_ITERATIONS = 310_000;
+    // 읽을 때 헤더 / 청크 길이 검증 범위 (손상된 파일로 수십억 번 PBKDF2를 돌리거나 거대한 배열을 만들지 않도록)
+    public static final int MAX_CHUNK_SIZE = 1_000_000;
+    public static final int MAX_PBKDF2_ITERATIONS = 10_000_000;
+
+    // "0x" + 40 + "," + "0x" + 64 + "\n"
+    static final int LINE_LENGTH = 110;
+    private static final byte[] MAGIC = {'W', 'L', 'T', '1'};
+    private static final int SALT_LENGTH = 16;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+    // 리프 작업당 생성 개수 (fork 비용 대비 충분히 큰 단위)
+    private static final int LEAF_SIZE = 256;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final BigInteger CURVE_ORDER = Sign.CURVE_PARAMS.getN();
+
+    // 워커 스레드마다 독립된 SecureRandom (공유 인스턴스의 동기화 경합 방지)
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(() -> {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    });
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int pbkdf2Iterations = DEFAULT_PBKDF2_ITERATIONS;
+
+    /**
+     * 생성 결과
+     */
+    public static class Report {
+        private final long count;
+        private final int chunks;
+        private final int parallelism;
+        private final long elapsedNanos;
+        private final long workerNanos;
+        private final long writeWaitNanos;
+        private final long fileBytes;
+
+        Report(long count, int chunks, int parallelism, long elapsedNanos, long workerNanos,
+               long writeWaitNanos, long fileBytes) {
+            this.count = count;
+            this.chunks = chunks;
+            this.parallelism = parallelism;
+            this.elapsedNanos = elapsedNanos;
+            this.workerNanos = workerNanos;
+            this.writeWaitNanos = writeWaitNanos;
+            this.fileBytes = fileBytes;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public int getChunks() {
+            return chunks;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public double getElapsedSeconds() {
+            return elapsedNanos / 1e9;
+        }
+
+        /** 초당 생성 개수 (전체) */
+        public double getKeysPerSecond() {
+            return elapsedNanos == 0 ? 0 : count / getElapsedSeconds();
+        }
+
+        /** 코어당 초당 생성 개수 (워커 스레드가 실제로 생성에 쓴 시간 기준) */
+        public double getKeysPerSecondPerCore() {
+            return workerNanos == 0 ? 0 : count / (workerNanos / 1e9);
+        }
+
+        /** 생성이 끝난 청크를 앞 청크의 암호화/쓰기 완료까지 기다린 시간 (크면 디스크/암호화가 병목) */
+        public double getWriteWaitSeconds() {
+            return writeWaitNanos / 1e9;
+        }
+
+        public long getFileBytes() {
+            return fileBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "생성 %,d개 (청크 %d개, 스레드 %d개), %.2f초, %,.0f개/초, 코어당 %,.0f개/초, 쓰기 대기 %.2f초, 파일 %,d bytes",
+                count, chunks, parallelism, getElapsedSeconds(), getKeysPerSecond(), getKeysPerSecondPerCore(),
+                getWriteWaitSeconds(), fileBytes);
+        }
+    }
+
+    public BulkWalletGenerator parallelism(int parallelism) {
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public BulkWalletGenerator chunkSize(int chunkSize) {
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunkSize는 1 ~ " + MAX_CHUNK_SIZE + ": " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    public BulkWalletGenerator pbkdf2Iterations(int pbkdf2Iterations) {
+        if (pbkdf2Iterations < 1 || pbkdf2Iterations > MAX_PBKDF2_ITERATIONS) {
+            throw new IllegalArgumentException("pbkdf2Iterations는 1 ~ " + MAX_PBKDF2_ITERATIONS + ": " + pbkdf2Iterations);
+        }
+        this.pbkdf2Iterations = pbkdf2Iterations;
+        return this;
+    }
+
+    /**
+     * count개의 지갑을 생성하여 output에 암호화 저장 (기존 파일은 덮어씀)
+     */
+    public Report generate(long count, Path output, char[] password) throws IOException, GeneralSecurityException {
+        byte[] salt = new byte[SALT_LENGTH];
+        SecureRandom random = new SecureRandom();
+        random.nextBytes(salt);
+        SecretKey key = deriveKey(password, salt, pbkdf2Iterations);
+        // IV = 임의 4바이트 + 청크 번호 8바이트 (같은 키로 IV가 겹치지 않음)
+        byte[] ivPrefix = new byte[4];
+        random.nextBytes(ivPrefix);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        LongAdder workerNanos = new LongAdder();
+        long writeWaitNanos = 0;
+        int chunks = 0;
+        long start = System.nanoTime();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output)))) {
+            out.write(MAGIC);
+            out.write(salt);
+            out.writeInt(pbkdf2Iterations);
+
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            CompletableFuture<Void> pendingWrite = CompletableFuture.completedFuture(null);
+            try {
+                for (long offset = 0; offset < count; offset += chunkSize) {
+                    int size = (int) Math.min(chunkSize, count - offset);
+                    byte[] plain = new byte[size * LINE_LENGTH];
+                    pool.invoke(new GenerateTask(plain, 0, size, workerNanos));
+
+                    // 앞 청크 쓰기가 끝나야 다음 청크를 쓸 수 있음 (그동안 이 청크 생성이 겹쳐서 진행됨)
+                    long waitStart = System.nanoTime();
+                    pendingWrite.join();
+                    writeWaitNanos += System.nanoTime() - waitStart;
+
+                    long index = chunks++;
+                    boolean last = offset + size >= count;
+                    pendingWrite = CompletableFuture.runAsync(() -> {
+                        try {
+                            writeChunk(out, cipher, key, ivPrefix, index, last, plain);
+                        } catch (IOException | GeneralSecurityException e) {
+                            throw new IllegalStateException("청크 " + index + " 쓰기 실패", e);
+                        } finally {
+                            Arrays.fill(plain, (byte) 0);
+                        }
+                    });
+                }
+                pendingWrite.join();
+                if (count == 0) {
+                    writeChunk(out, cipher, key, ivPrefix, chunks++, true, new byte[0]);
+                }
+                out.flush();
+            } finally {
+                // 예외로 빠져나가도 쓰기 작업이 끝난 뒤에 out을 닫음 (닫힌 스트림에 쓰지 않도록)
+                try {
+                    pendingWrite.join();
+                } catch (CompletionException e) {
+                    // 쓰기 실패는 위에서 이미 던졌거나, 먼저 난 예외가 그대로 전달됨
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Report(count, chunks, parallelism, elapsed, workerNanos.sum(), writeWaitNanos, Files.size(output));
+    }
+
+    private static void writeChunk(DataOutputStream out, Cipher cipher, SecretKey key, byte[] ivPrefix,
+                                   long index, boolean last, byte[] plain)
+        throws IOException, GeneralSecurityException {
+        byte[] iv = ByteBuffer.allocate(IV_LENGTH).put(ivPrefix).putLong(index).array();
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+        cipher.updateAAD(aad(index, last));
+        byte[] encrypted = cipher.doFinal(plain);
+        out.writeInt(encrypted.length);
+        out.write(iv);
+        out.write(encrypted);
+    }
+
+    /**
+     * [from, to) 구간 지갑을 생성하여 buffer의 해당 줄에 기록 (LEAF_SIZE 이하가 될 때까지 분할)
+     */
+    private static final class GenerateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] buffer;
+        private final int from;
+        private final int to;
+        private final LongAdder workerNanos;
+
+        GenerateTask(byte[] buffer, int from, int to, LongAdder workerNanos) {
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.workerNanos = workerNanos;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new GenerateTask(buffer, from, middle, workerNanos),
+                    new GenerateTask(buffer, middle, to, workerNanos));
+                return;
+            }
+            long start = System.nanoTime();
+            SecureRandom random = RANDOM.get();
+            byte[] privateKey = new byte[32];
+            byte[] publicKey = new byte[64];
+            for (int i = from; i < to; i++) {
+                generate(random, privateKey, publicKey, buffer, i * LINE_LENGTH);
+            }
+            Arrays.fill(privateKey, (byte) 0);
+            workerNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private static void generate(SecureRandom random, byte[] privateKey, byte[] publicKey, byte[] buffer, int offset) {
+        BigInteger key;
+        do {
+            random.nextBytes(privateKey);
+            key = new BigInteger(1, privateKey);
+        } while (key.signum() == 0 || key.compareTo(CURVE_ORDER) >= 0);
+
+        FixedBasePublicKeyDeriver.publicKeyFromPrivate(privateKey, publicKey);
+        byte[] address = Keys.getAddress(publicKey);
+
+        buffer[offset] = '0';
+        buffer[offset + 1] = 'x';
+        writeHex(address, buffer, offset + 2);
+        buffer[offset + 42] = ',';
+        buffer[offset + 43] = '0';
+        buffer[offset + 44] = 'x';
+        writeHex(privateKey, buffer, offset + 45);
+        buffer[offset + 109] = '\n';
+    }
+
+    private static void writeHex(byte[] bytes, byte[] buffer, int offset) {
+        for (int i = 0; i < bytes.length; i++) {
+            buffer[offset + 2 * i] = HEX[(bytes[i] >> 4) & 0xF];
+            buffer[offset + 2 * i + 1] = HEX[bytes[i] & 0xF];
+        }
+    }
+
+    /**
+     * generate()로 만든 파일을 복호화하여 (주소, 개인키)를 순서대로 전달, 전체 개수 반환
+     * 비밀번호가 틀리거나 파일이 변조/잘린 경우 GeneralSecurityException / IOException
+     */
+    public static long read(Path input, char[] password, BiConsumer<String, BigInteger> consumer)
+        throws IOException, GeneralSecurityException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(input)))) {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("지갑 파일 형식이 아님: " + input);
+            }
+            byte[] salt = new byte[SALT_LENGTH];
+            in.readFully(salt);
+            int iterations = in.readInt();
+            if (iterations < 1 || iterations > MAX_PBKDF2_ITERATIONS) {
+                throw new IOException("PBKDF2 반복 횟수가 범위를 벗어남 (손상된 파일): " + iterations);
+            }
+            SecretKey key = deriveKey(password, salt, iterations);
+
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            long count = 0;
+            for (long index = 0; ; index++) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    throw new IOException("마지막 청크 없이 파일이 끝남 (잘린 파일): " + input);
+                }
+                // 암호문 = 줄 단위 평문 + GCM 태그
+                int plainLength = length - TAG_BITS / 8;
+                if (plainLength < 0 || plainLength > MAX_CHUNK_SIZE * LINE_LENGTH || plainLength % LINE_LENGTH != 0) {
+                    throw new IOException("청크 " + index + " 길이가 올바르지 않음 (손상된 파일): " + length);
+                }
+                byte[] iv = new byte[IV_LENGTH];
+                in.readFully(iv);
+                byte[] encrypted = new byte[length];
+                in.readFully(encrypted);
+
+                // 마지막 청크인지는 AAD로만 구분 → 일반 청크로 먼저 시도
+                byte[] plain;
+                boolean last = false;
+                cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+                cipher.updateAAD(aad(index, false));
+                try {
+                    plain = cipher.doFinal(encrypted);
+                } catch (GeneralSecurityException e) {
+                    cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+                    cipher.updateAAD(aad(index, true));
+                    plain = cipher.doFinal(encrypted);
+                    last = true;
+                }
+
+                for (int offset = 0; offset < plain.length; offset += LINE_LENGTH) {
+                    String address = new String(plain, offset, 42, StandardCharsets.US_ASCII);
+                    BigInteger privateKey = new BigInteger(
+                        new String(plain, offset + 45, 64, StandardCharsets.US_ASCII), 16);
+                    consumer.accept(address, privateKey);
+                    count++;
+                }
+                Arrays.fill(plain, (byte) 0);
+                if (last) {
+                    return count;
+                }
+            }
+        }
+    }
+
+    private static byte[] aad(long index, boolean last) {
+        return ByteBuffer.allocate(9).putLong(index).put((byte) (last ? 1 : 0)).array();
+    }
+
+    private static SecretKey deriveKey(char[] password, byte[] salt, int iterations) throws GeneralSecurityException {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, 256);
+        try {
+            byte[] key = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+            return new SecretKeySpec(key, "AES");
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    /**
+     * 지갑을 대량 생성하여 암호화 파일로 저장한 뒤, 다시 읽어 개인키 → 주소가 일치하는지 일부 확인
+     *
+     * 실행 인자 (선택): [생성 개수] [출력 파일] [스레드 수]
+     * 비밀번호: 환경 변수 WALLET_FILE_PASSWORD
+     */
+    public static void main(String[] args) throws Exception {
+        long count = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        Path output = Path.of(args.length > 1 ? args[1] : "wallets.enc");
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        String password = System.getenv("WALLET_FILE_PASSWORD");
+        if (password == null || password.isEmpty()) {
+            throw new IllegalStateException("환경 변수 WALLET_FILE_PASSWORD가 필요함");
+        }
+
+        // 비교 기준: WalletGenerate 방식 단일 스레드
+        int baselineCount = 2_000;
+        long baselineStart = System.nanoTime();
+        for (int i = 0; i < baselineCount; i++) {
+            Credentials.create(Keys.createEcKeyPair()).getAddress();
+        }
+        double baselineSeconds = (System.nanoTime() - baselineStart) / 1e9;
+        System.out.printf("WalletGenerate 방식 (단일 스레드) : %,.0f개/초%n", baselineCount / baselineSeconds);
+
+        BulkWalletGenerator generator = new BulkWalletGenerator().parallelism(threads);
+        Report report = generator.generate(count, output, password.toCharArray());
+        System.out.println(report);
+
+        // 앞쪽 1,000개만 개인키 → 주소 재계산하여 확인
+        long[] checked = new long[2];
+        long total = read(output, password.toCharArray(), (address, privateKey) -> {
+            if (checked[0]++ < 1_000 && !Credentials.create(privateKey.toString(16)).getAddress().equals(address)) {
+                checked[1]++;
+            }
+        });
+        System.out.println("파일 " + output + " : " + total + "개, 주소 불일치 " + checked[1] + "건 (앞 1,000개 확인)");
+    }
+}
@@ -0,0 +1,290 @@
+package wallet;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.bouncycastle.crypto.digests.KeccakDigest;
+
+/**
+ * 20바이트 이더리움 주소 값 타입 (불변)
+ *
+ * 지금까지 주소는 문자열로 다룬다:
+ * - Credentials.getAddress() / "0x" + topic.substring(26) → 주소마다 String 2개 (42자 = 약 100바이트)
+ * - 비교할 때 대소문자 때문에 toLowerCase()나 equalsIgnoreCase() 필요
+ * - Keys.toChecksumAddress()는 호출마다 소문자 변환, Keccak 해시, StringBuilder 생성
+ *
+ * 이 타입:
+ * - 주소를 long 2개 + int 1개(8 + 8 + 4바이트)에 저장 → equals / hashCode는 정수 비교 3번, 맵 키로 사용
+ * - parse : 문자를 직접 읽어서 정수에 기록 (중간 문자열 / byte[] 없음), 대소문자 무관
+ * - fromTopic : 32바이트 topic 문자열에서 패딩을 건너뛰고 바로 파싱
+ * - toHexString : 소문자 0x 주소, toChecksumString : EIP-55 체크섬 주소 (처음 한 번만 계산 후 캐시)
+ * - 체크섬 Keccak은 스레드별 KeccakDigest와 버퍼 재사용
+ */
+public final class EthAddress implements Comparable<EthAddress> {
+
+    public static final int LENGTH = 20;
+    public static final EthAddress ZERO = new EthAddress(0, 0, 0);
+
+    // 0x + 24자리 패딩 이후 주소 시작 위치
+    private static final int ADDRESS_OFFSET_IN_TOPIC = 26;
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+    // 문자 → 니블 값 (16진수가 아니면 -1), 분기 없이 조회
+    private static final byte[] HEX_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(HEX_VALUES, (byte) -1);
+        for (int i = 0; i < 16; i++) {
+            HEX_VALUES[HEX_DIGITS[i]] = (byte) i;
+            HEX_VALUES[Character.toUpperCase(HEX_DIGITS[i])] = (byte) i;
+        }
+    }
+
+    private final long high;   // 바이트 0 ~ 7
+    private final long middle; // 바이트 8 ~ 15
+    private final int low;     // 바이트 16 ~ 19
+    private String checksum;   // 불변 String이므로 경쟁 시 중복 계산만 발생
+
+    private static final class Scratch {
+        final KeccakDigest digest = new KeccakDigest(256);
+        final byte[] hash = new byte[32];
+    }
+
+    private EthAddress(long high, long middle, int low) {
+        this.high = high;
+        this.middle = middle;
+        this.low = low;
+    }
+
+    /**
+     * "0x" 접두사 유무, 대소문자와 무관하게 40자리 16진수 주소를 파싱 (체크섬은 검사하지 않음)
+     */
+    public static EthAddress parse(CharSequence hex) {
+        int length = hex.length();
+        int start = length == 42 && hex.charAt(0) == '0' && (hex.charAt(1) == 'x' || hex.charAt(1) == 'X') ? 2 : 0;
+        if (length - start != 40) {
+            throw new IllegalArgumentException("주소는 40자리 16진수여야 함: " + hex);
+        }
+        return parse(hex, start);
+    }
+
+    /**
+     * hex[offset..offset+40)의 16진수 40자리를 파싱
+     */
+    public static EthAddress parse(CharSequence hex, int offset) {
+        return new EthAddress(readLong(hex, offset), readLong(hex, offset + 16), (int) readHex(hex, offset + 32, 8));
+    }
+
+    /**
+     * EIP-55 체크섬까지 검사하는 파싱 (모두 소문자 / 모두 대문자면 체크섬 없는 주소로 허용)
+     */
+    public static EthAddress parseChecksummed(String hex) {
+        EthAddress address = parse(hex);
+        String digits = hex.length() == 42 ? hex.substring(2) : hex;
+        boolean hasLower = false;
+        boolean hasUpper = false;
+        for (int i = 0; i < digits.length(); i++) {
+            char c = digits.charAt(i);
+            hasLower |= c >= 'a' && c <= 'f';
+            hasUpper |= c >= 'A' && c <= 'F';
+        }
+        if (hasLower && hasUpper && !address.toChecksumString().regionMatches(2, digits, 0, 40)) {
+            throw new IllegalArgumentException("EIP-55 체크섬 불일치: " + hex);
+        }
+        return address;
+    }
+
+    /**
+     * ABI 인코딩된 32바이트 topic / 데이터 워드("0x" + 24자리 0 + 40자리 주소)에서 주소 추출
+     */
+    public static EthAddress fromTopic(String topic) {
+        if (topic.length() != 66) {
+            throw new IllegalArgumentException("topic은 0x + 64자리여야 함: " + topic);
+        }
+        return parse(topic, ADDRESS_OFFSET_IN_TOPIC);
+    }
+
+    public static EthAddress fromBytes(byte[] bytes) {
+        if (bytes.length != LENGTH) {
+            throw new IllegalArgumentException("주소는 20바이트여야 함: " + bytes.length);
+        }
+        return fromBytes(bytes, 0);
+    }
+
+    /**
+     * bytes[offset..offset+20)에서 주소 생성
+     */
+    public static EthAddress fromBytes(byte[] bytes, int offset) {
+        return new EthAddress(readLong(bytes, offset), readLong(bytes, offset + 8),
+            (int) readBytes(bytes, offset + 16, 4));
+    }
+
+    /**
+     * dest[offset..offset+20)에 20바이트 주소 기록
+     */
+    public void writeTo(byte[] dest, int offset) {
+        writeBytes(dest, offset, high, 8);
+        writeBytes(dest, offset + 8, middle, 8);
+        writeBytes(dest, offset + 16, low, 4);
+    }
+
+    public byte[] toBytes() {
+        byte[] bytes = new byte[LENGTH];
+        writeTo(bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * 소문자 0x 주소 (Credentials.getAddress()와 같은 형식)
+     */
+    public String toHexString() {
+        byte[] ascii = new byte[42];
+        writeLowerHex(ascii);
+        return new String(ascii, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * EIP-55 체크섬 주소 (Keys.toChecksumAddress()와 같은 결과, 캐시)
+     */
+    public String toChecksumString() {
+        String result = checksum;
+        if (result == null) {
+            result = computeChecksum();
+            checksum = result;
+        }
+        return result;
+    }
+
+    /**
+     * 소문자 0x 주소를 sb에 추가 (String 생성 없이 로그 / CSV 출력용)
+     */
+    public StringBuilder appendHex(StringBuilder sb) {
+        sb.append('0').append('x');
+        appendNibbles(sb, high, 16);
+        appendNibbles(sb, middle, 16);
+        appendNibbles(sb, low, 8);
+        return sb;
+    }
+
+    public boolean isZero() {
+        return high == 0 && middle == 0 && low == 0;
+    }
+
+    private String computeChecksum() {
+        byte[] ascii = new byte[42];
+        writeLowerHex(ascii);
+
+        // keccak256(소문자 16진수 40자리)의 i번째 니블이 8 이상이면 i번째 문자를 대문자로
+        Scratch scratch = SCRATCH.get();
+        scratch.digest.update(ascii, 2, 40);
+        scratch.digest.doFinal(scratch.hash, 0);
+        for (int i = 0; i < 40; i++) {
+            byte c = ascii[i + 2];
+            if (c >= 'a') {
+                int nibble = (scratch.hash[i >> 1] >> ((i & 1) == 0 ? 4 : 0)) & 0x0F;
+                if (nibble >= 8) {
+                    ascii[i + 2] = (byte) (c - 32);
+                }
+            }
+        }
+        return new String(ascii, StandardCharsets.ISO_8859_1);
+    }
+
+    private void writeLowerHex(byte[] ascii) {
+        ascii[0] = '0';
+        ascii[1] = 'x';
+        writeNibbles(ascii, 2, high, 16);
+        writeNibbles(ascii, 18, middle, 16);
+        writeNibbles(ascii, 34, low, 8);
+    }
+
+    private static void writeNibbles(byte[] dest, int offset, long value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            dest[offset + i] = HEX_DIGITS[(int) value & 0x0F];
+            value >>>= 4;
+        }
+    }
+
+    private static void appendNibbles(StringBuilder sb, long value, int digits) {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            sb.append((char) HEX_DIGITS[(int) (value >>> shift) & 0x0F]);
+        }
+    }
+
+    private static long readLong(CharSequence hex, int offset) {
+        return readHex(hex, offset, 16);
+    }
+
+    private static long readHex(CharSequence hex, int offset, int digits) {
+        long value = 0;
+        int invalid = 0;
+        for (int i = offset; i < offset + digits; i++) {
+            char c = hex.charAt(i);
+            // 128 이상 문자는 0x7F로 잘라서 -1(무효)로 조회
+            int nibble = HEX_VALUES[c < 128 ? c : 0x7F];
+            invalid |= nibble;
+            value = (value << 4) | (nibble & 0x0F);
+        }
+        if (invalid < 0) {
+            throw new IllegalArgumentException("invalid hex character in: " + hex);
+        }
+        return value;
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        return readBytes(bytes, offset, 8);
+    }
+
+    private static long readBytes(byte[] bytes, int offset, int length) {
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static void writeBytes(byte[] dest, int offset, long value, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            dest[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EthAddress)) {
+            return false;
+        }
+        EthAddress other = (EthAddress) o;
+        return high == other.high && middle == other.middle && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        // 주소는 Keccak 출력이라 이미 고르게 분포 → 비트를 섞기만 함
+        long mixed = high ^ Long.rotateLeft(middle, 21) ^ low;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    /**
+     * 부호 없는 바이트 순서 비교 (16진수 문자열 정렬과 같은 순서)
+     */
+    @Override
+    public int compareTo(EthAddress other) {
+        int result = Long.compareUnsigned(high, other.high);
+        if (result == 0) {
+            result = Long.compareUnsigned(middle, other.middle);
+        }
+        if (result == 0) {
+            result = Integer.compareUnsigned(low, other.low);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return toChecksumString();
+    }
+}
@@ -0,0 +1,175 @@
+package wallet;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.LongSupplier;
+import org.web3j.crypto.Keys;
+import org.web3j.utils.Numeric;
+
+public class EthAddressBenchmark {
+
+    /**
+     * 주소 처리 벤치마크 (문자열 방식 vs EthAddress)
+     *
+     * 비교 대상:
+     * - 파싱   : "0x" + topic.substring(26)                  vs EthAddress.fromTopic(topic)
+     * - 출력   : Numeric.toHexString(20바이트)               vs EthAddress.toHexString()
+     * - 체크섬 : Keys.toChecksumAddress(주소 문자열)         vs EthAddress.toChecksumString() (첫 계산 / 캐시)
+     * - 맵 조회: HashMap<String, ?> (새로 만든 소문자 문자열) vs HashMap<EthAddress, ?>
+     *
+     * 측정 항목:
+     * - 연산/초 (반복 중 중앙값)
+     * - 연산당 할당 바이트 (com.sun.management.ThreadMXBean 스레드 할당량 기준)
+     *
+     * 실행 인자 (선택): [주소 개수] [반복 횟수]
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Random random = new Random(20);
+        byte[][] bytes = new byte[count][EthAddress.LENGTH];
+        String[] topics = new String[count];
+        String[] lowercase = new String[count];
+        EthAddress[] addresses = new EthAddress[count];
+        for (int i = 0; i < count; i++) {
+            random.nextBytes(bytes[i]);
+            lowercase[i] = Numeric.toHexString(bytes[i]);
+            topics[i] = "0x000000000000000000000000" + lowercase[i].substring(2);
+            addresses[i] = EthAddress.fromBytes(bytes[i]);
+        }
+
+        int mismatches = 0;
+        for (int i = 0; i < count; i++) {
+            EthAddress parsed = EthAddress.fromTopic(topics[i]);
+            if (!parsed.equals(addresses[i])
+                || !parsed.toHexString().equals(lowercase[i])
+                || !parsed.toChecksumString().equals(Keys.toChecksumAddress(lowercase[i]))
+                || !EthAddress.parseChecksummed(parsed.toChecksumString()).equals(parsed)
+                || !Arrays.equals(parsed.toBytes(), bytes[i])) {
+                mismatches++;
+            }
+        }
+        System.out.println("=== 주소 처리 벤치마크 (" + count + "개 × " + rounds + "회) ===");
+        System.out.println("결과 불일치 " + mismatches + "건");
+
+        Map<String, Integer> stringMap = new HashMap<>();
+        Map<EthAddress, Integer> addressMap = new HashMap<>();
+        for (int i = 0; i < count; i += 2) {
+            stringMap.put(lowercase[i], i);
+            addressMap.put(addresses[i], i);
+        }
+
+        LongSupplier parseString = () -> {
+            long checksum = 0;
+            for (String topic : topics) {
+                checksum += ("0x" + topic.substring(26)).length();
+            }
+            return checksum;
+        };
+        LongSupplier parseAddress = () -> {
+            long checksum = 0;
+            for (String topic : topics) {
+                checksum += EthAddress.fromTopic(topic).hashCode();
+            }
+            return checksum;
+        };
+        LongSupplier formatString = () -> {
+            long checksum = 0;
+            for (byte[] address : bytes) {
+                checksum += Numeric.toHexString(address).length();
+            }
+            return checksum;
+        };
+        LongSupplier formatAddress = () -> {
+            long checksum = 0;
+            for (EthAddress address : addresses) {
+                checksum += address.toHexString().length();
+            }
+            return checksum;
+        };
+        LongSupplier checksumString = () -> {
+            long checksum = 0;
+            for (String address : lowercase) {
+                checksum += Keys.toChecksumAddress(address).charAt(2);
+            }
+            return checksum;
+        };
+        LongSupplier checksumFirst = () -> {
+            long checksum = 0;
+            for (byte[] address : bytes) {
+                checksum += EthAddress.fromBytes(address).toChecksumString().charAt(2);
+            }
+            return checksum;
+        };
+        LongSupplier checksumCached = () -> {
+            long checksum = 0;
+            for (EthAddress address : addresses) {
+                checksum += address.toChecksumString().charAt(2);
+            }
+            return checksum;
+        };
+        LongSupplier lookupString = () -> {
+            long hits = 0;
+            for (String topic : topics) {
+                if (stringMap.containsKey("0x" + topic.substring(26))) {
+                    hits++;
+                }
+            }
+            return hits;
+        };
+        LongSupplier lookupAddress = () -> {
+            long hits = 0;
+            for (String topic : topics) {
+                if (addressMap.containsKey(EthAddress.fromTopic(topic))) {
+                    hits++;
+                }
+            }
+            return hits;
+        };
+
+        // JIT 워밍업
+        LongSupplier[] all = {parseString, parseAddress, formatString, formatAddress, checksumString,
+            checksumFirst, checksumCached, lookupString, lookupAddress};
+        for (int i = 0; i < 2; i++) {
+            for (LongSupplier task : all) {
+                task.getAsLong();
+            }
+        }
+
+        double baseline = measure("파싱 substring", count, rounds, parseString);
+        System.out.printf("  → EthAddress %.1f배%n", measure("파싱 EthAddress.fromTopic", count, rounds, parseAddress) / baseline);
+        baseline = measure("출력 Numeric.toHexString", count, rounds, formatString);
+        System.out.printf("  → EthAddress %.1f배%n", measure("출력 EthAddress", count, rounds, formatAddress) / baseline);
+        baseline = measure("체크섬 Keys.toChecksumAddress", count, rounds, checksumString);
+        System.out.printf("  → EthAddress %.1f배%n", measure("체크섬 EthAddress (첫 계산)", count, rounds, checksumFirst) / baseline);
+        System.out.printf("  → EthAddress %.1f배%n", measure("체크섬 EthAddress (캐시)", count, rounds, checksumCached) / baseline);
+        baseline = measure("맵 조회 String 키", count, rounds, lookupString);
+        System.out.printf("  → EthAddress %.1f배%n", measure("맵 조회 EthAddress 키", count, rounds, lookupAddress) / baseline);
+    }
+
+    private static double measure(String label, int count, int rounds, LongSupplier task) {
+        com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long[] nanos = new long[rounds];
+        long blackhole = 0;
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            blackhole += task.getAsLong();
+            nanos[r] = System.nanoTime() - start;
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        Arrays.sort(nanos);
+        double perSecond = count / (nanos[rounds / 2] / 1e9);
+        System.out.printf("%-32s : %,13.0f 연산/초, 연산당 할당 %,7.1f bytes (checksum %d)%n",
+            label, perSecond, allocated / ((double) count * rounds), blackhole);
+        return perSecond;
+    }
+}
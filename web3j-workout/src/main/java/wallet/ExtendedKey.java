@@ -0,0 +1,334 @@
+package wallet;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.bouncycastle.crypto.digests.SHA512Digest;
+import org.bouncycastle.crypto.macs.HMac;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.math.ec.ECPoint;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.ECKeyPair;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.Keys;
+import org.web3j.crypto.Sign;
+import org.web3j.utils.Numeric;
+
+/**
+ * BIP-32 확장 키 (개인키 또는 공개키 + 체인 코드)
+ *
+ * - deriveChild(i) : 개인 확장 키면 CKDpriv, 공개 확장 키(xpub)면 CKDpub (강화 인덱스는 개인 확장 키에서만 가능)
+ * - 공개키 계산은 FixedBasePublicKeyDeriver(고정 기저 테이블), HMAC-SHA512는 스레드별 인스턴스 재사용
+ * - serialize() / parse() : xprv / xpub Base58Check 문자열 (메인넷 버전 바이트)
+ *
+ * web3j의 Bip32ECKeyPair는 개인키 파생만 지원하므로 xpub만으로 주소를 만드는 감시 전용 서비스에는 이 클래스를 사용
+ */
+public final class ExtendedKey {
+
+    public static final int HARDENED_BIT = 0x80000000;
+
+    private static final int XPRV_VERSION = 0x0488ADE4;
+    private static final int XPUB_VERSION = 0x0488B21E;
+    private static final byte[] MASTER_KEY = "Bitcoin seed".getBytes(StandardCharsets.US_ASCII);
+    private static final BigInteger CURVE_ORDER = Sign.CURVE_PARAMS.getN();
+    private static final String BASE58_ALPHABET = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz";
+
+    private static final ThreadLocal<HMac> HMAC_SHA512 = ThreadLocal.withInitial(() -> new HMac(new SHA512Digest()));
+
+    private final byte[] privateKey;   // 32바이트, 공개 확장 키면 null
+    private final byte[] publicKey;    // 64바이트 (x || y)
+    private final byte[] chainCode;    // 32바이트
+    private final int depth;
+    private final int parentFingerprint;
+    private final int childNumber;
+    private volatile String address;
+
+    private ExtendedKey(byte[] privateKey, byte[] publicKey, byte[] chainCode,
+                        int depth, int parentFingerprint, int childNumber) {
+        this.privateKey = privateKey;
+        this.publicKey = publicKey;
+        this.chainCode = chainCode;
+        this.depth = depth;
+        this.parentFingerprint = parentFingerprint;
+        this.childNumber = childNumber;
+    }
+
+    /**
+     * 시드(BIP-39 MnemonicUtils.generateSeed 결과 등) → 마스터 확장 키
+     */
+    public static ExtendedKey fromSeed(byte[] seed) {
+        byte[] i = hmacSha512(MASTER_KEY, seed, seed.length);
+        byte[] key = Arrays.copyOfRange(i, 0, 32);
+        BigInteger k = new BigInteger(1, key);
+        if (k.signum() == 0 || k.compareTo(CURVE_ORDER) >= 0) {
+            throw new IllegalArgumentException("이 시드로는 유효한 마스터 키를 만들 수 없음");
+        }
+        return new ExtendedKey(key, publicKeyOf(key), Arrays.copyOfRange(i, 32, 64), 0, 0, 0);
+    }
+
+    /**
+     * 자식 키 파생 (index에 HARDENED_BIT가 있으면 강화 파생)
+     */
+    public ExtendedKey deriveChild(int index) {
+        boolean hardened = (index & HARDENED_BIT) != 0;
+        byte[] data = new byte[37];
+        if (hardened) {
+            if (privateKey == null) {
+                throw new IllegalArgumentException("공개 확장 키로는 강화 인덱스를 파생할 수 없음: " + pathElement(index));
+            }
+            System.arraycopy(privateKey, 0, data, 1, 32);
+        } else {
+            writeCompressed(publicKey, data, 0);
+        }
+        data[33] = (byte) (index >>> 24);
+        data[34] = (byte) (index >>> 16);
+        data[35] = (byte) (index >>> 8);
+        data[36] = (byte) index;
+
+        byte[] i = hmacSha512(chainCode, data, data.length);
+        byte[] childChainCode = Arrays.copyOfRange(i, 32, 64);
+        byte[] il = Arrays.copyOfRange(i, 0, 32);
+        BigInteger tweak = new BigInteger(1, il);
+        if (tweak.compareTo(CURVE_ORDER) >= 0) {
+            throw invalidChild(index);
+        }
+
+        if (privateKey != null) {
+            // CKDpriv: k_i = IL + k_par (mod n)
+            BigInteger child = tweak.add(new BigInteger(1, privateKey)).mod(CURVE_ORDER);
+            if (child.signum() == 0) {
+                throw invalidChild(index);
+            }
+            byte[] childKey = Numeric.toBytesPadded(child, 32);
+            return new ExtendedKey(childKey, publicKeyOf(childKey), childChainCode,
+                depth + 1, getFingerprint(), index);
+        }
+
+        // CKDpub: K_i = point(IL) + K_par
+        if (tweak.signum() == 0) {
+            throw invalidChild(index);
+        }
+        byte[] tweakPoint = publicKeyOf(il);
+        ECPoint sum = toPoint(tweakPoint).add(toPoint(publicKey)).normalize();
+        if (sum.isInfinity()) {
+            throw invalidChild(index);
+        }
+        byte[] childPublicKey = Arrays.copyOfRange(sum.getEncoded(false), 1, 65);
+        return new ExtendedKey(null, childPublicKey, childChainCode, depth + 1, getFingerprint(), index);
+    }
+
+    /**
+     * 개인키를 뺀 공개 확장 키 (xpub)
+     */
+    public ExtendedKey neuter() {
+        return privateKey == null
+            ? this
+            : new ExtendedKey(null, publicKey, chainCode, depth, parentFingerprint, childNumber);
+    }
+
+    public boolean hasPrivateKey() {
+        return privateKey != null;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getParentFingerprint() {
+        return parentFingerprint;
+    }
+
+    public int getChildNumber() {
+        return childNumber;
+    }
+
+    /**
+     * 이 키의 지문 = HASH160(압축 공개키)의 앞 4바이트
+     */
+    public int getFingerprint() {
+        byte[] compressed = new byte[33];
+        writeCompressed(publicKey, compressed, 0);
+        return ByteBuffer.wrap(Hash.sha256hash160(compressed)).getInt();
+    }
+
+    public BigInteger getPublicKey() {
+        return new BigInteger(1, publicKey);
+    }
+
+    /**
+     * 이더리움 주소 (0x + 소문자 40자리, Credentials.getAddress와 같은 형식)
+     */
+    public String getAddress() {
+        String result = address;
+        if (result == null) {
+            result = Numeric.toHexString(Keys.getAddress(publicKey));
+            address = result;
+        }
+        return result;
+    }
+
+    /**
+     * 서명용 Credentials (개인 확장 키만)
+     */
+    public Credentials toCredentials() {
+        if (privateKey == null) {
+            throw new IllegalStateException("공개 확장 키에는 개인키가 없음");
+        }
+        return Credentials.create(new ECKeyPair(new BigInteger(1, privateKey), getPublicKey()));
+    }
+
+    /**
+     * xprv / xpub Base58Check 문자열
+     */
+    public String serialize() {
+        ByteBuffer buffer = ByteBuffer.allocate(78);
+        buffer.putInt(privateKey != null ? XPRV_VERSION : XPUB_VERSION);
+        buffer.put((byte) depth);
+        buffer.putInt(parentFingerprint);
+        buffer.putInt(childNumber);
+        buffer.put(chainCode);
+        if (privateKey != null) {
+            buffer.put((byte) 0);
+            buffer.put(privateKey);
+        } else {
+            byte[] compressed = new byte[33];
+            writeCompressed(publicKey, compressed, 0);
+            buffer.put(compressed);
+        }
+        return base58Check(buffer.array());
+    }
+
+    /**
+     * xprv / xpub 문자열 → 확장 키
+     */
+    public static ExtendedKey parse(String serialized) {
+        ByteBuffer buffer = ByteBuffer.wrap(decodeBase58Check(serialized));
+        if (buffer.remaining() != 78) {
+            throw new IllegalArgumentException("확장 키 길이가 78바이트가 아님");
+        }
+        int version = buffer.getInt();
+        int depth = buffer.get() & 0xFF;
+        int parentFingerprint = buffer.getInt();
+        int childNumber = buffer.getInt();
+        byte[] chainCode = new byte[32];
+        buffer.get(chainCode);
+        byte[] key = new byte[33];
+        buffer.get(key);
+
+        if (version == XPRV_VERSION) {
+            if (key[0] != 0) {
+                throw new IllegalArgumentException("xprv 키 데이터는 0x00으로 시작해야 함");
+            }
+            byte[] privateKey = Arrays.copyOfRange(key, 1, 33);
+            BigInteger k = new BigInteger(1, privateKey);
+            if (k.signum() == 0 || k.compareTo(CURVE_ORDER) >= 0) {
+                throw new IllegalArgumentException("xprv 개인키 범위 오류");
+            }
+            return new ExtendedKey(privateKey, publicKeyOf(privateKey), chainCode, depth, parentFingerprint, childNumber);
+        }
+        if (version == XPUB_VERSION) {
+            ECPoint point = Sign.CURVE_PARAMS.getCurve().decodePoint(key).normalize();
+            byte[] publicKey = Arrays.copyOfRange(point.getEncoded(false), 1, 65);
+            return new ExtendedKey(null, publicKey, chainCode, depth, parentFingerprint, childNumber);
+        }
+        throw new IllegalArgumentException("지원하지 않는 버전 바이트: " + Integer.toHexString(version));
+    }
+
+    static String pathElement(int index) {
+        return (index & HARDENED_BIT) != 0 ? (index & ~HARDENED_BIT) + "'" : String.valueOf(index);
+    }
+
+    private static IllegalStateException invalidChild(int index) {
+        // 확률 2^-127 미만, BIP-32는 다음 인덱스를 쓰도록 권장
+        return new IllegalStateException("유효하지 않은 자식 키 (다음 인덱스 사용 필요): " + pathElement(index));
+    }
+
+    private static byte[] publicKeyOf(byte[] privateKey) {
+        byte[] publicKey = new byte[64];
+        FixedBasePublicKeyDeriver.publicKeyFromPrivate(privateKey, publicKey);
+        return publicKey;
+    }
+
+    private static ECPoint toPoint(byte[] publicKey) {
+        return Sign.CURVE_PARAMS.getCurve().createPoint(
+            new BigInteger(1, Arrays.copyOfRange(publicKey, 0, 32)),
+            new BigInteger(1, Arrays.copyOfRange(publicKey, 32, 64)));
+    }
+
+    /**
+     * 64바이트 공개키 → 33바이트 압축 공개키 (0x02 / 0x03 + x)
+     */
+    private static void writeCompressed(byte[] publicKey, byte[] out, int offset) {
+        out[offset] = (byte) ((publicKey[63] & 1) == 0 ? 0x02 : 0x03);
+        System.arraycopy(publicKey, 0, out, offset + 1, 32);
+    }
+
+    private static byte[] hmacSha512(byte[] key, byte[] data, int length) {
+        HMac hmac = HMAC_SHA512.get();
+        hmac.init(new KeyParameter(key));
+        hmac.update(data, 0, length);
+        byte[] out = new byte[64];
+        hmac.doFinal(out, 0);
+        return out;
+    }
+
+    private static String base58Check(byte[] payload) {
+        byte[] checksum = Hash.sha256(Hash.sha256(payload));
+        byte[] data = Arrays.copyOf(payload, payload.length + 4);
+        System.arraycopy(checksum, 0, data, payload.length, 4);
+
+        StringBuilder sb = new StringBuilder();
+        BigInteger value = new BigInteger(1, data);
+        BigInteger base = BigInteger.valueOf(58);
+        while (value.signum() > 0) {
+            BigInteger[] qr = value.divideAndRemainder(base);
+            sb.append(BASE58_ALPHABET.charAt(qr[1].intValue()));
+            value = qr[0];
+        }
+        for (int i = 0; i < data.length && data[i] == 0; i++) {
+            sb.append('1');
+        }
+        return sb.reverse().toString();
+    }
+
+    private static byte[] decodeBase58Check(String text) {
+        BigInteger value = BigInteger.ZERO;
+        BigInteger base = BigInteger.valueOf(58);
+        int leadingZeros = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int digit = BASE58_ALPHABET.indexOf(text.charAt(i));
+            if (digit < 0) {
+                throw new IllegalArgumentException("Base58 문자가 아님: " + text.charAt(i));
+            }
+            if (digit == 0 && value.signum() == 0) {
+                leadingZeros++;
+            }
+            value = value.multiply(base).add(BigInteger.valueOf(digit));
+        }
+        byte[] magnitude = value.signum() == 0 ? new byte[0] : value.toByteArray();
+        int start = magnitude.length > 0 && magnitude[0] == 0 ? 1 : 0;
+        byte[] data = new byte[leadingZeros + magnitude.length - start];
+        System.arraycopy(magnitude, start, data, leadingZeros, magnitude.length - start);
+        if (data.length < 4) {
+            throw new IllegalArgumentException("Base58Check 길이 오류");
+        }
+
+        byte[] payload = Arrays.copyOf(data, data.length - 4);
+        byte[] checksum = Hash.sha256(Hash.sha256(payload));
+        for (int i = 0; i < 4; i++) {
+            if (checksum[i] != data[payload.length + i]) {
+                throw new IllegalArgumentException("Base58Check 체크섬 불일치");
+            }
+        }
+        return payload;
+    }
+
+    /**
+     * 로그 출력용 → 개인키가 있어도 xpub만 보여줌 (xprv가 필요하면 serialize())
+     */
+    @Override
+    public String toString() {
+        return neuter().serialize();
+    }
+}
@@ -0,0 +1,270 @@
+package wallet;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.custom.sec.SecP256K1Field;
+import org.bouncycastle.math.raw.Nat256;
+import org.web3j.crypto.Sign;
+import org.web3j.utils.Numeric;
+
+/**
+ * 고정 기저(G) 윈도우 테이블을 이용한 공개키 계산
+ *
+ * PublicKeyExtract의 Sign.publicKeyFromPrivate는 호출마다
+ * - BouncyCastle FixedPointCombMultiplier로 스칼라 곱 (콤 폭이 작아 점 2배 + 덧셈이 수십 번)
+ * - 연산마다 ECPoint / ECFieldElement 객체 생성
+ *
+ * 이 클래스:
+ * - 테이블: 8비트 윈도우 32개 × (1 ~ 255)·256^i·G 를 아핀 좌표로 미리 계산 (약 510KB)
+ *   처음 사용할 때 한 번 만들어 모든 스레드가 공유 (클래스 지연 초기화)
+ * - 계산: 개인키 32바이트의 각 바이트 b_i에 대해 테이블[i][b_i]를 더하기만 함
+ *   → 점 2배 연산 없이 최대 32번의 혼합 덧셈(Jacobian + 아핀) + 마지막 역원 1번
+ * - 점 연산: SecP256K1Field의 int[8] 제자리 연산 + 스레드별 임시 배열 재사용 (계산 중 객체 생성 없음)
+ *
+ * 결과는 Sign.publicKeyFromPrivate와 동일 (main에서 임의의 키와 경계값으로 비교 확인)
+ * 부분합과 테이블 값이 같은 점이 되는 경우(유효한 키에서는 생기지 않음)는 Sign.publicKeyFromPrivate로 처리
+ *
+ * 주의: 테이블 조회 위치가 개인키 바이트에 따라 달라지므로 상수 시간 구현이 아님
+ *       (대량 발급처럼 자기 프로세스 안에서 키를 만드는 용도, 원격에서 시간 측정이 가능한 서명 경로에는 쓰지 않음)
+ */
+public final class FixedBasePublicKeyDeriver {
+
+    private static final int WINDOWS = 32;
+    private static final int ENTRIES = 255;
+    private static final BigInteger CURVE_ORDER = Sign.CURVE_PARAMS.getN();
+    private static final int[] ONE = Nat256.fromBigInteger(BigInteger.ONE);
+
+    private FixedBasePublicKeyDeriver() {
+    }
+
+    /**
+     * (b + 1)·256^i·G의 아핀 좌표, 점마다 x(8) + y(8) int를 이어서 저장
+     */
+    private static final class Table {
+        static final int[] POINTS = build();
+
+        private static int[] build() {
+            ECCurve curve = Sign.CURVE_PARAMS.getCurve();
+            ECPoint[] points = new ECPoint[WINDOWS * ENTRIES];
+            ECPoint base = Sign.CURVE_PARAMS.getG();
+            for (int window = 0; window < WINDOWS; window++) {
+                ECPoint point = base;
+                for (int b = 0; b < ENTRIES; b++) {
+                    points[window * ENTRIES + b] = point;
+                    point = point.add(base);
+                }
+                base = base.timesPow2(8);
+            }
+            // 역원 한 번으로 모든 점을 아핀 좌표로 변환
+            curve.normalizeAll(points);
+
+            int[] table = new int[WINDOWS * ENTRIES * 16];
+            for (int i = 0; i < points.length; i++) {
+                System.arraycopy(Nat256.fromBigInteger(points[i].getAffineXCoord().toBigInteger()), 0, table, i * 16, 8);
+                System.arraycopy(Nat256.fromBigInteger(points[i].getAffineYCoord().toBigInteger()), 0, table, i * 16 + 8, 8);
+            }
+            return table;
+        }
+    }
+
+    /**
+     * 스레드별 임시 배열 (Jacobian 누적점, 테이블 점, 중간값, 곱셈용 확장 배열)
+     */
+    private static final class Scratch {
+        final int[] x1 = Nat256.create();
+        final int[] y1 = Nat256.create();
+        final int[] z1 = Nat256.create();
+        final int[] x2 = Nat256.create();
+        final int[] y2 = Nat256.create();
+        final int[] z1z1 = Nat256.create();
+        final int[] u2 = Nat256.create();
+        final int[] s2 = Nat256.create();
+        final int[] h = Nat256.create();
+        final int[] r = Nat256.create();
+        final int[] hh = Nat256.create();
+        final int[] hhh = Nat256.create();
+        final int[] v = Nat256.create();
+        final int[] t = Nat256.create();
+        final int[] ext = Nat256.createExt();
+        final byte[] scalar = new byte[32];
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * 테이블을 미리 만들어 둠 (첫 호출 지연을 없애고 싶을 때)
+     */
+    public static void warmUp() {
+        if (Table.POINTS.length == 0) {
+            throw new IllegalStateException("테이블 생성 실패");
+        }
+    }
+
+    /**
+     * 개인키 → 공개키 (Sign.publicKeyFromPrivate와 같은 64바이트 x || y 값)
+     */
+    public static BigInteger publicKeyFromPrivate(BigInteger privateKey) {
+        if (privateKey.signum() < 0 || privateKey.compareTo(CURVE_ORDER) >= 0) {
+            privateKey = privateKey.mod(CURVE_ORDER);
+        }
+        byte[] publicKey = new byte[64];
+        Scratch scratch = SCRATCH.get();
+        writeScalar(privateKey, scratch.scalar);
+        if (!derive(scratch.scalar, publicKey, scratch)) {
+            return Sign.publicKeyFromPrivate(privateKey);
+        }
+        return new BigInteger(1, publicKey);
+    }
+
+    /**
+     * 32바이트 개인키(빅엔디언, 1 ~ n-1) → 64바이트 공개키(x || y)를 out에 기록 (객체 생성 없음)
+     * 개인키가 0이면 false (무한원점)
+     */
+    public static boolean publicKeyFromPrivate(byte[] privateKey, byte[] out) {
+        if (privateKey.length != 32 || out.length < 64) {
+            throw new IllegalArgumentException("개인키는 32바이트, 출력 버퍼는 64바이트 이상이어야 함: "
+                + privateKey.length + " / " + out.length);
+        }
+        Scratch scratch = SCRATCH.get();
+        if (derive(privateKey, out, scratch)) {
+            return true;
+        }
+        BigInteger key = new BigInteger(1, privateKey);
+        if (key.mod(CURVE_ORDER).signum() == 0) {
+            return false;
+        }
+        System.arraycopy(Numeric.toBytesPadded(Sign.publicKeyFromPrivate(key), 64), 0, out, 0, 64);
+        return true;
+    }
+
+    private static void writeScalar(BigInteger value, byte[] out) {
+        byte[] bytes = value.toByteArray();
+        int length = Math.min(bytes.length, 32);
+        Arrays.fill(out, 0, 32 - length, (byte) 0);
+        System.arraycopy(bytes, bytes.length - length, out, 32 - length, length);
+    }
+
+    /**
+     * 테이블 덧셈으로 공개키 계산, 특수한 경우(무한원점, 같은 점 덧셈)면 false
+     */
+    private static boolean derive(byte[] scalar, byte[] out, Scratch s) {
+        int[] table = Table.POINTS;
+        boolean empty = true;
+        for (int window = 0; window < WINDOWS; window++) {
+            int b = scalar[31 - window] & 0xFF;
+            if (b == 0) {
+                continue;
+            }
+            int offset = (window * ENTRIES + b - 1) * 16;
+            if (empty) {
+                Nat256.copy(table, offset, s.x1, 0);
+                Nat256.copy(table, offset + 8, s.y1, 0);
+                Nat256.copy(ONE, s.z1);
+                empty = false;
+            } else {
+                Nat256.copy(table, offset, s.x2, 0);
+                Nat256.copy(table, offset + 8, s.y2, 0);
+                if (!addMixed(s)) {
+                    return false;
+                }
+            }
+        }
+        if (empty) {
+            return false;
+        }
+
+        // Jacobian → 아핀: x = X / Z^2, y = Y / Z^3
+        SecP256K1Field.inv(s.z1, s.t);
+        SecP256K1Field.square(s.t, s.hh, s.ext);
+        SecP256K1Field.multiply(s.x1, s.hh, s.u2, s.ext);
+        SecP256K1Field.multiply(s.hh, s.t, s.hhh, s.ext);
+        SecP256K1Field.multiply(s.y1, s.hhh, s.s2, s.ext);
+        writeBigEndian(s.u2, out, 0);
+        writeBigEndian(s.s2, out, 32);
+        return true;
+    }
+
+    /**
+     * (x1, y1, z1) += (x2, y2) : Jacobian + 아핀 혼합 덧셈 (a = 0, 곱셈 8번 + 제곱 3번)
+     * 두 점의 x가 같으면(같은 점 또는 서로 역원) false
+     */
+    private static boolean addMixed(Scratch s) {
+        int[] ext = s.ext;
+        SecP256K1Field.square(s.z1, s.z1z1, ext);                // Z1Z1 = Z1^2
+        SecP256K1Field.multiply(s.x2, s.z1z1, s.u2, ext);        // U2 = X2·Z1Z1
+        SecP256K1Field.multiply(s.y2, s.z1, s.s2, ext);
+        SecP256K1Field.multiply(s.s2, s.z1z1, s.s2, ext);        // S2 = Y2·Z1·Z1Z1
+        SecP256K1Field.subtract(s.u2, s.x1, s.h);                // H = U2 - X1
+        SecP256K1Field.subtract(s.s2, s.y1, s.r);                // R = S2 - Y1
+        if (Nat256.isZero(s.h)) {
+            return false;
+        }
+        SecP256K1Field.square(s.h, s.hh, ext);                   // HH = H^2
+        SecP256K1Field.multiply(s.h, s.hh, s.hhh, ext);          // HHH = H·HH
+        SecP256K1Field.multiply(s.x1, s.hh, s.v, ext);           // V = X1·HH
+
+        SecP256K1Field.square(s.r, s.t, ext);
+        SecP256K1Field.subtract(s.t, s.hhh, s.t);
+        SecP256K1Field.subtract(s.t, s.v, s.t);
+        SecP256K1Field.subtract(s.t, s.v, s.x1);                 // X3 = R^2 - HHH - 2V
+
+        SecP256K1Field.multiply(s.y1, s.hhh, s.y1, ext);         // Y1·HHH
+        SecP256K1Field.subtract(s.v, s.x1, s.t);
+        SecP256K1Field.multiply(s.r, s.t, s.t, ext);
+        SecP256K1Field.subtract(s.t, s.y1, s.y1);                // Y3 = R·(V - X3) - Y1·HHH
+
+        SecP256K1Field.multiply(s.z1, s.h, s.z1, ext);           // Z3 = Z1·H
+        return true;
+    }
+
+    /**
+     * int[8] (리틀엔디언 32비트 단위) → 32바이트 빅엔디언
+     */
+    private static void writeBigEndian(int[] value, byte[] out, int offset) {
+        for (int i = 0; i < 8; i++) {
+            int word = value[7 - i];
+            out[offset + 4 * i] = (byte) (word >>> 24);
+            out[offset + 4 * i + 1] = (byte) (word >>> 16);
+            out[offset + 4 * i + 2] = (byte) (word >>> 8);
+            out[offset + 4 * i + 3] = (byte) word;
+        }
+    }
+
+    /**
+     * PublicKeyExtract와 같은 키로 공개키를 계산하고 Sign.publicKeyFromPrivate와 비교
+     * 이어서 임의의 키와 경계값 키에 대해 결과가 모두 같은지 확인
+     */
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        warmUp();
+        System.out.printf("테이블 생성 %.1fms%n", (System.nanoTime() - start) / 1e6);
+
+        String privateKey = System.getenv("PRIVATE_KEY");
+        if (privateKey != null) {
+            BigInteger key = Numeric.toBigInt(privateKey);
+            String expected = Numeric.toHexStringWithPrefix(Sign.publicKeyFromPrivate(key));
+            String derived = Numeric.toHexStringWithPrefix(publicKeyFromPrivate(key));
+            System.out.println("Public Key: " + derived + (derived.equals(expected) ? " (일치)" : " (불일치)"));
+        }
+
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        Random random = new Random(7);
+        int mismatches = 0;
+        BigInteger[] edges = {
+            BigInteger.ONE, BigInteger.TWO, BigInteger.valueOf(255), BigInteger.valueOf(256),
+            CURVE_ORDER.subtract(BigInteger.ONE), CURVE_ORDER.subtract(BigInteger.TWO),
+            BigInteger.ONE.shiftLeft(248), BigInteger.valueOf(255).shiftLeft(248),
+            CURVE_ORDER.shiftRight(1), CURVE_ORDER.add(BigInteger.valueOf(5))
+        };
+        for (int i = 0; i < count + edges.length; i++) {
+            BigInteger key = i < edges.length ? edges[i] : new BigInteger(256, random).mod(CURVE_ORDER);
+            if (key.signum() != 0 && !publicKeyFromPrivate(key).equals(Sign.publicKeyFromPrivate(key))) {
+                mismatches++;
+            }
+        }
+        System.out.println("Sign.publicKeyFromPrivate 비교 " + (count + edges.length) + "건, 불일치 " + mismatches + "건");
+    }
+}
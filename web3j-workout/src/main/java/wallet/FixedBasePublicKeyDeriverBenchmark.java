@@ -0,0 +1,116 @@
+package wallet;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.LongSupplier;
+import org.web3j.crypto.Sign;
+import org.web3j.utils.Numeric;
+
+public class FixedBasePublicKeyDeriverBenchmark {
+
+    /**
+     * 공개키 계산 벤치마크
+     *
+     * 비교 대상:
+     * - Sign.publicKeyFromPrivate (BigInteger → BigInteger)
+     * - FixedBasePublicKeyDeriver.publicKeyFromPrivate (BigInteger → BigInteger, 같은 형태)
+     * - FixedBasePublicKeyDeriver.publicKeyFromPrivate (byte[32] → byte[64], 재사용 버퍼)
+     *
+     * 측정 항목:
+     * - 계산/초 (반복 중 중앙값)
+     * - 계산당 할당 바이트 (com.sun.management.ThreadMXBean 스레드 할당량 기준)
+     *
+     * 실행 인자 (선택): [키 개수] [반복 횟수]
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Random random = new Random(11);
+        BigInteger[] keys = new BigInteger[count];
+        byte[][] keyBytes = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            do {
+                keys[i] = new BigInteger(256, random);
+            } while (keys[i].signum() == 0 || keys[i].compareTo(Sign.CURVE_PARAMS.getN()) >= 0);
+            keyBytes[i] = Numeric.toBytesPadded(keys[i], 32);
+        }
+
+        long start = System.nanoTime();
+        FixedBasePublicKeyDeriver.warmUp();
+        System.out.println("=== 공개키 계산 벤치마크 (" + count + "건 × " + rounds + "회) ===");
+        System.out.printf("테이블 생성 %.1fms%n", (System.nanoTime() - start) / 1e6);
+
+        int mismatches = 0;
+        byte[] out = new byte[64];
+        for (int i = 0; i < count; i++) {
+            BigInteger expected = Sign.publicKeyFromPrivate(keys[i]);
+            FixedBasePublicKeyDeriver.publicKeyFromPrivate(keyBytes[i], out);
+            if (!expected.equals(FixedBasePublicKeyDeriver.publicKeyFromPrivate(keys[i]))
+                || !expected.equals(new BigInteger(1, out))) {
+                mismatches++;
+            }
+        }
+        System.out.println("결과 불일치 " + mismatches + "건");
+
+        LongSupplier sign = () -> {
+            long checksum = 0;
+            for (BigInteger key : keys) {
+                checksum += Sign.publicKeyFromPrivate(key).intValue();
+            }
+            return checksum;
+        };
+        LongSupplier table = () -> {
+            long checksum = 0;
+            for (BigInteger key : keys) {
+                checksum += FixedBasePublicKeyDeriver.publicKeyFromPrivate(key).intValue();
+            }
+            return checksum;
+        };
+        LongSupplier tableBytes = () -> {
+            long checksum = 0;
+            for (byte[] key : keyBytes) {
+                FixedBasePublicKeyDeriver.publicKeyFromPrivate(key, out);
+                checksum += out[63];
+            }
+            return checksum;
+        };
+
+        // JIT 워밍업
+        for (int i = 0; i < 2; i++) {
+            sign.getAsLong();
+            table.getAsLong();
+            tableBytes.getAsLong();
+        }
+
+        double baseline = measure("Sign.publicKeyFromPrivate", count, rounds, sign);
+        double derived = measure("테이블 (BigInteger)", count, rounds, table);
+        System.out.printf("  → %.1f배%n", derived / baseline);
+        double derivedBytes = measure("테이블 (byte[] 재사용)", count, rounds, tableBytes);
+        System.out.printf("  → %.1f배%n", derivedBytes / baseline);
+    }
+
+    private static double measure(String label, int count, int rounds, LongSupplier task) {
+        com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long[] nanos = new long[rounds];
+        long blackhole = 0;
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            blackhole += task.getAsLong();
+            nanos[r] = System.nanoTime() - start;
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        Arrays.sort(nanos);
+        double perSecond = count / (nanos[rounds / 2] / 1e9);
+        System.out.printf("%-28s : %,10.0f 계산/초, 계산당 할당 %,8.1f bytes (checksum %d)%n",
+            label, perSecond, allocated / ((double) count * rounds), blackhole);
+        return perSecond;
+    }
+}
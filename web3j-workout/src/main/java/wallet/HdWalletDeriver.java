@@ -0,0 +1,248 @@
+package wallet;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.web3j.crypto.MnemonicUtils;
+
+/**
+ * BIP-32 / BIP-44 HD 주소 파생 엔진
+ *
+ * WalletGenerate는 매번 서로 무관한 임의 키를 만든다. 입금 주소를 시드 하나에서 결정적으로 만들려면
+ * m/44'/60'/0'/0/i 경로로 파생하는데, Bip32ECKeyPair.deriveKeyPair(master, path)로 i마다 전체 경로를 따라가면:
+ * - 주소 1개당 5단계 파생 (HMAC-SHA512 + 공개키 계산 5번), 앞 4단계는 모든 i에서 같은 결과
+ *
+ * 이 엔진:
+ * 1. 경로 접두사 캐시 : 중간 노드(m/44', m/44'/60', ... m/44'/60'/0'/0)를 LRU 캐시에 보관
+ *                     → 주소 i는 캐시된 부모에서 자식 키 1단계만 계산
+ * 2. 빠른 단계       : 공개키는 FixedBasePublicKeyDeriver 테이블로 계산 (ExtendedKey)
+ * 3. 범위 병렬 파생  : deriveAddresses(부모 경로, 시작, 개수)는 ForkJoinPool에서 인덱스별로 병렬 처리
+ * 4. 감시 전용       : 루트를 xpub(ExtendedKey.parse)로 만들면 개인키 없이 비강화 경로의 주소만 파생
+ *                     (예: m/44'/60'/0'의 xpub → "m/0"에서 입금 주소 범위 파생)
+ *
+ * 경로 문자열은 루트 기준: "m/44'/60'/0'/0/5" ("'" 또는 "h" / "H"는 강화 인덱스)
+ */
+public class HdWalletDeriver {
+
+    public static final String ETHEREUM_EXTERNAL_CHAIN = "m/44'/60'/0'/0";
+    public static final int DEFAULT_PREFIX_CACHE_SIZE = 1_024;
+
+    private final ExtendedKey root;
+    private final int prefixCacheSize;
+    private final LinkedHashMap<String, ExtendedKey> prefixCache;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    // 통계
+    private final AtomicLong derivationSteps = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public HdWalletDeriver(ExtendedKey root) {
+        this(root, DEFAULT_PREFIX_CACHE_SIZE);
+    }
+
+    /**
+     * @param prefixCacheSize 캐시할 중간 노드 수 (0이면 캐시 없이 매번 전체 경로 파생)
+     */
+    public HdWalletDeriver(ExtendedKey root, int prefixCacheSize) {
+        this.root = root;
+        this.prefixCacheSize = prefixCacheSize;
+        this.prefixCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ExtendedKey> eldest) {
+                if (size() > HdWalletDeriver.this.prefixCacheSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * BIP-39 니모닉 → 마스터 키 기준 엔진
+     */
+    public static HdWalletDeriver fromMnemonic(String mnemonic, String passphrase) {
+        return new HdWalletDeriver(ExtendedKey.fromSeed(MnemonicUtils.generateSeed(mnemonic, passphrase)));
+    }
+
+    public HdWalletDeriver pool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    public ExtendedKey getRoot() {
+        return root;
+    }
+
+    /**
+     * "m/44'/60'/0'/0/5" → {44 | HARDENED_BIT, 60 | HARDENED_BIT, 0 | HARDENED_BIT, 0, 5}
+     */
+    public static int[] parsePath(String path) {
+        String[] parts = path.trim().split("/");
+        if (!"m".equals(parts[0])) {
+            throw new IllegalArgumentException("경로는 m으로 시작해야 함: " + path);
+        }
+        int[] indexes = new int[parts.length - 1];
+        for (int i = 1; i < parts.length; i++) {
+            String part = parts[i];
+            boolean hardened = part.endsWith("'") || part.endsWith("h") || part.endsWith("H");
+            int index = Integer.parseInt(hardened ? part.substring(0, part.length() - 1) : part);
+            if (index < 0) {
+                throw new IllegalArgumentException("인덱스는 0 ~ 2^31-1: " + path);
+            }
+            indexes[i - 1] = hardened ? index | ExtendedKey.HARDENED_BIT : index;
+        }
+        return indexes;
+    }
+
+    public ExtendedKey derive(String path) {
+        return derive(parsePath(path));
+    }
+
+    /**
+     * 루트 기준 경로의 확장 키 (부모 노드까지는 캐시 사용, 마지막 1단계만 계산)
+     */
+    public ExtendedKey derive(int[] path) {
+        if (path.length == 0) {
+            return root;
+        }
+        ExtendedKey parent = node(path, path.length - 1);
+        derivationSteps.incrementAndGet();
+        return parent.deriveChild(path[path.length - 1]);
+    }
+
+    /**
+     * 경로 앞 length개까지의 중간 노드 (캐시에 없으면 부모에서 한 단계 파생 후 캐시)
+     */
+    private ExtendedKey node(int[] path, int length) {
+        if (length == 0) {
+            return root;
+        }
+        String key = prefixKey(path, length);
+        synchronized (prefixCache) {
+            ExtendedKey cached = prefixCache.get(key);
+            if (cached != null) {
+                cacheHits.incrementAndGet();
+                return cached;
+            }
+        }
+        cacheMisses.incrementAndGet();
+        ExtendedKey node = node(path, length - 1).deriveChild(path[length - 1]);
+        derivationSteps.incrementAndGet();
+        if (prefixCacheSize > 0) {
+            synchronized (prefixCache) {
+                prefixCache.put(key, node);
+            }
+        }
+        return node;
+    }
+
+    private static String prefixKey(int[] path, int length) {
+        StringBuilder sb = new StringBuilder("m");
+        for (int i = 0; i < length; i++) {
+            sb.append('/').append(ExtendedKey.pathElement(path[i]));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * parentPath/fromIndex ~ parentPath/(fromIndex + count - 1) 주소를 병렬 파생 (인덱스 순서)
+     */
+    public List<String> deriveAddresses(String parentPath, int fromIndex, int count) throws InterruptedException {
+        return deriveKeys(parentPath, fromIndex, count).stream()
+            .map(ExtendedKey::getAddress)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * parentPath/fromIndex ~ parentPath/(fromIndex + count - 1) 확장 키를 병렬 파생 (인덱스 순서)
+     * 비강화 인덱스(0 ~ 2^31 - 1) 범위만 허용 (넘어가면 int 오버플로로 강화 인덱스가 섞임)
+     */
+    public List<ExtendedKey> deriveKeys(String parentPath, int fromIndex, int count) throws InterruptedException {
+        if (fromIndex < 0 || count < 0 || (long) fromIndex + count > 0x80000000L) {
+            throw new IllegalArgumentException("비강화 인덱스 범위를 벗어남: fromIndex=" + fromIndex + ", count=" + count);
+        }
+        int[] parent = parsePath(parentPath);
+        int[] parentWithChild = new int[parent.length + 1];
+        System.arraycopy(parent, 0, parentWithChild, 0, parent.length);
+        // 병렬 작업 전에 부모 노드를 한 번 만들어 캐시 (모든 작업이 같은 부모를 재사용)
+        ExtendedKey parentKey = node(parentWithChild, parent.length);
+        try {
+            return pool.submit(() -> IntStream.range(0, count)
+                .parallel()
+                .mapToObj(i -> {
+                    derivationSteps.incrementAndGet();
+                    ExtendedKey child = parentKey.deriveChild(fromIndex + i);
+                    child.getAddress();
+                    return child;
+                })
+                .collect(Collectors.toList())).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("주소 범위 파생 실패", e.getCause());
+        }
+    }
+
+    /**
+     * 캐시 없이 루트에서 전체 경로를 따라 파생 (비교용)
+     */
+    public ExtendedKey deriveFullPath(int[] path) {
+        ExtendedKey key = root;
+        for (int index : path) {
+            key = key.deriveChild(index);
+            derivationSteps.incrementAndGet();
+        }
+        return key;
+    }
+
+    public long getDerivationSteps() {
+        return derivationSteps.get();
+    }
+
+    public long getCacheHitCount() {
+        return cacheHits.get();
+    }
+
+    public long getCacheMissCount() {
+        return cacheMisses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * 니모닉에서 입금 주소를 파생하고, 같은 주소를 계정 xpub만으로 다시 파생하여 비교하는 예시
+     * 니모닉: 환경 변수 MNEMONIC (없으면 BIP-39 테스트 니모닉)
+     */
+    public static void main(String[] args) throws Exception {
+        String mnemonic = System.getenv("MNEMONIC");
+        if (mnemonic == null || mnemonic.isEmpty()) {
+            // 테스트용 니모닉 → m/44'/60'/0'/0/0 = 0x9858effd232b4033e47d90003d41ec34ecaeda94
+            mnemonic = "abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon about";
+        }
+        HdWalletDeriver deriver = fromMnemonic(mnemonic, "");
+        List<String> addresses = deriver.deriveAddresses(ETHEREUM_EXTERNAL_CHAIN, 0, 5);
+        for (int i = 0; i < addresses.size(); i++) {
+            System.out.println(ETHEREUM_EXTERNAL_CHAIN + "/" + i + " : " + addresses.get(i));
+        }
+
+        // 감시 전용: 계정 xpub만 서비스에 배포
+        String accountXpub = deriver.derive("m/44'/60'/0'").neuter().serialize();
+        System.out.println("\n계정 xpub: " + accountXpub);
+        HdWalletDeriver watchOnly = new HdWalletDeriver(ExtendedKey.parse(accountXpub));
+        List<String> watched = watchOnly.deriveAddresses("m/0", 0, 5);
+        System.out.println("xpub으로 파생한 주소 일치: " + watched.equals(addresses));
+
+        List<String> more = new ArrayList<>(deriver.deriveAddresses(ETHEREUM_EXTERNAL_CHAIN, 5, 1_000));
+        System.out.println("추가 1,000개 파생: 파생 단계 " + deriver.getDerivationSteps() + "회, 캐시 적중 "
+            + deriver.getCacheHitCount() + "회, 마지막 " + more.get(more.size() - 1));
+    }
+}
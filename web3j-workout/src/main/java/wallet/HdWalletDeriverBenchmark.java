@@ -0,0 +1,140 @@
+package wallet;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import org.web3j.crypto.Bip32ECKeyPair;
+import org.web3j.crypto.Keys;
+import org.web3j.crypto.MnemonicUtils;
+import org.web3j.utils.Numeric;
+
+public class HdWalletDeriverBenchmark {
+
+    private static final String MNEMONIC =
+        "abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon about";
+
+    /**
+     * HD 주소 파생 벤치마크 (m/44'/60'/0'/0/i, i = 0 ~ 개수-1)
+     *
+     * 비교 대상:
+     * - Bip32ECKeyPair.deriveKeyPair(master, 전체 경로) + Keys.getAddress (주소마다 5단계)
+     * - HdWalletDeriver 캐시 없음 (전체 경로 5단계, 단계는 ExtendedKey)
+     * - HdWalletDeriver 접두사 캐시 (주소마다 1단계)
+     * - HdWalletDeriver.deriveAddresses (접두사 캐시 + ForkJoinPool 병렬)
+     * - xpub 감시 전용 (m/44'/60'/0'의 xpub에서 m/0/i, CKDpub)
+     *
+     * 측정 항목:
+     * - 주소/초 (반복 중 중앙값)
+     * - 주소당 할당 바이트 (측정 스레드 기준, 병렬 항목은 작업 스레드 할당이 빠지므로 생략)
+     *
+     * 실행 인자 (선택): [주소 개수] [반복 횟수] [병렬 스레드 수]
+     */
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        byte[] seed = MnemonicUtils.generateSeed(MNEMONIC, "");
+        Bip32ECKeyPair master = Bip32ECKeyPair.generateKeyPair(seed);
+        ExtendedKey root = ExtendedKey.fromSeed(seed);
+        String accountXpub = new HdWalletDeriver(root).derive("m/44'/60'/0'").neuter().serialize();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        FixedBasePublicKeyDeriver.warmUp();
+
+        System.out.println("=== HD 주소 파생 벤치마크 (" + count + "개 × " + rounds + "회, 병렬 " + threads + "스레드) ===");
+
+        Callable<List<String>> naive = () -> {
+            List<String> addresses = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int[] path = {44 | Bip32ECKeyPair.HARDENED_BIT, 60 | Bip32ECKeyPair.HARDENED_BIT,
+                    Bip32ECKeyPair.HARDENED_BIT, 0, i};
+                addresses.add(Numeric.prependHexPrefix(Keys.getAddress(Bip32ECKeyPair.deriveKeyPair(master, path))));
+            }
+            return addresses;
+        };
+        Callable<List<String>> uncached = () -> {
+            HdWalletDeriver deriver = new HdWalletDeriver(root, 0);
+            int[] path = HdWalletDeriver.parsePath(HdWalletDeriver.ETHEREUM_EXTERNAL_CHAIN + "/0");
+            List<String> addresses = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                path[4] = i;
+                addresses.add(deriver.derive(path).getAddress());
+            }
+            return addresses;
+        };
+        Callable<List<String>> cached = () -> {
+            HdWalletDeriver deriver = new HdWalletDeriver(root);
+            int[] path = HdWalletDeriver.parsePath(HdWalletDeriver.ETHEREUM_EXTERNAL_CHAIN + "/0");
+            List<String> addresses = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                path[4] = i;
+                addresses.add(deriver.derive(path).getAddress());
+            }
+            return addresses;
+        };
+        Callable<List<String>> parallel = () -> new HdWalletDeriver(root).pool(pool)
+            .deriveAddresses(HdWalletDeriver.ETHEREUM_EXTERNAL_CHAIN, 0, count);
+        Callable<List<String>> watchOnly = () -> new HdWalletDeriver(ExtendedKey.parse(accountXpub)).pool(pool)
+            .deriveAddresses("m/0", 0, count);
+
+        List<String> expected = naive.call();
+        System.out.println("m/44'/60'/0'/0/0 = " + expected.get(0));
+        for (Callable<List<String>> task : Arrays.asList(uncached, cached, parallel, watchOnly)) {
+            if (!expected.equals(task.call())) {
+                throw new IllegalStateException("파생 결과 불일치");
+            }
+        }
+        System.out.println("결과 일치 확인 (" + count + "개 × 4가지)");
+
+        // JIT 워밍업
+        for (int i = 0; i < 2; i++) {
+            naive.call();
+            uncached.call();
+            cached.call();
+            parallel.call();
+            watchOnly.call();
+        }
+
+        double baseline = measure("Bip32ECKeyPair 전체 경로", count, rounds, naive, true);
+        double uncachedRate = measure("엔진 (캐시 없음)", count, rounds, uncached, true);
+        System.out.printf("  → %.1f배%n", uncachedRate / baseline);
+        double cachedRate = measure("엔진 (접두사 캐시)", count, rounds, cached, true);
+        System.out.printf("  → %.1f배%n", cachedRate / baseline);
+        double parallelRate = measure("엔진 (캐시 + 병렬)", count, rounds, parallel, false);
+        System.out.printf("  → %.1f배%n", parallelRate / baseline);
+        double watchOnlyRate = measure("xpub 감시 전용 (병렬)", count, rounds, watchOnly, false);
+        System.out.printf("  → %.1f배%n", watchOnlyRate / baseline);
+
+        pool.shutdown();
+    }
+
+    private static double measure(String label, int count, int rounds, Callable<List<String>> task,
+                                  boolean reportAllocation) throws Exception {
+        com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long[] nanos = new long[rounds];
+        long blackhole = 0;
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            blackhole += task.call().get(count - 1).hashCode();
+            nanos[r] = System.nanoTime() - start;
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        Arrays.sort(nanos);
+        double perSecond = count / (nanos[rounds / 2] / 1e9);
+        if (reportAllocation) {
+            System.out.printf("%-24s : %,10.0f 주소/초, 주소당 할당 %,9.1f bytes (checksum %d)%n",
+                label, perSecond, allocated / ((double) count * rounds), blackhole);
+        } else {
+            System.out.printf("%-24s : %,10.0f 주소/초 (checksum %d)%n", label, perSecond, blackhole);
+        }
+        return perSecond;
+    }
+}
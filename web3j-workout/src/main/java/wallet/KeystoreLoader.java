@@ -0,0 +1,441 @@
+package wallet;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.ECKeyPair;
+import org.web3j.crypto.Keys;
+import org.web3j.crypto.Wallet;
+import org.web3j.crypto.WalletFile;
+import org.web3j.crypto.WalletUtils;
+import org.web3j.crypto.exception.CipherException;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.utils.Numeric;
+
+/**
+ * 키스토어(JSON) 병렬 로더 + 복호화된 키 TTL 캐시
+ *
+ * MetaMaskImport / 각 main처럼 환경 변수의 개인키로 Credentials.create를 하는 대신 암호화된 키스토어 파일을 사용할 때,
+ * WalletUtils.loadCredentials로 하나씩 읽으면:
+ * - scrypt는 일부러 느리게 만든 KDF (표준 파라미터 N=262144, r=8 → 1건에 수백 ms ~ 1초, 메모리 256MB)
+ * - 서명 키 500개를 순서대로 복호화하면 서비스 시작에 수 분이 걸림
+ * - 다시 읽을 때(설정 재적재 등)도 매번 scrypt 비용을 다시 냄
+ *
+ * 이 로더:
+ * 1. 병렬 복호화 : 코어 수만큼의 스레드에서 동시에 복호화
+ * 2. 메모리 예산 : 키스토어의 scrypt 파라미터로 필요한 메모리(128·r·N + 128·r·p 바이트)를 계산하여
+ *                  memoryBudgetBytes를 넘지 않는 만큼만 동시에 실행 (KB 단위 Semaphore)
+ *                  → 표준 키스토어는 예산 1GB면 4건씩, light(N=4096) 키스토어는 스레드 수만큼 동시 실행
+ * 3. TTL 캐시  : 복호화한 개인키를 byte[]로 보관, 적재 후 ttlMillis가 지나면 제거하면서 0으로 덮어씀
+ *                (get 시점 확인 + 백그라운드 정리 스레드, close() 시 전체 삭제)
+ *                캐시에 유효한 주소의 키스토어는 다시 loadAll 해도 복호화하지 않음
+ *
+ * 주의: get()이 돌려주는 Credentials는 BigInteger 개인키를 가지므로 0으로 지울 수 없음
+ *       → 서명할 때마다 get()으로 받아 쓰고 필드 등에 오래 보관하지 않아야 캐시 TTL이 의미 있음
+ */
+public class KeystoreLoader implements AutoCloseable {
+
+    public static final long DEFAULT_TTL_MILLIS = 30 * 60 * 1000L;
+    public static final long DEFAULT_MEMORY_BUDGET_BYTES =
+        Math.min(1L << 30, Runtime.getRuntime().maxMemory() / 2);
+
+    /**
+     * 캐시 항목 (개인키 바이트를 지우는 동안 다른 스레드가 읽지 않도록 동기화)
+     */
+    private static final class Entry {
+        private final String address;
+        private final BigInteger publicKey;
+        private final long expiresAt;
+        private byte[] privateKey;
+
+        Entry(String address, byte[] privateKey, BigInteger publicKey, long expiresAt) {
+            this.address = address;
+            this.privateKey = privateKey;
+            this.publicKey = publicKey;
+            this.expiresAt = expiresAt;
+        }
+
+        synchronized Credentials credentials() {
+            if (privateKey == null) {
+                return null;
+            }
+            return Credentials.create(new ECKeyPair(new BigInteger(1, privateKey), publicKey));
+        }
+
+        synchronized void destroy() {
+            if (privateKey != null) {
+                Arrays.fill(privateKey, (byte) 0);
+                privateKey = null;
+            }
+        }
+    }
+
+    /**
+     * loadAll 결과
+     */
+    public static class LoadReport {
+        private final int requested;
+        private final int decrypted;
+        private final int cached;
+        private final Map<Path, String> failures;
+        private final long elapsedNanos;
+        private final long peakMemoryBytes;
+
+        LoadReport(int requested, int decrypted, int cached, Map<Path, String> failures,
+                   long elapsedNanos, long peakMemoryBytes) {
+            this.requested = requested;
+            this.decrypted = decrypted;
+            this.cached = cached;
+            this.failures = failures;
+            this.elapsedNanos = elapsedNanos;
+            this.peakMemoryBytes = peakMemoryBytes;
+        }
+
+        public int getRequested() {
+            return requested;
+        }
+
+        /** 이번에 scrypt / pbkdf2로 복호화한 개수 */
+        public int getDecrypted() {
+            return decrypted;
+        }
+
+        /** 캐시에 유효한 키가 있어 복호화를 건너뛴 개수 */
+        public int getCached() {
+            return cached;
+        }
+
+        /** 실패한 파일과 사유 (비밀번호 불일치, 형식 오류 등) */
+        public Map<Path, String> getFailures() {
+            return failures;
+        }
+
+        public double getElapsedSeconds() {
+            return elapsedNanos / 1e9;
+        }
+
+        public double getKeysPerSecond() {
+            return elapsedNanos == 0 ? 0 : decrypted / getElapsedSeconds();
+        }
+
+        /** 동시에 실행된 복호화가 예약한 scrypt 메모리의 최대값 */
+        public long getPeakMemoryBytes() {
+            return peakMemoryBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("요청 %d개: 복호화 %d개, 캐시 사용 %d개, 실패 %d개, %.2f초 (%.1f개/초), scrypt 메모리 최대 %,dMB",
+                requested, decrypted, cached, failures.size(), getElapsedSeconds(), getKeysPerSecond(),
+                peakMemoryBytes >> 20);
+        }
+    }
+
+    private final long ttlMillis;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private long memoryBudgetBytes = DEFAULT_MEMORY_BUDGET_BYTES;
+
+    // 통계
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong decryptions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public KeystoreLoader() {
+        this(DEFAULT_TTL_MILLIS);
+    }
+
+    public KeystoreLoader(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "keystore-cache-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepMillis = Math.max(1_000, Math.min(60_000, ttlMillis / 4));
+        sweeper.scheduleWithFixedDelay(this::evictExpired, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public KeystoreLoader threads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    public KeystoreLoader memoryBudgetBytes(long memoryBudgetBytes) {
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        return this;
+    }
+
+    /**
+     * 모든 키스토어를 같은 비밀번호로 병렬 복호화하여 캐시에 적재
+     */
+    public LoadReport loadAll(List<Path> files, String password) throws InterruptedException {
+        return loadAll(files, file -> password);
+    }
+
+    /**
+     * 키스토어마다 passwords가 돌려주는 비밀번호로 병렬 복호화하여 캐시에 적재
+     */
+    public LoadReport loadAll(List<Path> files, Function<Path, String> passwords) throws InterruptedException {
+        // 메모리 예산을 KB 단위 허가로 관리 (int 범위)
+        int budgetKb = (int) Math.max(1, Math.min(Integer.MAX_VALUE, memoryBudgetBytes >> 10));
+        Semaphore memory = new Semaphore(budgetKb, true);
+        AtomicLong reservedKb = new AtomicLong();
+        AtomicLong peakKb = new AtomicLong();
+        AtomicInteger decrypted = new AtomicInteger();
+        AtomicInteger cached = new AtomicInteger();
+        Map<Path, String> failures = new ConcurrentHashMap<>();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "keystore-loader-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>(files.size());
+            for (Path file : files) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        WalletFile walletFile = ObjectMapperFactory.getObjectMapper()
+                            .readValue(file.toFile(), WalletFile.class);
+                        if (walletFile.getAddress() != null && isCached(normalize(walletFile.getAddress()))) {
+                            cached.incrementAndGet();
+                            return null;
+                        }
+
+                        int permits = (int) Math.min(budgetKb, Math.max(1, scryptMemoryBytes(walletFile) >> 10));
+                        memory.acquire(permits);
+                        ECKeyPair keyPair;
+                        try {
+                            peakKb.accumulateAndGet(reservedKb.addAndGet(permits), Math::max);
+                            keyPair = Wallet.decrypt(passwords.apply(file), walletFile);
+                        } finally {
+                            reservedKb.addAndGet(-permits);
+                            memory.release(permits);
+                        }
+                        decryptions.incrementAndGet();
+
+                        String address = Numeric.prependHexPrefix(Keys.getAddress(keyPair));
+                        if (walletFile.getAddress() != null && !address.equals(normalize(walletFile.getAddress()))) {
+                            failures.put(file, "키스토어의 address와 복호화한 키의 주소가 다름: " + address);
+                            return null;
+                        }
+                        put(address, keyPair);
+                        decrypted.incrementAndGet();
+                    } catch (IOException | CipherException e) {
+                        failures.put(file, String.valueOf(e.getMessage()));
+                    } catch (RuntimeException e) {
+                        // crypto 필드 누락, 비밀번호 null 등 → 이 파일만 실패로 기록하고 나머지는 계속 적재
+                        failures.put(file, e.toString());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("키스토어 적재 실패", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new LoadReport(files.size(), decrypted.get(), cached.get(), new LinkedHashMap<>(failures),
+            elapsed, peakKb.get() << 10);
+    }
+
+    /**
+     * scrypt 메모리 사용량 (pbkdf2 키스토어는 0)
+     */
+    static long scryptMemoryBytes(WalletFile walletFile) {
+        Object params = walletFile.getCrypto().getKdfparams(); // KdfParams 인터페이스는 패키지 전용
+        if (!(params instanceof WalletFile.ScryptKdfParams)) {
+            return 0;
+        }
+        WalletFile.ScryptKdfParams scrypt = (WalletFile.ScryptKdfParams) params;
+        return 128L * scrypt.getR() * scrypt.getN() + 128L * scrypt.getR() * scrypt.getP();
+    }
+
+    private void put(String address, ECKeyPair keyPair) {
+        Entry entry = new Entry(address, Numeric.toBytesPadded(keyPair.getPrivateKey(), 32), keyPair.getPublicKey(),
+            System.currentTimeMillis() + ttlMillis);
+        Entry previous = entries.put(address, entry);
+        if (previous != null) {
+            previous.destroy();
+        }
+    }
+
+    private boolean isCached(String address) {
+        Entry entry = entries.get(address);
+        return entry != null && !expire(entry, System.currentTimeMillis());
+    }
+
+    /**
+     * 캐시된 서명 키 (없거나 TTL이 지났으면 null → 다시 loadAll 필요)
+     */
+    public Credentials get(String address) {
+        Entry entry = entries.get(normalize(address));
+        Credentials credentials = null;
+        if (entry != null && !expire(entry, System.currentTimeMillis())) {
+            credentials = entry.credentials();
+        }
+        if (credentials == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return credentials;
+    }
+
+    /**
+     * 캐시 중인 주소 목록
+     */
+    public List<String> getAddresses() {
+        return Collections.unmodifiableList(new ArrayList<>(entries.keySet()));
+    }
+
+    /**
+     * 키 하나를 즉시 제거 (0으로 덮어씀)
+     */
+    public void invalidate(String address) {
+        Entry entry = entries.remove(normalize(address));
+        if (entry != null) {
+            entry.destroy();
+        }
+    }
+
+    /**
+     * TTL이 지났으면 제거하고 true
+     */
+    private boolean expire(Entry entry, long now) {
+        if (now < entry.expiresAt) {
+            return false;
+        }
+        if (entries.remove(entry.address, entry)) {
+            expirations.incrementAndGet();
+        }
+        entry.destroy();
+        return true;
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        for (Entry entry : entries.values()) {
+            expire(entry, now);
+        }
+    }
+
+    private static String normalize(String address) {
+        return Numeric.prependHexPrefix(address).toLowerCase();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getDecryptionCount() {
+        return decryptions.get();
+    }
+
+    public long getExpirationCount() {
+        return expirations.get();
+    }
+
+    /**
+     * 정리 스레드를 멈추고 캐시의 모든 키를 0으로 덮어씀
+     */
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+        for (String address : new ArrayList<>(entries.keySet())) {
+            invalidate(address);
+        }
+    }
+
+    /**
+     * 키스토어 디렉터리의 *.json 파일을 모두 적재하는 예시
+     *
+     * 실행 인자 (선택): [키스토어 디렉터리]
+     * - 없으면 임시 디렉터리에 light(N=4096) 키스토어 32개를 만들어 사용
+     * 비밀번호: 환경 변수 KEYSTORE_PASSWORD
+     */
+    public static void main(String[] args) throws Exception {
+        String password = System.getenv("KEYSTORE_PASSWORD");
+        if (password == null || password.isEmpty()) {
+            throw new IllegalStateException("환경 변수 KEYSTORE_PASSWORD가 필요함");
+        }
+
+        Path directory;
+        if (args.length > 0) {
+            directory = Path.of(args[0]);
+        } else {
+            directory = Files.createTempDirectory("keystores");
+            for (int i = 0; i < 32; i++) {
+                WalletUtils.generateLightNewWalletFile(password, directory.toFile());
+            }
+            System.out.println("예시 키스토어 32개 생성: " + directory);
+        }
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(path -> path.toString().endsWith(".json")).sorted().collect(Collectors.toList());
+        }
+
+        // 비교 기준: WalletUtils.loadCredentials 순차 (앞 4개)
+        int sample = Math.min(4, files.size());
+        long start = System.nanoTime();
+        for (int i = 0; i < sample; i++) {
+            WalletUtils.loadCredentials(password, files.get(i).toFile());
+        }
+        double sequentialSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("순차 loadCredentials : %.1f개/초 (%d개 기준)%n", sample / sequentialSeconds, sample);
+
+        try (KeystoreLoader loader = new KeystoreLoader()) {
+            LoadReport first = loader.loadAll(files, password);
+            System.out.println("병렬 적재           : " + first);
+            first.getFailures().forEach((file, reason) -> System.out.println("  실패 " + file + " - " + reason));
+
+            LoadReport second = loader.loadAll(files, password);
+            System.out.println("다시 적재           : " + second);
+
+            String address = loader.getAddresses().get(0);
+            System.out.println("서명 키 조회: " + loader.get(address).getAddress()
+                + " (적중 " + loader.getHitCount() + ", 복호화 " + loader.getDecryptionCount() + "회)");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package contractdeployment.web3j;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.http.HttpService;
+import rpc.StubChainData;
+import rpc.StubRpcNode;
+
+class ERC20BalanceCacheTest {
+
+    private static final String TOKEN_A = "0x" + "aa".repeat(20);
+    private static final String TOKEN_B = "0x" + "bb".repeat(20);
+    private static final String HOLDER = "0x" + "11".repeat(20);
+    private static final String OTHER = "0x" + "22".repeat(20);
+
+    // eth_getLogs 호출마다 address 필터
+    private final List<List<String>> logFilters = new CopyOnWriteArrayList<>();
+    private final List<Object> nextLogs = new CopyOnWriteArrayList<>();
+
+    private StubRpcNode node() throws Exception {
+        return new StubRpcNode(0, (method, params) -> {
+            switch (method) {
+                case "eth_call":
+                    // Multicall3 → 빈 결과 (개별 eth_call로 대체), 토큰 → 잔액 5
+                    if (params.path(0).path("to").asText().equalsIgnoreCase(ERC20MulticallReader.MULTICALL3_ADDRESS)) {
+                        return "0x";
+                    }
+                    return "0x" + "0".repeat(63) + "5";
+                case "eth_getLogs":
+                    List<String> addresses = new ArrayList<>();
+                    params.path(0).path("address").forEach(address -> addresses.add(address.asText()));
+                    logFilters.add(addresses);
+                    List<Object> logs = new ArrayList<>(nextLogs);
+                    nextLogs.clear();
+                    return logs;
+                default:
+                    throw new StubRpcNode.StubRpcException(-32601, method);
+            }
+        });
+    }
+
+    @Test
+    void evictedTokenLeavesLogFilter() throws Exception {
+        try (StubRpcNode node = node()) {
+            Web3j web3 = Web3j.build(new HttpService(node.getUrl()));
+            ERC20BalanceCache cache = new ERC20BalanceCache(web3, BigInteger.valueOf(100), 1);
+
+            assertEquals(BigInteger.valueOf(5), cache.getBalance(TOKEN_A, HOLDER));
+            assertEquals(BigInteger.valueOf(5), cache.getBalance(TOKEN_B, HOLDER));
+            assertEquals(1, cache.getEvictionCount());
+
+            cache.onNewBlock(BigInteger.valueOf(101));
+            assertEquals(List.of(List.of(TOKEN_B)), logFilters);
+            web3.shutdown();
+        }
+    }
+
+    @Test
+    void invalidatedTokenLeavesLogFilter() throws Exception {
+        try (StubRpcNode node = node()) {
+            Web3j web3 = Web3j.build(new HttpService(node.getUrl()));
+            ERC20BalanceCache cache = new ERC20BalanceCache(web3, BigInteger.valueOf(100));
+
+            cache.getBalance(TOKEN_A, HOLDER);
+            nextLogs.add(StubChainData.transferLog(TOKEN_A, 101, 0, HOLDER, OTHER, BigInteger.ONE));
+            cache.onNewBlock(BigInteger.valueOf(101));
+            assertEquals(0, cache.size());
+
+            // 남은 항목이 없으면 로그 조회 없이 블록만 진행
+            cache.onNewBlock(BigInteger.valueOf(102));
+            assertEquals(1, logFilters.size());
+            assertEquals(BigInteger.valueOf(102), cache.getCurrentBlock());
+
+            // 다시 조회한 토큰은 필터에 돌아옴
+            cache.getBalance(TOKEN_A, HOLDER);
+            cache.onNewBlock(BigInteger.valueOf(103));
+            assertEquals(List.of(TOKEN_A), logFilters.get(1));
+            web3.shutdown();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package wallet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.web3j.crypto.Sign;
+import org.web3j.utils.Numeric;
+
+class FixedBasePublicKeyDeriverTest {
+
+    private static final BigInteger N = Sign.CURVE_PARAMS.getN();
+
+    @Test
+    void randomKeysMatchSign() {
+        Random random = new Random(7);
+        for (int i = 0; i < 2_000; i++) {
+            BigInteger key = new BigInteger(256, random).mod(N);
+            if (key.signum() == 0) {
+                continue;
+            }
+            assertEquals(Sign.publicKeyFromPrivate(key), FixedBasePublicKeyDeriver.publicKeyFromPrivate(key),
+                "key " + key.toString(16));
+        }
+    }
+
+    @Test
+    void boundaryKeysMatchSign() {
+        BigInteger[] keys = {
+            BigInteger.ONE, BigInteger.TWO, BigInteger.valueOf(255), BigInteger.valueOf(256),
+            N.subtract(BigInteger.ONE), N.subtract(BigInteger.TWO), N.shiftRight(1),
+            BigInteger.ONE.shiftLeft(248), BigInteger.valueOf(255).shiftLeft(248)
+        };
+        for (BigInteger key : keys) {
+            assertEquals(Sign.publicKeyFromPrivate(key), FixedBasePublicKeyDeriver.publicKeyFromPrivate(key),
+                "key " + key.toString(16));
+        }
+    }
+
+    @Test
+    void keysAtOrAboveOrderAreReducedModN() {
+        BigInteger[] keys = {
+            N.add(BigInteger.ONE), N.add(BigInteger.valueOf(5)), BigInteger.ONE.shiftLeft(256).subtract(BigInteger.ONE)
+        };
+        for (BigInteger key : keys) {
+            assertEquals(Sign.publicKeyFromPrivate(key.mod(N)), FixedBasePublicKeyDeriver.publicKeyFromPrivate(key),
+                "key " + key.toString(16));
+
+            byte[] out = new byte[64];
+            assertTrue(FixedBasePublicKeyDeriver.publicKeyFromPrivate(Numeric.toBytesPadded(key, 32), out));
+            assertArrayEquals(Numeric.toBytesPadded(Sign.publicKeyFromPrivate(key.mod(N)), 64), out);
+        }
+    }
+
+    @Test
+    void byteArrayApiMatchesBigIntegerApi() {
+        Random random = new Random(11);
+        byte[] out = new byte[64];
+        for (int i = 0; i < 500; i++) {
+            BigInteger key = new BigInteger(256, random).mod(N);
+            if (key.signum() == 0) {
+                continue;
+            }
+            assertTrue(FixedBasePublicKeyDeriver.publicKeyFromPrivate(Numeric.toBytesPadded(key, 32), out));
+            assertArrayEquals(Numeric.toBytesPadded(Sign.publicKeyFromPrivate(key), 64), out);
+        }
+    }
+
+    @Test
+    void zeroAndOrderHaveNoPublicKey() {
+        byte[] out = new byte[64];
+        assertFalse(FixedBasePublicKeyDeriver.publicKeyFromPrivate(new byte[32], out));
+        assertFalse(FixedBasePublicKeyDeriver.publicKeyFromPrivate(Numeric.toBytesPadded(N, 32), out));
+    }
+
+    @Test
+    void rejectsWrongLengths() {
+        assertThrows(IllegalArgumentException.class,
+            () -> FixedBasePublicKeyDeriver.publicKeyFromPrivate(new byte[31], new byte[64]));
+        assertThrows(IllegalArgumentException.class,
+            () -> FixedBasePublicKeyDeriver.publicKeyFromPrivate(new byte[33], new byte[64]));
+        assertThrows(IllegalArgumentException.class,
+            () -> FixedBasePublicKeyDeriver.publicKeyFromPrivate(new byte[32], new byte[63]));
+    }
+}